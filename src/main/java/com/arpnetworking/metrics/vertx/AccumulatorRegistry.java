@@ -0,0 +1,342 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Registry of long-lived accumulators for metrics recorded far too often to
+ * open and close a {@link Metrics} instance per operation, for example cache
+ * hits on an event loop. Counters are backed by {@link java.util.concurrent.atomic.LongAdder},
+ * gauges by an atomic value and timers by lock-free log-linear buckets, so
+ * recording is lock-free and allocation free. Callers should resolve each
+ * accumulator once rather than per use.
+ *
+ * The accumulated values are drained into a single {@link Metrics} instance
+ * created from the {@link MetricsFactory}, for example a
+ * {@link SharedMetricsFactory}, periodically if a {@link Vertx} instance is
+ * set and when the registry is closed. Counters and timers are reset when
+ * drained; gauges record their last value. Timers are recorded as described
+ * for {@link AggregatingVertxMetrics}. Draining on an event loop records to
+ * the sinks of the {@link MetricsFactory}, which should therefore not block;
+ * see {@link AsyncSink}.
+ *
+ * The periodic drain runs on an event loop context of its own rather than
+ * on the context of the caller which built the registry, so it is not
+ * cancelled when that caller's verticle is undeployed.
+ *
+ * Instances are thread-safe and {@link Shareable}; verticles may share an
+ * instance with {@link #getShared(Vertx, String, Supplier)}. Each caller
+ * holds a reference to the shared instance which it releases by closing it;
+ * the registry stops draining and drains the remaining values only once the
+ * last reference is released.
+ *
+ * @author agent (agent at local)
+ */
+public final class AccumulatorRegistry implements Shareable, AutoCloseable {
+
+    /**
+     * Acquires a reference to the registry with the name shared by every
+     * caller on the Vertx instance, creating it with the supplier if it does
+     * not exist yet or all references to it were released. The caller must
+     * release its reference by closing the registry exactly once.
+     *
+     * @param vertx The {@link Vertx} instance whose shared data holds the registry.
+     * @param name The name of the registry.
+     * @param factory The {@link Supplier} of the registry if it is created.
+     * @return The shared instance of {@link AccumulatorRegistry}.
+     */
+    public static AccumulatorRegistry getShared(final Vertx vertx, final String name, final Supplier<AccumulatorRegistry> factory) {
+        final LocalMap<String, AccumulatorRegistry> sharedState = vertx.sharedData().getLocalMap(SHARED_STATE_MAP_NAME);
+        return sharedState.compute(name, (key, existing) -> {
+            if (existing != null) {
+                existing._references.incrementAndGet();
+                return existing;
+            }
+            final AccumulatorRegistry registry = factory.get();
+            registry._sharedState = sharedState;
+            registry._sharedName = key;
+            return registry;
+        });
+    }
+
+    /**
+     * Returns the {@link PipelineInstrumentation.Counter} with the given name,
+     * creating it if necessary.
+     *
+     * @param name The name of the counter.
+     * @return The {@link PipelineInstrumentation.Counter}.
+     */
+    public PipelineInstrumentation.Counter getCounter(final String name) {
+        return _counters.computeIfAbsent(name, k -> new PipelineInstrumentation.Counter());
+    }
+
+    /**
+     * Returns the {@link PipelineInstrumentation.Timer} with the given name,
+     * creating it if necessary. Durations are recorded in nanoseconds.
+     *
+     * @param name The name of the timer.
+     * @return The {@link PipelineInstrumentation.Timer}.
+     */
+    public PipelineInstrumentation.Timer getTimer(final String name) {
+        return _timers.computeIfAbsent(name, k -> new PipelineInstrumentation.Timer());
+    }
+
+    /**
+     * Returns the {@link Gauge} with the given name, creating it if necessary.
+     *
+     * @param name The name of the gauge.
+     * @return The {@link Gauge}.
+     */
+    public Gauge getGauge(final String name) {
+        return _gauges.computeIfAbsent(name, k -> new Gauge());
+    }
+
+    /**
+     * Records the values accumulated since the last drain to a new
+     * {@link Metrics} instance and resets the counters and timers.
+     */
+    public void drain() {
+        try {
+            final Metrics metrics = _metricsFactory.create();
+            try {
+                for (final Map.Entry<String, PipelineInstrumentation.Counter> entry : _counters.entrySet()) {
+                    metrics.incrementCounter(entry.getKey(), entry.getValue().reset());
+                }
+                for (final Map.Entry<String, PipelineInstrumentation.Timer> entry : _timers.entrySet()) {
+                    final Histogram histogram = entry.getValue().reset();
+                    if (histogram.getCount() > 0) {
+                        AggregatingVertxMetrics.recordTimer(metrics, entry.getKey(), histogram, _recordHistograms);
+                    }
+                }
+                for (final Map.Entry<String, Gauge> entry : _gauges.entrySet()) {
+                    final double value = entry.getValue().get();
+                    if (!Double.isNaN(value)) {
+                        metrics.setGauge(entry.getKey(), value);
+                    }
+                }
+            } finally {
+                metrics.close();
+            }
+            // CHECKSTYLE.OFF: IllegalCatch - Metrics must not fail the caller
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            LOGGER.warn("Failed to drain accumulators.", e);
+        }
+    }
+
+    /**
+     * Releases a reference to the registry. Releasing the last reference
+     * stops periodic draining, removes a shared registry from the shared
+     * data and drains the remaining values.
+     */
+    @Override
+    public void close() {
+        final LocalMap<String, AccumulatorRegistry> sharedState = _sharedState;
+        final boolean last;
+        if (sharedState == null) {
+            last = release();
+        } else {
+            // Released under the lock of the shared entry so a concurrent caller cannot acquire a released registry
+            final AtomicBoolean released = new AtomicBoolean();
+            sharedState.compute(_sharedName, (key, existing) -> {
+                if (release()) {
+                    released.set(true);
+                    return existing == this ? null : existing;
+                }
+                return existing;
+            });
+            last = released.get();
+        }
+        if (!last) {
+            return;
+        }
+        if (_vertx != null) {
+            _vertx.cancelTimer(_timerId);
+        }
+        drain();
+    }
+
+    private boolean release() {
+        int references;
+        do {
+            references = _references.get();
+            if (references == 0) {
+                return false;
+            }
+        } while (!_references.compareAndSet(references, references - 1));
+        return references == 1;
+    }
+
+    private AccumulatorRegistry(final Builder builder) {
+        _metricsFactory = builder._metricsFactory;
+        _recordHistograms = builder._recordHistograms;
+        _vertx = builder._vertx;
+        if (_vertx != null) {
+            // Owned by a context of its own so that undeploying the caller does not cancel it
+            _timerId = ((VertxInternal) _vertx).createEventLoopContext().setPeriodic(builder._drainInterval.toMillis(), id -> drain());
+        }
+    }
+
+    private final MetricsFactory _metricsFactory;
+    private final boolean _recordHistograms;
+    private final Vertx _vertx;
+    private final ConcurrentMap<String, PipelineInstrumentation.Counter> _counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PipelineInstrumentation.Timer> _timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge> _gauges = new ConcurrentHashMap<>();
+    private final AtomicInteger _references = new AtomicInteger(1);
+    private long _timerId;
+    private volatile LocalMap<String, AccumulatorRegistry> _sharedState;
+    private volatile String _sharedName;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccumulatorRegistry.class);
+    private static final String SHARED_STATE_MAP_NAME = "com.arpnetworking.metrics.vertx.AccumulatorRegistry";
+
+    /**
+     * Gauge of the last value set. A gauge which was never set is not recorded.
+     */
+    public static final class Gauge {
+
+        /**
+         * Sets the value.
+         *
+         * @param value The value.
+         */
+        public void set(final double value) {
+            _bits.set(Double.doubleToRawLongBits(value));
+        }
+
+        /**
+         * Adds to the value; a gauge which was never set is first set to zero.
+         *
+         * @param delta The amount to add.
+         */
+        public void add(final double delta) {
+            long current;
+            double value;
+            do {
+                current = _bits.get();
+                value = Double.longBitsToDouble(current);
+            } while (!_bits.compareAndSet(current, Double.doubleToRawLongBits((Double.isNaN(value) ? 0 : value) + delta)));
+        }
+
+        double get() {
+            return Double.longBitsToDouble(_bits.get());
+        }
+
+        Gauge() {}
+
+        private final AtomicLong _bits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+    }
+
+    /**
+     * Builder class for {@link AccumulatorRegistry}.
+     */
+    public static final class Builder {
+
+        /**
+         * Create an instance of {@link AccumulatorRegistry}.
+         *
+         * @return Instance of {@link AccumulatorRegistry}.
+         */
+        public AccumulatorRegistry build() {
+            if (_metricsFactory == null) {
+                throw new IllegalArgumentException("MetricsFactory cannot be null.");
+            }
+            if (_drainInterval == null || _drainInterval.isNegative() || _drainInterval.isZero()) {
+                throw new IllegalArgumentException("DrainInterval cannot be null or non-positive.");
+            }
+            if (_recordHistograms == null) {
+                throw new IllegalArgumentException("RecordHistograms cannot be null.");
+            }
+            return new AccumulatorRegistry(this);
+        }
+
+        /**
+         * Sets the {@link MetricsFactory} the accumulated values are drained
+         * to. Required. Cannot be null.
+         *
+         * @param value The {@link MetricsFactory}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMetricsFactory(final MetricsFactory value) {
+            _metricsFactory = value;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Vertx} instance used to drain periodically. If not
+         * set, the registry is only drained when {@link #drain()} is invoked
+         * or it is closed. Optional. Default is null.
+         *
+         * @param value The {@link Vertx} instance.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setVertx(final Vertx value) {
+            _vertx = value;
+            return this;
+        }
+
+        /**
+         * Sets the interval at which to drain. Optional. Default is one minute.
+         *
+         * @param value The drain interval.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setDrainInterval(final Duration value) {
+            _drainInterval = value;
+            return this;
+        }
+
+        /**
+         * Sets whether timers are recorded as histograms rather than as
+         * summary statistics when the {@link MetricsFactory} creates
+         * {@link com.arpnetworking.metrics.impl.TsdMetrics} instances. The
+         * sinks of the {@link MetricsFactory} must support aggregated data;
+         * {@link EventBusSink} does not. Optional. Default is false.
+         *
+         * @param value Whether to record timers as histograms.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRecordHistograms(final Boolean value) {
+            _recordHistograms = value;
+            return this;
+        }
+
+        private MetricsFactory _metricsFactory;
+        private Vertx _vertx;
+        private Duration _drainInterval = DEFAULT_DRAIN_INTERVAL;
+        private Boolean _recordHistograms = false;
+
+        private static final Duration DEFAULT_DRAIN_INTERVAL = Duration.ofMinutes(1);
+    }
+}
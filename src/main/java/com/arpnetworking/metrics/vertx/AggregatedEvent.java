@@ -0,0 +1,149 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link Event} holding its timer samples in a {@link Histogram}
+ * per timer. These are produced by {@link EventAggregator}, which summarizes the
+ * events recorded with the same annotations over a window such that each counter
+ * and gauge has a single sample holding its aggregate, and by {@link #copyOf(Event, int)}
+ * for example to publish events with many timer samples compactly.
+ *
+ * Sinks aware of this implementation may read the histograms through
+ * {@link #getTimerHistograms()} and merge them without expanding their samples.
+ * For all other sinks {@link #getTimerSamples()} provides views which repeat
+ * the midpoint of each bucket, limited to the minimum and maximum recorded,
+ * once per sample, so that the number of samples is preserved; the views are
+ * only created on first use and their size in memory depends on the number of
+ * buckets rather than samples. The JSON representation contains one
+ * {@link CountedQuantity} per bucket instead of the repeated samples.
+ *
+ * @author agent (agent at local)
+ */
+public final class AggregatedEvent implements Event {
+
+    /**
+     * Creates a copy of an event holding its timer samples in histograms.
+     * Samples without a value are ignored and a {@link CountedQuantity} is
+     * recorded as its number of samples. An {@link AggregatedEvent} is
+     * returned as is.
+     *
+     * @param event The {@link Event} to copy.
+     * @param precision The number of mantissa bits retained by the histogram buckets.
+     * @return The {@link AggregatedEvent}.
+     */
+    public static AggregatedEvent copyOf(final Event event, final int precision) {
+        if (event instanceof AggregatedEvent) {
+            return (AggregatedEvent) event;
+        }
+        final Map<String, Histogram> timerHistograms = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<Quantity>> entry : event.getTimerSamples().entrySet()) {
+            final Histogram histogram = new Histogram(precision);
+            for (final Quantity quantity : ExpandedSampleList.compact(entry.getValue())) {
+                if (quantity != null && quantity.getValue() != null) {
+                    histogram.record(quantity.getValue().doubleValue(), CountedQuantity.countOf(quantity));
+                }
+            }
+            timerHistograms.put(entry.getKey(), histogram);
+        }
+        return new AggregatedEvent(
+                event.getAnnotations(),
+                timerHistograms,
+                event.getCounterSamples(),
+                event.getGaugeSamples());
+    }
+
+    @Override
+    public Map<String, String> getAnnotations() {
+        return _annotations;
+    }
+
+    /**
+     * Accessor for the timer histograms. The histograms must not be modified.
+     *
+     * @return Timer histograms by timer name.
+     */
+    @JsonIgnore
+    public Map<String, Histogram> getTimerHistograms() {
+        return _timerHistograms;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getTimerSamples() {
+        Map<String, List<Quantity>> timerSamples = _timerSamples;
+        if (timerSamples == null) {
+            final Map<String, List<Quantity>> samples = new LinkedHashMap<>();
+            for (final Map.Entry<String, Histogram> entry : _timerHistograms.entrySet()) {
+                final Histogram.Buckets buckets = entry.getValue().getBuckets();
+                final List<Quantity> quantities = new ArrayList<>(buckets.size());
+                for (int i = 0; i < buckets.size(); ++i) {
+                    quantities.add(CountedQuantity.newInstance(buckets.getMidpoint(i), buckets.getCount(i)));
+                }
+                samples.put(entry.getKey(), new ExpandedSampleList(quantities));
+            }
+            timerSamples = Collections.unmodifiableMap(samples);
+            _timerSamples = timerSamples;
+        }
+        return timerSamples;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getCounterSamples() {
+        return _counterSamples;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getGaugeSamples() {
+        return _gaugeSamples;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "AggregatedEvent{Annotations=%s, TimerHistograms=%s, CounterSamples=%s, GaugeSamples=%s}",
+                _annotations,
+                _timerHistograms,
+                _counterSamples,
+                _gaugeSamples);
+    }
+
+    AggregatedEvent(
+            final Map<String, String> annotations,
+            final Map<String, Histogram> timerHistograms,
+            final Map<String, List<Quantity>> counterSamples,
+            final Map<String, List<Quantity>> gaugeSamples) {
+        _annotations = Collections.unmodifiableMap(annotations);
+        _timerHistograms = Collections.unmodifiableMap(timerHistograms);
+        _counterSamples = Collections.unmodifiableMap(counterSamples);
+        _gaugeSamples = Collections.unmodifiableMap(gaugeSamples);
+    }
+
+    private final Map<String, String> _annotations;
+    private final Map<String, Histogram> _timerHistograms;
+    private final Map<String, List<Quantity>> _counterSamples;
+    private final Map<String, List<Quantity>> _gaugeSamples;
+    private volatile Map<String, List<Quantity>> _timerSamples;
+}
@@ -0,0 +1,631 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.impl.AugmentedHistogram;
+import com.arpnetworking.metrics.impl.TsdMetrics;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.spi.metrics.ClientMetrics;
+import io.vertx.core.spi.metrics.EventBusMetrics;
+import io.vertx.core.spi.metrics.HttpClientMetrics;
+import io.vertx.core.spi.metrics.HttpServerMetrics;
+import io.vertx.core.spi.metrics.PoolMetrics;
+import io.vertx.core.spi.metrics.TCPMetrics;
+import io.vertx.core.spi.metrics.VertxMetrics;
+import io.vertx.core.spi.observability.HttpRequest;
+import io.vertx.core.spi.observability.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the Vert.x metrics SPI which aggregates HTTP server and
+ * client, event bus, pool and TCP metrics in-process and periodically records
+ * them to a {@link Metrics} instance created from a {@link MetricsFactory}.
+ * Recorders are resolved once when Vert.x creates the metrics of a server,
+ * client, pool or the event bus; the callbacks themselves only update
+ * lock-free counters, gauges and timers and, for requests and pool tasks,
+ * carry the start time.
+ *
+ * Timers are aggregated with nanosecond resolution and a relative error of at
+ * most one eighth. By default each timer is recorded as summary statistics:
+ * the number of samples as a counter and the minimum, mean, median, 99th
+ * percentile and maximum as timers, named after the timer with the suffixes
+ * "/count", "/min", "/mean", "/p50", "/p99" and "/max". The cost of a flush
+ * therefore does not grow with the number of samples. If histograms are enabled and the {@link MetricsFactory} creates
+ * {@link TsdMetrics} instances the timers are instead recorded as histograms;
+ * only enable this if the sinks of the {@link MetricsFactory} support
+ * aggregated data. Gauges are sampled when recorded. Recording
+ * takes place on an event loop, so the sinks of the {@link MetricsFactory}
+ * should not block; see {@link AsyncSink}.
+ *
+ * Instances are created by {@link AggregatingVertxMetricsFactory}.
+ *
+ * @author agent (agent at local)
+ */
+public final class AggregatingVertxMetrics implements VertxMetrics {
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return true;
+    }
+
+    @Override
+    public void vertxCreated(final Vertx vertx) {
+        _vertx = vertx;
+        _timerId = vertx.setPeriodic(_flushInterval.toMillis(), id -> flush());
+    }
+
+    @Override
+    public EventBusMetrics<?> createEventBusMetrics() {
+        return new EventBusRecorder(this, PREFIX + "event_bus/");
+    }
+
+    @Override
+    public HttpServerMetrics<?, ?, ?> createHttpServerMetrics(final HttpServerOptions options, final SocketAddress localAddress) {
+        return new HttpServerRecorder(this, PREFIX + "http_server/");
+    }
+
+    @Override
+    public HttpClientMetrics<?, ?, ?> createHttpClientMetrics(final HttpClientOptions options) {
+        return new HttpClientRecorder(this, PREFIX + "http_client/");
+    }
+
+    @Override
+    public ClientMetrics<?, ?, ?> createClientMetrics(final SocketAddress remoteAddress, final String type, final String namespace) {
+        return new RequestRecorder(this, PREFIX + "client/" + type + "/");
+    }
+
+    @Override
+    public TCPMetrics<?> createNetServerMetrics(final NetServerOptions options, final SocketAddress localAddress) {
+        return new TcpRecorder(this, PREFIX + "net_server/");
+    }
+
+    @Override
+    public TCPMetrics<?> createNetClientMetrics(final NetClientOptions options) {
+        return new TcpRecorder(this, PREFIX + "net_client/");
+    }
+
+    @Override
+    public PoolMetrics<?, ?> createPoolMetrics(final String poolType, final String poolName, final int maxPoolSize) {
+        final String prefix = PREFIX + "pool/" + poolType + "/" + poolName + "/";
+        getGauge(prefix + "max_size").reset(maxPoolSize);
+        return new PoolRecorder(this, prefix);
+    }
+
+    /**
+     * Records the metrics aggregated since the last flush and resets them.
+     * Invoked periodically once Vert.x has been created and when it is closed.
+     */
+    public void flush() {
+        try {
+            final Metrics metrics = _metricsFactory.create();
+            try {
+                for (final Map.Entry<String, PipelineInstrumentation.Counter> entry : _counters.entrySet()) {
+                    metrics.incrementCounter(entry.getKey(), entry.getValue().reset());
+                }
+                for (final Map.Entry<String, PipelineInstrumentation.Timer> entry : _timers.entrySet()) {
+                    final Histogram histogram = entry.getValue().reset();
+                    if (histogram.getCount() > 0) {
+                        recordTimer(metrics, entry.getKey(), histogram, _recordHistograms);
+                    }
+                }
+                for (final Map.Entry<String, Gauge> entry : _gauges.entrySet()) {
+                    metrics.setGauge(entry.getKey(), entry.getValue().get());
+                }
+            } finally {
+                metrics.close();
+            }
+            // CHECKSTYLE.OFF: IllegalCatch - Metrics must not fail the caller
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            LOGGER.warn("Failed to flush Vert.x metrics.", e);
+        }
+    }
+
+    /**
+     * Stops periodic flushing and flushes the remaining metrics.
+     */
+    @Override
+    public void close() {
+        if (_vertx != null) {
+            _vertx.cancelTimer(_timerId);
+        }
+        flush();
+    }
+
+    PipelineInstrumentation.Counter getCounter(final String name) {
+        return _counters.computeIfAbsent(name, k -> new PipelineInstrumentation.Counter());
+    }
+
+    PipelineInstrumentation.Timer getTimer(final String name) {
+        return _timers.computeIfAbsent(name, k -> new PipelineInstrumentation.Timer());
+    }
+
+    Gauge getGauge(final String name) {
+        return _gauges.computeIfAbsent(name, k -> new Gauge());
+    }
+
+    /**
+     * Records the histogram of a timer in nanoseconds to the {@link Metrics}
+     * instance either as a histogram or as summary statistics.
+     */
+    static void recordTimer(
+            final Metrics metrics,
+            final String name,
+            final Histogram histogram,
+            final boolean recordHistograms) {
+        if (recordHistograms && metrics instanceof TsdMetrics) {
+            // Timer samples are recorded in seconds; the buckets are converted by their midpoints
+            final Histogram.Buckets buckets = histogram.getBuckets();
+            final double[] values = new double[buckets.size()];
+            final long[] counts = new long[buckets.size()];
+            for (int i = 0; i < buckets.size(); ++i) {
+                values[i] = buckets.getMidpoint(i) / NANOS_PER_SECOND;
+                counts[i] = buckets.getCount(i);
+            }
+            final Histogram seconds = new Histogram(
+                    histogram.getPrecision(),
+                    values,
+                    counts,
+                    histogram.getSum() / NANOS_PER_SECOND,
+                    histogram.getMin() / NANOS_PER_SECOND,
+                    histogram.getMax() / NANOS_PER_SECOND);
+            final Histogram.Buckets secondsBuckets = seconds.getBuckets();
+            final Map<Double, Long> secondsValues = new LinkedHashMap<>();
+            for (int i = 0; i < secondsBuckets.size(); ++i) {
+                secondsValues.put(secondsBuckets.getValue(i), secondsBuckets.getCount(i));
+            }
+            ((TsdMetrics) metrics).recordAggregatedData(
+                    name,
+                    new AugmentedHistogram.Builder()
+                            .setHistogram(secondsValues)
+                            .setPrecision(seconds.getPrecision())
+                            .setMinimum(seconds.getMin())
+                            .setMaximum(seconds.getMax())
+                            .setSum(seconds.getSum())
+                            .build());
+        } else {
+            metrics.incrementCounter(name + "/count", histogram.getCount());
+            recordNanoseconds(metrics, name + "/min", histogram.getMin());
+            recordNanoseconds(metrics, name + "/mean", histogram.getSum() / histogram.getCount());
+            recordNanoseconds(metrics, name + "/p50", histogram.getQuantile(0.5));
+            recordNanoseconds(metrics, name + "/p99", histogram.getQuantile(0.99));
+            recordNanoseconds(metrics, name + "/max", histogram.getMax());
+        }
+    }
+
+    private static void recordNanoseconds(final Metrics metrics, final String name, final double nanoseconds) {
+        metrics.setTimer(name, Math.round(nanoseconds), TimeUnit.NANOSECONDS);
+    }
+
+    AggregatingVertxMetrics(final MetricsFactory metricsFactory, final Duration flushInterval, final boolean recordHistograms) {
+        _metricsFactory = metricsFactory;
+        _flushInterval = flushInterval;
+        _recordHistograms = recordHistograms;
+    }
+
+    private final MetricsFactory _metricsFactory;
+    private final Duration _flushInterval;
+    private final boolean _recordHistograms;
+    private final ConcurrentMap<String, PipelineInstrumentation.Counter> _counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PipelineInstrumentation.Timer> _timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge> _gauges = new ConcurrentHashMap<>();
+    private volatile Vertx _vertx;
+    private volatile long _timerId;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregatingVertxMetrics.class);
+    private static final String PREFIX = "vertx/";
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Gauge of a current value such as the number of open connections.
+     */
+    static final class Gauge {
+
+        void increment() {
+            _value.increment();
+        }
+
+        void decrement() {
+            _value.decrement();
+        }
+
+        long get() {
+            return _value.sum();
+        }
+
+        void reset(final long value) {
+            _value.reset();
+            _value.add(value);
+        }
+
+        private final LongAdder _value = new LongAdder();
+    }
+
+    /**
+     * Start time of a request or pool task.
+     */
+    static final class Timing {
+
+        Timing() {
+            _start = System.nanoTime();
+        }
+
+        long elapsed() {
+            return System.nanoTime() - _start;
+        }
+
+        private final long _start;
+    }
+
+    /**
+     * Recorder of event bus metrics.
+     */
+    private static final class EventBusRecorder implements EventBusMetrics<Object> {
+
+        @Override
+        public Object handlerRegistered(final String address) {
+            _handlers.increment();
+            return null;
+        }
+
+        @Override
+        public void handlerUnregistered(final Object handler) {
+            _handlers.decrement();
+        }
+
+        @Override
+        public void scheduleMessage(final Object handler, final boolean local) {
+            _pending.increment();
+        }
+
+        @Override
+        public void messageDelivered(final Object handler, final boolean local) {
+            _pending.decrement();
+            _delivered.increment();
+        }
+
+        @Override
+        public void discardMessage(final Object handler, final boolean local, final Message<?> message) {
+            _pending.decrement();
+            _discarded.increment();
+        }
+
+        @Override
+        public void messageSent(final String address, final boolean publish, final boolean local, final boolean remote) {
+            if (publish) {
+                _published.increment();
+            } else {
+                _sent.increment();
+            }
+        }
+
+        @Override
+        public void messageReceived(final String address, final boolean publish, final boolean local, final int handlers) {
+            _received.increment();
+        }
+
+        @Override
+        public void messageWritten(final String address, final int numberOfBytes) {
+            _bytesWritten.add(numberOfBytes);
+        }
+
+        @Override
+        public void messageRead(final String address, final int numberOfBytes) {
+            _bytesRead.add(numberOfBytes);
+        }
+
+        @Override
+        public void replyFailure(final String address, final ReplyFailure failure) {
+            _replyFailures.increment();
+        }
+
+        EventBusRecorder(final AggregatingVertxMetrics metrics, final String prefix) {
+            _handlers = metrics.getGauge(prefix + "handlers");
+            _pending = metrics.getGauge(prefix + "pending");
+            _delivered = metrics.getCounter(prefix + "delivered");
+            _discarded = metrics.getCounter(prefix + "discarded");
+            _published = metrics.getCounter(prefix + "published");
+            _sent = metrics.getCounter(prefix + "sent");
+            _received = metrics.getCounter(prefix + "received");
+            _bytesWritten = metrics.getCounter(prefix + "bytes_written");
+            _bytesRead = metrics.getCounter(prefix + "bytes_read");
+            _replyFailures = metrics.getCounter(prefix + "reply_failures");
+        }
+
+        private final Gauge _handlers;
+        private final Gauge _pending;
+        private final PipelineInstrumentation.Counter _delivered;
+        private final PipelineInstrumentation.Counter _discarded;
+        private final PipelineInstrumentation.Counter _published;
+        private final PipelineInstrumentation.Counter _sent;
+        private final PipelineInstrumentation.Counter _received;
+        private final PipelineInstrumentation.Counter _bytesWritten;
+        private final PipelineInstrumentation.Counter _bytesRead;
+        private final PipelineInstrumentation.Counter _replyFailures;
+    }
+
+    /**
+     * Recorder of connection metrics shared by TCP, HTTP server and HTTP
+     * client metrics.
+     */
+    private static class TcpRecorder implements TCPMetrics<Void> {
+
+        @Override
+        public Void connected(final SocketAddress remoteAddress, final String remoteName) {
+            _connections.increment();
+            return null;
+        }
+
+        @Override
+        public void disconnected(final Void socketMetric, final SocketAddress remoteAddress) {
+            _connections.decrement();
+        }
+
+        @Override
+        public void bytesRead(final Void socketMetric, final SocketAddress remoteAddress, final long numberOfBytes) {
+            _bytesRead.add(numberOfBytes);
+        }
+
+        @Override
+        public void bytesWritten(final Void socketMetric, final SocketAddress remoteAddress, final long numberOfBytes) {
+            _bytesWritten.add(numberOfBytes);
+        }
+
+        @Override
+        public void exceptionOccurred(final Void socketMetric, final SocketAddress remoteAddress, final Throwable t) {
+            _exceptions.increment();
+        }
+
+        TcpRecorder(final AggregatingVertxMetrics metrics, final String prefix) {
+            _connections = metrics.getGauge(prefix + "connections");
+            _bytesRead = metrics.getCounter(prefix + "bytes_read");
+            _bytesWritten = metrics.getCounter(prefix + "bytes_written");
+            _exceptions = metrics.getCounter(prefix + "exceptions");
+        }
+
+        private final Gauge _connections;
+        private final PipelineInstrumentation.Counter _bytesRead;
+        private final PipelineInstrumentation.Counter _bytesWritten;
+        private final PipelineInstrumentation.Counter _exceptions;
+    }
+
+    /**
+     * Recorder of the number, latency and response status of requests.
+     */
+    private static final class RequestRecorder implements ClientMetrics<Timing, Object, Object> {
+
+        @Override
+        public Timing requestBegin(final String uri, final Object request) {
+            return begin();
+        }
+
+        @Override
+        public void responseBegin(final Timing requestMetric, final Object response) {
+            if (response instanceof HttpResponse) {
+                status((HttpResponse) response);
+            }
+        }
+
+        @Override
+        public void requestReset(final Timing requestMetric) {
+            reset();
+        }
+
+        @Override
+        public void responseEnd(final Timing requestMetric) {
+            end(requestMetric);
+        }
+
+        @Override
+        public void responseEnd(final Timing requestMetric, final long bytesRead) {
+            end(requestMetric);
+        }
+
+        Timing begin() {
+            _requests.increment();
+            return new Timing();
+        }
+
+        void status(final HttpResponse response) {
+            final int statusClass = response.statusCode() / 100;
+            if (statusClass >= 1 && statusClass <= 5) {
+                _responses[statusClass - 1].increment();
+            }
+        }
+
+        void reset() {
+            _resets.increment();
+        }
+
+        void end(final Timing requestMetric) {
+            if (requestMetric != null) {
+                _latency.record(requestMetric.elapsed());
+            }
+        }
+
+        RequestRecorder(final AggregatingVertxMetrics metrics, final String prefix) {
+            _requests = metrics.getCounter(prefix + "requests");
+            _resets = metrics.getCounter(prefix + "resets");
+            _latency = metrics.getTimer(prefix + "latency");
+            _responses = new PipelineInstrumentation.Counter[5];
+            for (int i = 0; i < _responses.length; ++i) {
+                _responses[i] = metrics.getCounter(prefix + "responses/" + (i + 1) + "xx");
+            }
+        }
+
+        private final PipelineInstrumentation.Counter _requests;
+        private final PipelineInstrumentation.Counter _resets;
+        private final PipelineInstrumentation.Timer _latency;
+        private final PipelineInstrumentation.Counter[] _responses;
+    }
+
+    /**
+     * Recorder of HTTP server metrics.
+     */
+    private static final class HttpServerRecorder extends TcpRecorder implements HttpServerMetrics<Timing, Void, Void> {
+
+        @Override
+        public Timing requestBegin(final Void socketMetric, final HttpRequest request) {
+            return _requests.begin();
+        }
+
+        @Override
+        public void requestReset(final Timing requestMetric) {
+            _requests.reset();
+        }
+
+        @Override
+        public void responseBegin(final Timing requestMetric, final HttpResponse response) {
+            _requests.status(response);
+        }
+
+        @Override
+        public Timing responsePushed(
+                final Void socketMetric,
+                final HttpMethod method,
+                final String uri,
+                final HttpResponse response) {
+            return _requests.begin();
+        }
+
+        @Override
+        public void responseEnd(final Timing requestMetric, final HttpResponse response, final long bytesWritten) {
+            _requests.end(requestMetric);
+        }
+
+        @Override
+        public Void connected(final Void socketMetric, final Timing requestMetric, final ServerWebSocket serverWebSocket) {
+            _webSockets.increment();
+            return null;
+        }
+
+        @Override
+        public void disconnected(final Void webSocketMetric) {
+            _webSockets.decrement();
+        }
+
+        HttpServerRecorder(final AggregatingVertxMetrics metrics, final String prefix) {
+            super(metrics, prefix);
+            _requests = new RequestRecorder(metrics, prefix);
+            _webSockets = metrics.getGauge(prefix + "web_sockets");
+        }
+
+        private final RequestRecorder _requests;
+        private final Gauge _webSockets;
+    }
+
+    /**
+     * Recorder of HTTP client metrics.
+     */
+    private static final class HttpClientRecorder extends TcpRecorder implements HttpClientMetrics<Timing, Void, Void> {
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public ClientMetrics<Timing, HttpRequest, HttpResponse> createEndpointMetrics(
+                final SocketAddress remoteAddress,
+                final int maxPoolSize) {
+            // The recorder accepts requests and responses of any type
+            return (ClientMetrics) _requests;
+        }
+
+        @Override
+        public Void connected(final WebSocket webSocket) {
+            _webSockets.increment();
+            return null;
+        }
+
+        @Override
+        public void disconnected(final Void webSocketMetric) {
+            _webSockets.decrement();
+        }
+
+        HttpClientRecorder(final AggregatingVertxMetrics metrics, final String prefix) {
+            super(metrics, prefix);
+            _requests = new RequestRecorder(metrics, prefix);
+            _webSockets = metrics.getGauge(prefix + "web_sockets");
+        }
+
+        private final RequestRecorder _requests;
+        private final Gauge _webSockets;
+    }
+
+    /**
+     * Recorder of worker and other pool metrics.
+     */
+    private static final class PoolRecorder implements PoolMetrics<Timing, Timing> {
+
+        @Override
+        public Timing enqueue() {
+            _queued.increment();
+            return new Timing();
+        }
+
+        @Override
+        public void dequeue(final Timing queueMetric) {
+            _queued.decrement();
+            if (queueMetric != null) {
+                _queueDelay.record(queueMetric.elapsed());
+            }
+        }
+
+        @Override
+        public Timing begin() {
+            _inUse.increment();
+            return new Timing();
+        }
+
+        @Override
+        public void end(final Timing usageMetric) {
+            _inUse.decrement();
+            if (usageMetric != null) {
+                _usage.record(usageMetric.elapsed());
+            }
+        }
+
+        PoolRecorder(final AggregatingVertxMetrics metrics, final String prefix) {
+            _queued = metrics.getGauge(prefix + "queued");
+            _inUse = metrics.getGauge(prefix + "in_use");
+            _queueDelay = metrics.getTimer(prefix + "queue_delay");
+            _usage = metrics.getTimer(prefix + "usage");
+        }
+
+        private final Gauge _queued;
+        private final Gauge _inUse;
+        private final PipelineInstrumentation.Timer _queueDelay;
+        private final PipelineInstrumentation.Timer _usage;
+    }
+}
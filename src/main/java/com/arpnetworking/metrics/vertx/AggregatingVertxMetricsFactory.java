@@ -0,0 +1,126 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.MetricsFactory;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.spi.VertxMetricsFactory;
+import io.vertx.core.spi.metrics.VertxMetrics;
+
+import java.time.Duration;
+
+/**
+ * Factory of {@link AggregatingVertxMetrics} for the Vert.x metrics SPI. The
+ * factory is set when building the {@link io.vertx.core.Vertx} instance and
+ * metrics must be enabled in its options:
+ *
+ * <pre>{@code
+ * final Vertx vertx = Vertx.builder()
+ *         .with(new VertxOptions().setMetricsOptions(new MetricsOptions().setEnabled(true)))
+ *         .withMetrics(new AggregatingVertxMetricsFactory.Builder()
+ *                 .setMetricsFactory(metricsFactory)
+ *                 .build())
+ *         .build();
+ * }</pre>
+ *
+ * @author agent (agent at local)
+ */
+public final class AggregatingVertxMetricsFactory implements VertxMetricsFactory {
+
+    @Override
+    public VertxMetrics metrics(final VertxOptions options) {
+        return new AggregatingVertxMetrics(_metricsFactory, _flushInterval, _recordHistograms);
+    }
+
+    private AggregatingVertxMetricsFactory(final Builder builder) {
+        _metricsFactory = builder._metricsFactory;
+        _flushInterval = builder._flushInterval;
+        _recordHistograms = builder._recordHistograms;
+    }
+
+    private final MetricsFactory _metricsFactory;
+    private final Duration _flushInterval;
+    private final boolean _recordHistograms;
+
+    /**
+     * Builder class for {@link AggregatingVertxMetricsFactory}.
+     */
+    public static final class Builder {
+
+        /**
+         * Create an instance of {@link AggregatingVertxMetricsFactory}.
+         *
+         * @return Instance of {@link AggregatingVertxMetricsFactory}.
+         */
+        public AggregatingVertxMetricsFactory build() {
+            if (_metricsFactory == null) {
+                throw new IllegalArgumentException("MetricsFactory cannot be null.");
+            }
+            if (_flushInterval == null || _flushInterval.isNegative() || _flushInterval.isZero()) {
+                throw new IllegalArgumentException("FlushInterval cannot be null or non-positive.");
+            }
+            if (_recordHistograms == null) {
+                throw new IllegalArgumentException("RecordHistograms cannot be null.");
+            }
+            return new AggregatingVertxMetricsFactory(this);
+        }
+
+        /**
+         * Sets the {@link MetricsFactory} the aggregated metrics are recorded
+         * to. Required. Cannot be null.
+         *
+         * @param value The {@link MetricsFactory}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMetricsFactory(final MetricsFactory value) {
+            _metricsFactory = value;
+            return this;
+        }
+
+        /**
+         * Sets the interval at which the aggregated metrics are recorded.
+         * Optional. Default is one minute.
+         *
+         * @param value The flush interval.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setFlushInterval(final Duration value) {
+            _flushInterval = value;
+            return this;
+        }
+
+        /**
+         * Sets whether timers are recorded as histograms rather than as
+         * summary statistics when the {@link MetricsFactory} creates
+         * {@link com.arpnetworking.metrics.impl.TsdMetrics} instances. The
+         * sinks of the {@link MetricsFactory} must support aggregated data;
+         * {@link EventBusSink} does not. Optional. Default is false.
+         *
+         * @param value Whether to record timers as histograms.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRecordHistograms(final Boolean value) {
+            _recordHistograms = value;
+            return this;
+        }
+
+        private MetricsFactory _metricsFactory;
+        private Duration _flushInterval = DEFAULT_FLUSH_INTERVAL;
+        private Boolean _recordHistograms = false;
+
+        private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMinutes(1);
+    }
+}
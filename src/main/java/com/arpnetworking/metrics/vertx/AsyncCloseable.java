@@ -0,0 +1,36 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import io.vertx.core.Future;
+
+/**
+ * Interface for resources, such as sinks, which are closed without blocking
+ * the caller. The {@link SinkVerticle} closes its sinks which implement it
+ * with {@link #closeAsync()} and completes stopping once they are closed.
+ *
+ * @author agent (agent at local)
+ */
+public interface AsyncCloseable {
+
+    /**
+     * Closes the resource without blocking the calling thread. Invoking it
+     * again returns the same {@link Future}.
+     *
+     * @return {@link Future} completed once the resource is closed.
+     */
+    Future<Void> closeAsync();
+}
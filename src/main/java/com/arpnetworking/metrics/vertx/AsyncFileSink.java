@@ -0,0 +1,455 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sink which writes events to files without blocking the calling thread, for
+ * example the event loop running a {@link SinkVerticle}. Each event is
+ * written as a line holding its JSON representation, the same as published by
+ * {@link EventBusSink} by default. This is not the query log format written
+ * by {@code TsdQueryLogSink}, so the files cannot be read by consumers of the
+ * query log. Events are encoded directly into a pending {@link Buffer} which
+ * is written through a Vertx {@link AsyncFile} once it reaches the buffer
+ * size and at least every flush interval; the file system operations
+ * themselves run on the Vertx worker pool.
+ *
+ * Files are named with the name, the time and a sequence number and the
+ * extension, for example "events.2026-01-01-00-00-00.0.log", and are rotated
+ * once they would exceed the maximum file size or once they are older than
+ * the rotation interval. While the write queue of the file is full, or a file
+ * is being opened, events accumulate in the pending buffer; once it reaches
+ * the maximum pending size further events are dropped and counted rather
+ * than blocking the caller.
+ *
+ * The sink is thread-safe. Closing the sink writes the pending events and
+ * closes the file asynchronously; see {@link #closeAsync()}.
+ *
+ * @author agent (agent at local)
+ */
+public final class AsyncFileSink implements Sink, AsyncCloseable, AutoCloseable {
+
+    @Override
+    public void record(final Event event) {
+        final boolean write;
+        synchronized (_lock) {
+            if (_closed || _pending.length() >= _maxPendingSize) {
+                drop();
+                return;
+            }
+            final int length = _pending.length();
+            try {
+                OBJECT_MAPPER.writeValue(_pendingStream, event);
+                _pending.appendByte(NEWLINE);
+            } catch (final IOException e) {
+                // Discard the partially encoded event
+                _pending = _pending.getBuffer(0, length);
+                _pendingStream = new BufferOutputStream(_pending);
+                LOGGER.warn(String.format("Failed to encode event. Path=%s", _basePath), e);
+                return;
+            }
+            write = _pending.length() >= _bufferSize;
+        }
+        if (write) {
+            flush();
+        }
+    }
+
+    /**
+     * Stops accepting events, writes the pending events and closes the file.
+     * Waits for the file to be closed unless invoked from a Vertx thread, on
+     * which the writes may themselves complete; use {@link #closeAsync()}
+     * instead.
+     */
+    @Override
+    public void close() {
+        final Future<Void> closed = closeAsync();
+        if (Context.isOnVertxThread()) {
+            return;
+        }
+        try {
+            closed.toCompletionStage().toCompletableFuture().get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOGGER.warn(String.format("Failed to close file. Path=%s", _basePath), e);
+        }
+    }
+
+    /**
+     * Stops accepting events, writes the pending events and closes the file.
+     * The {@link SinkVerticle} closes the sink this way when it is stopped.
+     *
+     * @return {@link Future} completed once the file is closed.
+     */
+    @Override
+    public Future<Void> closeAsync() {
+        synchronized (_lock) {
+            if (!_closed) {
+                _closed = true;
+                _vertx.cancelTimer(_timerId);
+                if (_file != null) {
+                    writePending();
+                    closeFile(_file).onComplete(_closePromise);
+                    _file = null;
+                } else if (!_opening) {
+                    if (_pending.length() > 0) {
+                        openFile();
+                    } else {
+                        _closePromise.complete();
+                    }
+                }
+                // Otherwise the pending events are written and the file closed once it is opened
+            }
+        }
+        return _closePromise.future();
+    }
+
+    /**
+     * Accessor for the number of events dropped.
+     *
+     * @return The number of events dropped since the sink was created.
+     */
+    public long getDroppedCount() {
+        return _dropped.get();
+    }
+
+    private void flush() {
+        synchronized (_lock) {
+            if (_file != null && System.nanoTime() - _fileOpenedNanos >= _rotationIntervalNanos) {
+                rotate();
+            } else {
+                writePending();
+            }
+        }
+    }
+
+    private void writePending() {
+        if (_pending.length() == 0) {
+            return;
+        }
+        if (_file == null) {
+            if (!_opening) {
+                openFile();
+            }
+            return;
+        }
+        if (_file.writeQueueFull() && !_closed) {
+            // Resumed by the drain handler
+            return;
+        }
+        if (_fileSize > 0 && _fileSize + _pending.length() > _maxFileSize && !_closed) {
+            rotate();
+            return;
+        }
+        final Buffer pending = _pending;
+        _fileSize += pending.length();
+        _pending = Buffer.buffer(_bufferSize + (_bufferSize >>> 3));
+        _pendingStream = new BufferOutputStream(_pending);
+        _file.write(pending).onFailure(this::logWriteFailure);
+    }
+
+    private void rotate() {
+        closeFile(_file);
+        _file = null;
+        if (_pending.length() > 0) {
+            openFile();
+        }
+    }
+
+    private void openFile() {
+        _opening = true;
+        final String path = String.format(
+                "%s.%s.%d%s",
+                _basePath,
+                FILE_TIME_FORMATTER.format(Instant.now()),
+                _fileSequence++,
+                _extension);
+        _vertx.fileSystem().mkdirs(_directory)
+                .compose(v -> _vertx.fileSystem().open(path, OPEN_OPTIONS))
+                .onComplete(result -> {
+                    synchronized (_lock) {
+                        _opening = false;
+                        if (result.failed()) {
+                            LOGGER.warn(String.format("Failed to open file. Path=%s", path), result.cause());
+                            if (_closed) {
+                                _pending = Buffer.buffer();
+                                _pendingStream = new BufferOutputStream(_pending);
+                                _closePromise.fail(result.cause());
+                            }
+                            // Otherwise opening the file is retried when the pending events are next written
+                            return;
+                        }
+                        final AsyncFile file = result.result();
+                        file.drainHandler(v -> flush());
+                        _file = file;
+                        _fileSize = 0;
+                        _fileOpenedNanos = System.nanoTime();
+                        writePending();
+                        if (_closed) {
+                            closeFile(_file).onComplete(_closePromise);
+                            _file = null;
+                        }
+                    }
+                });
+    }
+
+    private Future<Void> closeFile(final AsyncFile file) {
+        return file.close().onFailure(e -> LOGGER.warn(String.format("Failed to close file. Path=%s", _basePath), e));
+    }
+
+    private void drop() {
+        if (_dropped.incrementAndGet() == 1) {
+            LOGGER.warn("Dropping events; pending buffer full or sink closed. Path={}", _basePath);
+        }
+    }
+
+    private void logWriteFailure(final Throwable throwable) {
+        LOGGER.warn(String.format("Failed to write events. Path=%s", _basePath), throwable);
+    }
+
+    private AsyncFileSink(final Builder builder) {
+        _vertx = builder._vertx;
+        _directory = builder._path;
+        _basePath = new File(builder._path, builder._name).getPath();
+        _extension = builder._extension;
+        _bufferSize = builder._bufferSize;
+        _maxPendingSize = builder._maxPendingSize;
+        _maxFileSize = builder._maxFileSize;
+        _rotationIntervalNanos = builder._rotationInterval.toNanos();
+        _pending = Buffer.buffer(_bufferSize + (_bufferSize >>> 3));
+        _pendingStream = new BufferOutputStream(_pending);
+        _timerId = _vertx.setPeriodic(builder._flushInterval.toMillis(), id -> flush());
+    }
+
+    private final Vertx _vertx;
+    private final String _directory;
+    private final String _basePath;
+    private final String _extension;
+    private final int _bufferSize;
+    private final int _maxPendingSize;
+    private final long _maxFileSize;
+    private final long _rotationIntervalNanos;
+    private final long _timerId;
+    private final AtomicLong _dropped = new AtomicLong();
+    private final Promise<Void> _closePromise = Promise.promise();
+    private final Object _lock = new Object();
+    private Buffer _pending;
+    private BufferOutputStream _pendingStream;
+    private AsyncFile _file;
+    private boolean _opening;
+    private long _fileSize;
+    private long _fileOpenedNanos;
+    private int _fileSequence;
+    private boolean _closed;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncFileSink.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final OpenOptions OPEN_OPTIONS = new OpenOptions().setCreate(true).setWrite(true).setAppend(true);
+    private static final DateTimeFormatter FILE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss").withZone(ZoneOffset.UTC);
+    private static final byte NEWLINE = '\n';
+
+    static {
+        // The stream is reused for each event written to the pending buffer
+        OBJECT_MAPPER.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Builder class for {@link AsyncFileSink}.
+     */
+    public static final class Builder {
+
+        /**
+         * Create an instance of {@link AsyncFileSink}.
+         *
+         * @return Instance of {@link AsyncFileSink}.
+         */
+        public AsyncFileSink build() {
+            if (_vertx == null) {
+                throw new IllegalArgumentException("Vertx cannot be null.");
+            }
+            if (_path == null || _path.isEmpty()) {
+                throw new IllegalArgumentException("Path cannot be null or empty.");
+            }
+            if (_name == null || _name.isEmpty()) {
+                throw new IllegalArgumentException("Name cannot be null or empty.");
+            }
+            if (_extension == null) {
+                throw new IllegalArgumentException("Extension cannot be null.");
+            }
+            if (_bufferSize == null || _bufferSize < 1) {
+                throw new IllegalArgumentException("BufferSize cannot be null or less than one.");
+            }
+            if (_maxPendingSize == null || _maxPendingSize < _bufferSize) {
+                throw new IllegalArgumentException("MaxPendingSize cannot be null or less than the buffer size.");
+            }
+            if (_maxFileSize == null || _maxFileSize < 1) {
+                throw new IllegalArgumentException("MaxFileSize cannot be null or less than one.");
+            }
+            if (_flushInterval == null || _flushInterval.toMillis() < 1) {
+                throw new IllegalArgumentException("FlushInterval cannot be null or less than one millisecond.");
+            }
+            if (_rotationInterval == null || _rotationInterval.isNegative() || _rotationInterval.isZero()) {
+                throw new IllegalArgumentException("RotationInterval cannot be null or non-positive.");
+            }
+            return new AsyncFileSink(this);
+        }
+
+        /**
+         * Sets the {@link Vertx} instance whose file system and timers are
+         * used. Required. Cannot be null.
+         *
+         * @param value The {@link Vertx} instance.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setVertx(final Vertx value) {
+            _vertx = value;
+            return this;
+        }
+
+        /**
+         * Sets the directory the files are written to. It is created if it
+         * does not exist. Required. Cannot be null or empty.
+         *
+         * @param value The directory.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setPath(final String value) {
+            _path = value;
+            return this;
+        }
+
+        /**
+         * Sets the name the file names start with. Optional. Default is "events".
+         *
+         * @param value The file name.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setName(final String value) {
+            _name = value;
+            return this;
+        }
+
+        /**
+         * Sets the extension of the file names. Optional. Default is ".log".
+         *
+         * @param value The file extension.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setExtension(final String value) {
+            _extension = value;
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes the pending events reach before they are
+         * written. Optional. Default is 64 KiB.
+         *
+         * @param value The buffer size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setBufferSize(final Integer value) {
+            _bufferSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes the pending events may reach while they
+         * cannot be written before further events are dropped. Cannot be less
+         * than the buffer size. Optional. Default is 8 MiB.
+         *
+         * @param value The maximum pending size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxPendingSize(final Integer value) {
+            _maxPendingSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes a file is rotated before exceeding. A single
+         * write larger than the maximum is written to its own file. Optional.
+         * Default is 256 MiB.
+         *
+         * @param value The maximum file size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxFileSize(final Long value) {
+            _maxFileSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the interval at which pending events are written regardless of
+         * the buffer size. Optional. Default is 500 milliseconds.
+         *
+         * @param value The flush interval.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setFlushInterval(final Duration value) {
+            _flushInterval = value;
+            return this;
+        }
+
+        /**
+         * Sets the age after which a file is rotated. Rotation is checked at
+         * the flush interval. Optional. Default is one hour.
+         *
+         * @param value The rotation interval.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRotationInterval(final Duration value) {
+            _rotationInterval = value;
+            return this;
+        }
+
+        private Vertx _vertx;
+        private String _path;
+        private String _name = "events";
+        private String _extension = ".log";
+        private Integer _bufferSize = 64 * 1024;
+        private Integer _maxPendingSize = 8 * 1024 * 1024;
+        private Long _maxFileSize = 256L * 1024 * 1024;
+        private Duration _flushInterval = DEFAULT_FLUSH_INTERVAL;
+        private Duration _rotationInterval = DEFAULT_ROTATION_INTERVAL;
+
+        private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(500);
+        private static final Duration DEFAULT_ROTATION_INTERVAL = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,380 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sink which records events to another sink off the calling thread. Recorded
+ * events are placed on a bounded queue and the caller only pays the cost of
+ * the enqueue. The queue is drained in batches by a task run on an executor;
+ * at most one drain task is scheduled at a time so the wrapped sink is never
+ * invoked concurrently. Events recorded while the queue is full, or after the
+ * sink is closed, are dropped and counted.
+ *
+ * By default the drain task runs on a dedicated daemon thread owned by the
+ * sink. Alternatively, any {@link Executor} may be provided or a Vertx
+ * {@link Context}, for example a worker or virtual thread context, on which
+ * the drain task is then run.
+ *
+ * @author agent (agent at local)
+ */
+public final class AsyncSink implements Sink, AsyncCloseable, AutoCloseable {
+
+    @Override
+    public void record(final Event event) {
+        if (_closed || !_queue.offer(event)) {
+            if (_dropped.incrementAndGet() == 1) {
+                LOGGER.warn("Dropping events; queue full or sink closed. Name={}", _name);
+            }
+            return;
+        }
+        schedule();
+    }
+
+    /**
+     * Accessor for the number of events dropped.
+     *
+     * @return The number of events dropped since the sink was created.
+     */
+    public long getDroppedCount() {
+        return _dropped.get();
+    }
+
+    /**
+     * Stops accepting events, waits for the queued events to be recorded and
+     * closes the wrapped sink. Does not wait when invoked from a Vertx thread,
+     * on which the drain task may itself be scheduled; use
+     * {@link #closeAsync()} instead.
+     */
+    @Override
+    public void close() {
+        final Future<Void> closed = closeAsync();
+        if (Context.isOnVertxThread()) {
+            return;
+        }
+        try {
+            closed.toCompletionStage().toCompletableFuture().get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOGGER.warn(String.format("Failed to close sink. Name=%s", _name), e);
+        }
+    }
+
+    /**
+     * Stops accepting events and, once the queued events are recorded or the
+     * close timeout expires, closes the wrapped sink if it is
+     * {@link AsyncCloseable} or {@link AutoCloseable}. The wrapped sink is
+     * closed by the drain task, so never while it is recording an event. Once
+     * the close timeout expires the drain task stops after the event it is
+     * recording and the events still queued are dropped and counted; an event
+     * whose recording never returns therefore also holds up the close.
+     *
+     * @return {@link Future} completed once the wrapped sink is closed.
+     */
+    @Override
+    public Future<Void> closeAsync() {
+        synchronized (_closeLock) {
+            if (_closeFuture == null) {
+                _closed = true;
+                _closeFuture = Future.fromCompletionStage(_drained
+                        .thenCompose(ignored -> closeSink())
+                        .whenComplete((ignored, e) -> {
+                            if (_ownedExecutor != null) {
+                                _ownedExecutor.shutdown();
+                            }
+                        }));
+                CompletableFuture.delayedExecutor(_closeTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(this::expire);
+                schedule();
+            }
+            return _closeFuture;
+        }
+    }
+
+    private CompletionStage<Void> closeSink() {
+        if (_sink instanceof AsyncCloseable) {
+            return ((AsyncCloseable) _sink).closeAsync()
+                    .recover(e -> {
+                        LOGGER.warn(String.format("Failed to close sink. Name=%s", _name), e);
+                        return Future.succeededFuture();
+                    })
+                    .toCompletionStage();
+        }
+        if (_sink instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) _sink).close();
+                // CHECKSTYLE.OFF: IllegalCatch - AutoCloseable declares Exception
+            } catch (final Exception e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                LOGGER.warn(String.format("Failed to close sink. Name=%s", _name), e);
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void schedule() {
+        if (_scheduled.compareAndSet(false, true)) {
+            try {
+                _executor.execute(this::drain);
+            } catch (final RejectedExecutionException e) {
+                _scheduled.set(false);
+                LOGGER.warn(String.format("Drain rejected by executor. Name=%s", _name), e);
+                if (_closed) {
+                    // No drain will run so the queued events cannot be recorded
+                    drop();
+                    _drained.complete(null);
+                }
+            }
+        }
+    }
+
+    private void expire() {
+        if (_drained.isDone()) {
+            return;
+        }
+        LOGGER.warn("Failed to drain queued events before the close timeout. Name={}, Remaining={}", _name, _queue.size());
+        _expired = true;
+        // Ensure a drain task observes the expiry; one in progress does so after the event it is recording
+        schedule();
+    }
+
+    private void drain() {
+        // The scheduled flag guarantees a single drain at a time so the batch may be reused
+        int batches = 0;
+        while (batches < MAX_BATCHES_PER_DRAIN && !_expired && _queue.drainTo(_batch, _maxBatchSize) > 0) {
+            int recorded = 0;
+            for (; recorded < _batch.size() && !_expired; ++recorded) {
+                try {
+                    _sink.record(_batch.get(recorded));
+                    // CHECKSTYLE.OFF: IllegalCatch - One failed event must not stop the drain
+                } catch (final RuntimeException e) {
+                    // CHECKSTYLE.ON: IllegalCatch
+                    LOGGER.warn(String.format("Failed to record event to sink. Name=%s", _name), e);
+                }
+            }
+            _dropped.addAndGet(_batch.size() - recorded);
+            _batch.clear();
+            ++batches;
+        }
+        _scheduled.set(false);
+        if (_expired) {
+            drop();
+            _drained.complete(null);
+        } else if (!_queue.isEmpty()) {
+            // Either events arrived after the last batch or the drain yielded to other tasks on the executor
+            schedule();
+        } else if (_closed) {
+            _drained.complete(null);
+        }
+    }
+
+    private void drop() {
+        while (_queue.poll() != null) {
+            _dropped.incrementAndGet();
+        }
+    }
+
+    private AsyncSink(final Builder builder) {
+        _sink = builder._sink;
+        _name = builder._name;
+        _queue = new ArrayBlockingQueue<>(builder._queueSize);
+        _maxBatchSize = builder._maxBatchSize;
+        _batch = new ArrayList<>(_maxBatchSize);
+        _closeTimeout = builder._closeTimeout;
+        if (builder._executor != null) {
+            _executor = builder._executor;
+            _ownedExecutor = null;
+        } else if (builder._context != null) {
+            final Context context = builder._context;
+            _executor = task -> context.runOnContext(ignored -> task.run());
+            _ownedExecutor = null;
+        } else {
+            _ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, _name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            _executor = _ownedExecutor;
+        }
+    }
+
+    private final Sink _sink;
+    private final String _name;
+    private final BlockingQueue<Event> _queue;
+    private final int _maxBatchSize;
+    private final List<Event> _batch;
+    private final Duration _closeTimeout;
+    private final Executor _executor;
+    private final ExecutorService _ownedExecutor;
+    private final AtomicBoolean _scheduled = new AtomicBoolean(false);
+    private final AtomicLong _dropped = new AtomicLong();
+    private final CompletableFuture<Void> _drained = new CompletableFuture<>();
+    private final Object _closeLock = new Object();
+    private volatile boolean _closed;
+    private volatile boolean _expired;
+    private Future<Void> _closeFuture;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSink.class);
+    private static final int MAX_BATCHES_PER_DRAIN = 16;
+
+    /**
+     * Builder for {@link AsyncSink}.
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link AsyncSink}.
+         *
+         * @return An instance of {@link AsyncSink}.
+         */
+        public AsyncSink build() {
+            if (_sink == null) {
+                throw new IllegalArgumentException("Sink cannot be null.");
+            }
+            if (_name == null || _name.isEmpty()) {
+                throw new IllegalArgumentException("Name cannot be null or empty.");
+            }
+            if (_queueSize == null || _queueSize < 1) {
+                throw new IllegalArgumentException("QueueSize cannot be null or less than one.");
+            }
+            if (_maxBatchSize == null || _maxBatchSize < 1) {
+                throw new IllegalArgumentException("MaxBatchSize cannot be null or less than one.");
+            }
+            if (_closeTimeout == null || _closeTimeout.isNegative()) {
+                throw new IllegalArgumentException("CloseTimeout cannot be null or negative.");
+            }
+            if (_executor != null && _context != null) {
+                throw new IllegalArgumentException("Executor and Context cannot both be set.");
+            }
+            return new AsyncSink(this);
+        }
+
+        /**
+         * Sets the sink to record events to. Required. Cannot be null.
+         *
+         * @param value The {@link Sink} to record events to.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setSink(final Sink value) {
+            _sink = value;
+            return this;
+        }
+
+        /**
+         * Sets the name used for the dedicated thread and in log messages.
+         * Optional. Default is "metrics-async-sink".
+         *
+         * @param value The name.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setName(final String value) {
+            _name = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of queued events. Optional. Default is 10000.
+         *
+         * @param value The queue size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setQueueSize(final Integer value) {
+            _queueSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events removed from the queue at once.
+         * Optional. Default is 100.
+         *
+         * @param value The maximum batch size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxBatchSize(final Integer value) {
+            _maxBatchSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the executor the queue is drained on instead of a dedicated
+         * thread. The executor is not shut down when the sink is closed.
+         * Optional. Cannot be combined with a context.
+         *
+         * @param value The {@link Executor}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setExecutor(final Executor value) {
+            _executor = value;
+            return this;
+        }
+
+        /**
+         * Sets the Vertx context the queue is drained on instead of a dedicated
+         * thread; for example, the context of a worker or virtual thread
+         * verticle. Optional. Cannot be combined with an executor.
+         *
+         * @param value The {@link Context}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setContext(final Context value) {
+            _context = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time to wait for queued events to be recorded when
+         * the sink is closed before dropping the remaining events and closing
+         * the wrapped sink. Optional. Default is five seconds.
+         *
+         * @param value The close timeout.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setCloseTimeout(final Duration value) {
+            _closeTimeout = value;
+            return this;
+        }
+
+        private Sink _sink;
+        private String _name = "metrics-async-sink";
+        private Integer _queueSize = 10000;
+        private Integer _maxBatchSize = 100;
+        private Executor _executor;
+        private Context _context;
+        private Duration _closeTimeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,420 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Implementation of {@link WireFormat} encoding events in a compact binary
+ * representation. Every annotation key and value and every metric name is
+ * written once per message to a string table and referenced by its index.
+ * Counts and indices are written as unsigned varints, integral sample values
+ * as zigzag varints and all other sample values as raw doubles. Integral
+ * sample values are decoded as {@link Long} and all others as {@link Double}.
+ * The timers of an {@link AggregatedEvent} are written as histograms, whose
+ * size depends on the number of buckets rather than samples, and are decoded
+ * as an {@link AggregatedEvent}. So are the timers of any other event with a
+ * {@link CountedQuantity} timer sample, for example one decoded from the JSON
+ * representation of an {@link AggregatedEvent}, which are recorded in
+ * histograms of the default precision.
+ *
+ * The encoded events are laid out as follows:
+ *
+ * <pre>
+ * message  := tableOffset:int32 eventCount:varint event* table
+ * event    := annotationCount:varint (key:ref value:ref)* metrics(timers) metrics(counters) metrics(gauges)
+ * metrics  := metricCount:varint (name:ref kind:byte (samples | histogram))*
+ * samples  := sampleCount:varint value*
+ * histogram:= precision:byte sum:double min:double max:double bucketCount:varint (bucket:varint count:varint)*
+ * table    := stringCount:varint (length:varint utf8:byte*)*
+ * </pre>
+ *
+ * The table offset is relative to the start of the message. The kind of a
+ * metric is either integral, with zigzag varint values, double, with raw
+ * double values, mixed, with each value preceded by its kind, or histogram.
+ * Histogram buckets are written as the retained bits of their truncated
+ * values, which take three bytes at the default precision.
+ *
+ * @author agent (agent at local)
+ */
+public final class BinaryWireFormat implements WireFormat {
+
+    /**
+     * Public constructor.
+     */
+    public BinaryWireFormat() {
+        this(null);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param interner The {@link StringInterner} to resolve the decoded
+     * strings through. Optional.
+     */
+    public BinaryWireFormat(@Nullable final StringInterner interner) {
+        _interner = interner;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public void encode(final List<? extends Event> events, final Buffer buffer) throws IOException {
+        final int start = buffer.length();
+        // The table offset is only known once the events have been written
+        buffer.appendInt(0);
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        writeVarint(buffer, events.size());
+        for (final Event event : events) {
+            writeVarint(buffer, event.getAnnotations().size());
+            for (final Map.Entry<String, String> annotation : event.getAnnotations().entrySet()) {
+                writeVarint(buffer, intern(strings, annotation.getKey()));
+                writeVarint(buffer, intern(strings, annotation.getValue()));
+            }
+            if (event instanceof AggregatedEvent) {
+                writeHistograms(buffer, strings, ((AggregatedEvent) event).getTimerHistograms());
+            } else if (hasCountedSamples(event.getTimerSamples())) {
+                writeHistograms(buffer, strings, AggregatedEvent.copyOf(event, Histogram.DEFAULT_PRECISION).getTimerHistograms());
+            } else {
+                writeMetrics(buffer, strings, event.getTimerSamples());
+            }
+            writeMetrics(buffer, strings, event.getCounterSamples());
+            writeMetrics(buffer, strings, event.getGaugeSamples());
+        }
+        buffer.setInt(start, buffer.length() - start);
+        writeVarint(buffer, strings.size());
+        for (final String string : strings.keySet()) {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(buffer, bytes.length);
+            buffer.appendBytes(bytes);
+        }
+    }
+
+    @Override
+    public List<Event> decode(final Buffer buffer, final int position) throws IOException {
+        try {
+            final int tableOffset = buffer.getInt(position);
+            if (tableOffset < Integer.BYTES || tableOffset > buffer.length() - position) {
+                throw new IOException(String.format("Invalid string table offset. Offset=%d", tableOffset));
+            }
+            final Reader tableReader = new Reader(buffer, position + tableOffset, buffer.length());
+            final String[] strings = new String[tableReader.readCount()];
+            for (int i = 0; i < strings.length; ++i) {
+                final int length = tableReader.readCount();
+                final int end = tableReader._position + length;
+                strings[i] = _interner == null
+                        ? buffer.getString(tableReader._position, end, StandardCharsets.UTF_8.name())
+                        : _interner.intern(buffer, tableReader._position, end);
+                tableReader._position += length;
+            }
+
+            final Reader reader = new Reader(buffer, position + Integer.BYTES, position + tableOffset);
+            final int eventCount = reader.readCount();
+            final List<Event> events = new ArrayList<>(eventCount);
+            for (int i = 0; i < eventCount; ++i) {
+                final int annotationCount = reader.readCount();
+                final Map<String, String> annotations = new LinkedHashMap<>();
+                for (int j = 0; j < annotationCount; ++j) {
+                    annotations.put(reader.readString(strings), reader.readString(strings));
+                }
+                final Map<String, Histogram> timerHistograms = new LinkedHashMap<>();
+                final Map<String, List<Quantity>> timerSamples = readMetrics(reader, strings, timerHistograms);
+                final Map<String, List<Quantity>> counterSamples = readMetrics(reader, strings, null);
+                final Map<String, List<Quantity>> gaugeSamples = readMetrics(reader, strings, null);
+                if (timerHistograms.isEmpty()) {
+                    events.add(new SinkVerticle.DefaultEvent.Builder()
+                            .setAnnotations(annotations)
+                            .setTimerSamples(timerSamples)
+                            .setCounterSamples(counterSamples)
+                            .setGaugeSamples(gaugeSamples)
+                            .build());
+                } else {
+                    addSamples(timerHistograms, timerSamples);
+                    events.add(new AggregatedEvent(annotations, timerHistograms, counterSamples, gaugeSamples));
+                }
+            }
+            return events;
+        } catch (final IndexOutOfBoundsException e) {
+            throw new IOException("Truncated message.", e);
+        }
+    }
+
+    private static void writeMetrics(
+            final Buffer buffer,
+            final Map<String, Integer> strings,
+            final Map<String, ? extends List<? extends Quantity>> metrics) throws IOException {
+        writeVarint(buffer, metrics.size());
+        for (final Map.Entry<String, ? extends List<? extends Quantity>> metric : metrics.entrySet()) {
+            final List<? extends Quantity> samples = metric.getValue();
+            final byte kind = getKind(samples);
+            writeVarint(buffer, intern(strings, metric.getKey()));
+            buffer.appendByte(kind);
+            writeVarint(buffer, samples.size());
+            for (final Quantity sample : samples) {
+                final Number value = sample.getValue();
+                if (kind == KIND_MIXED) {
+                    buffer.appendByte(isIntegral(value) ? KIND_INTEGRAL : KIND_DOUBLE);
+                }
+                if (isIntegral(value)) {
+                    final long longValue = value.longValue();
+                    writeVarint(buffer, (longValue << 1) ^ (longValue >> 63));
+                } else {
+                    buffer.appendDouble(value.doubleValue());
+                }
+            }
+        }
+    }
+
+    private static void writeHistograms(
+            final Buffer buffer,
+            final Map<String, Integer> strings,
+            final Map<String, Histogram> histograms) throws IOException {
+        writeVarint(buffer, histograms.size());
+        for (final Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            final Histogram histogram = entry.getValue();
+            final int shift = MANTISSA_BITS - histogram.getPrecision();
+            final Histogram.Buckets buckets = histogram.getBuckets();
+            writeVarint(buffer, intern(strings, entry.getKey()));
+            buffer.appendByte(KIND_HISTOGRAM);
+            buffer.appendByte((byte) histogram.getPrecision());
+            buffer.appendDouble(histogram.getSum());
+            buffer.appendDouble(histogram.getMin());
+            buffer.appendDouble(histogram.getMax());
+            writeVarint(buffer, buckets.size());
+            for (int i = 0; i < buckets.size(); ++i) {
+                writeVarint(buffer, Double.doubleToRawLongBits(buckets.getValue(i)) >>> shift);
+                writeVarint(buffer, buckets.getCount(i));
+            }
+        }
+    }
+
+    private static boolean hasCountedSamples(final Map<String, List<Quantity>> metrics) {
+        for (final List<Quantity> samples : metrics.values()) {
+            if (samples instanceof ExpandedSampleList) {
+                return true;
+            }
+            for (final Quantity sample : samples) {
+                if (sample instanceof CountedQuantity) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Histogram readHistogram(final Reader reader) throws IOException {
+        final int precision = reader.readByte();
+        if (precision < 0 || precision > MANTISSA_BITS) {
+            throw new IOException(String.format("Invalid histogram precision. Precision=%d", precision));
+        }
+        final double sum = reader.readDouble();
+        final double min = reader.readDouble();
+        final double max = reader.readDouble();
+        final int bucketCount = reader.readCount();
+        final double[] values = new double[bucketCount];
+        final long[] counts = new long[bucketCount];
+        for (int i = 0; i < bucketCount; ++i) {
+            values[i] = Double.longBitsToDouble(reader.readVarint() << (MANTISSA_BITS - precision));
+            counts[i] = reader.readVarint();
+            if (counts[i] <= 0) {
+                throw new IOException(String.format("Invalid histogram bucket count. Count=%d", counts[i]));
+            }
+        }
+        return new Histogram(precision, values, counts, sum, min, max);
+    }
+
+    private static void addSamples(final Map<String, Histogram> histograms, final Map<String, List<Quantity>> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        // Timers written as samples alongside histograms are held in histograms of the same precision
+        final int precision = histograms.values().iterator().next().getPrecision();
+        for (final Map.Entry<String, List<Quantity>> entry : samples.entrySet()) {
+            final Histogram histogram = new Histogram(precision);
+            for (final Quantity quantity : entry.getValue()) {
+                histogram.record(quantity.getValue().doubleValue());
+            }
+            final Histogram existing = histograms.putIfAbsent(entry.getKey(), histogram);
+            if (existing != null) {
+                existing.merge(histogram);
+            }
+        }
+    }
+
+    private static Map<String, List<Quantity>> readMetrics(
+            final Reader reader,
+            final String[] strings,
+            @Nullable final Map<String, Histogram> histograms) throws IOException {
+        final int metricCount = reader.readCount();
+        final Map<String, List<Quantity>> metrics = new LinkedHashMap<>();
+        for (int i = 0; i < metricCount; ++i) {
+            final String name = reader.readString(strings);
+            final byte kind = reader.readByte();
+            if (kind == KIND_HISTOGRAM) {
+                if (histograms == null) {
+                    throw new IOException(String.format("Histograms are only supported for timers. Name=%s", name));
+                }
+                histograms.put(name, readHistogram(reader));
+                continue;
+            }
+            final int sampleCount = reader.readCount();
+            final List<Quantity> samples = new ArrayList<>(sampleCount);
+            for (int j = 0; j < sampleCount; ++j) {
+                samples.add(SinkVerticle.DefaultQuantity.newInstance(reader.readValue(kind == KIND_MIXED ? reader.readByte() : kind)));
+            }
+            metrics.put(name, samples);
+        }
+        return metrics;
+    }
+
+    private static byte getKind(final List<? extends Quantity> samples) throws IOException {
+        boolean integral = false;
+        boolean nonIntegral = false;
+        for (final Quantity sample : samples) {
+            final Number value = sample.getValue();
+            if (value == null) {
+                throw new IOException("Sample value cannot be null.");
+            }
+            if (isIntegral(value)) {
+                integral = true;
+            } else {
+                nonIntegral = true;
+            }
+        }
+        if (integral && nonIntegral) {
+            return KIND_MIXED;
+        }
+        return nonIntegral ? KIND_DOUBLE : KIND_INTEGRAL;
+    }
+
+    private static boolean isIntegral(final Number value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static int intern(final Map<String, Integer> strings, final String string) throws IOException {
+        if (string == null) {
+            throw new IOException("String cannot be null.");
+        }
+        final Integer index = strings.putIfAbsent(string, strings.size());
+        return index == null ? strings.size() - 1 : index;
+    }
+
+    private static void writeVarint(final Buffer buffer, final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.appendByte((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.appendByte((byte) remaining);
+    }
+
+    private final StringInterner _interner;
+
+    /**
+     * The identifier of the format.
+     */
+    public static final byte ID = 2;
+
+    private static final byte KIND_INTEGRAL = 0;
+    private static final byte KIND_DOUBLE = 1;
+    private static final byte KIND_MIXED = 2;
+    private static final byte KIND_HISTOGRAM = 3;
+    private static final int MANTISSA_BITS = 52;
+
+    /**
+     * Reader of a region of a buffer.
+     */
+    private static final class Reader {
+
+        Reader(final Buffer buffer, final int position, final int limit) {
+            _buffer = buffer;
+            _position = position;
+            _limit = limit;
+        }
+
+        byte readByte() throws IOException {
+            if (_position >= _limit) {
+                throw new IOException("Truncated message.");
+            }
+            return _buffer.getByte(_position++);
+        }
+
+        long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                final byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint.");
+        }
+
+        int readCount() throws IOException {
+            final long count = readVarint();
+            // Every counted element takes at least one byte; reject counts which cannot fit before allocating
+            if (count < 0 || count > _limit - _position) {
+                throw new IOException(String.format("Invalid count. Count=%d", count));
+            }
+            return (int) count;
+        }
+
+        String readString(final String[] strings) throws IOException {
+            final long index = readVarint();
+            if (index < 0 || index >= strings.length) {
+                throw new IOException(String.format("Invalid string reference. Index=%d", index));
+            }
+            return strings[(int) index];
+        }
+
+        double readDouble() throws IOException {
+            if (_limit - _position < Double.BYTES) {
+                throw new IOException("Truncated message.");
+            }
+            final double value = _buffer.getDouble(_position);
+            _position += Double.BYTES;
+            return value;
+        }
+
+        Number readValue(final byte kind) throws IOException {
+            if (kind == KIND_INTEGRAL) {
+                final long value = readVarint();
+                return (value >>> 1) ^ -(value & 1);
+            } else if (kind == KIND_DOUBLE) {
+                return readDouble();
+            }
+            throw new IOException(String.format("Invalid sample kind. Kind=%d", kind));
+        }
+
+        private final Buffer _buffer;
+        private int _position;
+        private final int _limit;
+    }
+}
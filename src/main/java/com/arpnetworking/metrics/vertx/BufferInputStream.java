@@ -0,0 +1,80 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.io.InputStream;
+
+/**
+ * {@link InputStream} reading a {@link Buffer} from a position to its end.
+ * Decoders which read from streams, such as Jackson parsers, then read the
+ * message body in chunks into their own recycled buffers instead of from a
+ * copy of the whole body.
+ *
+ * @author agent (agent at local)
+ */
+final class BufferInputStream extends InputStream {
+
+    /**
+     * Package private constructor.
+     *
+     * @param buffer The {@link Buffer} to read.
+     * @param position The position to start reading at.
+     */
+    BufferInputStream(final Buffer buffer, final int position) {
+        _buffer = buffer;
+        _position = position;
+    }
+
+    @Override
+    public int read() {
+        if (_position >= _buffer.length()) {
+            return -1;
+        }
+        return _buffer.getUnsignedByte(_position++);
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) {
+        if (len == 0) {
+            return 0;
+        }
+        final int available = available();
+        if (available == 0) {
+            return -1;
+        }
+        final int count = Math.min(len, available);
+        _buffer.getBytes(_position, _position + count, b, off);
+        _position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) {
+        final int count = (int) Math.max(0, Math.min(n, available()));
+        _position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return Math.max(0, _buffer.length() - _position);
+    }
+
+    private final Buffer _buffer;
+    private int _position;
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.io.OutputStream;
+
+/**
+ * {@link OutputStream} appending to a {@link Buffer}. Encoders which write to
+ * streams, such as Jackson generators, then write directly into the message
+ * body instead of into an intermediate array or string.
+ *
+ * @author agent (agent at local)
+ */
+final class BufferOutputStream extends OutputStream {
+
+    /**
+     * Package private constructor.
+     *
+     * @param buffer The {@link Buffer} to append to.
+     */
+    BufferOutputStream(final Buffer buffer) {
+        _buffer = buffer;
+    }
+
+    @Override
+    public void write(final int b) {
+        _buffer.appendByte((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        _buffer.appendBytes(b, off, len);
+    }
+
+    private final Buffer _buffer;
+}
@@ -0,0 +1,503 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Implementation of {@link Event} which stores the samples of each metric in
+ * a primitive array instead of as a {@link List} of boxed {@link Quantity}
+ * instances. Sinks aware of this implementation may read the samples directly
+ * through {@link #getTimers()}, {@link #getCounters()} and {@link #getGauges()}.
+ * The {@link Quantity} based accessors of {@link Event} are supported through
+ * views over the primitive samples which are only created on first use.
+ *
+ * Samples recorded as integral values are exposed as {@link Long} and all other
+ * samples as {@link Double} through the {@link Quantity} views.
+ *
+ * @author agent (agent at local)
+ */
+public final class CompactEvent implements Event {
+
+    /**
+     * Create a compact copy of an {@link Event}. Samples without a value are
+     * ignored and the value of a {@link CountedQuantity} is added once per
+     * sample it stands for.
+     *
+     * @param event The {@link Event} to copy.
+     * @return An instance of {@link CompactEvent}.
+     */
+    public static CompactEvent copyOf(final Event event) {
+        if (event instanceof CompactEvent) {
+            return (CompactEvent) event;
+        }
+        final Builder builder = new Builder().setAnnotations(event.getAnnotations());
+        copySamples(event.getTimerSamples(), builder._timers);
+        copySamples(event.getCounterSamples(), builder._counters);
+        copySamples(event.getGaugeSamples(), builder._gauges);
+        return builder.build();
+    }
+
+    @Override
+    public Map<String, String> getAnnotations() {
+        return _annotations;
+    }
+
+    /**
+     * Accessor for the primitive timer samples.
+     *
+     * @return Timer samples by timer name.
+     */
+    public Map<String, Samples> getTimers() {
+        return _timers;
+    }
+
+    /**
+     * Accessor for the primitive counter samples.
+     *
+     * @return Counter samples by counter name.
+     */
+    public Map<String, Samples> getCounters() {
+        return _counters;
+    }
+
+    /**
+     * Accessor for the primitive gauge samples.
+     *
+     * @return Gauge samples by gauge name.
+     */
+    public Map<String, Samples> getGauges() {
+        return _gauges;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getTimerSamples() {
+        Map<String, List<Quantity>> timerSamples = _timerSamples;
+        if (timerSamples == null) {
+            timerSamples = createQuantityView(_timers);
+            _timerSamples = timerSamples;
+        }
+        return timerSamples;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getCounterSamples() {
+        Map<String, List<Quantity>> counterSamples = _counterSamples;
+        if (counterSamples == null) {
+            counterSamples = createQuantityView(_counters);
+            _counterSamples = counterSamples;
+        }
+        return counterSamples;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getGaugeSamples() {
+        Map<String, List<Quantity>> gaugeSamples = _gaugeSamples;
+        if (gaugeSamples == null) {
+            gaugeSamples = createQuantityView(_gauges);
+            _gaugeSamples = gaugeSamples;
+        }
+        return gaugeSamples;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompactEvent)) {
+            return false;
+        }
+        final CompactEvent otherEvent = (CompactEvent) other;
+        return Objects.equals(_annotations, otherEvent._annotations)
+                && Objects.equals(_timers, otherEvent._timers)
+                && Objects.equals(_counters, otherEvent._counters)
+                && Objects.equals(_gauges, otherEvent._gauges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(_annotations, _timers, _counters, _gauges);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "CompactEvent{Annotations=%s, Timers=%s, Counters=%s, Gauges=%s}",
+                _annotations,
+                _timers,
+                _counters,
+                _gauges);
+    }
+
+    private static void copySamples(final Map<String, List<Quantity>> source, final Map<String, Samples.Builder> target) {
+        for (final Map.Entry<String, List<Quantity>> entry : source.entrySet()) {
+            final Samples.Builder builder = Builder.getOrCreate(target, entry.getKey());
+            for (final Quantity quantity : ExpandedSampleList.compact(entry.getValue())) {
+                if (quantity != null && quantity.getValue() != null) {
+                    final Number value = quantity.getValue();
+                    for (long i = CountedQuantity.countOf(quantity); i > 0; --i) {
+                        builder.add(value);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Map<String, List<Quantity>> createQuantityView(final Map<String, Samples> samplesByName) {
+        final Map<String, List<Quantity>> view = new LinkedHashMap<>(capacityFor(samplesByName.size()));
+        for (final Map.Entry<String, Samples> entry : samplesByName.entrySet()) {
+            view.put(entry.getKey(), entry.getValue().asQuantities());
+        }
+        return Collections.unmodifiableMap(view);
+    }
+
+    private static Map<String, Samples> buildSamples(final Map<String, Samples.Builder> builders) {
+        if (builders.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Samples> samplesByName = new LinkedHashMap<>(capacityFor(builders.size()));
+        for (final Map.Entry<String, Samples.Builder> entry : builders.entrySet()) {
+            samplesByName.put(entry.getKey(), entry.getValue().build());
+        }
+        return Collections.unmodifiableMap(samplesByName);
+    }
+
+    private static int capacityFor(final int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private CompactEvent(final Builder builder) {
+        _annotations = Collections.unmodifiableMap(builder._annotations);
+        _timers = buildSamples(builder._timers);
+        _counters = buildSamples(builder._counters);
+        _gauges = buildSamples(builder._gauges);
+    }
+
+    private final Map<String, String> _annotations;
+    private final Map<String, Samples> _timers;
+    private final Map<String, Samples> _counters;
+    private final Map<String, Samples> _gauges;
+    private volatile Map<String, List<Quantity>> _timerSamples;
+    private volatile Map<String, List<Quantity>> _counterSamples;
+    private volatile Map<String, List<Quantity>> _gaugeSamples;
+
+    /**
+     * The samples of one metric stored in a primitive array. Integral samples
+     * are stored as {@code long} values until the first non-integral sample is
+     * added after which all samples are stored as {@code double} values.
+     */
+    public static final class Samples {
+
+        /**
+         * Accessor for the number of samples.
+         *
+         * @return The number of samples.
+         */
+        public int size() {
+            return _size;
+        }
+
+        /**
+         * Whether all samples were recorded as integral values.
+         *
+         * @return True if and only if all samples are integral values.
+         */
+        public boolean isIntegral() {
+            return _longs != null;
+        }
+
+        /**
+         * Accessor for a sample as a {@code long} value. Non-integral samples
+         * are truncated.
+         *
+         * @param index The index of the sample.
+         * @return The sample value.
+         */
+        public long getLong(final int index) {
+            checkIndex(index);
+            return _longs != null ? _longs[index] : (long) _doubles[index];
+        }
+
+        /**
+         * Accessor for a sample as a {@code double} value.
+         *
+         * @param index The index of the sample.
+         * @return The sample value.
+         */
+        public double getDouble(final int index) {
+            checkIndex(index);
+            return _longs != null ? _longs[index] : _doubles[index];
+        }
+
+        /**
+         * Accessor for the samples as a {@link List} of {@link Quantity}. The
+         * view is created on first access and {@link Quantity} instances are
+         * created as elements are accessed.
+         *
+         * @return The samples as a {@link List} of {@link Quantity}.
+         */
+        public List<Quantity> asQuantities() {
+            List<Quantity> quantities = _quantities;
+            if (quantities == null) {
+                quantities = new QuantityList(this);
+                _quantities = quantities;
+            }
+            return quantities;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Samples)) {
+                return false;
+            }
+            final Samples otherSamples = (Samples) other;
+            return Arrays.equals(_longs, otherSamples._longs)
+                    && Arrays.equals(_doubles, otherSamples._doubles);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(_longs) + Arrays.hashCode(_doubles);
+        }
+
+        @Override
+        public String toString() {
+            return _longs != null ? Arrays.toString(_longs) : Arrays.toString(_doubles);
+        }
+
+        private Number getNumber(final int index) {
+            return _longs != null ? (Number) _longs[index] : (Number) _doubles[index];
+        }
+
+        private void checkIndex(final int index) {
+            if (index < 0 || index >= _size) {
+                throw new IndexOutOfBoundsException(String.format("Index=%d, Size=%d", index, _size));
+            }
+        }
+
+        private Samples(final long[] longs, final double[] doubles, final int size) {
+            _longs = longs;
+            _doubles = doubles;
+            _size = size;
+        }
+
+        private final long[] _longs;
+        private final double[] _doubles;
+        private final int _size;
+        private volatile List<Quantity> _quantities;
+
+        /**
+         * Builder for {@link Samples}.
+         */
+        static final class Builder {
+
+            Samples build() {
+                if (_doubles != null) {
+                    return new Samples(null, Arrays.copyOf(_doubles, _size), _size);
+                }
+                return new Samples(Arrays.copyOf(_longs, _size), null, _size);
+            }
+
+            void add(final long value) {
+                if (_doubles != null) {
+                    add((double) value);
+                    return;
+                }
+                if (_size == _longs.length) {
+                    _longs = Arrays.copyOf(_longs, _size * 2);
+                }
+                _longs[_size++] = value;
+            }
+
+            void add(final double value) {
+                if (_doubles == null) {
+                    _doubles = new double[_longs.length];
+                    for (int i = 0; i < _size; ++i) {
+                        _doubles[i] = _longs[i];
+                    }
+                    _longs = null;
+                }
+                if (_size == _doubles.length) {
+                    _doubles = Arrays.copyOf(_doubles, _size * 2);
+                }
+                _doubles[_size++] = value;
+            }
+
+            void add(final Number value) {
+                if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    add(value.longValue());
+                } else {
+                    add(value.doubleValue());
+                }
+            }
+
+            private long[] _longs = new long[INITIAL_CAPACITY];
+            private double[] _doubles;
+            private int _size;
+
+            private static final int INITIAL_CAPACITY = 4;
+        }
+    }
+
+    /**
+     * Builder implementation for {@link CompactEvent}.
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link CompactEvent}.
+         *
+         * @return An instance of {@link CompactEvent}.
+         */
+        public CompactEvent build() {
+            if (_annotations == null) {
+                throw new IllegalArgumentException("Annotations cannot be null.");
+            }
+            return new CompactEvent(this);
+        }
+
+        /**
+         * Sets the annotations.
+         *
+         * @param value A {@link Map} for annotations.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setAnnotations(final Map<String, String> value) {
+            _annotations = value;
+            return this;
+        }
+
+        /**
+         * Adds an integral timer sample.
+         *
+         * @param name The name of the timer.
+         * @param value The sample value.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder addTimerSample(final String name, final long value) {
+            getOrCreate(_timers, name).add(value);
+            return this;
+        }
+
+        /**
+         * Adds a timer sample.
+         *
+         * @param name The name of the timer.
+         * @param value The sample value.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder addTimerSample(final String name, final double value) {
+            getOrCreate(_timers, name).add(value);
+            return this;
+        }
+
+        /**
+         * Adds an integral counter sample.
+         *
+         * @param name The name of the counter.
+         * @param value The sample value.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder addCounterSample(final String name, final long value) {
+            getOrCreate(_counters, name).add(value);
+            return this;
+        }
+
+        /**
+         * Adds a counter sample.
+         *
+         * @param name The name of the counter.
+         * @param value The sample value.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder addCounterSample(final String name, final double value) {
+            getOrCreate(_counters, name).add(value);
+            return this;
+        }
+
+        /**
+         * Adds an integral gauge sample.
+         *
+         * @param name The name of the gauge.
+         * @param value The sample value.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder addGaugeSample(final String name, final long value) {
+            getOrCreate(_gauges, name).add(value);
+            return this;
+        }
+
+        /**
+         * Adds a gauge sample.
+         *
+         * @param name The name of the gauge.
+         * @param value The sample value.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder addGaugeSample(final String name, final double value) {
+            getOrCreate(_gauges, name).add(value);
+            return this;
+        }
+
+        private static Samples.Builder getOrCreate(final Map<String, Samples.Builder> builders, final String name) {
+            Samples.Builder builder = builders.get(name);
+            if (builder == null) {
+                builder = new Samples.Builder();
+                builders.put(name, builder);
+            }
+            return builder;
+        }
+
+        private Map<String, String> _annotations;
+        private final Map<String, Samples.Builder> _timers = new LinkedHashMap<>();
+        private final Map<String, Samples.Builder> _counters = new LinkedHashMap<>();
+        private final Map<String, Samples.Builder> _gauges = new LinkedHashMap<>();
+    }
+
+    private static final class QuantityList extends AbstractList<Quantity> implements RandomAccess {
+
+        @Override
+        public Quantity get(final int index) {
+            _samples.checkIndex(index);
+            return SinkVerticle.DefaultQuantity.newInstance(_samples.getNumber(index));
+        }
+
+        @Override
+        public int size() {
+            return _samples.size();
+        }
+
+        QuantityList(final Samples samples) {
+            _samples = samples;
+        }
+
+        private final Samples _samples;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Quantity;
+
+import java.util.Objects;
+
+/**
+ * Implementation of {@link Quantity} standing for a number of samples of the
+ * same value. The JSON representation of the timer samples of an
+ * {@link AggregatedEvent} holds one instance per histogram bucket, carrying
+ * the count alongside the value, which the decoders of {@link SinkVerticle}
+ * accept. Since sinks expect one {@link Quantity} per sample, events only
+ * expose counted samples through an {@link ExpandedSampleList} which repeats
+ * the value once per sample.
+ *
+ * @author agent (agent at local)
+ */
+public final class CountedQuantity implements Quantity {
+
+    /**
+     * Static factory method.
+     *
+     * @param value The value of the samples.
+     * @param count The number of samples; must be positive.
+     * @return An instance of {@link CountedQuantity}.
+     */
+    public static CountedQuantity newInstance(final Number value, final long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException(String.format("Count must be positive. Count=%d", count));
+        }
+        return new CountedQuantity(value, count);
+    }
+
+    /**
+     * Returns the number of samples a {@link Quantity} stands for, which is
+     * one unless it is a {@link CountedQuantity}.
+     *
+     * @param quantity The {@link Quantity}.
+     * @return The number of samples.
+     */
+    public static long countOf(final Quantity quantity) {
+        return quantity instanceof CountedQuantity ? ((CountedQuantity) quantity)._count : 1;
+    }
+
+    @Override
+    public Number getValue() {
+        return _value;
+    }
+
+    /**
+     * Accessor for the number of samples.
+     *
+     * @return The number of samples.
+     */
+    public long getCount() {
+        return _count;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CountedQuantity)) {
+            return false;
+        }
+        final CountedQuantity otherQuantity = (CountedQuantity) other;
+        return _count == otherQuantity._count && Objects.equals(_value, otherQuantity._value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(_value, _count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CountedQuantity{Value=%s, Count=%d}", _value, _count);
+    }
+
+    private CountedQuantity(final Number value, final long count) {
+        _value = value;
+        _count = count;
+    }
+
+    private final Number _value;
+    private final long _count;
+}
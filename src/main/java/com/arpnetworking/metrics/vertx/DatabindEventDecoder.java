@@ -0,0 +1,72 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of {@link EventDecoder} using Jackson data binding into
+ * {@link SinkVerticle.DefaultEvent.Builder}. This is the reference decoder
+ * for the event format and accepts every representation data binding does,
+ * including scalar coercions, at the cost of reflection on every event.
+ * Samples with a count are exposed through an {@link ExpandedSampleList}
+ * repeating their value once per sample.
+ *
+ * @author agent (agent at local)
+ */
+public final class DatabindEventDecoder implements EventDecoder {
+
+    @Override
+    public List<Event> decode(final String json) throws IOException {
+        if (isJsonArray(json)) {
+            final SinkVerticle.DefaultEvent.Builder[] eventBuilders =
+                    OBJECT_MAPPER.readValue(json, SinkVerticle.DefaultEvent.Builder[].class);
+            final List<Event> events = new ArrayList<>(eventBuilders.length);
+            for (final SinkVerticle.DefaultEvent.Builder eventBuilder : eventBuilders) {
+                events.add(ExpandedSampleList.expand(eventBuilder.build()));
+            }
+            return events;
+        }
+        return Collections.singletonList(
+                ExpandedSampleList.expand(OBJECT_MAPPER.readValue(json, SinkVerticle.DefaultEvent.Builder.class).build()));
+    }
+
+    private static boolean isJsonArray(final String json) {
+        for (int i = 0; i < json.length(); ++i) {
+            final char c = json.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '[';
+            }
+        }
+        return false;
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        final SimpleModule module = new SimpleModule();
+        module.addDeserializer(Quantity.class, new QuantityDeserializer());
+        OBJECT_MAPPER.registerModule(module);
+    }
+}
@@ -0,0 +1,320 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.datagram.DatagramSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sink which sends events as UDP datagrams using the Vertx {@link DatagramSocket}.
+ * Delivery is not acknowledged; events are sent fire-and-forget. Each event
+ * is encoded as a line holding its JSON representation, the same as published
+ * by {@link EventBusSink} by default, and as many lines as fit within the
+ * maximum packet size are packed into each datagram. Events are encoded
+ * directly into the pending datagram; a datagram is sent once the next event
+ * does not fit and at least every flush interval.
+ *
+ * Events which do not fit in a datagram on their own, events recorded after
+ * the sink is closed and datagrams which could not be sent are dropped; the
+ * number of events, datagrams and bytes dropped is counted. The maximum
+ * packet size should leave room for the IP and UDP headers within the path
+ * MTU to avoid fragmentation.
+ *
+ * @author agent (agent at local)
+ */
+public final class DatagramSink implements Sink, AsyncCloseable, AutoCloseable {
+
+    @Override
+    public void record(final Event event) {
+        final Buffer packet;
+        final int packetEvents;
+        synchronized (_lock) {
+            if (_closed) {
+                _droppedEvents.incrementAndGet();
+                return;
+            }
+            final int start = _pending.length();
+            try {
+                OBJECT_MAPPER.writeValue(_pendingStream, event);
+                _pending.appendByte(NEWLINE);
+            } catch (final IOException e) {
+                // Discard the partially encoded event
+                resetPending(_pending.getBuffer(0, start));
+                LOGGER.warn(String.format("Failed to encode event. Address=%s:%d", _host, _port), e);
+                return;
+            }
+            final int length = _pending.length() - start;
+            if (length > _maxPacketSize) {
+                resetPending(_pending.getBuffer(0, start));
+                _droppedEvents.incrementAndGet();
+                _droppedBytes.addAndGet(length);
+                if (_loggedOversized.compareAndSet(false, true)) {
+                    LOGGER.warn("Dropping event larger than the maximum packet size. Address={}:{}, Size={}", _host, _port, length);
+                }
+                return;
+            }
+            if (_pending.length() <= _maxPacketSize) {
+                ++_pendingEvents;
+                return;
+            }
+            // The event does not fit in the pending datagram; it starts the next one
+            packet = _pending.getBuffer(0, start);
+            packetEvents = _pendingEvents;
+            resetPending(_pending.getBuffer(start, _pending.length()));
+            _pendingEvents = 1;
+        }
+        send(packet, packetEvents);
+    }
+
+    /**
+     * Sends the pending datagram and closes the socket. Does not wait for the
+     * socket to be closed.
+     */
+    @Override
+    public void close() {
+        closeAsync();
+    }
+
+    /**
+     * Sends the pending datagram and closes the socket. Events recorded after
+     * the sink is closed are dropped.
+     *
+     * @return {@link Future} completed once the socket is closed.
+     */
+    @Override
+    public Future<Void> closeAsync() {
+        synchronized (_lock) {
+            if (_closeFuture != null) {
+                return _closeFuture;
+            }
+            _closed = true;
+            _vertx.cancelTimer(_timerId);
+            // Send failures are counted rather than failed so the socket is always closed
+            _closeFuture = flush().compose(ignored -> _socket.close());
+            return _closeFuture;
+        }
+    }
+
+    /**
+     * Accessor for the number of events dropped.
+     *
+     * @return The number of events dropped since the sink was created.
+     */
+    public long getDroppedEventCount() {
+        return _droppedEvents.get();
+    }
+
+    /**
+     * Accessor for the number of datagrams which could not be sent.
+     *
+     * @return The number of datagrams dropped since the sink was created.
+     */
+    public long getDroppedPacketCount() {
+        return _droppedPackets.get();
+    }
+
+    /**
+     * Accessor for the number of encoded bytes dropped, including those of
+     * events too large for a datagram.
+     *
+     * @return The number of bytes dropped since the sink was created.
+     */
+    public long getDroppedByteCount() {
+        return _droppedBytes.get();
+    }
+
+    private Future<Void> flush() {
+        final Buffer packet;
+        final int packetEvents;
+        synchronized (_lock) {
+            if (_pending.length() == 0) {
+                return Future.succeededFuture();
+            }
+            packet = _pending;
+            packetEvents = _pendingEvents;
+            resetPending(Buffer.buffer(_maxPacketSize + INITIAL_OVERFLOW_SIZE));
+            _pendingEvents = 0;
+        }
+        return send(packet, packetEvents);
+    }
+
+    private Future<Void> send(final Buffer packet, final int packetEvents) {
+        return _socket.send(packet, _port, _host).recover(e -> {
+            _droppedEvents.addAndGet(packetEvents);
+            _droppedBytes.addAndGet(packet.length());
+            if (_droppedPackets.getAndIncrement() == 0) {
+                LOGGER.warn(String.format("Failed to send datagram; dropping events. Address=%s:%d", _host, _port), e);
+            }
+            return Future.succeededFuture();
+        });
+    }
+
+    private void resetPending(final Buffer pending) {
+        _pending = pending;
+        _pendingStream = new BufferOutputStream(_pending);
+    }
+
+    private DatagramSink(final Builder builder) {
+        _vertx = builder._vertx;
+        _host = builder._host;
+        _port = builder._port;
+        _maxPacketSize = builder._maxPacketSize;
+        _socket = _vertx.createDatagramSocket();
+        resetPending(Buffer.buffer(_maxPacketSize + INITIAL_OVERFLOW_SIZE));
+        _timerId = _vertx.setPeriodic(builder._flushInterval.toMillis(), id -> flush());
+    }
+
+    private final Vertx _vertx;
+    private final String _host;
+    private final int _port;
+    private final int _maxPacketSize;
+    private final DatagramSocket _socket;
+    private final long _timerId;
+    private final AtomicLong _droppedEvents = new AtomicLong();
+    private final AtomicLong _droppedPackets = new AtomicLong();
+    private final AtomicLong _droppedBytes = new AtomicLong();
+    private final AtomicBoolean _loggedOversized = new AtomicBoolean();
+    private final Object _lock = new Object();
+    private Buffer _pending;
+    private BufferOutputStream _pendingStream;
+    private int _pendingEvents;
+    private boolean _closed;
+    private Future<Void> _closeFuture;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatagramSink.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final byte NEWLINE = '\n';
+    // Room for the event which overflows the datagram without growing the buffer
+    private static final int INITIAL_OVERFLOW_SIZE = 512;
+
+    static {
+        // The stream is reused for each event written to the pending datagram
+        OBJECT_MAPPER.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Builder class for {@link DatagramSink}.
+     */
+    public static final class Builder {
+
+        /**
+         * Create an instance of {@link DatagramSink}.
+         *
+         * @return Instance of {@link DatagramSink}.
+         */
+        public DatagramSink build() {
+            if (_vertx == null) {
+                throw new IllegalArgumentException("Vertx cannot be null.");
+            }
+            if (_host == null || _host.isEmpty()) {
+                throw new IllegalArgumentException("Host cannot be null or empty.");
+            }
+            if (_port == null || _port < 1 || _port > MAX_PORT) {
+                throw new IllegalArgumentException("Port cannot be null or outside of 1 to 65535.");
+            }
+            if (_maxPacketSize == null || _maxPacketSize < 1 || _maxPacketSize > MAX_PACKET_SIZE) {
+                throw new IllegalArgumentException("MaxPacketSize cannot be null or outside of 1 to 65507.");
+            }
+            if (_flushInterval == null || _flushInterval.toMillis() < 1) {
+                throw new IllegalArgumentException("FlushInterval cannot be null or less than one millisecond.");
+            }
+            return new DatagramSink(this);
+        }
+
+        /**
+         * Sets the {@link Vertx} instance whose {@link DatagramSocket} and
+         * timers are used. Required. Cannot be null.
+         *
+         * @param value The {@link Vertx} instance.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setVertx(final Vertx value) {
+            _vertx = value;
+            return this;
+        }
+
+        /**
+         * Sets the host the datagrams are sent to. Optional. Default is
+         * "localhost".
+         *
+         * @param value The host.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setHost(final String value) {
+            _host = value;
+            return this;
+        }
+
+        /**
+         * Sets the port the datagrams are sent to. Required. Cannot be null.
+         *
+         * @param value The port.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setPort(final Integer value) {
+            _port = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size in bytes of the payload of each datagram.
+         * Optional. Default is 1400, which fits within an Ethernet MTU with
+         * room for the IPv6 and UDP headers and common tunnel overhead.
+         *
+         * @param value The maximum packet size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxPacketSize(final Integer value) {
+            _maxPacketSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the interval at which a partially filled datagram is sent.
+         * Optional. Default is 100 milliseconds.
+         *
+         * @param value The flush interval.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setFlushInterval(final Duration value) {
+            _flushInterval = value;
+            return this;
+        }
+
+        private Vertx _vertx;
+        private String _host = "localhost";
+        private Integer _port;
+        private Integer _maxPacketSize = 1400;
+        private Duration _flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+        private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(100);
+        private static final int MAX_PORT = 65535;
+        private static final int MAX_PACKET_SIZE = 65507;
+    }
+}
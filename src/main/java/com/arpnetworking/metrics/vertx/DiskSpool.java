@@ -0,0 +1,615 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import io.vertx.core.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+
+/**
+ * Durable first-in first-out log of opaque records kept in a directory of
+ * fixed size, memory-mapped segment files. Records are appended to the newest
+ * segment, rolling over to a new segment when a record does not fit, and are
+ * read back in order from the oldest segment, which is deleted once it has
+ * been read. Because the segments are mapped rather than buffered the records
+ * do not occupy the heap regardless of how many are retained.
+ *
+ * Each record is stored as its length and the CRC32 checksum of its payload
+ * followed by the payload. A record whose length is invalid or whose checksum
+ * does not match is treated as the end of the valid data in its segment; the
+ * remainder of the segment is skipped and counted as corrupted. The position
+ * of the next record to read is kept in a small mapped file alongside the
+ * segments so that a spool reopened after a restart resumes where it left
+ * off. The length of the validated record at the read position is cached so
+ * that it is checked only once however often it is peeked. Records may also
+ * be inserted ahead of those already spooled; these are written to new
+ * segments which precede the oldest segment. Records are written through the
+ * page cache and survive the process exiting; {@link #close()} additionally
+ * forces them to the storage device.
+ *
+ * Once the segments exceed the maximum size the oldest segment is deleted and
+ * the records it still held are counted as dropped. The mapping of a segment
+ * is released when it is deleted rather than when it is garbage collected,
+ * where the runtime permits it. All methods are synchronized; instances may
+ * be shared between threads.
+ *
+ * @author agent (agent at local)
+ */
+public final class DiskSpool implements AutoCloseable {
+
+    /**
+     * Append a record to the spool.
+     *
+     * @param record The {@link Buffer} holding the record.
+     * @throws IOException if a new segment cannot be created.
+     */
+    public synchronized void append(final Buffer record) throws IOException {
+        checkOpen();
+        checkLength(record.length());
+        if (_writeOffset + RECORD_HEADER_SIZE + record.length() > _segmentSize) {
+            roll();
+        }
+        _writeOffset = write(_segments.getLast().getBuffer(), _writeOffset, record.getBytes());
+        enforceRetention();
+    }
+
+    /**
+     * Insert records ahead of those already in the spool so that they are
+     * read first and in the order given. The records not yet read from the
+     * oldest segment are rewritten after the inserted records and that
+     * segment is deleted.
+     *
+     * @param records The {@link Buffer} instances holding the records.
+     * @throws IOException if a new segment cannot be created.
+     */
+    public synchronized void prepend(final List<Buffer> records) throws IOException {
+        checkOpen();
+        if (records.isEmpty()) {
+            return;
+        }
+        final List<byte[]> payloads = new ArrayList<>();
+        for (final Buffer record : records) {
+            checkLength(record.length());
+            payloads.add(record.getBytes());
+        }
+        final Segment first = _segments.getFirst();
+        final boolean isWriteSegment = _segments.size() == 1;
+        int offset = _readOffset;
+        int length;
+        while ((!isWriteSegment || offset < _writeOffset) && (length = validate(first, offset)) > 0) {
+            final byte[] bytes = new byte[length];
+            first.getBuffer().get(offset + RECORD_HEADER_SIZE, bytes);
+            payloads.add(bytes);
+            offset += RECORD_HEADER_SIZE + length;
+        }
+
+        // The new segments take the identifiers immediately preceding the oldest segment
+        int count = 1;
+        offset = SEGMENT_HEADER_SIZE;
+        for (final byte[] bytes : payloads) {
+            if (offset + RECORD_HEADER_SIZE + bytes.length > _segmentSize) {
+                ++count;
+                offset = SEGMENT_HEADER_SIZE;
+            }
+            offset += RECORD_HEADER_SIZE + bytes.length;
+        }
+        final List<Segment> created = new ArrayList<>(count);
+        try {
+            created.add(createSegment(first.getId() - count));
+            offset = SEGMENT_HEADER_SIZE;
+            for (final byte[] bytes : payloads) {
+                if (offset + RECORD_HEADER_SIZE + bytes.length > _segmentSize) {
+                    created.add(createSegment(created.get(created.size() - 1).getId() + 1));
+                    offset = SEGMENT_HEADER_SIZE;
+                }
+                offset = write(created.get(created.size() - 1).getBuffer(), offset, bytes);
+            }
+        } catch (final IOException e) {
+            for (final Segment segment : created) {
+                release(segment);
+            }
+            throw e;
+        }
+
+        _segments.removeFirst();
+        for (int i = created.size() - 1; i >= 0; --i) {
+            _segments.addFirst(created.get(i));
+        }
+        if (isWriteSegment) {
+            _writeOffset = offset;
+        }
+        _readOffset = SEGMENT_HEADER_SIZE;
+        _headLength = 0;
+        // A crash before the replaced segment is deleted replays its records twice rather than losing them
+        savePosition();
+        release(first);
+        enforceRetention();
+    }
+
+    /**
+     * Read the oldest record in the spool without removing it.
+     *
+     * @return The {@link Buffer} holding the oldest record or {@code null} if
+     * the spool is empty.
+     */
+    @Nullable
+    public synchronized Buffer peek() {
+        checkOpen();
+        final int length = seek();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        _segments.getFirst().getBuffer().get(_readOffset + RECORD_HEADER_SIZE, bytes);
+        return Buffer.buffer(bytes);
+    }
+
+    /**
+     * Remove the oldest record in the spool, if any.
+     */
+    public synchronized void remove() {
+        checkOpen();
+        final int length = seek();
+        if (length >= 0) {
+            _readOffset += RECORD_HEADER_SIZE + length;
+            _headLength = 0;
+            savePosition();
+        }
+    }
+
+    /**
+     * Whether the spool holds no records.
+     *
+     * @return True if and only if the spool holds no records.
+     */
+    public synchronized boolean isEmpty() {
+        checkOpen();
+        return seek() < 0;
+    }
+
+    /**
+     * Accessor for the space used by the segments on disk.
+     *
+     * @return The space used by the segments in bytes.
+     */
+    public synchronized long getSize() {
+        return (long) _segments.size() * _segmentSize;
+    }
+
+    /**
+     * Accessor for the number of records dropped to keep the spool within its
+     * maximum size.
+     *
+     * @return The number of records dropped since the spool was opened.
+     */
+    public synchronized long getDroppedCount() {
+        return _dropped;
+    }
+
+    /**
+     * Accessor for the number of corrupted segments detected.
+     *
+     * @return The number of segments whose remaining records were skipped
+     * because of an invalid record since the spool was opened.
+     */
+    public synchronized long getCorruptedCount() {
+        return _corrupted;
+    }
+
+    /**
+     * Forces the segments and read position to the storage device and
+     * releases their mappings. The spool cannot be used once closed; the
+     * records it holds are read when a spool is next opened on the same
+     * directory.
+     */
+    @Override
+    public synchronized void close() {
+        if (_closed) {
+            return;
+        }
+        _closed = true;
+        for (final Segment segment : _segments) {
+            segment.getBuffer().force();
+            UNMAPPER.accept(segment.getBuffer());
+        }
+        _segments.clear();
+        _position.force();
+        UNMAPPER.accept(_position);
+    }
+
+    private void checkOpen() {
+        // Also guards against accessing a released mapping, which would crash the process
+        if (_closed) {
+            throw new IllegalStateException(String.format("Spool closed. Directory=%s", _directory));
+        }
+    }
+
+    private void checkLength(final int length) {
+        if (length == 0 || SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + length > _segmentSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Record length must be positive and fit in a segment. Length=%d, SegmentSize=%d", length, _segmentSize));
+        }
+    }
+
+    /**
+     * Writes a record at the offset in the segment and returns the offset
+     * following it.
+     */
+    private int write(final MappedByteBuffer buffer, final int offset, final byte[] bytes) {
+        _checksum.reset();
+        _checksum.update(bytes, 0, bytes.length);
+        buffer.putInt(offset + Integer.BYTES, (int) _checksum.getValue());
+        buffer.put(offset + RECORD_HEADER_SIZE, bytes);
+        buffer.putInt(offset, bytes.length);
+        final int next = offset + RECORD_HEADER_SIZE + bytes.length;
+        terminate(buffer, next);
+        return next;
+    }
+
+    /**
+     * Returns the length of the record at the read position, first advancing
+     * past the ends of segments and any corrupted data, or -1 if there is none.
+     */
+    private int seek() {
+        if (_headLength > 0) {
+            return _headLength;
+        }
+        while (true) {
+            final Segment segment = _segments.getFirst();
+            final boolean isWriteSegment = _segments.size() == 1;
+            if (isWriteSegment && _readOffset >= _writeOffset) {
+                return -1;
+            }
+            final int length = validate(segment, _readOffset);
+            if (length > 0) {
+                _headLength = length;
+                return length;
+            }
+            if (length < 0) {
+                ++_corrupted;
+                LOGGER.warn(String.format(
+                        "Skipping corrupted spool segment. Segment=%s, Offset=%d", segment.getPath(), _readOffset));
+            }
+            if (isWriteSegment) {
+                // Recovery only ever writes after valid records so this requires the mapped file to change under us
+                _readOffset = _writeOffset;
+                savePosition();
+                return -1;
+            }
+            deleteFirst();
+        }
+    }
+
+    /**
+     * Returns the length of a valid record at the offset, zero at the end of
+     * the records in the segment or -1 if the record is invalid.
+     */
+    private int validate(final Segment segment, final int offset) {
+        if (offset + RECORD_HEADER_SIZE > _segmentSize) {
+            return 0;
+        }
+        final MappedByteBuffer buffer = segment.getBuffer();
+        final int length = buffer.getInt(offset);
+        if (length == 0) {
+            return 0;
+        }
+        if (length < 0 || offset + RECORD_HEADER_SIZE + length > _segmentSize) {
+            return -1;
+        }
+        _checksum.reset();
+        _checksum.update(buffer.slice(offset + RECORD_HEADER_SIZE, length));
+        return (int) _checksum.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    private void roll() throws IOException {
+        final Segment segment = createSegment(_segments.getLast().getId() + 1);
+        _segments.addLast(segment);
+        _writeOffset = SEGMENT_HEADER_SIZE;
+    }
+
+    private void enforceRetention() {
+        while (getSize() > _maxSize && _segments.size() > 1) {
+            final Segment segment = _segments.getFirst();
+            int offset = _readOffset;
+            int length;
+            long dropped = 0;
+            while ((length = validate(segment, offset)) > 0) {
+                offset += RECORD_HEADER_SIZE + length;
+                ++dropped;
+            }
+            if (_dropped == 0 && dropped > 0) {
+                LOGGER.warn(String.format("Dropping spooled records; spool full. Directory=%s", _directory));
+            }
+            _dropped += dropped;
+            deleteFirst();
+        }
+    }
+
+    private void deleteFirst() {
+        final Segment segment = _segments.removeFirst();
+        _readOffset = SEGMENT_HEADER_SIZE;
+        _headLength = 0;
+        savePosition();
+        release(segment);
+    }
+
+    private void release(final Segment segment) {
+        UNMAPPER.accept(segment.getBuffer());
+        try {
+            Files.deleteIfExists(segment.getPath());
+        } catch (final IOException e) {
+            LOGGER.warn(String.format("Failed to delete spool segment. Segment=%s", segment.getPath()), e);
+        }
+    }
+
+    private void savePosition() {
+        _position.putLong(0, _segments.getFirst().getId());
+        _position.putInt(Long.BYTES, _readOffset);
+    }
+
+    private Segment createSegment(final long id) throws IOException {
+        final Path path = _directory.resolve(String.format(SEGMENT_FILE_FORMAT, id));
+        final MappedByteBuffer buffer = map(path, _segmentSize);
+        buffer.putInt(0, SEGMENT_MAGIC);
+        terminate(buffer, SEGMENT_HEADER_SIZE);
+        return new Segment(id, path, buffer);
+    }
+
+    private void terminate(final MappedByteBuffer buffer, final int offset) {
+        if (offset + Integer.BYTES <= _segmentSize) {
+            buffer.putInt(offset, 0);
+        }
+    }
+
+    private void open() throws IOException {
+        final List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(_directory, "*" + SEGMENT_FILE_SUFFIX)) {
+            for (final Path path : stream) {
+                final String name = path.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_SUFFIX.length())));
+                } catch (final NumberFormatException e) {
+                    LOGGER.warn(String.format("Ignoring unexpected file in spool directory. File=%s", path));
+                }
+            }
+        }
+        Collections.sort(ids);
+        final long firstUnreadId = _position.getLong(0);
+        for (final long id : ids) {
+            final Path path = _directory.resolve(String.format(SEGMENT_FILE_FORMAT, id));
+            if (id < firstUnreadId || Files.size(path) != _segmentSize) {
+                if (id >= firstUnreadId) {
+                    ++_corrupted;
+                    LOGGER.warn(String.format("Deleting spool segment of unexpected size. Segment=%s", path));
+                }
+                Files.delete(path);
+                continue;
+            }
+            final MappedByteBuffer buffer = map(path, _segmentSize);
+            if (buffer.getInt(0) != SEGMENT_MAGIC) {
+                ++_corrupted;
+                LOGGER.warn(String.format("Deleting spool segment with invalid header. Segment=%s", path));
+                Files.delete(path);
+                continue;
+            }
+            _segments.addLast(new Segment(id, path, buffer));
+        }
+        if (_segments.isEmpty()) {
+            _segments.addLast(createSegment(Math.max(firstUnreadId, ids.isEmpty() ? 0 : ids.get(ids.size() - 1) + 1)));
+        }
+
+        // Records after the last valid one in the newest segment were torn by an unclean shutdown
+        final Segment last = _segments.getLast();
+        int offset = SEGMENT_HEADER_SIZE;
+        int length;
+        while ((length = validate(last, offset)) > 0) {
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        _writeOffset = offset;
+        terminate(last.getBuffer(), _writeOffset);
+
+        _readOffset = _segments.getFirst().getId() == firstUnreadId
+                ? Math.max(_position.getInt(Long.BYTES), SEGMENT_HEADER_SIZE)
+                : SEGMENT_HEADER_SIZE;
+        if (_segments.size() == 1) {
+            _readOffset = Math.min(_readOffset, _writeOffset);
+        }
+        savePosition();
+    }
+
+    private static MappedByteBuffer map(final Path path, final int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping remains valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static Consumer<ByteBuffer> createUnmapper() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final Object unsafe = field.get(null);
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            return buffer -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (final IllegalAccessException | InvocationTargetException e) {
+                    LOGGER.debug("Failed to release spool mapping; it is released once garbage collected.", e);
+                }
+            };
+        } catch (final ReflectiveOperationException | SecurityException | InaccessibleObjectException e) {
+            LOGGER.debug("Releasing spool mappings unsupported; they are released once garbage collected.", e);
+            return buffer -> { };
+        }
+    }
+
+    private DiskSpool(final Builder builder) throws IOException {
+        _directory = builder._directory;
+        _segmentSize = builder._segmentSize;
+        _maxSize = builder._maxSize;
+        Files.createDirectories(_directory);
+        _position = map(_directory.resolve(POSITION_FILE_NAME), POSITION_SIZE);
+        open();
+    }
+
+    private final Path _directory;
+    private final int _segmentSize;
+    private final long _maxSize;
+    private final MappedByteBuffer _position;
+    private final Deque<Segment> _segments = new ArrayDeque<>();
+    private final CRC32 _checksum = new CRC32();
+    private int _readOffset;
+    private int _writeOffset;
+    private int _headLength;
+    private long _dropped;
+    private long _corrupted;
+    private boolean _closed;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskSpool.class);
+    private static final String SEGMENT_FILE_SUFFIX = ".segment";
+    private static final String SEGMENT_FILE_FORMAT = "%020d" + SEGMENT_FILE_SUFFIX;
+    private static final String POSITION_FILE_NAME = "position";
+    private static final int POSITION_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int SEGMENT_MAGIC = 0x4D535031;
+    private static final int SEGMENT_HEADER_SIZE = Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MIN_SEGMENT_SIZE = 1024;
+    private static final Consumer<ByteBuffer> UNMAPPER = createUnmapper();
+
+    /**
+     * A segment file and its mapping.
+     */
+    private static final class Segment {
+
+        Segment(final long id, final Path path, final MappedByteBuffer buffer) {
+            _id = id;
+            _path = path;
+            _buffer = buffer;
+        }
+
+        public long getId() {
+            return _id;
+        }
+
+        public Path getPath() {
+            return _path;
+        }
+
+        public MappedByteBuffer getBuffer() {
+            return _buffer;
+        }
+
+        private final long _id;
+        private final Path _path;
+        private final MappedByteBuffer _buffer;
+    }
+
+    /**
+     * Builder for {@link DiskSpool}.
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link DiskSpool}, opening the records already
+         * spooled in the directory.
+         *
+         * @return An instance of {@link DiskSpool}.
+         * @throws IOException if the directory cannot be opened.
+         */
+        public DiskSpool build() throws IOException {
+            if (_directory == null) {
+                throw new IllegalArgumentException("Directory cannot be null.");
+            }
+            if (_segmentSize == null || _segmentSize < MIN_SEGMENT_SIZE) {
+                throw new IllegalArgumentException(String.format(
+                        "SegmentSize cannot be null or less than %d.", MIN_SEGMENT_SIZE));
+            }
+            if (_maxSize == null || _maxSize < 2L * _segmentSize) {
+                throw new IllegalArgumentException("MaxSize cannot be null or less than twice the segment size.");
+            }
+            return new DiskSpool(this);
+        }
+
+        /**
+         * Sets the directory holding the segments. Required. Cannot be null.
+         * The directory is created if it does not exist and must not be used
+         * by more than one spool at a time.
+         *
+         * @param value The directory.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setDirectory(final Path value) {
+            _directory = value;
+            return this;
+        }
+
+        /**
+         * Sets the size of each segment file in bytes, which bounds the size
+         * of a record. Optional. Default is 16 MiB. Cannot be less than 1 KiB.
+         * Must be unchanged when reopening an existing spool.
+         *
+         * @param value The segment size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setSegmentSize(final Integer value) {
+            _segmentSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum space used by the segments in bytes beyond which
+         * the oldest records are dropped. Optional. Default is 1 GiB. Cannot be
+         * less than twice the segment size.
+         *
+         * @param value The maximum size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxSize(final Long value) {
+            _maxSize = value;
+            return this;
+        }
+
+        private Path _directory;
+        private Integer _segmentSize = 16 * 1024 * 1024;
+        private Long _maxSize = 1024L * 1024 * 1024;
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.arpnetworking.metrics.Sink;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sink which folds the recorded events into per annotation set and per metric
+ * statistics until they are flushed as {@link AggregatedEvent} instances. Events
+ * are grouped by their annotations excluding the per event "_id", "_start" and
+ * "_end" annotations; the aggregated events are instead annotated with a new
+ * identifier and the start and end of the window. Counter samples are summed,
+ * gauge samples are reduced according to the {@link GaugePolicy} and timer
+ * samples are recorded in a {@link Histogram} per timer. The timer histograms
+ * of recorded {@link AggregatedEvent} instances are merged bucket by bucket
+ * rather than sample by sample.
+ *
+ * Sample values recorded as integral numbers remain integral while their sum
+ * does not overflow. This class is not thread safe.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventAggregator implements Sink {
+
+    @Override
+    public void record(final Event event) {
+        if (_windowStart == null) {
+            _windowStart = Instant.now();
+        }
+        final Map<String, String> key = new LinkedHashMap<>(event.getAnnotations());
+        key.remove(ID_KEY);
+        key.remove(START_KEY);
+        key.remove(END_KEY);
+        _buckets.computeIfAbsent(key, annotations -> new Bucket()).record(event);
+    }
+
+    /**
+     * Creates the aggregated events for the current window and starts a new window.
+     *
+     * @return The {@link List} of aggregated events; empty if no events were recorded.
+     */
+    public List<Event> flush() {
+        if (_buckets.isEmpty()) {
+            _windowStart = null;
+            return Collections.emptyList();
+        }
+        final String start = _windowStart.toString();
+        final String end = Instant.now().toString();
+        final List<Event> events = new ArrayList<>(_buckets.size());
+        for (final Map.Entry<Map<String, String>, Bucket> entry : _buckets.entrySet()) {
+            final Map<String, String> annotations = new LinkedHashMap<>(entry.getKey());
+            annotations.put(ID_KEY, UUID.randomUUID().toString());
+            annotations.put(START_KEY, start);
+            annotations.put(END_KEY, end);
+            events.add(entry.getValue().toEvent(annotations));
+        }
+        _buckets.clear();
+        _windowStart = null;
+        return events;
+    }
+
+    private EventAggregator(final Builder builder) {
+        _gaugePolicy = builder._gaugePolicy;
+        _histogramPrecision = builder._histogramPrecision;
+    }
+
+    private final GaugePolicy _gaugePolicy;
+    private final int _histogramPrecision;
+    private final Map<Map<String, String>, Bucket> _buckets = new LinkedHashMap<>();
+    private Instant _windowStart;
+
+    private static final String ID_KEY = "_id";
+    private static final String START_KEY = "_start";
+    private static final String END_KEY = "_end";
+
+    /**
+     * Policies for reducing the samples of a gauge within a window.
+     */
+    public enum GaugePolicy {
+        /**
+         * Keep the last sample recorded.
+         */
+        LAST,
+        /**
+         * Keep the smallest sample recorded.
+         */
+        MIN,
+        /**
+         * Keep the largest sample recorded.
+         */
+        MAX
+    }
+
+    private final class Bucket {
+
+        void record(final Event event) {
+            if (event instanceof AggregatedEvent) {
+                recordTimers(((AggregatedEvent) event).getTimerHistograms());
+            } else {
+                recordTimers(event);
+            }
+            for (final Map.Entry<String, List<Quantity>> entry : event.getCounterSamples().entrySet()) {
+                final Sum sum = _counters.computeIfAbsent(entry.getKey(), name -> new Sum());
+                for (final Quantity quantity : entry.getValue()) {
+                    if (quantity != null && quantity.getValue() != null) {
+                        sum.add(quantity.getValue());
+                    }
+                }
+            }
+            for (final Map.Entry<String, List<Quantity>> entry : event.getGaugeSamples().entrySet()) {
+                for (final Quantity quantity : entry.getValue()) {
+                    if (quantity != null && quantity.getValue() != null) {
+                        _gauges.merge(entry.getKey(), quantity.getValue(), this::reduceGauge);
+                    }
+                }
+            }
+        }
+
+        private void recordTimers(final Event event) {
+            for (final Map.Entry<String, List<Quantity>> entry : event.getTimerSamples().entrySet()) {
+                final Histogram histogram = _timers.computeIfAbsent(entry.getKey(), name -> new Histogram(_histogramPrecision));
+                for (final Quantity quantity : ExpandedSampleList.compact(entry.getValue())) {
+                    if (quantity != null && quantity.getValue() != null) {
+                        histogram.record(quantity.getValue().doubleValue(), CountedQuantity.countOf(quantity));
+                    }
+                }
+            }
+        }
+
+        private void recordTimers(final Map<String, Histogram> timerHistograms) {
+            for (final Map.Entry<String, Histogram> entry : timerHistograms.entrySet()) {
+                final Histogram histogram = _timers.computeIfAbsent(entry.getKey(), name -> new Histogram(_histogramPrecision));
+                histogram.merge(entry.getValue());
+            }
+        }
+
+        Event toEvent(final Map<String, String> annotations) {
+            final Map<String, List<Quantity>> counterSamples = new LinkedHashMap<>();
+            for (final Map.Entry<String, Sum> entry : _counters.entrySet()) {
+                counterSamples.put(
+                        entry.getKey(),
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(entry.getValue().getValue())));
+            }
+            final Map<String, List<Quantity>> gaugeSamples = new LinkedHashMap<>();
+            for (final Map.Entry<String, Number> entry : _gauges.entrySet()) {
+                gaugeSamples.put(entry.getKey(), Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(entry.getValue())));
+            }
+            return new AggregatedEvent(annotations, _timers, counterSamples, gaugeSamples);
+        }
+
+        private Number reduceGauge(final Number current, final Number value) {
+            switch (_gaugePolicy) {
+                case MIN:
+                    return value.doubleValue() < current.doubleValue() ? value : current;
+                case MAX:
+                    return value.doubleValue() > current.doubleValue() ? value : current;
+                default:
+                    return value;
+            }
+        }
+
+        private final Map<String, Histogram> _timers = new LinkedHashMap<>();
+        private final Map<String, Sum> _counters = new LinkedHashMap<>();
+        private final Map<String, Number> _gauges = new LinkedHashMap<>();
+    }
+
+    /**
+     * Sum of sample values which remains integral while it does not overflow.
+     */
+    static final class Sum {
+
+        void add(final Number value) {
+            if (_integral && isIntegral(value)) {
+                final long longValue = value.longValue();
+                final long result = _longSum + longValue;
+                // Overflow if both operands have the opposite sign of the result
+                if (((_longSum ^ result) & (longValue ^ result)) >= 0) {
+                    _longSum = result;
+                    return;
+                }
+            }
+            if (_integral) {
+                _integral = false;
+                _doubleSum = _longSum;
+            }
+            _doubleSum += value.doubleValue();
+        }
+
+        Number getValue() {
+            return _integral ? (Number) _longSum : (Number) _doubleSum;
+        }
+
+        private static boolean isIntegral(final Number value) {
+            return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+        }
+
+        private boolean _integral = true;
+        private long _longSum;
+        private double _doubleSum;
+    }
+
+    /**
+     * Builder for {@link EventAggregator}.
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link EventAggregator}.
+         *
+         * @return An instance of {@link EventAggregator}.
+         */
+        public EventAggregator build() {
+            if (_gaugePolicy == null) {
+                throw new IllegalArgumentException("GaugePolicy cannot be null.");
+            }
+            if (_histogramPrecision == null || _histogramPrecision < 0 || _histogramPrecision > MAX_HISTOGRAM_PRECISION) {
+                throw new IllegalArgumentException("HistogramPrecision cannot be null or outside of 0 to 52.");
+            }
+            return new EventAggregator(this);
+        }
+
+        /**
+         * Sets how the samples of each gauge are reduced. Optional. Default
+         * is {@link GaugePolicy#LAST}.
+         *
+         * @param value The {@link GaugePolicy}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setGaugePolicy(final GaugePolicy value) {
+            _gaugePolicy = value;
+            return this;
+        }
+
+        /**
+         * Sets the number of mantissa bits retained by the timer histogram
+         * buckets. Optional. Default is seven.
+         *
+         * @param value The histogram precision.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setHistogramPrecision(final Integer value) {
+            _histogramPrecision = value;
+            return this;
+        }
+
+        private GaugePolicy _gaugePolicy = GaugePolicy.LAST;
+        private Integer _histogramPrecision = 7;
+
+        private static final int MAX_HISTOGRAM_PRECISION = 52;
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ordered and immutable batch of {@link Event} instances published as a
+ * single event bus message by {@link EventBusSink}.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventBatch {
+
+    /**
+     * Public constructor.
+     *
+     * @param events The {@link List} of events in the batch.
+     */
+    public EventBatch(final List<Event> events) {
+        _events = Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    /**
+     * Accessor for the events in the batch.
+     *
+     * @return The events in the order they were recorded.
+     */
+    public List<Event> getEvents() {
+        return _events;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof EventBatch)) {
+            return false;
+        }
+        final EventBatch otherBatch = (EventBatch) other;
+        return _events.equals(otherBatch._events);
+    }
+
+    @Override
+    public int hashCode() {
+        return _events.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EventBatch{Events=%s}", _events);
+    }
+
+    private final List<Event> _events;
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vertx event bus {@link MessageCodec} for {@link EventBatch} instances. As
+ * with {@link EventMessageCodec} local delivery passes the batch by reference
+ * while delivery to other nodes uses a JSON array of the events.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventBatchMessageCodec implements MessageCodec<EventBatch, EventBatch> {
+
+    /**
+     * Registers an instance of this codec with the event bus. Registering the
+     * codec more than once against the same event bus has no effect.
+     *
+     * @param eventBus The {@link EventBus} to register the codec with.
+     */
+    public static void register(final EventBus eventBus) {
+        try {
+            eventBus.registerCodec(new EventBatchMessageCodec());
+        } catch (final IllegalStateException e) {
+            LOGGER.debug("Event batch codec already registered. Name={}", NAME);
+        }
+    }
+
+    @Override
+    public void encodeToWire(final Buffer buffer, final EventBatch batch) {
+        try {
+            final byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(batch.getEvents());
+            buffer.appendInt(bytes.length);
+            buffer.appendBytes(bytes);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to encode event batch.", e);
+        }
+    }
+
+    @Override
+    public EventBatch decodeFromWire(final int position, final Buffer buffer) {
+        final int length = buffer.getInt(position);
+        final int start = position + Integer.BYTES;
+        try {
+            final SinkVerticle.DefaultEvent.Builder[] builders = OBJECT_MAPPER.readValue(
+                    buffer.getBytes(start, start + length),
+                    SinkVerticle.DefaultEvent.Builder[].class);
+            final List<Event> events = new ArrayList<>(builders.length);
+            for (final SinkVerticle.DefaultEvent.Builder builder : builders) {
+                events.add(ExpandedSampleList.expand(builder.build()));
+            }
+            return new EventBatch(events);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to decode event batch.", e);
+        }
+    }
+
+    @Override
+    public EventBatch transform(final EventBatch batch) {
+        return batch;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+
+    /**
+     * The name the codec is registered under.
+     */
+    public static final String NAME = "metrics.event.batch";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventBatchMessageCodec.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        final SimpleModule module = new SimpleModule();
+        module.addDeserializer(Quantity.class, new QuantityDeserializer());
+        OBJECT_MAPPER.registerModule(module);
+    }
+}
@@ -17,50 +17,701 @@ package com.arpnetworking.metrics.vertx;
 
 import com.arpnetworking.metrics.Event;
 import com.arpnetworking.metrics.Sink;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 /**
- * This defines a sink that writes to the Vertx event bus.
+ * This defines a sink that writes to the Vertx event bus. By default events are
+ * published as JSON strings. Alternatively, events may be published as is using
+ * the {@link EventMessageCodec} which avoids serializing the event for delivery
+ * to local consumers such as {@link SinkVerticle}. For delivery across a clustered
+ * event bus events may instead be published as {@link Buffer} bodies encoded with
+ * a {@link WireFormat}, for example the compact {@link BinaryWireFormat}. Published
+ * in the {@link JsonWireFormat} events are encoded as UTF-8 directly into the
+ * message body, avoiding the intermediate string and its re-encoding for delivery
+ * across a clustered event bus, and {@link SinkVerticle} parses them from its bytes.
+ *
+ * Events with many timer samples may optionally be converted into an
+ * {@link AggregatedEvent} holding each timer in a {@link Histogram} before they
+ * are published. The size of the histograms depends on the number of distinct
+ * buckets rather than samples when published using the event codec or the
+ * {@link BinaryWireFormat} and they are merged without expanding their samples
+ * by a {@link SinkVerticle} which pre-aggregates events. Published as JSON each
+ * histogram is written as one {@link CountedQuantity} per bucket.
+ *
+ * Events may optionally be batched in which case up to the maximum batch size
+ * events are published together as a single message either as an {@link EventBatch}
+ * or as a JSON array. A partial batch is published once the maximum linger time
+ * elapses after its first event was recorded or when the sink is closed.
+ *
+ * Events may optionally be coalesced in which case events recorded within the
+ * coalescing window with identical annotations, other than "_id", "_start" and
+ * "_end", are merged by an {@link EventCoalescer} into a single event before
+ * they are converted into histograms, batched or published. Their timer and
+ * gauge samples are concatenated and their counter samples summed, so fewer
+ * messages carrying the annotations are published. The coalesced events are
+ * published once the window elapses after the first event was recorded or
+ * when the sink is closed. Recorded {@link AggregatedEvent} instances are not
+ * coalesced.
+ *
+ * Events may optionally be distributed across the shard addresses consumed by
+ * a sharded deployment of {@link SinkVerticle}. The shard is chosen either per
+ * publishing Vertx context, which preserves the order of the events recorded on
+ * each context, or round-robin.
+ *
+ * To protect the publishing process when the consumer falls behind, the number
+ * of messages sent but not yet acknowledged by a consumer may be bounded. Once
+ * the budget is exhausted events are shed according to the configured
+ * {@link OverloadPolicy}. With the budget enabled each message is sent to a
+ * single consumer of the address as a request, which {@link SinkVerticle}
+ * acknowledges by replying once it has recorded the events. A message which is
+ * not acknowledged within the in-flight timeout, for example because no consumer
+ * is registered or the consumer does not reply, no longer counts against the
+ * budget. Messages held back by the budget are published on the context the
+ * sink was built on.
  *
  * @author Deepika Misra (deepika at groupon dot com)
  */
-public final class EventBusSink implements Sink {
+public final class EventBusSink implements Sink, AutoCloseable {
+    @Override
+    public void record(final Event recordedEvent) {
+        if (_coalescer != null && !(recordedEvent instanceof AggregatedEvent) && coalesce(recordedEvent)) {
+            return;
+        }
+        dispatch(recordedEvent);
+    }
+
+    /**
+     * Publishes any pending coalesced and batched events and events held back
+     * by the in-flight budget. Events recorded after the sink is closed are
+     * published individually and without regard to the in-flight budget.
+     */
     @Override
-    public void record(final Event event) {
+    public void close() {
+        final List<Event> coalesced;
+        final List<Event> batch;
+        synchronized (_batchLock) {
+            _closed = true;
+            coalesced = _coalescer == null ? Collections.emptyList() : takeCoalesced();
+            batch = _batch.isEmpty() ? null : takeBatch();
+        }
+        if (_maxInFlight > 0) {
+            final List<Object> pending;
+            synchronized (_pendingLock) {
+                pending = new ArrayList<>(_pending);
+                _pending.clear();
+            }
+            for (final Object payload : pending) {
+                deliver(payload, false);
+            }
+        }
+        if (batch != null) {
+            publishBatch(batch);
+        }
+        if (!coalesced.isEmpty()) {
+            publishCoalesced(coalesced);
+        }
+    }
+
+    /**
+     * Accessor for the number of events dropped by the in-flight budget.
+     *
+     * @return The number of events dropped.
+     */
+    public long getDroppedCount() {
+        return _droppedCount.get();
+    }
+
+    /**
+     * Accessor for the number of events published with a sample rate
+     * annotation by the {@link OverloadPolicy#SAMPLE} policy.
+     *
+     * @return The number of events sampled.
+     */
+    public long getSampledCount() {
+        return _sampledCount.get();
+    }
+
+    /**
+     * Accessor for the number of messages sent but not yet acknowledged.
+     *
+     * @return The number of messages in-flight.
+     */
+    public int getInFlightCount() {
+        return _inFlight.get();
+    }
+
+    private boolean coalesce(final Event event) {
+        synchronized (_batchLock) {
+            if (_closed) {
+                return false;
+            }
+            if (_coalescer.isEmpty()) {
+                final long generation = _coalesceGeneration;
+                _coalesceTimerId = _vertx.setTimer(_coalesceWindowMillis, id -> flushCoalesced(generation));
+            }
+            _coalescer.record(event);
+            return true;
+        }
+    }
+
+    private void flushCoalesced(final long expectedGeneration) {
+        final List<Event> coalesced;
+        synchronized (_batchLock) {
+            if (_coalesceGeneration != expectedGeneration || _closed) {
+                return;
+            }
+            // The timer has fired so there is nothing left to cancel
+            _coalesceTimerId = NO_TIMER;
+            coalesced = takeCoalesced();
+        }
+        for (final Event event : coalesced) {
+            dispatch(event);
+        }
+    }
+
+    private List<Event> takeCoalesced() {
+        final List<Event> coalesced = _coalescer.flush();
+        ++_coalesceGeneration;
+        if (_coalesceTimerId != NO_TIMER) {
+            _vertx.cancelTimer(_coalesceTimerId);
+            _coalesceTimerId = NO_TIMER;
+        }
+        return coalesced;
+    }
+
+    private void publishCoalesced(final List<Event> coalesced) {
+        // The sink is closed so the events are batched here rather than by recording them
+        final List<Event> events = new ArrayList<>(coalesced.size());
+        for (final Event event : coalesced) {
+            events.add(_useTimerHistograms ? AggregatedEvent.copyOf(event, _timerHistogramPrecision) : event);
+        }
+        if (_maxBatchSize > 1) {
+            for (int i = 0; i < events.size(); i += _maxBatchSize) {
+                publishBatch(events.subList(i, Math.min(events.size(), i + _maxBatchSize)));
+            }
+        } else {
+            for (final Event event : events) {
+                publish(event);
+            }
+        }
+    }
+
+    private void dispatch(final Event recordedEvent) {
+        final Event event = _useTimerHistograms ? AggregatedEvent.copyOf(recordedEvent, _timerHistogramPrecision) : recordedEvent;
+        if (_maxBatchSize > 1) {
+            recordBatched(event);
+        } else {
+            publish(event);
+        }
+    }
+
+    private void recordBatched(final Event event) {
+        final List<Event> batch;
+        synchronized (_batchLock) {
+            if (_closed) {
+                batch = null;
+            } else {
+                if (_batch.isEmpty()) {
+                    final List<Event> lingeringBatch = _batch;
+                    _timerId = _vertx.setTimer(_maxBatchLingerMillis, id -> flush(lingeringBatch));
+                }
+                _batch.add(event);
+                if (_batch.size() < _maxBatchSize) {
+                    return;
+                }
+                batch = takeBatch();
+            }
+        }
+        if (batch != null) {
+            publishBatch(batch);
+        } else {
+            publish(event);
+        }
+    }
+
+    private void flush(final List<Event> expectedBatch) {
+        final List<Event> batch;
+        synchronized (_batchLock) {
+            if (_batch != expectedBatch || _batch.isEmpty()) {
+                return;
+            }
+            batch = takeBatch();
+        }
+        publishBatch(batch);
+    }
+
+    private List<Event> takeBatch() {
+        final List<Event> batch = _batch;
+        _batch = new ArrayList<>(_maxBatchSize);
+        _vertx.cancelTimer(_timerId);
+        return batch;
+    }
+
+    private void publish(final Event event) {
+        if (_maxInFlight == 0 || _closed) {
+            publishEvent(event, false);
+        } else {
+            admit(event);
+        }
+    }
+
+    private void publishBatch(final List<Event> events) {
+        if (_maxInFlight == 0 || _closed) {
+            publishEvents(events, false);
+        } else {
+            admit(events);
+        }
+    }
+
+    private void admit(final Object payload) {
+        switch (_overloadPolicy) {
+            case DROP_OLDEST:
+                admitOrQueue(payload);
+                break;
+            case SAMPLE:
+                admitSampled(payload);
+                break;
+            default:
+                if (tryAcquire()) {
+                    deliver(payload, true);
+                } else {
+                    drop(payload);
+                }
+        }
+    }
+
+    private void admitOrQueue(final Object payload) {
+        synchronized (_pendingLock) {
+            // Queued payloads are delivered first to preserve the order of the events
+            if (!_pending.isEmpty() || !tryAcquire()) {
+                _pending.addLast(payload);
+                if (_pending.size() > _maxInFlight) {
+                    drop(_pending.pollFirst());
+                }
+                return;
+            }
+        }
+        deliver(payload, true);
+    }
+
+    private void admitSampled(final Object payload) {
+        final double rate = Math.min(
+                1.0,
+                (double) (_maxInFlight - _inFlight.get()) / (_maxInFlight - _samplingThreshold));
+        if (rate >= 1.0) {
+            if (tryAcquire()) {
+                deliver(payload, true);
+            } else {
+                drop(payload);
+            }
+        } else if (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate && tryAcquire()) {
+            _sampledCount.addAndGet(size(payload));
+            deliver(annotateSampleRate(payload, rate), true);
+        } else {
+            drop(payload);
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            final int inFlight = _inFlight.get();
+            if (inFlight >= _maxInFlight) {
+                return false;
+            }
+            if (_inFlight.compareAndSet(inFlight, inFlight + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        _inFlight.decrementAndGet();
+        if (_overloadPolicy == OverloadPolicy.DROP_OLDEST) {
+            synchronized (_pendingLock) {
+                if (_pending.isEmpty()) {
+                    return;
+                }
+            }
+            // Acknowledgements are handled on the requesting context; held back events are published on the sink's own
+            _context.runOnContext(ignored -> publishPending());
+        }
+    }
+
+    private void publishPending() {
+        while (true) {
+            final Object payload;
+            synchronized (_pendingLock) {
+                if (_pending.isEmpty() || !tryAcquire()) {
+                    return;
+                }
+                payload = _pending.pollFirst();
+            }
+            deliver(payload, true);
+        }
+    }
+
+    private void drop(final Object payload) {
+        if (isInstrumented()) {
+            _droppedCounter.add(size(payload));
+        }
+        if (_droppedCount.getAndAdd(size(payload)) == 0) {
+            LOGGER.warn("In-flight budget exhausted; dropping events. Address={}", _sinkAddress);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(final Object payload, final boolean acquired) {
+        if (payload instanceof Event) {
+            publishEvent((Event) payload, acquired);
+        } else {
+            publishEvents((List<Event>) payload, acquired);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int size(final Object payload) {
+        return payload instanceof Event ? 1 : ((List<Event>) payload).size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object annotateSampleRate(final Object payload, final double rate) {
+        if (payload instanceof Event) {
+            return annotateSampleRate((Event) payload, rate);
+        }
+        final List<Event> events = (List<Event>) payload;
+        final List<Event> annotatedEvents = new ArrayList<>(events.size());
+        for (final Event event : events) {
+            annotatedEvents.add(annotateSampleRate(event, rate));
+        }
+        return annotatedEvents;
+    }
+
+    private static Event annotateSampleRate(final Event event, final double rate) {
+        final Map<String, String> annotations = new LinkedHashMap<>(event.getAnnotations());
+        double effectiveRate = rate;
+        final String previousRate = annotations.get(SAMPLE_RATE_ANNOTATION);
+        if (previousRate != null) {
+            try {
+                // The event was already sampled upstream
+                effectiveRate *= Double.parseDouble(previousRate);
+            } catch (final NumberFormatException e) {
+                LOGGER.debug("Ignoring invalid sample rate annotation. Value={}", previousRate);
+            }
+        }
+        annotations.put(SAMPLE_RATE_ANNOTATION, Double.toString(effectiveRate));
+        if (event instanceof AggregatedEvent) {
+            return new AggregatedEvent(
+                    annotations,
+                    ((AggregatedEvent) event).getTimerHistograms(),
+                    event.getCounterSamples(),
+                    event.getGaugeSamples());
+        }
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(annotations)
+                .setTimerSamples(event.getTimerSamples())
+                .setCounterSamples(event.getCounterSamples())
+                .setGaugeSamples(event.getGaugeSamples())
+                .build();
+    }
+
+    private void publishEvent(final Event event, final boolean acquired) {
+        final String address = selectAddress();
+        LOGGER.debug("Sending event to sink. Address={}", address);
+        final boolean instrumented = isInstrumented();
+        if (instrumented) {
+            _eventsCounter.increment();
+        }
+        if (_useEventCodec) {
+            send(address, event, acquired ? _acquiredEventDeliveryOptions : EVENT_CODEC_DELIVERY_OPTIONS, acquired);
+            return;
+        }
         try {
-            LOGGER.debug(String.format("Sending event to sink. Address=%s", _sinkAddress));
-            _eventBus.publish(_sinkAddress, OBJECT_MAPPER.writeValueAsString(event));
-        } catch (final JsonProcessingException e) {
+            send(address, serialize(event, instrumented), acquired ? _acquiredDeliveryOptions : null, acquired);
+        } catch (final IOException e) {
+            if (acquired) {
+                release();
+            }
+            if (instrumented) {
+                _failuresCounter.increment();
+            }
             LOGGER.warn(
                     String.format(
                             "Failed to send event to sink. Address=%s.",
-                            _sinkAddress),
+                            address),
                     e.getMessage());
         }
     }
 
+    private void publishEvents(final List<Event> events, final boolean acquired) {
+        final String address = selectAddress();
+        LOGGER.debug("Sending event batch to sink. Address={}, Size={}", address, events.size());
+        final boolean instrumented = isInstrumented();
+        if (instrumented) {
+            _eventsCounter.add(events.size());
+        }
+        if (_useEventCodec) {
+            send(
+                    address,
+                    new EventBatch(events),
+                    acquired ? _acquiredBatchDeliveryOptions : EVENT_BATCH_CODEC_DELIVERY_OPTIONS,
+                    acquired);
+            return;
+        }
+        try {
+            send(address, serialize(events, instrumented), acquired ? _acquiredDeliveryOptions : null, acquired);
+        } catch (final IOException e) {
+            if (acquired) {
+                release();
+            }
+            if (instrumented) {
+                _failuresCounter.add(events.size());
+            }
+            LOGGER.warn(
+                    String.format(
+                            "Failed to send event batch to sink. Address=%s.",
+                            address),
+                    e.getMessage());
+        }
+    }
+
+    private Object serialize(final Object value, final boolean instrumented) throws IOException {
+        if (!instrumented) {
+            return serialize(value);
+        }
+        final long start = System.nanoTime();
+        final Object serialized = serialize(value);
+        _serializeTimer.record(System.nanoTime() - start);
+        return serialized;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object serialize(final Object value) throws IOException {
+        if (_wireFormat == null) {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        }
+        // Allocate the body once with room for a message like the last one rather than growing it while encoding
+        final Buffer buffer = Buffer.buffer(_serializedSizeHint);
+        buffer.appendByte(_wireFormat.getId());
+        _wireFormat.encode(value instanceof Event ? Collections.singletonList((Event) value) : (List<Event>) value, buffer);
+        _serializedSizeHint = buffer.length() + (buffer.length() >>> 3);
+        return buffer;
+    }
+
+    private boolean isInstrumented() {
+        // Do not instrument publishing the instrumentation itself
+        return _instrumentation != null && !PipelineInstrumentation.isReporting();
+    }
+
+    private void send(final String address, final Object body, @Nullable final DeliveryOptions options, final boolean acquired) {
+        if (acquired) {
+            // The reply, or the failure once the in-flight timeout elapses, releases the message from the budget
+            _eventBus.request(address, body, options).onComplete(reply -> release());
+        } else if (options == null) {
+            _eventBus.publish(address, body);
+        } else {
+            _eventBus.publish(address, body, options);
+        }
+    }
+
+    private String selectAddress() {
+        if (_shardAddresses == null) {
+            return _sinkAddress;
+        }
+        if (_shardSelection == ShardSelection.ROUND_ROBIN) {
+            return _shardAddresses[Math.floorMod(_nextShard.getAndIncrement(), _shardAddresses.length)];
+        }
+        final Context context = Vertx.currentContext();
+        if (context == null) {
+            return _shardAddresses[Math.floorMod(System.identityHashCode(Thread.currentThread()), _shardAddresses.length)];
+        }
+        // Contexts are assigned shards round-robin on first use to balance them across the shards
+        Integer shard = context.get(_shardContextKey);
+        if (shard == null) {
+            shard = Math.floorMod(_nextShard.getAndIncrement(), _shardAddresses.length);
+            context.put(_shardContextKey, shard);
+        }
+        return _shardAddresses[shard];
+    }
+
     private EventBusSink(final Builder builder) {
         _eventBus = builder._eventBus;
+        _vertx = builder._vertx;
         _sinkAddress = builder._sinkAddress;
+        _useEventCodec = builder._useEventCodec;
+        _wireFormat = builder._wireFormat;
+        _useTimerHistograms = builder._useTimerHistograms;
+        _timerHistogramPrecision = builder._timerHistogramPrecision;
+        _maxBatchSize = builder._maxBatchSize;
+        _maxBatchLingerMillis = Math.max(1, builder._maxBatchLinger.toMillis());
+        if (builder._coalesceWindow != null) {
+            _coalescer = new EventCoalescer();
+            _coalesceWindowMillis = Math.max(1, builder._coalesceWindow.toMillis());
+        } else {
+            _coalescer = null;
+            _coalesceWindowMillis = 0;
+        }
+        _batch = new ArrayList<>(_maxBatchSize);
+        _shardSelection = builder._shardSelection;
+        if (builder._shardCount > 0) {
+            _shardAddresses = new String[builder._shardCount];
+            for (int i = 0; i < _shardAddresses.length; ++i) {
+                _shardAddresses[i] = SinkVerticle.getShardAddress(_sinkAddress, i);
+            }
+        } else {
+            _shardAddresses = null;
+        }
+        if (_useEventCodec) {
+            EventMessageCodec.register(_eventBus);
+            EventBatchMessageCodec.register(_eventBus);
+        }
+        _instrumentation = builder._instrumentation;
+        if (_instrumentation != null) {
+            _eventsCounter = _instrumentation.getCounter(EVENTS_METRIC);
+            _failuresCounter = _instrumentation.getCounter(FAILURES_METRIC);
+            _droppedCounter = _instrumentation.getCounter(DROPPED_METRIC);
+            _serializeTimer = _instrumentation.getTimer(SERIALIZE_METRIC);
+        } else {
+            _eventsCounter = null;
+            _failuresCounter = null;
+            _droppedCounter = null;
+            _serializeTimer = null;
+        }
+        _maxInFlight = builder._maxInFlight;
+        _overloadPolicy = builder._overloadPolicy;
+        _samplingThreshold = _maxInFlight / 2;
+        if (_maxInFlight > 0) {
+            final long timeoutMillis = Math.max(1, builder._inFlightTimeout.toMillis());
+            _context = _vertx.getOrCreateContext();
+            _acquiredEventDeliveryOptions = new DeliveryOptions().setCodecName(EventMessageCodec.NAME).setSendTimeout(timeoutMillis);
+            _acquiredBatchDeliveryOptions = new DeliveryOptions().setCodecName(EventBatchMessageCodec.NAME).setSendTimeout(timeoutMillis);
+            _acquiredDeliveryOptions = new DeliveryOptions().setSendTimeout(timeoutMillis);
+        } else {
+            _context = null;
+            _acquiredEventDeliveryOptions = null;
+            _acquiredBatchDeliveryOptions = null;
+            _acquiredDeliveryOptions = null;
+        }
     }
 
     private final EventBus _eventBus;
+    private final Vertx _vertx;
     private final String _sinkAddress;
+    private final boolean _useEventCodec;
+    private final WireFormat _wireFormat;
+    private final boolean _useTimerHistograms;
+    private final int _timerHistogramPrecision;
+    private final int _maxBatchSize;
+    private final long _maxBatchLingerMillis;
+    private final EventCoalescer _coalescer;
+    private final long _coalesceWindowMillis;
+    private final String[] _shardAddresses;
+    private final ShardSelection _shardSelection;
+    private final AtomicInteger _nextShard = new AtomicInteger();
+    private final Object _shardContextKey = new Object();
+    private final PipelineInstrumentation _instrumentation;
+    private final PipelineInstrumentation.Counter _eventsCounter;
+    private final PipelineInstrumentation.Counter _failuresCounter;
+    private final PipelineInstrumentation.Counter _droppedCounter;
+    private final PipelineInstrumentation.Timer _serializeTimer;
+    private final int _maxInFlight;
+    private final OverloadPolicy _overloadPolicy;
+    private final int _samplingThreshold;
+    private final Context _context;
+    private final DeliveryOptions _acquiredEventDeliveryOptions;
+    private final DeliveryOptions _acquiredBatchDeliveryOptions;
+    private final DeliveryOptions _acquiredDeliveryOptions;
+    private final AtomicInteger _inFlight = new AtomicInteger();
+    private final AtomicLong _droppedCount = new AtomicLong();
+    private final AtomicLong _sampledCount = new AtomicLong();
+    private final Object _pendingLock = new Object();
+    private final Deque<Object> _pending = new ArrayDeque<>();
+    private final Object _batchLock = new Object();
+    private List<Event> _batch;
+    private long _timerId;
+    private long _coalesceTimerId = NO_TIMER;
+    private long _coalesceGeneration;
+    private volatile boolean _closed;
+    // Races between publishing threads only affect the initial capacity of the next body
+    private int _serializedSizeHint = INITIAL_SERIALIZED_SIZE_HINT;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EventBusSink.class);
+    private static final long NO_TIMER = -1;
+    private static final DeliveryOptions EVENT_CODEC_DELIVERY_OPTIONS = new DeliveryOptions().setCodecName(EventMessageCodec.NAME);
+    private static final DeliveryOptions EVENT_BATCH_CODEC_DELIVERY_OPTIONS =
+            new DeliveryOptions().setCodecName(EventBatchMessageCodec.NAME);
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String SAMPLE_RATE_ANNOTATION = "_sampleRate";
+    private static final String EVENTS_METRIC = "event_bus_sink/events";
+    private static final String FAILURES_METRIC = "event_bus_sink/failures";
+    private static final String DROPPED_METRIC = "event_bus_sink/dropped";
+    private static final String SERIALIZE_METRIC = "event_bus_sink/serialize";
+    private static final int INITIAL_SERIALIZED_SIZE_HINT = 256;
 
     static {
         final SimpleModule module = new SimpleModule();
         OBJECT_MAPPER.registerModule(module);
     }
 
+    /**
+     * Strategies for choosing the shard address an event is published to.
+     */
+    public enum ShardSelection {
+        /**
+         * Each publishing Vertx context publishes to the same shard. Events
+         * recorded outside a Vertx context are assigned a shard per thread.
+         */
+        PER_CONTEXT,
+        /**
+         * Successive publications are distributed across the shards in turn.
+         */
+        ROUND_ROBIN
+    }
+
+    /**
+     * Policies for shedding events once the in-flight budget is exhausted.
+     */
+    public enum OverloadPolicy {
+        /**
+         * Drop the events being recorded.
+         */
+        DROP_NEWEST,
+        /**
+         * Hold up to the in-flight budget of messages back and drop the oldest
+         * of these when more are recorded. Held back messages are published as
+         * soon as the budget allows.
+         */
+        DROP_OLDEST,
+        /**
+         * Publish events with a probability decreasing linearly from one, at
+         * half of the in-flight budget, to zero, at the full budget. Published
+         * events are annotated with the probability as "_sampleRate", multiplied
+         * by any existing sample rate, so their samples can be re-weighted.
+         */
+        SAMPLE
+    }
+
     /**
      * Builder class for {@link EventBusSink}.
      */
@@ -77,6 +728,51 @@ public final class EventBusSink implements Sink {
             if (_sinkAddress == null || _sinkAddress.isEmpty()) {
                 throw new IllegalArgumentException("SinkAddress cannot be null or empty.");
             }
+            if (_useEventCodec == null) {
+                throw new IllegalArgumentException("UseEventCodec cannot be null.");
+            }
+            if (_useEventCodec && _wireFormat != null) {
+                throw new IllegalArgumentException("WireFormat cannot be set when using the event codec.");
+            }
+            if (_useTimerHistograms == null) {
+                throw new IllegalArgumentException("UseTimerHistograms cannot be null.");
+            }
+            if (_timerHistogramPrecision == null || _timerHistogramPrecision < 0 || _timerHistogramPrecision > MAX_HISTOGRAM_PRECISION) {
+                throw new IllegalArgumentException("TimerHistogramPrecision cannot be null or outside of 0 to 52.");
+            }
+            if (_maxBatchSize == null || _maxBatchSize < 1) {
+                throw new IllegalArgumentException("MaxBatchSize cannot be null or less than one.");
+            }
+            if (_maxBatchLinger == null || _maxBatchLinger.isNegative() || _maxBatchLinger.isZero()) {
+                throw new IllegalArgumentException("MaxBatchLinger cannot be null or non-positive.");
+            }
+            if (_shardCount == null || _shardCount < 0) {
+                throw new IllegalArgumentException("ShardCount cannot be null or negative.");
+            }
+            if (_shardSelection == null) {
+                throw new IllegalArgumentException("ShardSelection cannot be null.");
+            }
+            if (_maxInFlight == null || _maxInFlight < 0) {
+                throw new IllegalArgumentException("MaxInFlight cannot be null or negative.");
+            }
+            if (_overloadPolicy == null) {
+                throw new IllegalArgumentException("OverloadPolicy cannot be null.");
+            }
+            if (_inFlightTimeout == null || _inFlightTimeout.isNegative() || _inFlightTimeout.isZero()) {
+                throw new IllegalArgumentException("InFlightTimeout cannot be null or non-positive.");
+            }
+            if (_maxBatchSize > 1 && _vertx == null) {
+                throw new IllegalArgumentException("Vertx cannot be null when batching.");
+            }
+            if (_coalesceWindow != null && (_coalesceWindow.isNegative() || _coalesceWindow.isZero())) {
+                throw new IllegalArgumentException("CoalesceWindow cannot be non-positive.");
+            }
+            if (_coalesceWindow != null && _vertx == null) {
+                throw new IllegalArgumentException("Vertx cannot be null when coalescing.");
+            }
+            if (_maxInFlight > 0 && _vertx == null) {
+                throw new IllegalArgumentException("Vertx cannot be null when the in-flight budget is enabled.");
+            }
             return new EventBusSink(this);
         }
 
@@ -91,6 +787,18 @@ public final class EventBusSink implements Sink {
             return this;
         }
 
+        /**
+         * Sets the vertx attribute. Required if batching, coalescing or the
+         * in-flight budget is enabled.
+         *
+         * @param value An instance of {@link Vertx}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setVertx(final Vertx value) {
+            _vertx = value;
+            return this;
+        }
+
         /**
          * Sets the sink address attribute.
          *
@@ -102,8 +810,195 @@ public final class EventBusSink implements Sink {
             return this;
         }
 
+        /**
+         * Sets whether events are published as is using the {@link EventMessageCodec}
+         * instead of as JSON strings. This requires the consumer to accept {@link Event}
+         * message bodies, as {@link SinkVerticle} does. Optional. Default is false.
+         *
+         * @param value Whether to publish events using the event codec.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setUseEventCodec(final Boolean value) {
+            _useEventCodec = value;
+            return this;
+        }
+
+        /**
+         * Sets the {@link WireFormat} events are published in as {@link Buffer}
+         * message bodies instead of as JSON strings. This requires the consumer
+         * to accept {@link Buffer} message bodies of the format, as {@link SinkVerticle}
+         * does for {@link JsonWireFormat} and {@link BinaryWireFormat}. Cannot be
+         * set when using the event codec. Optional. Default is null.
+         *
+         * @param value The {@link WireFormat}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setWireFormat(final WireFormat value) {
+            _wireFormat = value;
+            return this;
+        }
+
+        /**
+         * Sets whether the timer samples of each event are converted into
+         * histograms before the event is published. The relative error of each
+         * sample is then bounded by the histogram precision. Optional. Default
+         * is false.
+         *
+         * @param value Whether to convert timer samples into histograms.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setUseTimerHistograms(final Boolean value) {
+            _useTimerHistograms = value;
+            return this;
+        }
+
+        /**
+         * Sets the number of mantissa bits retained by the timer histogram
+         * buckets. Only applies if timer histograms are used. Optional. Default
+         * is seven, which bounds the relative error to less than one percent.
+         *
+         * @param value The timer histogram precision.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setTimerHistogramPrecision(final Integer value) {
+            _timerHistogramPrecision = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events published in a single message. A
+         * value greater than one enables batching. Optional. Default is one.
+         *
+         * @param value The maximum batch size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxBatchSize(final Integer value) {
+            _maxBatchSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a partial batch is held before it is published.
+         * Only applies if batching is enabled. Optional. Default is 100 milliseconds.
+         *
+         * @param value The maximum batch linger time.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxBatchLinger(final Duration value) {
+            _maxBatchLinger = value;
+            return this;
+        }
+
+        /**
+         * Sets the window within which events with identical annotations are
+         * merged into a single event before they are published. The window
+         * starts when the first event is recorded. Null disables coalescing.
+         * Optional. Default is null.
+         *
+         * @param value The coalescing window.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setCoalesceWindow(final Duration value) {
+            _coalesceWindow = value;
+            return this;
+        }
+
+        /**
+         * Sets the number of shards of the sink address. Events are published to
+         * the shard addresses consumed by a {@link SinkVerticle} deployed with the
+         * same shard count. Zero disables sharding. Optional. Default is zero.
+         *
+         * @param value The number of shards.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setShardCount(final Integer value) {
+            _shardCount = value;
+            return this;
+        }
+
+        /**
+         * Sets how the shard of each event is chosen. Only applies if sharding is
+         * enabled. Optional. Default is {@link ShardSelection#PER_CONTEXT}.
+         *
+         * @param value The {@link ShardSelection}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setShardSelection(final ShardSelection value) {
+            _shardSelection = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of messages published but not yet delivered
+         * to the consumer. Zero disables the budget. Optional. Default is zero.
+         *
+         * @param value The maximum number of in-flight messages.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxInFlight(final Integer value) {
+            _maxInFlight = value;
+            return this;
+        }
+
+        /**
+         * Sets how events are shed once the in-flight budget is exhausted. Only
+         * applies if the budget is enabled. Optional. Default is
+         * {@link OverloadPolicy#DROP_NEWEST}.
+         *
+         * @param value The {@link OverloadPolicy}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setOverloadPolicy(final OverloadPolicy value) {
+            _overloadPolicy = value;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a message which has not been acknowledged
+         * no longer counts against the in-flight budget. Only applies if the
+         * budget is enabled. Optional. Default is ten seconds.
+         *
+         * @param value The in-flight timeout.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setInFlightTimeout(final Duration value) {
+            _inFlightTimeout = value;
+            return this;
+        }
+
+        /**
+         * Sets the {@link PipelineInstrumentation} to record the number of
+         * events published, failed and dropped and the time spent serializing
+         * them to. Optional. Default is null.
+         *
+         * @param value The {@link PipelineInstrumentation}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setInstrumentation(final PipelineInstrumentation value) {
+            _instrumentation = value;
+            return this;
+        }
+
         private EventBus _eventBus;
+        private Vertx _vertx;
         private String _sinkAddress = DEFAULT_SINK_ADDRESS;
+        private Boolean _useEventCodec = false;
+        private WireFormat _wireFormat;
+        private Boolean _useTimerHistograms = false;
+        private Integer _timerHistogramPrecision = 7;
+        private Integer _maxBatchSize = 1;
+        private Duration _maxBatchLinger = DEFAULT_MAX_BATCH_LINGER;
+        private Duration _coalesceWindow;
+        private Integer _shardCount = 0;
+        private ShardSelection _shardSelection = ShardSelection.PER_CONTEXT;
+        private Integer _maxInFlight = 0;
+        private PipelineInstrumentation _instrumentation;
+        private OverloadPolicy _overloadPolicy = OverloadPolicy.DROP_NEWEST;
+        private Duration _inFlightTimeout = DEFAULT_IN_FLIGHT_TIMEOUT;
+
+        private static final Duration DEFAULT_MAX_BATCH_LINGER = Duration.ofMillis(100);
+        private static final Duration DEFAULT_IN_FLIGHT_TIMEOUT = Duration.ofSeconds(10);
+        private static final int MAX_HISTOGRAM_PRECISION = 52;
 
         private static final String DEFAULT_SINK_ADDRESS = "metrics.sink.default";
     }
@@ -0,0 +1,188 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges events with identical annotations, excluding the per event "_id",
+ * "_start" and "_end" annotations, into a single event without losing any
+ * samples. Unlike {@link EventAggregator} the timer and gauge samples of the
+ * merged events are concatenated; only the counter samples are summed into a
+ * single sample per counter. A merged event keeps the identifier of the first
+ * event and spans from the earliest start to the latest end of the merged
+ * events. An event which was not merged with any other is returned as is.
+ *
+ * This class is not thread safe.
+ *
+ * @author agent (agent at local)
+ */
+final class EventCoalescer {
+
+    /**
+     * Adds an event to the events pending merging.
+     *
+     * @param event The {@link Event} to merge.
+     */
+    void record(final Event event) {
+        final Map<String, String> key = new LinkedHashMap<>(event.getAnnotations());
+        key.remove(ID_KEY);
+        key.remove(START_KEY);
+        key.remove(END_KEY);
+        final Group group = _groups.get(key);
+        if (group == null) {
+            _groups.put(key, new Group(event));
+        } else {
+            group.merge(event);
+        }
+    }
+
+    /**
+     * Returns the merged events and clears the events pending merging.
+     *
+     * @return The {@link List} of merged events in the order their first event was recorded.
+     */
+    List<Event> flush() {
+        if (_groups.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Event> events = new ArrayList<>(_groups.size());
+        for (final Group group : _groups.values()) {
+            events.add(group.toEvent());
+        }
+        _groups.clear();
+        return events;
+    }
+
+    /**
+     * Returns whether there are no events pending merging.
+     *
+     * @return True if and only if no events are pending merging.
+     */
+    boolean isEmpty() {
+        return _groups.isEmpty();
+    }
+
+    private static Instant parseInstant(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (final DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static void concatenate(final Map<String, List<Quantity>> target, final Map<String, List<Quantity>> samples) {
+        for (final Map.Entry<String, List<Quantity>> entry : samples.entrySet()) {
+            target.computeIfAbsent(entry.getKey(), name -> new ArrayList<>()).addAll(entry.getValue());
+        }
+    }
+
+    private static void sum(final Map<String, EventAggregator.Sum> target, final Map<String, List<Quantity>> samples) {
+        for (final Map.Entry<String, List<Quantity>> entry : samples.entrySet()) {
+            final EventAggregator.Sum sum = target.computeIfAbsent(entry.getKey(), name -> new EventAggregator.Sum());
+            for (final Quantity quantity : entry.getValue()) {
+                if (quantity != null && quantity.getValue() != null) {
+                    sum.add(quantity.getValue());
+                }
+            }
+        }
+    }
+
+    private final Map<Map<String, String>, Group> _groups = new LinkedHashMap<>();
+
+    private static final String ID_KEY = "_id";
+    private static final String START_KEY = "_start";
+    private static final String END_KEY = "_end";
+
+    /**
+     * The events with the same annotations. The samples are only copied once
+     * a second event is merged.
+     */
+    private static final class Group {
+
+        Group(final Event first) {
+            _first = first;
+        }
+
+        void merge(final Event event) {
+            if (_annotations == null) {
+                _annotations = new LinkedHashMap<>(_first.getAnnotations());
+                _start = parseInstant(_annotations.get(START_KEY));
+                _end = parseInstant(_annotations.get(END_KEY));
+                add(_first);
+            }
+            final Instant start = parseInstant(event.getAnnotations().get(START_KEY));
+            if (start != null && (_start == null || start.isBefore(_start))) {
+                _start = start;
+            }
+            final Instant end = parseInstant(event.getAnnotations().get(END_KEY));
+            if (end != null && (_end == null || end.isAfter(_end))) {
+                _end = end;
+            }
+            add(event);
+        }
+
+        Event toEvent() {
+            if (_annotations == null) {
+                return _first;
+            }
+            if (_start != null) {
+                _annotations.put(START_KEY, _start.toString());
+            }
+            if (_end != null) {
+                _annotations.put(END_KEY, _end.toString());
+            }
+            final Map<String, List<Quantity>> counterSamples = new LinkedHashMap<>();
+            for (final Map.Entry<String, EventAggregator.Sum> entry : _counters.entrySet()) {
+                counterSamples.put(
+                        entry.getKey(),
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(entry.getValue().getValue())));
+            }
+            return new SinkVerticle.DefaultEvent.Builder()
+                    .setAnnotations(_annotations)
+                    .setTimerSamples(_timers)
+                    .setCounterSamples(counterSamples)
+                    .setGaugeSamples(_gauges)
+                    .build();
+        }
+
+        private void add(final Event event) {
+            concatenate(_timers, event.getTimerSamples());
+            concatenate(_gauges, event.getGaugeSamples());
+            sum(_counters, event.getCounterSamples());
+        }
+
+        private final Event _first;
+        private Map<String, String> _annotations;
+        private Instant _start;
+        private Instant _end;
+        private final Map<String, List<Quantity>> _timers = new LinkedHashMap<>();
+        private final Map<String, List<Quantity>> _gauges = new LinkedHashMap<>();
+        private final Map<String, EventAggregator.Sum> _counters = new LinkedHashMap<>();
+    }
+}
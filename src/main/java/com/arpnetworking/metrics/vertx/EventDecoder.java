@@ -0,0 +1,57 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Decodes events from the JSON representation published by {@link EventBusSink}.
+ *
+ * @author agent (agent at local)
+ */
+public interface EventDecoder {
+
+    /**
+     * Decode either a single JSON serialized event or a JSON array of events.
+     * Every event is decoded and built before any is returned so that a malformed
+     * batch is rejected as a whole.
+     *
+     * @param json The JSON representation of the event or events.
+     * @return The {@link List} of decoded events in order.
+     * @throws IOException if the JSON cannot be decoded.
+     */
+    List<Event> decode(String json) throws IOException;
+
+    /**
+     * Decode either a single JSON serialized event or a JSON array of events
+     * encoded as UTF-8 from the position to the end of the buffer. The default
+     * implementation decodes the bytes into a string first; implementations
+     * which can parse bytes should override it.
+     *
+     * @param buffer The {@link Buffer} holding the JSON representation.
+     * @param position The position the JSON representation starts at.
+     * @return The {@link List} of decoded events in order.
+     * @throws IOException if the JSON cannot be decoded.
+     */
+    default List<Event> decode(final Buffer buffer, final int position) throws IOException {
+        return decode(buffer.getString(position, buffer.length(), StandardCharsets.UTF_8.name()));
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Vertx event bus {@link MessageCodec} for {@link Event} instances. Events are
+ * immutable once recorded, so local delivery passes the instance by reference
+ * and avoids serialization entirely. Delivery to other nodes in a clustered
+ * event bus falls back to the JSON representation used by {@link EventBusSink}.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventMessageCodec implements MessageCodec<Event, Event> {
+
+    /**
+     * Registers an instance of this codec with the event bus. Registering the
+     * codec more than once against the same event bus has no effect.
+     *
+     * @param eventBus The {@link EventBus} to register the codec with.
+     */
+    public static void register(final EventBus eventBus) {
+        try {
+            eventBus.registerCodec(new EventMessageCodec());
+        } catch (final IllegalStateException e) {
+            LOGGER.debug("Event codec already registered. Name={}", NAME);
+        }
+    }
+
+    @Override
+    public void encodeToWire(final Buffer buffer, final Event event) {
+        try {
+            final byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(event);
+            buffer.appendInt(bytes.length);
+            buffer.appendBytes(bytes);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to encode event.", e);
+        }
+    }
+
+    @Override
+    public Event decodeFromWire(final int position, final Buffer buffer) {
+        final int length = buffer.getInt(position);
+        final int start = position + Integer.BYTES;
+        try {
+            return ExpandedSampleList.expand(
+                    OBJECT_MAPPER.readValue(buffer.getBytes(start, start + length), SinkVerticle.DefaultEvent.Builder.class).build());
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Unable to decode event.", e);
+        }
+    }
+
+    @Override
+    public Event transform(final Event event) {
+        return event;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+
+    /**
+     * The name the codec is registered under.
+     */
+    public static final String NAME = "metrics.event";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventMessageCodec.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        final SimpleModule module = new SimpleModule();
+        module.addDeserializer(Quantity.class, new QuantityDeserializer());
+        OBJECT_MAPPER.registerModule(module);
+    }
+}
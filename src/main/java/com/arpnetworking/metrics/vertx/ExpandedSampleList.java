@@ -0,0 +1,157 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * View of a list of samples holding {@link CountedQuantity} instances which
+ * repeats the value of each counted sample once per sample it stands for, so
+ * that the view honors the {@link Event} contract of one {@link Quantity} per
+ * sample. The view is created in time proportional to the number of counted
+ * samples and an element is found by a binary search over them.
+ *
+ * Consumers aware of counted samples, such as {@link EventAggregator},
+ * {@link BinaryWireFormat} and {@link AggregatedEvent#copyOf(Event, int)},
+ * read the counted samples through {@link #compact(List)} instead, and the
+ * JSON representation of the view holds the counted samples.
+ *
+ * @author agent (agent at local)
+ */
+final class ExpandedSampleList extends AbstractList<Quantity> implements RandomAccess {
+
+    /**
+     * Returns a view expanding the counted samples of a list, or the list
+     * itself if it does not hold any {@link CountedQuantity}.
+     *
+     * @param samples The samples.
+     * @return The samples with counted samples expanded.
+     */
+    static List<Quantity> expand(final List<Quantity> samples) {
+        if (samples instanceof ExpandedSampleList) {
+            return samples;
+        }
+        for (final Quantity sample : samples) {
+            if (sample instanceof CountedQuantity) {
+                return new ExpandedSampleList(samples);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Returns the samples of an event with counted samples expanded, or the
+     * event itself if it does not hold any {@link CountedQuantity}.
+     *
+     * @param event The {@link Event}.
+     * @return The {@link Event} with counted samples expanded.
+     */
+    static Event expand(final Event event) {
+        final Map<String, List<Quantity>> timerSamples = expand(event.getTimerSamples());
+        final Map<String, List<Quantity>> counterSamples = expand(event.getCounterSamples());
+        final Map<String, List<Quantity>> gaugeSamples = expand(event.getGaugeSamples());
+        if (timerSamples == event.getTimerSamples()
+                && counterSamples == event.getCounterSamples()
+                && gaugeSamples == event.getGaugeSamples()) {
+            return event;
+        }
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(event.getAnnotations())
+                .setTimerSamples(timerSamples)
+                .setCounterSamples(counterSamples)
+                .setGaugeSamples(gaugeSamples)
+                .build();
+    }
+
+    /**
+     * Returns the samples of a list with counted samples compacted; that is
+     * the counted samples behind an expanded view or the list itself.
+     *
+     * @param samples The samples.
+     * @return The samples, which may hold {@link CountedQuantity} instances.
+     */
+    static List<Quantity> compact(final List<Quantity> samples) {
+        return samples instanceof ExpandedSampleList ? ((ExpandedSampleList) samples)._samples : samples;
+    }
+
+    @Override
+    public Quantity get(final int index) {
+        if (index < 0 || index >= _size) {
+            throw new IndexOutOfBoundsException(String.format("Index out of range. Index=%d, Size=%d", index, _size));
+        }
+        // Find the first sample whose cumulative count exceeds the index
+        int sample = Arrays.binarySearch(_cumulativeCounts, index + 1L);
+        if (sample < 0) {
+            sample = -sample - 1;
+        }
+        final Quantity quantity = _samples.get(sample);
+        return quantity instanceof CountedQuantity ? SinkVerticle.DefaultQuantity.newInstance(quantity.getValue()) : quantity;
+    }
+
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Accessor for the counted samples; used for the JSON representation.
+     *
+     * @return The counted samples.
+     */
+    @JsonValue
+    List<Quantity> getCountedSamples() {
+        return Collections.unmodifiableList(_samples);
+    }
+
+    ExpandedSampleList(final List<Quantity> samples) {
+        _samples = samples;
+        _cumulativeCounts = new long[samples.size()];
+        long total = 0;
+        for (int i = 0; i < _cumulativeCounts.length; ++i) {
+            total += CountedQuantity.countOf(samples.get(i));
+            _cumulativeCounts[i] = total;
+        }
+        _size = (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    private static Map<String, List<Quantity>> expand(final Map<String, List<Quantity>> samples) {
+        Map<String, List<Quantity>> expanded = null;
+        for (final Map.Entry<String, List<Quantity>> entry : samples.entrySet()) {
+            final List<Quantity> quantities = expand(entry.getValue());
+            if (quantities != entry.getValue() && expanded == null) {
+                expanded = new LinkedHashMap<>(samples);
+            }
+            if (expanded != null) {
+                expanded.put(entry.getKey(), quantities);
+            }
+        }
+        return expanded == null ? samples : expanded;
+    }
+
+    private final List<Quantity> _samples;
+    private final long[] _cumulativeCounts;
+    private final int _size;
+}
@@ -0,0 +1,389 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable log-linear histogram of sample values. Each value is assigned to
+ * the bucket obtained by truncating the mantissa of its IEEE 754 double
+ * representation to the configured number of bits, which bounds the relative
+ * error of a bucket to 2^-precision. This is the same bucketing as used by
+ * the metrics client for aggregated data, so histograms of the same precision
+ * can be merged exactly.
+ *
+ * The buckets are stored in an open addressed table of primitive keys and
+ * counts. This class is not thread safe.
+ *
+ * @author agent (agent at local)
+ */
+public final class Histogram {
+
+    /**
+     * Public constructor with the default precision of seven bits.
+     */
+    public Histogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param precision The number of mantissa bits retained by each bucket; between 0 and 52.
+     */
+    public Histogram(final int precision) {
+        if (precision < 0 || precision > MANTISSA_BITS) {
+            throw new IllegalArgumentException(String.format("Precision out of range. Precision=%d", precision));
+        }
+        _precision = precision;
+        _mask = -1L << (MANTISSA_BITS - precision);
+        _keys = new long[INITIAL_CAPACITY];
+        _counts = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Restores a histogram from its buckets and statistics, for example as
+     * decoded from a message.
+     *
+     * @param precision The number of mantissa bits retained by each bucket.
+     * @param values The truncated values of the buckets.
+     * @param counts The number of samples in each bucket; each must be positive.
+     * @param sum The sum of the samples.
+     * @param min The minimum sample.
+     * @param max The maximum sample.
+     */
+    Histogram(
+            final int precision,
+            final double[] values,
+            final long[] counts,
+            final double sum,
+            final double min,
+            final double max) {
+        this(precision);
+        for (int i = 0; i < values.length; ++i) {
+            if (counts[i] <= 0) {
+                throw new IllegalArgumentException(String.format("Count must be positive. Count=%d", counts[i]));
+            }
+            addToBucket(Double.doubleToRawLongBits(values[i]) & _mask, counts[i]);
+            _count += counts[i];
+        }
+        _sum = sum;
+        _min = min;
+        _max = max;
+    }
+
+    /**
+     * Record a sample value.
+     *
+     * @param value The sample value.
+     */
+    public void record(final double value) {
+        record(value, 1);
+    }
+
+    /**
+     * Record a sample value multiple times.
+     *
+     * @param value The sample value.
+     * @param count The number of times to record the value; must be positive.
+     */
+    public void record(final double value, final long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException(String.format("Count must be positive. Count=%d", count));
+        }
+        addToBucket(Double.doubleToRawLongBits(value) & _mask, count);
+        _count += count;
+        _sum += value * count;
+        _min = Math.min(_min, value);
+        _max = Math.max(_max, value);
+    }
+
+    /**
+     * Merge another histogram into this one. The buckets of a histogram of
+     * the same or a finer precision are merged exactly. The buckets of a
+     * histogram of a coarser precision are re-bucketed by their midpoints,
+     * so their relative error is that of the coarser precision. The count,
+     * sum, minimum and maximum are merged exactly in either case.
+     *
+     * @param other The {@link Histogram} to merge.
+     */
+    public void merge(final Histogram other) {
+        if (other._precision >= _precision) {
+            // A finer bucket lies within exactly one bucket of this precision
+            for (int i = 0; i < other._counts.length; ++i) {
+                if (other._counts[i] != 0) {
+                    addToBucket(other._keys[i] & _mask, other._counts[i]);
+                }
+            }
+        } else {
+            final Buckets buckets = other.getBuckets();
+            for (int i = 0; i < buckets.size(); ++i) {
+                addToBucket(Double.doubleToRawLongBits(buckets.getMidpoint(i)) & _mask, buckets.getCount(i));
+            }
+        }
+        _count += other._count;
+        _sum += other._sum;
+        _min = Math.min(_min, other._min);
+        _max = Math.max(_max, other._max);
+    }
+
+    /**
+     * Estimates a quantile of the recorded samples as the midpoint of the
+     * bucket holding it.
+     *
+     * @param quantile The quantile; between 0 and 1.
+     * @return The estimated quantile or NaN if the histogram is empty.
+     */
+    public double getQuantile(final double quantile) {
+        if (!(quantile >= 0.0 && quantile <= 1.0)) {
+            throw new IllegalArgumentException(String.format("Quantile out of range. Quantile=%s", quantile));
+        }
+        if (_count == 0) {
+            return Double.NaN;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * _count));
+        final Buckets buckets = getBuckets();
+        long seen = 0;
+        for (int i = 0; i < buckets.size() - 1; ++i) {
+            seen += buckets.getCount(i);
+            if (seen >= rank) {
+                return buckets.getMidpoint(i);
+            }
+        }
+        return buckets.getMidpoint(buckets.size() - 1);
+    }
+
+    /**
+     * Accessor for the number of mantissa bits retained by each bucket.
+     *
+     * @return The number of mantissa bits retained by each bucket.
+     */
+    public int getPrecision() {
+        return _precision;
+    }
+
+    /**
+     * Accessor for the number of recorded samples.
+     *
+     * @return The number of recorded samples.
+     */
+    public long getCount() {
+        return _count;
+    }
+
+    /**
+     * Accessor for the sum of the recorded samples.
+     *
+     * @return The sum of the recorded samples.
+     */
+    public double getSum() {
+        return _sum;
+    }
+
+    /**
+     * Accessor for the minimum recorded value.
+     *
+     * @return The minimum value or positive infinity if the histogram is empty.
+     */
+    public double getMin() {
+        return _min;
+    }
+
+    /**
+     * Accessor for the maximum recorded value.
+     *
+     * @return The maximum value or negative infinity if the histogram is empty.
+     */
+    public double getMax() {
+        return _max;
+    }
+
+    /**
+     * Accessor for the number of non-empty buckets.
+     *
+     * @return The number of non-empty buckets.
+     */
+    public int getBucketCount() {
+        return _size;
+    }
+
+    /**
+     * Creates a snapshot of the buckets in ascending order of value.
+     *
+     * @return The buckets.
+     */
+    public Buckets getBuckets() {
+        final long[] keys = new long[_size];
+        int j = 0;
+        for (int i = 0; i < _counts.length; ++i) {
+            if (_counts[i] != 0) {
+                keys[j++] = _keys[i];
+            }
+        }
+        final double[] values = new double[_size];
+        for (int i = 0; i < _size; ++i) {
+            values[i] = Double.longBitsToDouble(keys[i]);
+        }
+        Arrays.sort(values);
+        final long[] counts = new long[_size];
+        final double[] midpoints = new double[_size];
+        for (int i = 0; i < _size; ++i) {
+            counts[i] = _counts[indexOf(Double.doubleToRawLongBits(values[i]))];
+            midpoints[i] = Math.min(Math.max(midpoint(values[i]), _min), _max);
+        }
+        return new Buckets(values, midpoints, counts);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Histogram{Precision=%d, Count=%d, Sum=%s, Min=%s, Max=%s, Buckets=%d}",
+                _precision,
+                _count,
+                _sum,
+                _min,
+                _max,
+                _size);
+    }
+
+    private double midpoint(final double value) {
+        // Within a bucket the value is linear in its bits; the zero bucket and non-finite values are kept as is
+        if (_precision == MANTISSA_BITS || value == 0.0 || !Double.isFinite(value)) {
+            return value;
+        }
+        return Double.longBitsToDouble(Double.doubleToRawLongBits(value) + (1L << (MANTISSA_BITS - _precision - 1)));
+    }
+
+    private void addToBucket(final long key, final long count) {
+        final int index = indexOf(key);
+        if (_counts[index] == 0) {
+            _keys[index] = key;
+            ++_size;
+            _counts[index] = count;
+            if (_size * 4 > _keys.length * 3) {
+                resize();
+            }
+        } else {
+            _counts[index] += count;
+        }
+    }
+
+    private int indexOf(final long key) {
+        final int mask = _keys.length - 1;
+        int index = hash(key) & mask;
+        while (_counts[index] != 0 && _keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        final long[] oldKeys = _keys;
+        final long[] oldCounts = _counts;
+        _keys = new long[oldKeys.length * 2];
+        _counts = new long[oldCounts.length * 2];
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldCounts[i] != 0) {
+                final int index = indexOf(oldKeys[i]);
+                _keys[index] = oldKeys[i];
+                _counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int hash(final long key) {
+        // The low bits of a truncated key are zero so mix the retained bits down
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32);
+    }
+
+    private final int _precision;
+    private final long _mask;
+    private long[] _keys;
+    private long[] _counts;
+    private int _size;
+    private long _count;
+    private double _sum;
+    private double _min = Double.POSITIVE_INFINITY;
+    private double _max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * The default number of mantissa bits retained by each bucket.
+     */
+    static final int DEFAULT_PRECISION = 7;
+
+    private static final int MANTISSA_BITS = 52;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Immutable snapshot of the non-empty buckets of a {@link Histogram} in
+     * ascending order of value.
+     */
+    public static final class Buckets {
+
+        /**
+         * Accessor for the number of buckets.
+         *
+         * @return The number of buckets.
+         */
+        public int size() {
+            return _values.length;
+        }
+
+        /**
+         * Accessor for the truncated value of a bucket, which is its bound
+         * nearest to zero.
+         *
+         * @param index The index of the bucket.
+         * @return The truncated value of the bucket.
+         */
+        public double getValue(final int index) {
+            return _values[index];
+        }
+
+        /**
+         * Accessor for the representative value of a bucket: the midpoint of
+         * the values it spans, limited to the minimum and maximum recorded
+         * values. Zero and non-finite values are their own midpoint.
+         *
+         * @param index The index of the bucket.
+         * @return The midpoint of the bucket.
+         */
+        public double getMidpoint(final int index) {
+            return _midpoints[index];
+        }
+
+        /**
+         * Accessor for the number of samples in a bucket.
+         *
+         * @param index The index of the bucket.
+         * @return The number of samples.
+         */
+        public long getCount(final int index) {
+            return _counts[index];
+        }
+
+        private Buckets(final double[] values, final double[] midpoints, final long[] counts) {
+            _values = values;
+            _midpoints = midpoints;
+            _counts = counts;
+        }
+
+        private final double[] _values;
+        private final double[] _midpoints;
+        private final long[] _counts;
+    }
+}
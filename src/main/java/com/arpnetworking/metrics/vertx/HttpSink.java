@@ -0,0 +1,611 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.http.RequestOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sink which posts events to an HTTP endpoint using the Vertx {@link HttpClient}
+ * without blocking the calling thread. Events are batched; a batch is sent as
+ * a JSON array, optionally gzip compressed, once it reaches the maximum batch
+ * size, once the maximum linger time elapses after its first event was
+ * recorded or when the sink is closed. Requests are sent over a small pool of
+ * HTTP/1.1 keep-alive connections or multiplexed over HTTP/2 connections.
+ * Batches are serialized and compressed on a Vertx worker thread rather than
+ * on the thread recording the event.
+ *
+ * At most the maximum in-flight number of requests are outstanding at once;
+ * further batches are queued up to the maximum queued batches and dropped
+ * beyond that. Requests which fail, time out or are answered with a server
+ * error or 429 (Too Many Requests) are retried after an exponentially
+ * increasing and jittered backoff up to the maximum number of retries while
+ * holding their in-flight slot. The events of requests rejected with another
+ * client error, or whose retries are exhausted, are counted as failed.
+ *
+ * @author agent (agent at local)
+ */
+public final class HttpSink implements Sink, AsyncCloseable, AutoCloseable {
+
+    @Override
+    public void record(final Event event) {
+        final List<Event> batch;
+        synchronized (_lock) {
+            if (_closed) {
+                drop(1);
+                return;
+            }
+            if (_batch.isEmpty()) {
+                final List<Event> lingeringBatch = _batch;
+                _timerId = _vertx.setTimer(_maxBatchLingerMillis, id -> flush(lingeringBatch));
+            }
+            _batch.add(event);
+            if (_batch.size() < _maxBatchSize) {
+                return;
+            }
+            batch = takeBatch();
+        }
+        submit(batch);
+    }
+
+    /**
+     * Sends the pending batch and closes the client once the outstanding
+     * requests complete. Waits for them to complete unless invoked from a
+     * Vertx thread, on which they may themselves complete; use
+     * {@link #closeAsync()} instead.
+     */
+    @Override
+    public void close() {
+        final Future<Void> closed = closeAsync();
+        if (Context.isOnVertxThread()) {
+            return;
+        }
+        try {
+            closed.toCompletionStage().toCompletableFuture().get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOGGER.warn(String.format("Failed to close client. Uri=%s", _uri), e);
+        }
+    }
+
+    /**
+     * Sends the pending batch and closes the client once the outstanding
+     * requests, including their retries, complete. Events recorded after the
+     * sink is closed are dropped.
+     *
+     * @return {@link Future} completed once the client is closed.
+     */
+    @Override
+    public Future<Void> closeAsync() {
+        final List<Event> batch;
+        synchronized (_lock) {
+            if (_closed) {
+                return _closePromise.future();
+            }
+            _closed = true;
+            batch = _batch.isEmpty() ? null : takeBatch();
+        }
+        if (batch != null) {
+            submit(batch);
+        }
+        completeCloseIfIdle();
+        return _closePromise.future();
+    }
+
+    /**
+     * Accessor for the number of events dropped because the queue of batches
+     * was full or the sink was closed.
+     *
+     * @return The number of events dropped.
+     */
+    public long getDroppedCount() {
+        return _droppedCount.get();
+    }
+
+    /**
+     * Accessor for the number of events whose request was rejected or failed
+     * after exhausting its retries.
+     *
+     * @return The number of events failed.
+     */
+    public long getFailedCount() {
+        return _failedCount.get();
+    }
+
+    private void flush(final List<Event> expectedBatch) {
+        final List<Event> batch;
+        synchronized (_lock) {
+            if (_batch != expectedBatch || _batch.isEmpty()) {
+                return;
+            }
+            batch = takeBatch();
+        }
+        submit(batch);
+    }
+
+    private List<Event> takeBatch() {
+        final List<Event> batch = _batch;
+        _batch = new ArrayList<>(_maxBatchSize);
+        _vertx.cancelTimer(_timerId);
+        return batch;
+    }
+
+    private void submit(final List<Event> events) {
+        synchronized (_lock) {
+            // Batches being encoded count against the queue so that batches which would be dropped are not encoded
+            if (_inFlight >= _maxInFlight && _queued.size() + _encoding >= _maxQueuedBatches) {
+                drop(events.size());
+                return;
+            }
+            ++_encoding;
+        }
+        // Serialization and compression are blocking work which must not run on the recording event loop
+        _vertx.executeBlocking(() -> encode(events), false).onComplete(result -> {
+            final Request request;
+            synchronized (_lock) {
+                --_encoding;
+                if (result.failed()) {
+                    request = null;
+                } else if (_inFlight < _maxInFlight) {
+                    ++_inFlight;
+                    request = new Request(result.result(), events.size());
+                } else {
+                    if (_queued.size() >= _maxQueuedBatches) {
+                        drop(events.size());
+                    } else {
+                        _queued.addLast(new Request(result.result(), events.size()));
+                    }
+                    request = null;
+                }
+            }
+            if (result.failed()) {
+                _failedCount.addAndGet(events.size());
+                LOGGER.warn(String.format("Failed to encode events. Uri=%s", _uri), result.cause());
+                completeCloseIfIdle();
+            } else if (request != null) {
+                send(request);
+            } else {
+                completeCloseIfIdle();
+            }
+        });
+    }
+
+    private Buffer encode(final List<Event> events) throws IOException {
+        // Allocate the body once with room for a body like the last one rather than growing it while encoding
+        final Buffer buffer = Buffer.buffer(_bodySizeHint);
+        if (_compress) {
+            try (OutputStream stream = new GZIPOutputStream(new BufferOutputStream(buffer), GZIP_BUFFER_SIZE)) {
+                OBJECT_MAPPER.writeValue(stream, events);
+            }
+        } else {
+            OBJECT_MAPPER.writeValue(new BufferOutputStream(buffer), events);
+        }
+        _bodySizeHint = buffer.length() + (buffer.length() >>> 3);
+        return buffer;
+    }
+
+    private void send(final Request request) {
+        _client.request(_requestOptions)
+                .compose(clientRequest -> clientRequest.send(request._body))
+                .compose(response -> response.body().map(body -> response.statusCode()))
+                .onComplete(result -> {
+                    if (result.succeeded() && result.result() / 100 == 2) {
+                        complete();
+                    } else if (result.succeeded() && !isRetryable(result.result())) {
+                        LOGGER.warn("Request rejected; dropping events. Uri={}, Status={}", _uri, result.result());
+                        fail(request);
+                    } else if (request._attempt < _maxRetries) {
+                        final long delay = backoff(request._attempt++);
+                        LOGGER.debug("Request failed; retrying. Uri={}, Delay={}", _uri, delay);
+                        _vertx.setTimer(delay, id -> send(request));
+                    } else {
+                        if (result.failed()) {
+                            LOGGER.warn(String.format("Request failed; dropping events. Uri=%s", _uri), result.cause());
+                        } else {
+                            LOGGER.warn("Request failed; dropping events. Uri={}, Status={}", _uri, result.result());
+                        }
+                        fail(request);
+                    }
+                });
+    }
+
+    private long backoff(final int attempt) {
+        final long delay = Math.min(_maxRetryBackoffMillis, _retryBackoffMillis << Math.min(attempt, MAX_BACKOFF_SHIFT));
+        // Jitter spreads out the retries of requests which failed together
+        return Math.max(1, delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private void fail(final Request request) {
+        _failedCount.addAndGet(request._eventCount);
+        complete();
+    }
+
+    private void complete() {
+        final Request next;
+        synchronized (_lock) {
+            next = _queued.pollFirst();
+            if (next == null) {
+                --_inFlight;
+            }
+        }
+        if (next != null) {
+            send(next);
+        } else {
+            completeCloseIfIdle();
+        }
+    }
+
+    private void completeCloseIfIdle() {
+        synchronized (_lock) {
+            if (!_closed || _inFlight > 0 || _encoding > 0 || _clientClosing) {
+                return;
+            }
+            _clientClosing = true;
+        }
+        _client.close().onComplete(_closePromise);
+    }
+
+    private void drop(final int eventCount) {
+        if (_droppedCount.getAndAdd(eventCount) == 0) {
+            LOGGER.warn("Request queue full or sink closed; dropping events. Uri={}", _uri);
+        }
+    }
+
+    private static boolean isRetryable(final int status) {
+        return status / 100 == 5 || status == TOO_MANY_REQUESTS;
+    }
+
+    private HttpSink(final Builder builder) {
+        _vertx = builder._vertx;
+        _uri = builder._uri;
+        _compress = builder._compress;
+        _maxBatchSize = builder._maxBatchSize;
+        _maxBatchLingerMillis = Math.max(1, builder._maxBatchLinger.toMillis());
+        _maxInFlight = builder._maxInFlight;
+        _maxQueuedBatches = builder._maxQueuedBatches;
+        _maxRetries = builder._maxRetries;
+        _retryBackoffMillis = Math.max(1, builder._retryBackoff.toMillis());
+        _maxRetryBackoffMillis = Math.max(_retryBackoffMillis, builder._maxRetryBackoff.toMillis());
+        _batch = new ArrayList<>(_maxBatchSize);
+        final HttpClientOptions clientOptions = new HttpClientOptions().setKeepAlive(true);
+        if (builder._useHttp2) {
+            // Use HTTP/2 with prior knowledge over cleartext rather than upgrading each connection and negotiate it
+            // with ALPN over TLS
+            clientOptions.setProtocolVersion(HttpVersion.HTTP_2).setHttp2ClearTextUpgrade(false).setUseAlpn(true);
+        }
+        _client = _vertx.httpClientBuilder()
+                .with(clientOptions)
+                .with(new PoolOptions().setHttp1MaxSize(builder._maxConnections).setHttp2MaxSize(builder._maxConnections))
+                .build();
+        _requestOptions = new RequestOptions()
+                .setMethod(HttpMethod.POST)
+                .setAbsoluteURI(_uri)
+                .setTimeout(builder._requestTimeout.toMillis())
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+        if (_compress) {
+            _requestOptions.putHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+    }
+
+    private final Vertx _vertx;
+    private final String _uri;
+    private final boolean _compress;
+    private final int _maxBatchSize;
+    private final long _maxBatchLingerMillis;
+    private final int _maxInFlight;
+    private final int _maxQueuedBatches;
+    private final int _maxRetries;
+    private final long _retryBackoffMillis;
+    private final long _maxRetryBackoffMillis;
+    private final HttpClient _client;
+    private final RequestOptions _requestOptions;
+    private final AtomicLong _droppedCount = new AtomicLong();
+    private final AtomicLong _failedCount = new AtomicLong();
+    private final Promise<Void> _closePromise = Promise.promise();
+    private final Object _lock = new Object();
+    private final Deque<Request> _queued = new ArrayDeque<>();
+    private List<Event> _batch;
+    private long _timerId;
+    private int _inFlight;
+    private int _encoding;
+    private boolean _closed;
+    private boolean _clientClosing;
+    // Races between encoding worker threads only affect the initial capacity of the next body
+    private volatile int _bodySizeHint = INITIAL_BODY_SIZE_HINT;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpSink.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int MAX_BACKOFF_SHIFT = 30;
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final int INITIAL_BODY_SIZE_HINT = 1024;
+
+    /**
+     * A batch of encoded events and the number of times it was retried.
+     */
+    private static final class Request {
+
+        Request(final Buffer body, final int eventCount) {
+            _body = body;
+            _eventCount = eventCount;
+        }
+
+        private final Buffer _body;
+        private final int _eventCount;
+        private int _attempt;
+    }
+
+    /**
+     * Builder class for {@link HttpSink}.
+     */
+    public static final class Builder {
+
+        /**
+         * Create an instance of {@link HttpSink}.
+         *
+         * @return Instance of {@link HttpSink}.
+         */
+        public HttpSink build() {
+            if (_vertx == null) {
+                throw new IllegalArgumentException("Vertx cannot be null.");
+            }
+            if (_uri == null || _uri.isEmpty()) {
+                throw new IllegalArgumentException("Uri cannot be null or empty.");
+            }
+            if (_compress == null) {
+                throw new IllegalArgumentException("Compress cannot be null.");
+            }
+            if (_useHttp2 == null) {
+                throw new IllegalArgumentException("UseHttp2 cannot be null.");
+            }
+            if (_maxConnections == null || _maxConnections < 1) {
+                throw new IllegalArgumentException("MaxConnections cannot be null or less than one.");
+            }
+            if (_maxBatchSize == null || _maxBatchSize < 1) {
+                throw new IllegalArgumentException("MaxBatchSize cannot be null or less than one.");
+            }
+            if (_maxBatchLinger == null || _maxBatchLinger.isNegative() || _maxBatchLinger.isZero()) {
+                throw new IllegalArgumentException("MaxBatchLinger cannot be null or non-positive.");
+            }
+            if (_maxInFlight == null || _maxInFlight < 1) {
+                throw new IllegalArgumentException("MaxInFlight cannot be null or less than one.");
+            }
+            if (_maxQueuedBatches == null || _maxQueuedBatches < 0) {
+                throw new IllegalArgumentException("MaxQueuedBatches cannot be null or negative.");
+            }
+            if (_maxRetries == null || _maxRetries < 0) {
+                throw new IllegalArgumentException("MaxRetries cannot be null or negative.");
+            }
+            if (_retryBackoff == null || _retryBackoff.isNegative() || _retryBackoff.isZero()) {
+                throw new IllegalArgumentException("RetryBackoff cannot be null or non-positive.");
+            }
+            if (_maxRetryBackoff == null || _maxRetryBackoff.isNegative() || _maxRetryBackoff.isZero()) {
+                throw new IllegalArgumentException("MaxRetryBackoff cannot be null or non-positive.");
+            }
+            if (_requestTimeout == null || _requestTimeout.isNegative() || _requestTimeout.isZero()) {
+                throw new IllegalArgumentException("RequestTimeout cannot be null or non-positive.");
+            }
+            return new HttpSink(this);
+        }
+
+        /**
+         * Sets the {@link Vertx} instance whose {@link HttpClient} and timers
+         * are used. Required. Cannot be null.
+         *
+         * @param value The {@link Vertx} instance.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setVertx(final Vertx value) {
+            _vertx = value;
+            return this;
+        }
+
+        /**
+         * Sets the absolute URI the events are posted to. Required. Cannot be
+         * null or empty.
+         *
+         * @param value The URI.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setUri(final String value) {
+            _uri = value;
+            return this;
+        }
+
+        /**
+         * Sets whether request bodies are gzip compressed. Optional. Default
+         * is true.
+         *
+         * @param value Whether to compress request bodies.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setCompress(final Boolean value) {
+            _compress = value;
+            return this;
+        }
+
+        /**
+         * Sets whether requests are multiplexed over HTTP/2 connections, using
+         * prior knowledge for cleartext URIs and negotiated with ALPN for
+         * HTTPS URIs, instead of sent over HTTP/1.1 keep-alive connections.
+         * Optional. Default is false.
+         *
+         * @param value Whether to use HTTP/2.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setUseHttp2(final Boolean value) {
+            _useHttp2 = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections to the endpoint. Optional.
+         * Default is four.
+         *
+         * @param value The maximum number of connections.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxConnections(final Integer value) {
+            _maxConnections = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events sent in a single request.
+         * Optional. Default is 500.
+         *
+         * @param value The maximum batch size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxBatchSize(final Integer value) {
+            _maxBatchSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a partial batch is held before it is sent.
+         * Optional. Default is 500 milliseconds.
+         *
+         * @param value The maximum batch linger time.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxBatchLinger(final Duration value) {
+            _maxBatchLinger = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests outstanding at once, including
+         * requests waiting to be retried. Optional. Default is eight.
+         *
+         * @param value The maximum number of in-flight requests.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxInFlight(final Integer value) {
+            _maxInFlight = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of batches waiting for an in-flight request
+         * to complete before further batches are dropped. Optional. Default is
+         * 64.
+         *
+         * @param value The maximum number of queued batches.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxQueuedBatches(final Integer value) {
+            _maxQueuedBatches = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of times a failed request is retried.
+         * Optional. Default is three.
+         *
+         * @param value The maximum number of retries.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxRetries(final Integer value) {
+            _maxRetries = value;
+            return this;
+        }
+
+        /**
+         * Sets the backoff before the first retry; each further retry doubles
+         * it up to the maximum retry backoff. Optional. Default is 100
+         * milliseconds.
+         *
+         * @param value The initial retry backoff.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRetryBackoff(final Duration value) {
+            _retryBackoff = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum backoff before a retry. Optional. Default is ten
+         * seconds.
+         *
+         * @param value The maximum retry backoff.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxRetryBackoff(final Duration value) {
+            _maxRetryBackoff = value;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a request without a response fails.
+         * Optional. Default is ten seconds.
+         *
+         * @param value The request timeout.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRequestTimeout(final Duration value) {
+            _requestTimeout = value;
+            return this;
+        }
+
+        private Vertx _vertx;
+        private String _uri;
+        private Boolean _compress = true;
+        private Boolean _useHttp2 = false;
+        private Integer _maxConnections = 4;
+        private Integer _maxBatchSize = 500;
+        private Duration _maxBatchLinger = DEFAULT_MAX_BATCH_LINGER;
+        private Integer _maxInFlight = 8;
+        private Integer _maxQueuedBatches = 64;
+        private Integer _maxRetries = 3;
+        private Duration _retryBackoff = DEFAULT_RETRY_BACKOFF;
+        private Duration _maxRetryBackoff = DEFAULT_MAX_RETRY_BACKOFF;
+        private Duration _requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+        private static final Duration DEFAULT_MAX_BATCH_LINGER = Duration.ofMillis(500);
+        private static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofMillis(100);
+        private static final Duration DEFAULT_MAX_RETRY_BACKOFF = Duration.ofSeconds(10);
+        private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Implementation of {@link WireFormat} encoding events in the same JSON
+ * representation {@link EventBusSink} publishes as strings by default. A
+ * single event is encoded as a JSON object and multiple events as a JSON
+ * array. Events are encoded directly into the buffer and decoded from its
+ * bytes without an intermediate string, unless the {@link EventDecoder} only
+ * supports decoding strings.
+ *
+ * @author agent (agent at local)
+ */
+public final class JsonWireFormat implements WireFormat {
+
+    /**
+     * Public constructor. Events are decoded with a {@link StreamingEventDecoder}
+     * which falls back to a {@link DatabindEventDecoder}.
+     */
+    public JsonWireFormat() {
+        this(new StreamingEventDecoder(new DatabindEventDecoder()));
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param decoder The {@link EventDecoder} to decode events with.
+     */
+    public JsonWireFormat(final EventDecoder decoder) {
+        _decoder = decoder;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public void encode(final List<? extends Event> events, final Buffer buffer) throws IOException {
+        OBJECT_MAPPER.writeValue(new BufferOutputStream(buffer), events.size() == 1 ? events.get(0) : events);
+    }
+
+    @Override
+    public List<Event> decode(final Buffer buffer, final int position) throws IOException {
+        return _decoder.decode(buffer, position);
+    }
+
+    private final EventDecoder _decoder;
+
+    /**
+     * The identifier of the format.
+     */
+    public static final byte ID = 1;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+}
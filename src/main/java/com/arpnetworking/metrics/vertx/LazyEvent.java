@@ -0,0 +1,233 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Implementation of {@link Event} which holds the JSON representation of the
+ * event and decodes each of its sections, the annotations and the timer,
+ * counter and gauge samples, only when the section is first accessed. The
+ * decoded section is cached so that each section is decoded at most once
+ * regardless of how many sinks access it. Instances are created by the
+ * {@link LazyEventDecoder}.
+ *
+ * Sections are decoded as by {@link StreamingEventDecoder}. Their structure is
+ * validated by the {@link LazyEventDecoder} when the event is created so that
+ * accessing a section does not fail while a sink records the event; input it
+ * does not support is decoded by its fallback decoder into another
+ * {@link Event} implementation instead. Instances retain the payload of the message
+ * they were decoded from, which is shared by the events of a batch; sinks
+ * which retain events should copy the sections they need instead.
+ *
+ * Instances are safe to access from multiple threads; a section accessed
+ * concurrently may be decoded more than once but the decoded sections are
+ * equal.
+ *
+ * @author agent (agent at local)
+ */
+public final class LazyEvent implements Event {
+
+    @Override
+    public Map<String, String> getAnnotations() {
+        Map<String, String> annotations = _annotations;
+        if (annotations == null) {
+            try (JsonParser parser = createParser(ANNOTATIONS_SECTION)) {
+                annotations = Collections.unmodifiableMap(StreamingEventDecoder.readAnnotations(parser, _interner));
+            } catch (final IOException e) {
+                throw sectionFailure(e);
+            }
+            _annotations = annotations;
+        }
+        return annotations;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getTimerSamples() {
+        Map<String, List<Quantity>> timerSamples = _timerSamples;
+        if (timerSamples == null) {
+            try (JsonParser parser = createParser(TIMER_SAMPLES_SECTION)) {
+                timerSamples = Collections.unmodifiableMap(StreamingEventDecoder.readSamples(parser, _interner));
+            } catch (final IOException e) {
+                throw sectionFailure(e);
+            }
+            _timerSamples = timerSamples;
+        }
+        return timerSamples;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getCounterSamples() {
+        Map<String, List<Quantity>> counterSamples = _counterSamples;
+        if (counterSamples == null) {
+            try (JsonParser parser = createParser(COUNTER_SAMPLES_SECTION)) {
+                counterSamples = Collections.unmodifiableMap(StreamingEventDecoder.readSamples(parser, _interner));
+            } catch (final IOException e) {
+                throw sectionFailure(e);
+            }
+            _counterSamples = counterSamples;
+        }
+        return counterSamples;
+    }
+
+    @Override
+    public Map<String, List<Quantity>> getGaugeSamples() {
+        Map<String, List<Quantity>> gaugeSamples = _gaugeSamples;
+        if (gaugeSamples == null) {
+            try (JsonParser parser = createParser(GAUGE_SAMPLES_SECTION)) {
+                gaugeSamples = Collections.unmodifiableMap(StreamingEventDecoder.readSamples(parser, _interner));
+            } catch (final IOException e) {
+                throw sectionFailure(e);
+            }
+            _gaugeSamples = gaugeSamples;
+        }
+        return gaugeSamples;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LazyEvent)) {
+            return false;
+        }
+        final LazyEvent otherEvent = (LazyEvent) other;
+        return Objects.equals(getAnnotations(), otherEvent.getAnnotations())
+                && Objects.equals(getCounterSamples(), otherEvent.getCounterSamples())
+                && Objects.equals(getTimerSamples(), otherEvent.getTimerSamples())
+                && Objects.equals(getGaugeSamples(), otherEvent.getGaugeSamples());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getAnnotations(), getCounterSamples(), getTimerSamples(), getGaugeSamples());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "LazyEvent{Annotations=%s, TimerSamples=%s, CounterSamples=%s, GaugeSamples=%s}",
+                getAnnotations(),
+                getTimerSamples(),
+                getCounterSamples(),
+                getGaugeSamples());
+    }
+
+    /**
+     * Returns the metric names of a samples section without decoding the
+     * samples unless they already were.
+     *
+     * @param section The samples section.
+     * @return The metric names.
+     */
+    Collection<String> getMetricNames(final int section) {
+        final Map<String, List<Quantity>> samples;
+        switch (section) {
+            case TIMER_SAMPLES_SECTION:
+                samples = _timerSamples;
+                break;
+            case COUNTER_SAMPLES_SECTION:
+                samples = _counterSamples;
+                break;
+            case GAUGE_SAMPLES_SECTION:
+                samples = _gaugeSamples;
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown samples section. Section=%d", section));
+        }
+        if (samples != null) {
+            return samples.keySet();
+        }
+        final List<String> names = new ArrayList<>();
+        try (JsonParser parser = createParser(section)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                names.add(parser.currentName());
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        } catch (final IOException e) {
+            throw sectionFailure(e);
+        }
+        return names;
+    }
+
+    /**
+     * Whether the section has been decoded; for testing.
+     */
+    boolean isDecoded(final int section) {
+        switch (section) {
+            case ANNOTATIONS_SECTION:
+                return _annotations != null;
+            case TIMER_SAMPLES_SECTION:
+                return _timerSamples != null;
+            case COUNTER_SAMPLES_SECTION:
+                return _counterSamples != null;
+            case GAUGE_SAMPLES_SECTION:
+                return _gaugeSamples != null;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown section. Section=%d", section));
+        }
+    }
+
+    private JsonParser createParser(final int section) throws IOException {
+        final int start = _offsets[2 * section];
+        final JsonParser parser = StreamingEventDecoder.JSON_FACTORY.createParser(
+                _payload,
+                start,
+                _offsets[2 * section + 1] - start);
+        parser.nextToken();
+        return parser;
+    }
+
+    private static UncheckedIOException sectionFailure(final IOException cause) {
+        // The structure of each section is validated when the event is created
+        return new UncheckedIOException("Failed to decode validated event section.", cause);
+    }
+
+    LazyEvent(final char[] payload, final int[] offsets, @Nullable final StringInterner interner) {
+        _payload = payload;
+        _offsets = offsets;
+        _interner = interner;
+    }
+
+    private final int[] _offsets;
+    private final StringInterner _interner;
+    private final char[] _payload;
+    private volatile Map<String, String> _annotations;
+    private volatile Map<String, List<Quantity>> _timerSamples;
+    private volatile Map<String, List<Quantity>> _counterSamples;
+    private volatile Map<String, List<Quantity>> _gaugeSamples;
+
+    static final int ANNOTATIONS_SECTION = 0;
+    static final int TIMER_SAMPLES_SECTION = 1;
+    static final int COUNTER_SAMPLES_SECTION = 2;
+    static final int GAUGE_SAMPLES_SECTION = 3;
+    static final int SECTION_COUNT = 4;
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Implementation of {@link EventDecoder} which decodes events into
+ * {@link LazyEvent} instances. Decoding only tokenizes the input to validate
+ * its structure and to locate the sections of each event; the annotations and
+ * samples themselves are decoded when a sink first accesses them. Sinks which
+ * only access some of the sections, for example only the annotations to
+ * filter events, then do not pay for decoding the others.
+ *
+ * Input whose structure is not the canonical representation written by
+ * {@link EventBusSink} is handed off to the fallback decoder, if one was
+ * provided, as by {@link StreamingEventDecoder}. Since the structure of every
+ * section is validated when the input is decoded, accessing the sections of a
+ * decoded event does not fail.
+ *
+ * @author agent (agent at local)
+ */
+public final class LazyEventDecoder implements EventDecoder {
+
+    /**
+     * Public constructor. Input which cannot be decoded is rejected.
+     */
+    public LazyEventDecoder() {
+        this(null);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param fallback The {@link EventDecoder} to decode input this decoder
+     * cannot decode; for example, a {@link DatabindEventDecoder}. Optional.
+     */
+    public LazyEventDecoder(@Nullable final EventDecoder fallback) {
+        this(fallback, null);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param fallback The {@link EventDecoder} to decode input this decoder
+     * cannot decode; for example, a {@link DatabindEventDecoder}. Optional.
+     * @param interner The {@link StringInterner} to resolve metric names and
+     * annotation keys and values through when sections are decoded. Optional.
+     */
+    public LazyEventDecoder(@Nullable final EventDecoder fallback, @Nullable final StringInterner interner) {
+        _fallback = fallback;
+        _interner = interner;
+    }
+
+    @Override
+    public List<Event> decode(final String json) throws IOException {
+        final char[] payload = json.toCharArray();
+        try (JsonParser parser = StreamingEventDecoder.JSON_FACTORY.createParser(payload)) {
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                return Collections.singletonList(indexEvent(parser, payload));
+            } else if (token == JsonToken.START_ARRAY) {
+                final List<Event> events = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    StreamingEventDecoder.expect(parser, JsonToken.START_OBJECT);
+                    events.add(indexEvent(parser, payload));
+                }
+                return events;
+            }
+            throw new JsonParseException(parser, "Expected event object or array of event objects");
+        } catch (final JsonProcessingException e) {
+            if (_fallback == null) {
+                throw e;
+            }
+            LOGGER.debug("Falling back to alternate decoder. Reason={}", e.getOriginalMessage());
+            return _fallback.decode(json);
+        }
+    }
+
+    private LazyEvent indexEvent(final JsonParser parser, final char[] payload) throws IOException {
+        final int[] offsets = new int[2 * LazyEvent.SECTION_COUNT];
+        Arrays.fill(offsets, -1);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            final int section;
+            switch (fieldName) {
+                case StreamingEventDecoder.ANNOTATIONS_KEY:
+                    section = LazyEvent.ANNOTATIONS_SECTION;
+                    break;
+                case StreamingEventDecoder.TIMER_SAMPLES_KEY:
+                    section = LazyEvent.TIMER_SAMPLES_SECTION;
+                    break;
+                case StreamingEventDecoder.COUNTER_SAMPLES_KEY:
+                    section = LazyEvent.COUNTER_SAMPLES_SECTION;
+                    break;
+                case StreamingEventDecoder.GAUGE_SAMPLES_KEY:
+                    section = LazyEvent.GAUGE_SAMPLES_SECTION;
+                    break;
+                case StreamingEventDecoder.AGGREGATED_DATA_KEY:
+                    // Ignored as by the data binding of SinkVerticle.DefaultEvent.Builder
+                    parser.skipChildren();
+                    continue;
+                default:
+                    throw new JsonParseException(parser, String.format("Unrecognized event field. Field=%s", fieldName));
+            }
+            offsets[2 * section] = tokenOffset(parser);
+            // Validate the structure so that accessing the section cannot fail while a sink records the event
+            if (section == LazyEvent.ANNOTATIONS_SECTION) {
+                StreamingEventDecoder.validateAnnotations(parser);
+            } else {
+                StreamingEventDecoder.validateSamples(parser);
+            }
+            offsets[2 * section + 1] = tokenOffset(parser) + 1;
+        }
+        for (int section = 0; section < LazyEvent.SECTION_COUNT; ++section) {
+            if (offsets[2 * section] < 0) {
+                throw new JsonParseException(parser, String.format("Missing event section. Section=%d", section));
+            }
+        }
+        return new LazyEvent(payload, offsets, _interner);
+    }
+
+    private static int tokenOffset(final JsonParser parser) {
+        return (int) parser.currentTokenLocation().getCharOffset();
+    }
+
+    private final EventDecoder _fallback;
+    private final StringInterner _interner;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LazyEventDecoder.class);
+}
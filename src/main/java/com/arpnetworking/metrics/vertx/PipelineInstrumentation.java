@@ -0,0 +1,338 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.arpnetworking.metrics.Sink;
+import io.vertx.core.Vertx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation of the metrics pipeline itself. Components such as
+ * {@link EventBusSink} and {@link SinkVerticle.SinkHandler} record counters
+ * and timers here; recording is lock-free and allocation free so that it may
+ * be done on the hot path. The recorded values are periodically reported, and
+ * reset, as a single {@link AggregatedEvent} to the configured sink. Timers are
+ * recorded in nanoseconds with a relative error of at most one eighth.
+ *
+ * Reported events are annotated with "_pipelineInstrumentation" so that
+ * components do not instrument their own reports if these are recorded back
+ * through the pipeline. Components recording on the thread reporting the
+ * instrumentation should likewise not record while {@link #isReporting()}.
+ *
+ * @author agent (agent at local)
+ */
+public final class PipelineInstrumentation implements AutoCloseable {
+
+    /**
+     * Returns the {@link Counter} with the given name, creating it if necessary.
+     * Components should resolve their counters once rather than per use.
+     *
+     * @param name The name of the counter.
+     * @return The {@link Counter}.
+     */
+    public Counter getCounter(final String name) {
+        return _counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * Returns the {@link Timer} with the given name, creating it if necessary.
+     * Components should resolve their timers once rather than per use.
+     *
+     * @param name The name of the timer.
+     * @return The {@link Timer}.
+     */
+    public Timer getTimer(final String name) {
+        return _timers.computeIfAbsent(name, k -> new Timer());
+    }
+
+    /**
+     * Whether the current thread is reporting instrumentation.
+     *
+     * @return True if and only if the current thread is reporting.
+     */
+    public static boolean isReporting() {
+        return REPORTING.get()[0];
+    }
+
+    /**
+     * Whether the event is a report of pipeline instrumentation.
+     *
+     * @param event The event.
+     * @return True if and only if the event is a report.
+     */
+    public static boolean isReport(final Event event) {
+        return event.getAnnotations().containsKey(REPORT_ANNOTATION);
+    }
+
+    /**
+     * Reports the values recorded since the last report to the sink and
+     * resets them. Reporting is skipped if it is already in progress on the
+     * current thread.
+     */
+    public void report() {
+        final boolean[] reporting = REPORTING.get();
+        if (reporting[0]) {
+            return;
+        }
+        reporting[0] = true;
+        try {
+            _sink.record(createReport());
+            // CHECKSTYLE.OFF: IllegalCatch - Instrumentation must not fail the caller
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            LOGGER.warn("Failed to report pipeline instrumentation.", e);
+        } finally {
+            reporting[0] = false;
+        }
+    }
+
+    /**
+     * Stops periodic reporting and reports any remaining values.
+     */
+    @Override
+    public void close() {
+        if (_vertx != null) {
+            _vertx.cancelTimer(_timerId);
+        }
+        report();
+    }
+
+    private synchronized Event createReport() {
+        final Instant end = Instant.now();
+        final Map<String, String> annotations = new LinkedHashMap<>(_annotations);
+        annotations.put(ID_KEY, UUID.randomUUID().toString());
+        annotations.put(START_KEY, _reportStart.toString());
+        annotations.put(END_KEY, end.toString());
+        annotations.put(REPORT_ANNOTATION, "true");
+        _reportStart = end;
+
+        final Map<String, List<Quantity>> counterSamples = new LinkedHashMap<>();
+        for (final Map.Entry<String, Counter> entry : _counters.entrySet()) {
+            counterSamples.put(
+                    entry.getKey(),
+                    Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(entry.getValue().reset())));
+        }
+        final Map<String, Histogram> timerHistograms = new LinkedHashMap<>();
+        for (final Map.Entry<String, Timer> entry : _timers.entrySet()) {
+            final Histogram histogram = entry.getValue().reset();
+            if (histogram.getCount() > 0) {
+                timerHistograms.put(entry.getKey(), histogram);
+            }
+        }
+        return new AggregatedEvent(annotations, timerHistograms, counterSamples, Collections.emptyMap());
+    }
+
+    private PipelineInstrumentation(final Builder builder) {
+        _sink = builder._sink;
+        _annotations = new LinkedHashMap<>(builder._annotations);
+        _vertx = builder._vertx;
+        if (_vertx != null) {
+            _timerId = _vertx.setPeriodic(builder._reportInterval.toMillis(), id -> report());
+        }
+    }
+
+    private final Sink _sink;
+    private final Map<String, String> _annotations;
+    private final Vertx _vertx;
+    private final ConcurrentMap<String, Counter> _counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> _timers = new ConcurrentHashMap<>();
+    private Instant _reportStart = Instant.now();
+    private long _timerId;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineInstrumentation.class);
+    private static final String REPORT_ANNOTATION = "_pipelineInstrumentation";
+    private static final String ID_KEY = "_id";
+    private static final String START_KEY = "_start";
+    private static final String END_KEY = "_end";
+    private static final ThreadLocal<boolean[]> REPORTING = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    /**
+     * Counter of occurrences, for example of events or failures.
+     */
+    public static final class Counter {
+
+        /**
+         * Increments the counter by one.
+         */
+        public void increment() {
+            _value.increment();
+        }
+
+        /**
+         * Increments the counter.
+         *
+         * @param delta The amount to increment by.
+         */
+        public void add(final long delta) {
+            _value.add(delta);
+        }
+
+        long reset() {
+            return _value.sumThenReset();
+        }
+
+        Counter() {}
+
+        private final LongAdder _value = new LongAdder();
+    }
+
+    /**
+     * Timer recording durations into a fixed set of log-linear buckets.
+     */
+    public static final class Timer {
+
+        /**
+         * Records a duration.
+         *
+         * @param nanos The duration in nanoseconds.
+         */
+        public void record(final long nanos) {
+            _buckets.incrementAndGet(getBucketIndex(nanos));
+        }
+
+        Histogram reset() {
+            final Histogram histogram = new Histogram();
+            for (int i = 0; i < BUCKETS; ++i) {
+                final long count = _buckets.getAndSet(i, 0);
+                if (count > 0) {
+                    histogram.record(getBucketValue(i), count);
+                }
+            }
+            return histogram;
+        }
+
+        static int getBucketIndex(final long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) Math.max(0, nanos);
+            }
+            // The most significant bit selects the octave and the next bits the linear sub-bucket
+            final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static double getBucketValue(final int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            final int shift = index / SUB_BUCKETS - 1;
+            final long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+            // The midpoint of the bucket
+            return lower + ((1L << shift) - 1) / 2.0;
+        }
+
+        Timer() {}
+
+        private final AtomicLongArray _buckets = new AtomicLongArray(BUCKETS);
+
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    }
+
+    /**
+     * Builder class for {@link PipelineInstrumentation}.
+     */
+    public static final class Builder {
+
+        /**
+         * Create an instance of {@link PipelineInstrumentation}.
+         *
+         * @return Instance of {@link PipelineInstrumentation}.
+         */
+        public PipelineInstrumentation build() {
+            if (_sink == null) {
+                throw new IllegalArgumentException("Sink cannot be null.");
+            }
+            if (_annotations == null) {
+                throw new IllegalArgumentException("Annotations cannot be null.");
+            }
+            if (_reportInterval == null || _reportInterval.isNegative() || _reportInterval.isZero()) {
+                throw new IllegalArgumentException("ReportInterval cannot be null or non-positive.");
+            }
+            return new PipelineInstrumentation(this);
+        }
+
+        /**
+         * Sets the sink to report to. Required. Cannot be null.
+         *
+         * @param value The {@link Sink} to report to.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setSink(final Sink value) {
+            _sink = value;
+            return this;
+        }
+
+        /**
+         * Sets additional annotations of the reported events, for example the
+         * service, cluster and host. Optional. Default is none.
+         *
+         * @param value The annotations.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setAnnotations(final Map<String, String> value) {
+            _annotations = value;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Vertx} instance used to report periodically. If not
+         * set, the instrumentation is only reported when {@link #report()} is
+         * invoked. Optional. Default is null.
+         *
+         * @param value The {@link Vertx} instance.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setVertx(final Vertx value) {
+            _vertx = value;
+            return this;
+        }
+
+        /**
+         * Sets the interval at which to report. Optional. Default is one minute.
+         *
+         * @param value The report interval.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setReportInterval(final Duration value) {
+            _reportInterval = value;
+            return this;
+        }
+
+        private Sink _sink;
+        private Map<String, String> _annotations = Collections.emptyMap();
+        private Vertx _vertx;
+        private Duration _reportInterval = DEFAULT_REPORT_INTERVAL;
+
+        private static final Duration DEFAULT_REPORT_INTERVAL = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+/**
+ * Jackson deserializer binding a {@link Quantity} to a
+ * {@link SinkVerticle.DefaultQuantity} or, when it carries a count, to a
+ * {@link CountedQuantity}.
+ *
+ * @author agent (agent at local)
+ */
+final class QuantityDeserializer extends StdDeserializer<Quantity> {
+
+    QuantityDeserializer() {
+        super(Quantity.class);
+    }
+
+    @Override
+    public Quantity deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+        final Representation representation = context.readValue(parser, Representation.class);
+        if (representation._count == null) {
+            return SinkVerticle.DefaultQuantity.newInstance(representation._value);
+        }
+        if (representation._count <= 0) {
+            throw InvalidFormatException.from(parser, "Count must be positive.", representation._count, Long.class);
+        }
+        return CountedQuantity.newInstance(representation._value, representation._count);
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The bound fields of a quantity.
+     */
+    private static final class Representation {
+
+        @JsonProperty("value")
+        private Number _value;
+        @JsonProperty("count")
+        private Long _count;
+    }
+}
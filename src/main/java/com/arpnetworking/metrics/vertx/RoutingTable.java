@@ -0,0 +1,407 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * Table routing each event to the sinks, identified by their index, whose
+ * routes match it. A route matches events with an annotation, optionally with
+ * a specific value, or events with a metric whose name starts with a prefix.
+ * A sink receives an event if any of its routes match; a sink without routes
+ * receives every event.
+ *
+ * The routes are compiled once into bitmasks of the sinks per annotation key
+ * and value and into a trie of the metric name prefixes, so routing an event
+ * costs a lookup per annotation or per routed annotation key, whichever are
+ * fewer, and a walk of the trie per metric name, regardless of the number of
+ * routes. Metric names are only inspected while some sink routed by prefix
+ * has not matched; the names of a {@link LazyEvent} are then read without
+ * decoding its samples. At most 64 sinks are supported.
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author agent (agent at local)
+ */
+public final class RoutingTable {
+
+    /**
+     * Creates a routing table from a JSON array of routes. Each route is an
+     * object with the index of the sink as "sink" and either an "annotation"
+     * key, optionally with a "value", or a "metricPrefix".
+     *
+     * @param routes The {@link JsonArray} of routes.
+     * @param sinkCount The number of sinks.
+     * @return The {@link RoutingTable}.
+     */
+    public static RoutingTable fromJson(final JsonArray routes, final int sinkCount) {
+        final List<Route> parsedRoutes = new ArrayList<>(routes.size());
+        for (int i = 0; i < routes.size(); ++i) {
+            final JsonObject route = routes.getJsonObject(i);
+            parsedRoutes.add(new Route.Builder()
+                    .setSinkIndex(route.getInteger("sink"))
+                    .setAnnotationKey(route.getString("annotation"))
+                    .setAnnotationValue(route.getString("value"))
+                    .setMetricPrefix(route.getString("metricPrefix"))
+                    .build());
+        }
+        return new Builder()
+                .setSinkCount(sinkCount)
+                .setRoutes(parsedRoutes)
+                .build();
+    }
+
+    /**
+     * Returns the sinks the event is routed to.
+     *
+     * @param event The {@link Event} to route.
+     * @return The bitmask of the indexes of the sinks the event is routed to.
+     */
+    public long route(final Event event) {
+        long mask = _unroutedMask;
+        if (!_annotationRoutes.isEmpty()) {
+            final Map<String, String> annotations = event.getAnnotations();
+            // Look up whichever of the annotations and the routed annotation keys are fewer in the other
+            if (annotations.size() < _annotationRoutes.size()) {
+                for (final Map.Entry<String, String> annotation : annotations.entrySet()) {
+                    final AnnotationRoutes routes = _annotationRoutes.get(annotation.getKey());
+                    if (routes != null) {
+                        mask |= routes.match(annotation.getValue());
+                    }
+                }
+            } else {
+                for (final Map.Entry<String, AnnotationRoutes> routes : _annotationRoutes.entrySet()) {
+                    final String value = annotations.get(routes.getKey());
+                    if (value != null) {
+                        mask |= routes.getValue().match(value);
+                    }
+                }
+            }
+        }
+        // Metric names are only inspected if a sink routed by prefix has not matched yet
+        if ((mask & _prefixMask) != _prefixMask) {
+            if (event instanceof LazyEvent) {
+                final LazyEvent lazyEvent = (LazyEvent) event;
+                mask = routeMetrics(lazyEvent.getMetricNames(LazyEvent.TIMER_SAMPLES_SECTION), mask);
+                mask = routeMetrics(lazyEvent.getMetricNames(LazyEvent.COUNTER_SAMPLES_SECTION), mask);
+                mask = routeMetrics(lazyEvent.getMetricNames(LazyEvent.GAUGE_SAMPLES_SECTION), mask);
+            } else {
+                mask = routeMetrics(event.getTimerSamples().keySet(), mask);
+                mask = routeMetrics(event.getCounterSamples().keySet(), mask);
+                mask = routeMetrics(event.getGaugeSamples().keySet(), mask);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Accessor for the number of sinks routed.
+     *
+     * @return The number of sinks.
+     */
+    public int getSinkCount() {
+        return _sinkCount;
+    }
+
+    private long routeMetrics(final Iterable<String> names, final long mask) {
+        long result = mask;
+        for (final String name : names) {
+            if ((result & _prefixMask) == _prefixMask) {
+                break;
+            }
+            result |= _prefixes.match(name);
+        }
+        return result;
+    }
+
+    private RoutingTable(final Builder builder) {
+        _sinkCount = builder._sinkCount;
+        final Map<String, AnnotationRoutes> annotationRoutes = new LinkedHashMap<>();
+        final TrieBuilder prefixes = new TrieBuilder();
+        long routedMask = 0;
+        long prefixMask = 0;
+        for (final Route route : builder._routes) {
+            final long sinkMask = 1L << route._sinkIndex;
+            routedMask |= sinkMask;
+            if (route._metricPrefix != null) {
+                prefixMask |= sinkMask;
+                prefixes.add(route._metricPrefix, sinkMask);
+            } else {
+                annotationRoutes.computeIfAbsent(route._annotationKey, key -> new AnnotationRoutes())
+                        .add(route._annotationValue, sinkMask);
+            }
+        }
+        final long allMask = _sinkCount == MAX_SINKS ? -1L : (1L << _sinkCount) - 1;
+        _unroutedMask = allMask & ~routedMask;
+        _prefixMask = prefixMask;
+        _annotationRoutes = annotationRoutes;
+        _prefixes = prefixes.build();
+    }
+
+    private final int _sinkCount;
+    private final long _unroutedMask;
+    private final long _prefixMask;
+    private final Map<String, AnnotationRoutes> _annotationRoutes;
+    private final TrieNode _prefixes;
+
+    private static final int MAX_SINKS = 64;
+
+    /**
+     * Sinks routed by the values of an annotation key.
+     */
+    private static final class AnnotationRoutes {
+
+        void add(@Nullable final String value, final long mask) {
+            if (value == null) {
+                _keyMask |= mask;
+            } else {
+                _valueMasks.merge(value, mask, (a, b) -> a | b);
+            }
+        }
+
+        long match(final String value) {
+            final Long valueMask = _valueMasks.get(value);
+            return valueMask == null ? _keyMask : _keyMask | valueMask;
+        }
+
+        private long _keyMask;
+        private final Map<String, Long> _valueMasks = new LinkedHashMap<>();
+    }
+
+    /**
+     * Node of the metric name prefix trie. The children are held sorted by
+     * their character for a binary search.
+     */
+    private static final class TrieNode {
+
+        TrieNode(final long mask, final char[] keys, final TrieNode[] children) {
+            _mask = mask;
+            _keys = keys;
+            _children = children;
+        }
+
+        long match(final String name) {
+            long mask = _mask;
+            TrieNode node = this;
+            for (int i = 0; i < name.length(); ++i) {
+                final int index = Arrays.binarySearch(node._keys, name.charAt(i));
+                if (index < 0) {
+                    break;
+                }
+                node = node._children[index];
+                mask |= node._mask;
+            }
+            return mask;
+        }
+
+        private final long _mask;
+        private final char[] _keys;
+        private final TrieNode[] _children;
+    }
+
+    /**
+     * Mutable trie used to build the immutable {@link TrieNode} instances.
+     */
+    private static final class TrieBuilder {
+
+        void add(final String prefix, final long mask) {
+            TrieBuilder node = this;
+            for (int i = 0; i < prefix.length(); ++i) {
+                node = node._children.computeIfAbsent(prefix.charAt(i), key -> new TrieBuilder());
+            }
+            node._mask |= mask;
+        }
+
+        TrieNode build() {
+            final char[] keys = new char[_children.size()];
+            final TrieNode[] children = new TrieNode[_children.size()];
+            int i = 0;
+            for (final Map.Entry<Character, TrieBuilder> entry : _children.entrySet()) {
+                keys[i] = entry.getKey();
+                children[i] = entry.getValue().build();
+                ++i;
+            }
+            return new TrieNode(_mask, keys, children);
+        }
+
+        private long _mask;
+        private final Map<Character, TrieBuilder> _children = new TreeMap<>();
+    }
+
+    /**
+     * A route of events to a sink.
+     */
+    public static final class Route {
+
+        private Route(final Builder builder) {
+            _sinkIndex = builder._sinkIndex;
+            _annotationKey = builder._annotationKey;
+            _annotationValue = builder._annotationValue;
+            _metricPrefix = builder._metricPrefix;
+        }
+
+        private final int _sinkIndex;
+        private final String _annotationKey;
+        private final String _annotationValue;
+        private final String _metricPrefix;
+
+        /**
+         * Builder class for {@link Route}.
+         */
+        public static final class Builder {
+
+            /**
+             * Create an instance of {@link Route}.
+             *
+             * @return Instance of {@link Route}.
+             */
+            public Route build() {
+                if (_sinkIndex == null || _sinkIndex < 0 || _sinkIndex >= MAX_SINKS) {
+                    throw new IllegalArgumentException("SinkIndex cannot be null or outside of 0 to 63.");
+                }
+                if ((_annotationKey == null) == (_metricPrefix == null)) {
+                    throw new IllegalArgumentException("Exactly one of AnnotationKey and MetricPrefix must be set.");
+                }
+                if (_annotationValue != null && _annotationKey == null) {
+                    throw new IllegalArgumentException("AnnotationValue cannot be set without AnnotationKey.");
+                }
+                return new Route(this);
+            }
+
+            /**
+             * Sets the index of the sink events are routed to. Required.
+             * Cannot be null.
+             *
+             * @param value The index of the sink.
+             * @return This instance of {@link Builder}.
+             */
+            public Builder setSinkIndex(final Integer value) {
+                _sinkIndex = value;
+                return this;
+            }
+
+            /**
+             * Sets the key of the annotation events are routed by. Either the
+             * annotation key or the metric prefix is required.
+             *
+             * @param value The annotation key.
+             * @return This instance of {@link Builder}.
+             */
+            public Builder setAnnotationKey(final String value) {
+                _annotationKey = value;
+                return this;
+            }
+
+            /**
+             * Sets the value of the annotation events are routed by. If not
+             * set, events with the annotation are routed regardless of its
+             * value. Optional. Default is null.
+             *
+             * @param value The annotation value.
+             * @return This instance of {@link Builder}.
+             */
+            public Builder setAnnotationValue(final String value) {
+                _annotationValue = value;
+                return this;
+            }
+
+            /**
+             * Sets the prefix of the metric names events are routed by; an
+             * event is routed if any of its timers, counters or gauges match.
+             * Either the annotation key or the metric prefix is required.
+             *
+             * @param value The metric name prefix.
+             * @return This instance of {@link Builder}.
+             */
+            public Builder setMetricPrefix(final String value) {
+                _metricPrefix = value;
+                return this;
+            }
+
+            private Integer _sinkIndex;
+            private String _annotationKey;
+            private String _annotationValue;
+            private String _metricPrefix;
+        }
+    }
+
+    /**
+     * Builder class for {@link RoutingTable}.
+     */
+    public static final class Builder {
+
+        /**
+         * Create an instance of {@link RoutingTable}.
+         *
+         * @return Instance of {@link RoutingTable}.
+         */
+        public RoutingTable build() {
+            if (_sinkCount == null || _sinkCount < 0 || _sinkCount > MAX_SINKS) {
+                throw new IllegalArgumentException("SinkCount cannot be null or outside of 0 to 64.");
+            }
+            if (_routes == null) {
+                throw new IllegalArgumentException("Routes cannot be null.");
+            }
+            for (final Route route : _routes) {
+                if (route._sinkIndex >= _sinkCount) {
+                    throw new IllegalArgumentException(String.format(
+                            "Route sink index out of range. SinkIndex=%d, SinkCount=%d",
+                            route._sinkIndex,
+                            _sinkCount));
+                }
+            }
+            return new RoutingTable(this);
+        }
+
+        /**
+         * Sets the number of sinks routed to. Required. Cannot be null or
+         * greater than 64.
+         *
+         * @param value The number of sinks.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setSinkCount(final Integer value) {
+            _sinkCount = value;
+            return this;
+        }
+
+        /**
+         * Sets the routes. Optional. Default is no routes, which routes every
+         * event to every sink.
+         *
+         * @param value The {@link List} of {@link Route} instances.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRoutes(final List<Route> value) {
+            _routes = value;
+            return this;
+        }
+
+        private Integer _sinkCount;
+        private List<Route> _routes = Collections.emptyList();
+    }
+}
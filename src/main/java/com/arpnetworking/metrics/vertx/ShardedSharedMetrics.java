@@ -0,0 +1,319 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Metrics;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Variant of {@link SharedMetrics} which records counters, timers and gauges
+ * to a shard owned by the recording thread instead of to the wrapped
+ * {@link Metrics} instance. Verticles deployed on different event loops then
+ * record without contending on the synchronization of the wrapped instance;
+ * each event loop only ever touches its own shard. The shards are merged into
+ * the wrapped instance when the instance is closed.
+ *
+ * The current sample of each counter is summed across the shards; samples
+ * completed by {@link #resetCounter(String)} are recorded individually. Timer
+ * and gauge samples of all shards are recorded in the order of the shards; a
+ * gauge set to both integral and floating point values in a shard is recorded
+ * with floating point values. A timer started with {@link #startTimer(String)}
+ * must be stopped on the thread that started it. As with the wrapped instance,
+ * a timer still running when the instance is closed is not recorded; it is
+ * logged instead. Counters and timers created with
+ * {@link #createCounter(String)} and {@link #createTimer(String)}, and
+ * annotations, are not sharded and are recorded directly to the wrapped
+ * instance. Anything recorded after the instance is closed is also passed
+ * through to the wrapped instance, which rejects it.
+ *
+ * @author agent (agent at local)
+ */
+public class ShardedSharedMetrics extends SharedMetrics {
+
+    /**
+     * Constructs a new ShardedSharedMetrics object that can be added to a vertx shared data map/set.
+     *
+     * @param wrappedMetrics - Metrics object to wrap.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public ShardedSharedMetrics(final Metrics wrappedMetrics) {
+        super(wrappedMetrics);
+        _wrappedMetrics = wrappedMetrics;
+    }
+
+    @Override
+    public void incrementCounter(final String name) {
+        incrementCounter(name, 1);
+    }
+
+    @Override
+    public void incrementCounter(final String name, final long value) {
+        final Shard shard = beginRecord();
+        if (shard == null) {
+            super.incrementCounter(name, value);
+            return;
+        }
+        shard.getCounter(name)._value += value;
+        shard._recording = false;
+    }
+
+    @Override
+    public void decrementCounter(final String name) {
+        incrementCounter(name, -1);
+    }
+
+    @Override
+    public void decrementCounter(final String name, final long value) {
+        incrementCounter(name, -value);
+    }
+
+    @Override
+    public void resetCounter(final String name) {
+        final Shard shard = beginRecord();
+        if (shard == null) {
+            super.resetCounter(name);
+            return;
+        }
+        final CounterSamples counter = shard._counters.get(name);
+        if (counter == null) {
+            shard._counters.put(name, new CounterSamples());
+        } else {
+            counter._completed.add(counter._value);
+            counter._value = 0;
+        }
+        shard._recording = false;
+    }
+
+    @Override
+    public void startTimer(final String name) {
+        final Shard shard = beginRecord();
+        if (shard == null) {
+            super.startTimer(name);
+            return;
+        }
+        shard._timerStarts.put(name, System.nanoTime());
+        shard._recording = false;
+    }
+
+    @Override
+    public void stopTimer(final String name) {
+        final long now = System.nanoTime();
+        final Shard shard = beginRecord();
+        if (shard == null) {
+            super.stopTimer(name);
+            return;
+        }
+        final Long start = shard._timerStarts.remove(name);
+        if (start != null) {
+            getOrCreate(shard._timers, name).add(now - start);
+        }
+        shard._recording = false;
+        if (start == null) {
+            // Not started on this thread; let the wrapped instance report it
+            super.stopTimer(name);
+        }
+    }
+
+    /**
+     * @deprecated See {@code Metrics} interface.
+     */
+    @SuppressWarnings("deprecation")
+    @Deprecated
+    @Override
+    public void setTimer(final String name, final long duration, final TimeUnit unit) {
+        final Shard shard = beginRecord();
+        if (shard == null) {
+            super.setTimer(name, duration, unit);
+            return;
+        }
+        getOrCreate(shard._timers, name).add(unit.toNanos(duration));
+        shard._recording = false;
+    }
+
+    @Override
+    public void setGauge(final String name, final double value) {
+        final Shard shard = beginRecord();
+        if (shard == null) {
+            super.setGauge(name, value);
+            return;
+        }
+        getOrCreate(shard._gauges, name).add(value);
+        shard._recording = false;
+    }
+
+    @Override
+    public void setGauge(final String name, final long value) {
+        final Shard shard = beginRecord();
+        if (shard == null) {
+            super.setGauge(name, value);
+            return;
+        }
+        getOrCreate(shard._gauges, name).add(value);
+        shard._recording = false;
+    }
+
+    @Override
+    public void close() {
+        if (!_closed.compareAndSet(false, true)) {
+            super.close();
+            return;
+        }
+        final Map<String, CounterSamples> counters = new LinkedHashMap<>();
+        for (final Shard shard : _shards.values()) {
+            // Wait out a record which began before the instance was closed
+            while (shard._recording) {
+                Thread.onSpinWait();
+            }
+            for (final Map.Entry<String, CounterSamples> entry : shard._counters.entrySet()) {
+                final CounterSamples counter = entry.getValue();
+                final CounterSamples merged = counters.computeIfAbsent(entry.getKey(), key -> new CounterSamples());
+                merged._value += counter._value;
+                final CompactEvent.Samples completed = counter._completed.build();
+                for (int i = 0; i < completed.size(); ++i) {
+                    merged._completed.add(completed.getLong(i));
+                }
+            }
+        }
+        for (final Map.Entry<String, CounterSamples> entry : counters.entrySet()) {
+            final CounterSamples counter = entry.getValue();
+            final CompactEvent.Samples completed = counter._completed.build();
+            for (int i = 0; i < completed.size(); ++i) {
+                recordCounterSample(entry.getKey(), completed.getLong(i));
+            }
+            recordCounterSample(entry.getKey(), counter._value);
+        }
+        for (final Shard shard : _shards.values()) {
+            for (final String name : shard._timerStarts.keySet()) {
+                LOGGER.warn("Timer not stopped before close; sample discarded. Name={}", name);
+            }
+            for (final Map.Entry<String, CompactEvent.Samples.Builder> entry : shard._timers.entrySet()) {
+                final CompactEvent.Samples samples = entry.getValue().build();
+                for (int i = 0; i < samples.size(); ++i) {
+                    recordTimerSample(entry.getKey(), samples.getLong(i));
+                }
+            }
+            for (final Map.Entry<String, CompactEvent.Samples.Builder> entry : shard._gauges.entrySet()) {
+                final CompactEvent.Samples samples = entry.getValue().build();
+                for (int i = 0; i < samples.size(); ++i) {
+                    if (samples.isIntegral()) {
+                        _wrappedMetrics.setGauge(entry.getKey(), samples.getLong(i));
+                    } else {
+                        _wrappedMetrics.setGauge(entry.getKey(), samples.getDouble(i));
+                    }
+                }
+            }
+        }
+        _shards.clear();
+        super.close();
+    }
+
+    /**
+     * Accessor for the number of shards recorded to; for testing.
+     */
+    int getShardCount() {
+        return _shards.size();
+    }
+
+    /**
+     * Returns the shard of the current thread with a record in progress, or
+     * null if the instance is closed. The caller must end the record by
+     * clearing the recording flag of the shard.
+     */
+    private Shard beginRecord() {
+        final Thread thread = Thread.currentThread();
+        Shard shard = _shards.get(thread);
+        if (shard == null) {
+            if (_closed.get()) {
+                return null;
+            }
+            shard = _shards.computeIfAbsent(thread, key -> new Shard());
+        }
+        // The flag and the closed state are both volatile so that either the
+        // record observes the instance closed or the close observes the record
+        shard._recording = true;
+        if (_closed.get()) {
+            shard._recording = false;
+            return null;
+        }
+        return shard;
+    }
+
+    private void recordCounterSample(final String name, final long value) {
+        // Resetting creates a new sample which the increment then applies to
+        _wrappedMetrics.resetCounter(name);
+        _wrappedMetrics.incrementCounter(name, value);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void recordTimerSample(final String name, final long nanoseconds) {
+        _wrappedMetrics.setTimer(name, nanoseconds, TimeUnit.NANOSECONDS);
+    }
+
+    private static CompactEvent.Samples.Builder getOrCreate(final Map<String, CompactEvent.Samples.Builder> samples, final String name) {
+        CompactEvent.Samples.Builder builder = samples.get(name);
+        if (builder == null) {
+            builder = new CompactEvent.Samples.Builder();
+            samples.put(name, builder);
+        }
+        return builder;
+    }
+
+    private final Metrics _wrappedMetrics;
+    private final ConcurrentMap<Thread, Shard> _shards = new ConcurrentHashMap<>();
+    private final AtomicBoolean _closed = new AtomicBoolean(false);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedSharedMetrics.class);
+
+    /**
+     * The samples recorded by one thread. Only the owning thread accesses the
+     * samples until the instance is closed.
+     */
+    private static final class Shard {
+
+        CounterSamples getCounter(final String name) {
+            CounterSamples counter = _counters.get(name);
+            if (counter == null) {
+                counter = new CounterSamples();
+                _counters.put(name, counter);
+            }
+            return counter;
+        }
+
+        private final Map<String, CounterSamples> _counters = new LinkedHashMap<>();
+        private final Map<String, CompactEvent.Samples.Builder> _timers = new LinkedHashMap<>();
+        private final Map<String, CompactEvent.Samples.Builder> _gauges = new LinkedHashMap<>();
+        private final Map<String, Long> _timerStarts = new LinkedHashMap<>();
+        private volatile boolean _recording;
+    }
+
+    /**
+     * The current sample of a counter and the samples completed by resetting it.
+     */
+    private static final class CounterSamples {
+
+        private long _value;
+        private final CompactEvent.Samples.Builder _completed = new CompactEvent.Samples.Builder();
+    }
+}
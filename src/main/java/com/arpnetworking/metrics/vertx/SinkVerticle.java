@@ -18,21 +18,33 @@ package com.arpnetworking.metrics.vertx;
 import com.arpnetworking.metrics.Event;
 import com.arpnetworking.metrics.Quantity;
 import com.arpnetworking.metrics.Sink;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
 
 /**
  * An abstract verticle responsible for writing the metrics data to the targeted sink. This verticle subscribes to the
@@ -46,17 +58,149 @@ import java.util.Objects;
  * {@link #initializeHandler()}. Implementations of this class should be deployed as a worker verticle
  * since writing to a sink is a blocking operation. The config for this verticle should contain the "sinkAddress" key.
  *
+ * Messages may contain either the JSON serialized event as published by default by {@link EventBusSink} or the
+ * {@link Event} instance itself when published using the {@link EventMessageCodec}. Batches of events published by
+ * {@link EventBusSink} either as a JSON array or as an {@link EventBatch} are recorded to the sinks in order. Messages
+ * published as {@link Buffer} bodies encoded with a {@link WireFormat} are decoded with the format identified by their
+ * header; the default {@link SinkHandler} supports the {@link JsonWireFormat} and the {@link BinaryWireFormat}.
+ *
+ * If the sinks only access some parts of each event, for example only the annotations to filter events, set the
+ * "lazyDecoding" config key to true. JSON events are then decoded into {@link LazyEvent} instances which decode the
+ * annotations and each kind of samples only when a sink first accesses them.
+ *
+ * Events decoded from messages each hold their own copies of the metric names and annotations unless the
+ * "internCapacity" config key is set, in which case decoded strings are resolved through a {@link StringInterner} of
+ * that capacity which is shared by all the verticles of the Vertx instance. Set it to at least the number of distinct
+ * metric names and annotation keys and values expected to hold them all, and to the same value for every verticle of
+ * the Vertx instance; a verticle requesting a different capacity fails to start.
+ *
+ * By default the verticle only consumes events published on the local node. To also consume events published by other
+ * nodes of a clustered event bus set the "clustered" config key to true; such events must be published as JSON strings
+ * or {@link Buffer} bodies rather than with the {@link EventMessageCodec}.
+ *
+ * To scale processing across event loops deploy as many instances of the verticle as there are shards and set the
+ * "shardCount" key in the config. Each instance then consumes from its own shard address "sinkAddress.N", where N is
+ * either set by the "shardIndex" config key or claimed in turn by the instances of the deployment. Set the
+ * {@link EventBusSink} shard count to match to distribute events across the shards. If the sinks are thread-safe the
+ * "shareSinks" config key may be set to true in which case {@link #createSinks()} is invoked only once per deployment
+ * and the instances share the resulting sinks.
+ *
+ * Events may optionally be pre-aggregated before they are recorded to the sinks by setting the
+ * "aggregationWindowMillis" config key. Each instance then folds the events it receives into an
+ * {@link EventAggregator}, which replaces the sinks in {@link #_sinks}, and records the resulting
+ * {@link AggregatedEvent} instances to the sinks at the end of each window and when the verticle is stopped.
+ * How gauge samples are reduced is set by the "gaugeAggregation" config key as one of the
+ * {@link EventAggregator.GaugePolicy} names.
+ *
+ * To keep blocking sinks off the verticle's thread set the "asyncSinks" config key to true. Each sink is then wrapped
+ * in an {@link AsyncSink} which records to it from a dedicated thread through a bounded queue whose size may be set
+ * by the "asyncSinkQueueSize" config key. Sinks which are {@link AsyncCloseable} or {@link AutoCloseable} are closed
+ * when the verticle is stopped or, if shared, when the last instance of the deployment is stopped; stopping completes
+ * once they are closed without blocking the verticle's thread.
+ *
+ * To absorb sinks which are slow or unavailable set the "spoolDirectory" config key. Each sink is then wrapped in a
+ * {@link SpoolingSink} instead, which queues events like the {@link AsyncSink}, with the queue size set by the same
+ * config key, but appends the events that overflow the queue to a {@link DiskSpool} and replays them in order once
+ * the sink catches up or recovers. Each sink spools to its own subdirectory named after the sink address and the
+ * sink, so instances must not share a sink address unless they share sinks. The size of the spool segments and the
+ * maximum size of each spool may be set in bytes by the "spoolSegmentSize" and "spoolMaxSize" config keys.
+ *
+ * The cost of processing events may be instrumented by overriding {@link #createInstrumentation()}. The default
+ * {@link SinkHandler} then records the number of events and failures and the time spent decoding and recording events
+ * to each sink; the instrumentation is closed, reporting any remaining values, when the verticle is stopped.
+ *
+ * Events may be routed to specific sinks by setting the "routes" config key to an array of routes, each naming the
+ * index of a sink in the list returned by {@link #createSinks()} as "sink" and matching either an "annotation" key,
+ * optionally with a "value", or a "metricPrefix" of the event's metric names. A sink with routes only receives the
+ * events matching any of them while a sink without routes receives every event. The routes are compiled into a
+ * {@link RoutingTable} by {@link #createRoutingTable()}; with aggregation the aggregated events are routed instead.
+ *
  * @author Deepika Misra (deepika at groupon dot com)
  */
 public abstract class SinkVerticle extends AbstractVerticle {
 
     @Override
     public void start() {
-        _sinks = new ArrayList<>(createSinks());
+        final String baseSinkAddress = config().getString("sinkAddress", DEFAULT_SINK_ADDRESS);
+        final int shardCount = config().getInteger("shardCount", 0);
+        _sinkAddress = shardCount > 0 ? getShardAddress(baseSinkAddress, claimShardIndex(baseSinkAddress, shardCount)) : baseSinkAddress;
+        if (config().getBoolean("shareSinks", false)) {
+            _sharedSinks = acquireSharedSinks(baseSinkAddress);
+            _sinks = new ArrayList<>(_sharedSinks.getSinks());
+        } else {
+            _ownedSinks = createDispatchedSinks(_sinkAddress);
+            _sinks = new ArrayList<>(_ownedSinks);
+        }
+        _routingTable = createRoutingTable();
+        final long aggregationWindowMillis = config().getLong("aggregationWindowMillis", 0L);
+        if (aggregationWindowMillis > 0) {
+            _aggregator = new EventAggregator.Builder()
+                    .setGaugePolicy(EventAggregator.GaugePolicy.valueOf(
+                            config().getString("gaugeAggregation", EventAggregator.GaugePolicy.LAST.name())))
+                    .build();
+            _aggregatedSinks = _sinks;
+            _sinks = new ArrayList<>(Collections.singletonList(_aggregator));
+            _aggregationTimerId = vertx.setPeriodic(aggregationWindowMillis, id -> flushAggregator());
+        }
+        _instrumentation = createInstrumentation();
         _handler = initializeHandler();
-        _sinkAddress = config().getString("sinkAddress", DEFAULT_SINK_ADDRESS);
 
-        vertx.eventBus().localConsumer(_sinkAddress, _handler);
+        final Handler<Message<Object>> consumer = this::dispatch;
+        if (config().getBoolean("clustered", false)) {
+            vertx.eventBus().consumer(_sinkAddress, consumer);
+        } else {
+            vertx.eventBus().localConsumer(_sinkAddress, consumer);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (_aggregator != null) {
+            vertx.cancelTimer(_aggregationTimerId);
+            flushAggregator();
+        }
+
+        final LocalMap<String, Object> sharedState = vertx.sharedData().getLocalMap(SHARED_STATE_MAP_NAME);
+        final String deploymentKey = getDeploymentKey(config().getString("sinkAddress", DEFAULT_SINK_ADDRESS));
+        // The shard index is only claimed when starting the instances of a deployment
+        sharedState.remove(deploymentKey + SHARD_INDEX_KEY_SUFFIX);
+        if (_sharedSinks != null) {
+            if (_sharedSinks.release()) {
+                sharedState.remove(deploymentKey + SINKS_KEY_SUFFIX, _sharedSinks);
+                _closingSinks = _sharedSinks.getSinks();
+            }
+        } else if (_ownedSinks != null) {
+            _closingSinks = _ownedSinks;
+        }
+        if (_instrumentation != null) {
+            _instrumentation.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Completes once the sinks owned by this instance, or the sinks shared by the deployment when this is its last
+     * instance, are closed. Sinks which are {@link AsyncCloseable} are closed without blocking and other sinks which
+     * are {@link AutoCloseable} are closed on a worker thread.
+     */
+    @Override
+    public void stop(final Promise<Void> stopPromise) throws Exception {
+        stop();
+        final List<Sink> sinks = _closingSinks;
+        _closingSinks = null;
+        closeSinksAsync(sinks).onComplete(stopPromise);
+    }
+
+    /**
+     * Returns the address of a shard consumed by an instance of a sharded {@link SinkVerticle}.
+     *
+     * @param sinkAddress The sink address.
+     * @param shardIndex The index of the shard.
+     * @return The address of the shard.
+     */
+    public static String getShardAddress(final String sinkAddress, final int shardIndex) {
+        return sinkAddress + "." + shardIndex;
     }
 
     /**
@@ -68,19 +212,270 @@ public abstract class SinkVerticle extends AbstractVerticle {
 
     /**
      * Initializes the member handler with an appropriate message handler. The default implementation is to initialize
-     * with the {@link SinkHandler} instance.
+     * with the {@link SinkHandler} instance, decoding JSON with a {@link LazyEventDecoder} if the "lazyDecoding"
+     * config key is true and otherwise with a {@link StreamingEventDecoder}, and interning decoded strings with the
+     * shared {@link StringInterner} if the "internCapacity" config key is set.
+     *
+     * JSON string message bodies are passed to the handler. Other message bodies are only supported if the handler is a
+     * {@link SinkHandler}, in which case they are passed to {@link SinkHandler#handleEncoded(Message)}.
      *
      * @return An instance of {@link Handler}.
      */
     protected Handler<Message<String>> initializeHandler() {
-        return new SinkHandler(_sinks);
+        final int internCapacity = config().getInteger("internCapacity", 0);
+        final StringInterner interner = internCapacity > 0 ? StringInterner.getShared(vertx, internCapacity) : null;
+        final EventDecoder decoder = config().getBoolean("lazyDecoding", false)
+                ? new LazyEventDecoder(new DatabindEventDecoder(), interner)
+                : new StreamingEventDecoder(new DatabindEventDecoder(), interner);
+        return new SinkHandler(
+                _sinks,
+                decoder,
+                _instrumentation,
+                Arrays.asList(new JsonWireFormat(decoder), new BinaryWireFormat(interner)),
+                // Aggregated events are routed when the aggregator is flushed
+                _aggregator == null ? _routingTable : null);
+    }
+
+    /**
+     * Creates the {@link PipelineInstrumentation} of this verticle. The default implementation returns null which
+     * disables instrumentation.
+     *
+     * @return An instance of {@link PipelineInstrumentation} or null.
+     */
+    @Nullable
+    protected PipelineInstrumentation createInstrumentation() {
+        return null;
+    }
+
+    /**
+     * Creates the {@link RoutingTable} of this verticle for the sinks in {@link #_sinks}. The default implementation
+     * compiles the routes of the "routes" config key if set and otherwise returns null which routes every event to
+     * every sink.
+     *
+     * @return An instance of {@link RoutingTable} or null.
+     */
+    @Nullable
+    protected RoutingTable createRoutingTable() {
+        final JsonArray routes = config().getJsonArray("routes");
+        if (routes == null) {
+            return null;
+        }
+        return RoutingTable.fromJson(routes, _sinks.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(final Message<Object> message) {
+        final Object body = message.body();
+        if (body == null || body instanceof String) {
+            _handler.handle((Message<String>) (Message<?>) message);
+        } else if (_handler instanceof SinkHandler) {
+            ((SinkHandler) _handler).handleEncoded(message);
+        } else {
+            LOGGER.warn("Unsupported message body for handler. Type={}", body.getClass());
+            if (message.replyAddress() != null) {
+                message.reply(null);
+            }
+        }
+    }
+
+    private void flushAggregator() {
+        for (final Event event : _aggregator.flush()) {
+            if (_routingTable == null) {
+                for (final Sink sink : _aggregatedSinks) {
+                    recordAggregated(sink, event);
+                }
+            } else {
+                for (long routed = _routingTable.route(event); routed != 0; routed &= routed - 1) {
+                    recordAggregated(_aggregatedSinks.get(Long.numberOfTrailingZeros(routed)), event);
+                }
+            }
+        }
+    }
+
+    private static void recordAggregated(final Sink sink, final Event event) {
+        try {
+            sink.record(event);
+            // CHECKSTYLE.OFF: IllegalCatch - Do not let one sink prevent recording to the others
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            LOGGER.warn("Failed to record aggregated event to sink.", e);
+        }
+    }
+
+    private int claimShardIndex(final String baseSinkAddress, final int shardCount) {
+        final Integer configuredShardIndex = config().getInteger("shardIndex");
+        final int shardIndex;
+        if (configuredShardIndex != null) {
+            shardIndex = configuredShardIndex;
+        } else {
+            if (context.getInstanceCount() != shardCount) {
+                LOGGER.warn(
+                        "Instance count does not match shard count. InstanceCount={}, ShardCount={}",
+                        context.getInstanceCount(),
+                        shardCount);
+            }
+            final LocalMap<String, Object> sharedState = vertx.sharedData().getLocalMap(SHARED_STATE_MAP_NAME);
+            shardIndex = (Integer) sharedState.compute(
+                    getDeploymentKey(baseSinkAddress) + SHARD_INDEX_KEY_SUFFIX,
+                    (key, value) -> value == null ? 0 : (Integer) value + 1);
+        }
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            // Multiple consumers of a shard address would each record every event published to it
+            throw new IllegalStateException(String.format(
+                    "Shard index out of range. ShardIndex=%d, ShardCount=%d",
+                    shardIndex,
+                    shardCount));
+        }
+        return shardIndex;
+    }
+
+    private SharedSinks acquireSharedSinks(final String baseSinkAddress) {
+        final LocalMap<String, Object> sharedState = vertx.sharedData().getLocalMap(SHARED_STATE_MAP_NAME);
+        return (SharedSinks) sharedState.compute(
+                getDeploymentKey(baseSinkAddress) + SINKS_KEY_SUFFIX,
+                (key, value) -> (value == null ? new SharedSinks(createDispatchedSinks(baseSinkAddress)) : (SharedSinks) value).acquire());
+    }
+
+    private List<Sink> createDispatchedSinks(final String sinkAddress) {
+        final List<Sink> sinks = createSinks();
+        final String spoolDirectory = config().getString("spoolDirectory");
+        if (spoolDirectory != null) {
+            return createSpoolingSinks(sinks, Paths.get(spoolDirectory, sinkAddress));
+        }
+        if (!config().getBoolean("asyncSinks", false)) {
+            return sinks;
+        }
+        final int queueSize = config().getInteger("asyncSinkQueueSize", DEFAULT_ASYNC_SINK_QUEUE_SIZE);
+        final List<Sink> asyncSinks = new ArrayList<>(sinks.size());
+        for (final Sink sink : sinks) {
+            asyncSinks.add(new AsyncSink.Builder()
+                    .setSink(sink)
+                    .setName("metrics-sink-" + sink.getClass().getSimpleName())
+                    .setQueueSize(queueSize)
+                    .build());
+        }
+        return asyncSinks;
+    }
+
+    private List<Sink> createSpoolingSinks(final List<Sink> sinks, final Path directory) {
+        final int queueSize = config().getInteger("asyncSinkQueueSize", DEFAULT_ASYNC_SINK_QUEUE_SIZE);
+        final List<Sink> spoolingSinks = new ArrayList<>(sinks.size());
+        for (int i = 0; i < sinks.size(); ++i) {
+            final Sink sink = sinks.get(i);
+            final String name = i + "-" + sink.getClass().getSimpleName();
+            final Path spoolDirectory = directory.resolve(name);
+            final DiskSpool spool;
+            try {
+                spool = new DiskSpool.Builder()
+                        .setDirectory(spoolDirectory)
+                        .setSegmentSize(config().getInteger("spoolSegmentSize", DEFAULT_SPOOL_SEGMENT_SIZE))
+                        .setMaxSize(config().getLong("spoolMaxSize", DEFAULT_SPOOL_MAX_SIZE))
+                        .build();
+            } catch (final IOException e) {
+                closeSinks(spoolingSinks);
+                throw new UncheckedIOException(String.format("Failed to open spool. Directory=%s", spoolDirectory), e);
+            }
+            spoolingSinks.add(new SpoolingSink.Builder()
+                    .setSink(sink)
+                    .setSpool(spool)
+                    .setName("metrics-sink-" + name)
+                    .setQueueSize(queueSize)
+                    .build());
+        }
+        return spoolingSinks;
+    }
+
+    private Future<Void> closeSinksAsync(@Nullable final List<Sink> sinks) {
+        if (sinks == null || sinks.isEmpty()) {
+            return Future.succeededFuture();
+        }
+        final List<Future<Void>> closed = new ArrayList<>(sinks.size());
+        for (final Sink sink : sinks) {
+            final Future<Void> future;
+            if (sink instanceof AsyncCloseable) {
+                future = ((AsyncCloseable) sink).closeAsync();
+            } else if (sink instanceof AutoCloseable) {
+                future = vertx.executeBlocking(() -> {
+                    ((AutoCloseable) sink).close();
+                    return null;
+                }, false);
+            } else {
+                continue;
+            }
+            // Failing to close one sink must not prevent closing the others or stopping
+            closed.add(future.recover(e -> {
+                LOGGER.warn("Failed to close sink.", e);
+                return Future.succeededFuture();
+            }));
+        }
+        return Future.join(closed).mapEmpty();
+    }
+
+    private static void closeSinks(final List<Sink> sinks) {
+        for (final Sink sink : sinks) {
+            if (sink instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) sink).close();
+                    // CHECKSTYLE.OFF: IllegalCatch - AutoCloseable declares Exception
+                } catch (final Exception e) {
+                    // CHECKSTYLE.ON: IllegalCatch
+                    LOGGER.warn("Failed to close sink.", e);
+                }
+            }
+        }
+    }
+
+    private String getDeploymentKey(final String baseSinkAddress) {
+        return context.deploymentID() + "/" + baseSinkAddress;
     }
 
     protected String _sinkAddress;
     protected List<Sink> _sinks;
     protected Handler<Message<String>> _handler;
-
+    protected PipelineInstrumentation _instrumentation;
+    protected RoutingTable _routingTable;
+    private List<Sink> _ownedSinks;
+    private SharedSinks _sharedSinks;
+    private EventAggregator _aggregator;
+    private List<Sink> _aggregatedSinks;
+    private long _aggregationTimerId;
+    private List<Sink> _closingSinks;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SinkVerticle.class);
     private static final String DEFAULT_SINK_ADDRESS = "metrics.sink.default";
+    private static final String SHARED_STATE_MAP_NAME = "com.arpnetworking.metrics.vertx.SinkVerticle";
+    private static final String SHARD_INDEX_KEY_SUFFIX = "/shardIndex";
+    private static final String SINKS_KEY_SUFFIX = "/sinks";
+    private static final int DEFAULT_ASYNC_SINK_QUEUE_SIZE = 10000;
+    private static final int DEFAULT_SPOOL_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final long DEFAULT_SPOOL_MAX_SIZE = 1024L * 1024 * 1024;
+
+    /**
+     * Holder of the sinks shared by the instances of a deployment counting the
+     * instances using them.
+     */
+    private static final class SharedSinks implements Shareable {
+
+        SharedSinks(final List<Sink> sinks) {
+            _sinks = Collections.unmodifiableList(new ArrayList<>(sinks));
+        }
+
+        public List<Sink> getSinks() {
+            return _sinks;
+        }
+
+        SharedSinks acquire() {
+            _references.incrementAndGet();
+            return this;
+        }
+
+        boolean release() {
+            return _references.decrementAndGet() == 0;
+        }
+
+        private final List<Sink> _sinks;
+        private final AtomicInteger _references = new AtomicInteger();
+    }
 
     /**
      * Event bus message handler class for {@link SinkVerticle}.
@@ -88,56 +483,289 @@ public abstract class SinkVerticle extends AbstractVerticle {
     protected static class SinkHandler implements Handler<Message<String>> {
 
         /**
-         * Public constructor.
+         * Public constructor. JSON message bodies are decoded with a {@link StreamingEventDecoder}
+         * which falls back to a {@link DatabindEventDecoder} for input it does not support.
          *
          * @param sinks A {@link List} of sinks.
          */
         public SinkHandler(final List<Sink> sinks) {
+            this(sinks, new StreamingEventDecoder(new DatabindEventDecoder()));
+        }
+
+        /**
+         * Public constructor.
+         *
+         * @param sinks A {@link List} of sinks.
+         * @param decoder The {@link EventDecoder} for JSON message bodies.
+         */
+        public SinkHandler(final List<Sink> sinks, final EventDecoder decoder) {
+            this(sinks, decoder, null);
+        }
+
+        /**
+         * Public constructor. {@link Buffer} message bodies in the {@link JsonWireFormat}, decoded with the
+         * {@link EventDecoder}, and in the {@link BinaryWireFormat} are supported.
+         *
+         * @param sinks A {@link List} of sinks.
+         * @param decoder The {@link EventDecoder} for JSON message bodies.
+         * @param instrumentation The {@link PipelineInstrumentation} to record to or null.
+         */
+        public SinkHandler(
+                final List<Sink> sinks,
+                final EventDecoder decoder,
+                @Nullable final PipelineInstrumentation instrumentation) {
+            this(sinks, decoder, instrumentation, Arrays.asList(new JsonWireFormat(decoder), new BinaryWireFormat()));
+        }
+
+        /**
+         * Public constructor.
+         *
+         * @param sinks A {@link List} of sinks.
+         * @param decoder The {@link EventDecoder} for JSON message bodies.
+         * @param instrumentation The {@link PipelineInstrumentation} to record to or null.
+         * @param wireFormats The {@link WireFormat} instances supported for {@link Buffer} message bodies.
+         */
+        public SinkHandler(
+                final List<Sink> sinks,
+                final EventDecoder decoder,
+                @Nullable final PipelineInstrumentation instrumentation,
+                final List<WireFormat> wireFormats) {
+            this(sinks, decoder, instrumentation, wireFormats, null);
+        }
+
+        /**
+         * Public constructor.
+         *
+         * @param sinks A {@link List} of sinks.
+         * @param decoder The {@link EventDecoder} for JSON message bodies.
+         * @param instrumentation The {@link PipelineInstrumentation} to record to or null.
+         * @param wireFormats The {@link WireFormat} instances supported for {@link Buffer} message bodies.
+         * @param routingTable The {@link RoutingTable} selecting the sinks each event is recorded to or null to record
+         * each event to every sink.
+         */
+        public SinkHandler(
+                final List<Sink> sinks,
+                final EventDecoder decoder,
+                @Nullable final PipelineInstrumentation instrumentation,
+                final List<WireFormat> wireFormats,
+                @Nullable final RoutingTable routingTable) {
+            if (routingTable != null && routingTable.getSinkCount() != sinks.size()) {
+                throw new IllegalArgumentException(String.format(
+                        "Routing table does not match sinks. SinkCount=%d, RoutingTableSinkCount=%d",
+                        sinks.size(),
+                        routingTable.getSinkCount()));
+            }
             _sinks = new ArrayList<>(sinks);
+            _decoder = decoder;
+            _routingTable = routingTable;
+            for (final WireFormat wireFormat : wireFormats) {
+                final int index = Byte.toUnsignedInt(wireFormat.getId());
+                if (_wireFormats[index] != null) {
+                    throw new IllegalArgumentException(String.format("Duplicate wire format. Id=%d", wireFormat.getId()));
+                }
+                _wireFormats[index] = wireFormat;
+            }
+            if (instrumentation != null) {
+                _eventsCounter = instrumentation.getCounter(EVENTS_METRIC);
+                _failuresCounter = instrumentation.getCounter(FAILURES_METRIC);
+                _decodeTimer = instrumentation.getTimer(DECODE_METRIC);
+                _recordTimers = new PipelineInstrumentation.Timer[_sinks.size()];
+                for (int i = 0; i < _recordTimers.length; ++i) {
+                    final Class<?> sinkClass = _sinks.get(i).getClass();
+                    final String sinkName = sinkClass.getSimpleName().isEmpty() ? sinkClass.getName() : sinkClass.getSimpleName();
+                    _recordTimers[i] = instrumentation.getTimer(RECORD_METRIC_PREFIX + sinkName);
+                }
+            } else {
+                _eventsCounter = null;
+                _failuresCounter = null;
+                _decodeTimer = null;
+                _recordTimers = null;
+            }
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public void handle(final Message<String> message) {
+            handle(message, false);
+        }
+
+        /**
+         * Handles a message whose body is an {@link Event}, an {@link EventBatch}, a {@link Buffer} encoded with one
+         * of the supported {@link WireFormat} instances or a JSON string. {@link SinkVerticle} passes messages whose
+         * body is not a string here rather than to {@link #handle(Message)}.
+         *
+         * @param message The Message instance to handle.
+         */
+        public void handleEncoded(final Message<?> message) {
+            handle(message, true);
+        }
+
+        /**
+         * Replies to a message sent as a request, which an {@link EventBusSink}
+         * with an in-flight budget awaits before releasing the message from
+         * its budget. Messages are acknowledged whether or not they could be
+         * processed.
+         *
+         * @param message The Message instance to acknowledge or null.
+         */
+        protected void acknowledge(@Nullable final Message<?> message) {
+            if (message != null && message.replyAddress() != null) {
+                message.reply(null);
+            }
+        }
+
+        /**
+         * Process a message. All exceptions are propagated to callers.
+         *
+         * @param message The Message instance to process.
+         * @throws JsonProcessingException if Message processing fails.
+         */
+        protected void processMessage(final Message<String> message) throws JsonProcessingException {
+            try {
+                processJson(message.body());
+            } catch (final JsonProcessingException e) {
+                throw e;
+            } catch (final IOException e) {
+                // Decoding a string only fails on malformed input which is reported as a JsonProcessingException
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Process a message with any supported body. All exceptions are propagated to callers.
+         *
+         * @param message The Message instance to process.
+         * @throws IOException if Message processing fails.
+         */
+        protected void processEncodedMessage(final Message<?> message) throws IOException {
+            final Object body = message.body();
+            if (body instanceof Event) {
+                record((Event) body);
+            } else if (body instanceof EventBatch) {
+                for (final Event event : ((EventBatch) body).getEvents()) {
+                    record(event);
+                }
+            } else if (body instanceof String) {
+                processJson((String) body);
+            } else if (body instanceof Buffer) {
+                processBuffer((Buffer) body);
+            } else {
+                throw new IllegalArgumentException(String.format("Unsupported message body. Type=%s", body.getClass()));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void handle(@Nullable final Message<?> message, final boolean encoded) {
             if (message == null || message.body() == null) {
                 LOGGER.warn("Null message received.");
+                acknowledge(message);
                 return;
             }
             try {
-                processMessage(message);
+                if (encoded) {
+                    processEncodedMessage(message);
+                } else {
+                    processMessage((Message<String>) message);
+                }
                 // CHECKSTYLE.OFF: IllegalCatch - By design
             } catch (final Exception e) {
                 // CHECKSTYLE.ON: IllegalCatch
+                if (_failuresCounter != null) {
+                    _failuresCounter.increment();
+                }
                 LOGGER.warn("Message is not in expected format.", e.getMessage());
             }
+            acknowledge(message);
         }
 
-        /**
-         * Process a message. All exceptions are propagated to callers.
-         *
-         * @param message The Message instance to process.
-         * @throws JsonProcessingException if Message processing fails.
-         */
-        protected void processMessage(final Message<String> message) throws JsonProcessingException {
-            final DefaultEvent.Builder eventBuilder = OBJECT_MAPPER.readValue(message.body(), DefaultEvent.Builder.class);
-            final Event event = eventBuilder.build();
-            for (final Sink sink: _sinks) {
-                sink.record(event);
+        private void processJson(final String json) throws IOException {
+            final List<Event> events;
+            if (_decodeTimer == null) {
+                events = _decoder.decode(json);
+            } else {
+                final long start = System.nanoTime();
+                events = _decoder.decode(json);
+                _decodeTimer.record(System.nanoTime() - start);
+            }
+            for (final Event event : events) {
+                record(event);
             }
         }
 
-        protected final List<Sink> _sinks;
+        private void processBuffer(final Buffer buffer) throws IOException {
+            if (buffer.length() == 0) {
+                throw new IllegalArgumentException("Empty message body.");
+            }
+            final WireFormat wireFormat = _wireFormats[Byte.toUnsignedInt(buffer.getByte(0))];
+            if (wireFormat == null) {
+                throw new IllegalArgumentException(String.format("Unsupported wire format. Id=%d", buffer.getByte(0)));
+            }
+            final List<Event> events;
+            if (_decodeTimer == null) {
+                events = wireFormat.decode(buffer, 1);
+            } else {
+                final long start = System.nanoTime();
+                events = wireFormat.decode(buffer, 1);
+                _decodeTimer.record(System.nanoTime() - start);
+            }
+            for (final Event event : events) {
+                record(event);
+            }
+        }
 
-        private static final Logger LOGGER = LoggerFactory.getLogger(SinkHandler.class);
-        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+        private void record(final Event event) {
+            if (_routingTable != null) {
+                recordRouted(event);
+                return;
+            }
+            // Do not instrument recording the instrumentation itself
+            if (_recordTimers == null || PipelineInstrumentation.isReport(event)) {
+                for (final Sink sink: _sinks) {
+                    sink.record(event);
+                }
+                return;
+            }
+            _eventsCounter.increment();
+            for (int i = 0; i < _recordTimers.length; ++i) {
+                final long start = System.nanoTime();
+                _sinks.get(i).record(event);
+                _recordTimers[i].record(System.nanoTime() - start);
+            }
+        }
 
-        static {
-            final SimpleModule module = new SimpleModule();
-            module.addAbstractTypeMapping(Quantity.class, DefaultQuantity.class);
-            OBJECT_MAPPER.registerModule(module);
+        private void recordRouted(final Event event) {
+            // Do not instrument recording the instrumentation itself
+            final boolean instrumented = _recordTimers != null && !PipelineInstrumentation.isReport(event);
+            if (instrumented) {
+                _eventsCounter.increment();
+            }
+            // Only visit the sinks the event is routed to
+            for (long routed = _routingTable.route(event); routed != 0; routed &= routed - 1) {
+                final int i = Long.numberOfTrailingZeros(routed);
+                if (instrumented) {
+                    final long start = System.nanoTime();
+                    _sinks.get(i).record(event);
+                    _recordTimers[i].record(System.nanoTime() - start);
+                } else {
+                    _sinks.get(i).record(event);
+                }
+            }
         }
 
+        protected final List<Sink> _sinks;
+        private final EventDecoder _decoder;
+        private final RoutingTable _routingTable;
+        private final WireFormat[] _wireFormats = new WireFormat[256];
+        private final PipelineInstrumentation.Counter _eventsCounter;
+        private final PipelineInstrumentation.Counter _failuresCounter;
+        private final PipelineInstrumentation.Timer _decodeTimer;
+        private final PipelineInstrumentation.Timer[] _recordTimers;
 
+        private static final Logger LOGGER = LoggerFactory.getLogger(SinkHandler.class);
+        private static final String EVENTS_METRIC = "sink_handler/events";
+        private static final String FAILURES_METRIC = "sink_handler/failures";
+        private static final String DECODE_METRIC = "sink_handler/decode";
+        private static final String RECORD_METRIC_PREFIX = "sink_handler/record/";
     }
 
     /**
@@ -209,7 +837,11 @@ public abstract class SinkVerticle extends AbstractVerticle {
 
         /**
          * Builder implementation for {@link com.arpnetworking.metrics.impl.TsdEvent}.
+         *
+         * The aggregated data serialized by {@link com.arpnetworking.metrics.impl.TsdEvent} is not
+         * supported by this implementation and is ignored.
          */
+        @JsonIgnoreProperties("aggregatedData")
         public static final class Builder {
 
             /**
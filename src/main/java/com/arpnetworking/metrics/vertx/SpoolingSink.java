@@ -0,0 +1,570 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+/**
+ * Sink which records events to another sink off the calling thread and spools
+ * the events the other sink cannot keep up with to disk. Like the
+ * {@link AsyncSink}, recorded events are placed on a bounded queue drained by
+ * a dedicated thread. Once the queue is full, events are instead handed to a
+ * second dedicated thread which encodes them with the {@link BinaryWireFormat}
+ * and appends them to a {@link DiskSpool}, so the caller never waits on the
+ * disk. Events continue to be spooled until the drain has replayed every
+ * spooled event to the other sink, after which they are queued again. Events
+ * are therefore recorded to the other sink in the order they were recorded to
+ * this sink while memory use remains bounded by the queue sizes; events
+ * recorded while the spooling thread has too many events waiting are
+ * dropped.
+ *
+ * The other sink signals that it is unavailable by throwing from
+ * {@link Sink#record(Event)} an exception accepted by the retry predicate, by
+ * default an {@link IllegalStateException} or {@link UncheckedIOException}.
+ * The drain then retries the same event after the retry interval, meanwhile
+ * the queue fills and further events are spooled. An event which still fails
+ * after the maximum number of retries, or which fails with any other
+ * exception, is dropped and logged. Spooled events survive a restart and are
+ * replayed when a sink is next created on the same spool. Events still queued
+ * when the sink is closed are inserted into the spool ahead of those already
+ * spooled.
+ *
+ * As with the {@link BinaryWireFormat}, integral sample values are replayed
+ * as {@link Long} values and floating point values as {@link Double} values.
+ *
+ * @author agent (agent at local)
+ */
+public final class SpoolingSink implements Sink, AsyncCloseable, AutoCloseable {
+
+    @Override
+    public void record(final Event event) {
+        synchronized (_lock) {
+            if (_closed) {
+                drop("Dropping events; sink closed.", null);
+                return;
+            }
+            if (!_spooling && _queue.offer(event)) {
+                schedule();
+                return;
+            }
+            if (!_spooling) {
+                LOGGER.info(String.format("Spooling events; sink not keeping up. Name=%s", _name));
+                _spooling = true;
+            }
+            if (!_pending.offer(event)) {
+                drop("Dropping events; spool not keeping up.", null);
+                return;
+            }
+        }
+        scheduleSpool();
+    }
+
+    /**
+     * Accessor for the number of events dropped.
+     *
+     * @return The number of events dropped since the sink was created.
+     */
+    public long getDroppedCount() {
+        return _dropped.get();
+    }
+
+    /**
+     * Stops accepting events, waits for the queued and spooled events to be
+     * recorded and closes the wrapped sink. Does not wait when invoked from a
+     * Vertx thread; use {@link #closeAsync()} instead.
+     */
+    @Override
+    public void close() {
+        final Future<Void> closed = closeAsync();
+        if (Context.isOnVertxThread()) {
+            return;
+        }
+        try {
+            closed.toCompletionStage().toCompletableFuture().get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOGGER.warn(String.format("Failed to close sink. Name=%s", _name), e);
+        }
+    }
+
+    /**
+     * Stops accepting events and, on the spooling thread, waits up to the
+     * close timeout for the queued and spooled events to be recorded, inserts
+     * any events still queued ahead of those spooled, closes the spool and
+     * closes the wrapped sink if it is {@link AsyncCloseable} or
+     * {@link AutoCloseable}.
+     *
+     * @return {@link Future} completed once the wrapped sink is closed.
+     */
+    @Override
+    public Future<Void> closeAsync() {
+        synchronized (_lock) {
+            if (_closeFuture == null) {
+                _closed = true;
+                final CompletableFuture<Void> spooled = new CompletableFuture<>();
+                _closeFuture = Future.fromCompletionStage(spooled.thenCompose(ignored -> closeSink()));
+                try {
+                    _spoolExecutor.execute(() -> closeSpool(spooled));
+                } catch (final RejectedExecutionException e) {
+                    spooled.completeExceptionally(e);
+                }
+                _spoolExecutor.shutdown();
+            }
+            return _closeFuture;
+        }
+    }
+
+    private void closeSpool(final CompletableFuture<Void> spooled) {
+        try {
+            // Events handed to the spool before closing follow those already spooled
+            spoolPending();
+            schedule();
+            _executor.shutdown();
+            try {
+                if (!_executor.awaitTermination(_closeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    _executor.shutdownNow();
+                    if (!_executor.awaitTermination(_closeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        LOGGER.warn(String.format("Drain did not stop; queued events may be recorded twice. Name=%s", _name));
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Events still queued precede those spooled
+            final List<Buffer> remaining = new ArrayList<>(_queue.size());
+            for (final Event event : _queue) {
+                final Buffer buffer = Buffer.buffer();
+                _wireFormat.encode(Collections.singletonList(event), buffer);
+                remaining.add(buffer);
+            }
+            _queue.clear();
+            if (!remaining.isEmpty()) {
+                _spool.prepend(remaining);
+                LOGGER.info(String.format("Spooled queued events on close. Name=%s, Count=%d", _name, remaining.size()));
+            }
+        } catch (final IOException | IllegalArgumentException e) {
+            drop("Dropping events; unable to spool.", e);
+        } finally {
+            _spool.close();
+            spooled.complete(null);
+        }
+    }
+
+    private CompletionStage<Void> closeSink() {
+        if (_sink instanceof AsyncCloseable) {
+            return ((AsyncCloseable) _sink).closeAsync()
+                    .recover(e -> {
+                        LOGGER.warn(String.format("Failed to close sink. Name=%s", _name), e);
+                        return Future.succeededFuture();
+                    })
+                    .toCompletionStage();
+        }
+        if (_sink instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) _sink).close();
+                // CHECKSTYLE.OFF: IllegalCatch - AutoCloseable declares Exception
+            } catch (final Exception e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                LOGGER.warn(String.format("Failed to close sink. Name=%s", _name), e);
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void scheduleSpool() {
+        if (_spoolScheduled.compareAndSet(false, true)) {
+            try {
+                _spoolExecutor.execute(this::spoolPending);
+            } catch (final RejectedExecutionException e) {
+                _spoolScheduled.set(false);
+            }
+        }
+    }
+
+    private void spoolPending() {
+        // Each event is removed only once appended so the drain does not stop replaying before it
+        Event event;
+        while ((event = _pending.peek()) != null) {
+            spool(event);
+            _pending.poll();
+            schedule();
+        }
+        _spoolScheduled.set(false);
+        if (!_pending.isEmpty()) {
+            scheduleSpool();
+        }
+    }
+
+    private void spool(final Event event) {
+        final Buffer buffer = Buffer.buffer();
+        try {
+            _wireFormat.encode(Collections.singletonList(event), buffer);
+            _spool.append(buffer);
+        } catch (final IOException | IllegalArgumentException e) {
+            drop("Dropping events; unable to spool.", e);
+        }
+    }
+
+    private void drop(final String message, @Nullable final Exception exception) {
+        if (_dropped.incrementAndGet() == 1) {
+            LOGGER.warn(String.format("%s Name=%s", message, _name), exception);
+        }
+    }
+
+    private void schedule() {
+        if (_scheduled.compareAndSet(false, true)) {
+            try {
+                _executor.execute(this::drain);
+            } catch (final RejectedExecutionException e) {
+                _scheduled.set(false);
+            }
+        }
+    }
+
+    private void retry() {
+        // The drain remains scheduled so that recording does not trigger an immediate retry
+        try {
+            _executor.schedule(this::drain, _retryInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            _scheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            // Queued events always precede spooled events; each is removed only once recorded or dropped
+            final Event queued = _queue.peek();
+            if (queued != null) {
+                if (!deliver(queued)) {
+                    retry();
+                    return;
+                }
+                _queue.poll();
+                continue;
+            }
+            final Buffer record = _spool.peek();
+            if (record == null) {
+                synchronized (_lock) {
+                    // No event is being appended once none are pending so the spool is checked without waiting on the disk
+                    if (_spooling && _pending.isEmpty() && _spool.isEmpty()) {
+                        LOGGER.info(String.format("Replayed spooled events. Name=%s", _name));
+                        _spooling = false;
+                    }
+                }
+                break;
+            }
+            final List<Event> events;
+            try {
+                events = _wireFormat.decode(record, 0);
+            } catch (final IOException e) {
+                drop("Dropping events; unable to decode spooled event.", e);
+                _spool.remove();
+                continue;
+            }
+            for (final Event event : events) {
+                if (!deliver(event)) {
+                    retry();
+                    return;
+                }
+            }
+            _spool.remove();
+        }
+        _scheduled.set(false);
+        if (!_queue.isEmpty() || !_spool.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Records the event to the sink and returns whether it is done with,
+     * either recorded or dropped, or false if it should be retried.
+     */
+    private boolean deliver(final Event event) {
+        try {
+            _sink.record(event);
+            // CHECKSTYLE.OFF: IllegalCatch - The sink signals it is unavailable by throwing
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            if (!_retryPredicate.test(e)) {
+                drop("Dropping events; sink failed to record event.", e);
+                return true;
+            }
+            if (_retries >= _maxRetries) {
+                _retries = 0;
+                _dropped.incrementAndGet();
+                LOGGER.warn(String.format("Dropping event; sink unavailable. Name=%s, Retries=%d", _name, _maxRetries), e);
+                return true;
+            }
+            ++_retries;
+            if (!_failing) {
+                _failing = true;
+                LOGGER.warn(String.format("Failed to record event to sink; retrying. Name=%s", _name), e);
+            }
+            return false;
+        }
+        _retries = 0;
+        if (_failing) {
+            _failing = false;
+            LOGGER.info(String.format("Sink recovered. Name=%s", _name));
+        }
+        return true;
+    }
+
+    private SpoolingSink(final Builder builder) {
+        _sink = builder._sink;
+        _spool = builder._spool;
+        _name = builder._name;
+        _queue = new ArrayBlockingQueue<>(builder._queueSize);
+        _pending = new ArrayBlockingQueue<>(builder._spoolQueueSize);
+        _retryInterval = builder._retryInterval;
+        _maxRetries = builder._maxRetries;
+        _retryPredicate = builder._retryPredicate;
+        _closeTimeout = builder._closeTimeout;
+        _executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, _name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        _spoolExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, _name + "-spool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!_spool.isEmpty()) {
+            // Replay the events spooled before a restart ahead of any new events
+            _spooling = true;
+            schedule();
+        }
+    }
+
+    private final Sink _sink;
+    private final DiskSpool _spool;
+    private final String _name;
+    private final BlockingQueue<Event> _queue;
+    private final BlockingQueue<Event> _pending;
+    private final Duration _retryInterval;
+    private final int _maxRetries;
+    private final Predicate<? super RuntimeException> _retryPredicate;
+    private final Duration _closeTimeout;
+    private final ScheduledExecutorService _executor;
+    private final ExecutorService _spoolExecutor;
+    private final BinaryWireFormat _wireFormat = new BinaryWireFormat();
+    private final Object _lock = new Object();
+    private final AtomicBoolean _scheduled = new AtomicBoolean(false);
+    private final AtomicBoolean _spoolScheduled = new AtomicBoolean(false);
+    private final AtomicLong _dropped = new AtomicLong();
+    private boolean _spooling;
+    private boolean _closed;
+    private Future<Void> _closeFuture;
+    private boolean _failing;
+    private int _retries;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoolingSink.class);
+
+    /**
+     * Builder for {@link SpoolingSink}.
+     */
+    public static final class Builder {
+
+        /**
+         * Builds an instance of {@link SpoolingSink}. Any events already in the
+         * spool are replayed to the sink before newly recorded events.
+         *
+         * @return An instance of {@link SpoolingSink}.
+         */
+        public SpoolingSink build() {
+            if (_sink == null) {
+                throw new IllegalArgumentException("Sink cannot be null.");
+            }
+            if (_spool == null) {
+                throw new IllegalArgumentException("Spool cannot be null.");
+            }
+            if (_name == null || _name.isEmpty()) {
+                throw new IllegalArgumentException("Name cannot be null or empty.");
+            }
+            if (_queueSize == null || _queueSize < 1) {
+                throw new IllegalArgumentException("QueueSize cannot be null or less than one.");
+            }
+            if (_spoolQueueSize == null || _spoolQueueSize < 1) {
+                throw new IllegalArgumentException("SpoolQueueSize cannot be null or less than one.");
+            }
+            if (_retryInterval == null || _retryInterval.isNegative()) {
+                throw new IllegalArgumentException("RetryInterval cannot be null or negative.");
+            }
+            if (_maxRetries == null || _maxRetries < 0) {
+                throw new IllegalArgumentException("MaxRetries cannot be null or negative.");
+            }
+            if (_retryPredicate == null) {
+                throw new IllegalArgumentException("RetryPredicate cannot be null.");
+            }
+            if (_closeTimeout == null || _closeTimeout.isNegative()) {
+                throw new IllegalArgumentException("CloseTimeout cannot be null or negative.");
+            }
+            return new SpoolingSink(this);
+        }
+
+        /**
+         * Sets the sink to record events to. Required. Cannot be null.
+         *
+         * @param value The {@link Sink} to record events to.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setSink(final Sink value) {
+            _sink = value;
+            return this;
+        }
+
+        /**
+         * Sets the spool events are appended to when the sink does not keep
+         * up. Required. Cannot be null. The spool is closed with the sink.
+         *
+         * @param value The {@link DiskSpool}.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setSpool(final DiskSpool value) {
+            _spool = value;
+            return this;
+        }
+
+        /**
+         * Sets the name used for the dedicated thread and in log messages.
+         * Optional. Default is "metrics-spooling-sink".
+         *
+         * @param value The name.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setName(final String value) {
+            _name = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of queued events beyond which events are
+         * spooled. Optional. Default is 10000.
+         *
+         * @param value The queue size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setQueueSize(final Integer value) {
+            _queueSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events waiting to be appended to the
+         * spool beyond which events are dropped. Optional. Default is 10000.
+         *
+         * @param value The spool queue size.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setSpoolQueueSize(final Integer value) {
+            _spoolQueueSize = value;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait before retrying an event the sink failed to
+         * record. Optional. Default is one second.
+         *
+         * @param value The retry interval.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRetryInterval(final Duration value) {
+            _retryInterval = value;
+            return this;
+        }
+
+        /**
+         * Sets the number of times an event the sink failed to record is
+         * retried before it is dropped. Optional. Default is 300, which is
+         * five minutes at the default retry interval.
+         *
+         * @param value The maximum number of retries.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setMaxRetries(final Integer value) {
+            _maxRetries = value;
+            return this;
+        }
+
+        /**
+         * Sets the predicate which accepts the exceptions thrown by the sink
+         * that mean it is unavailable and the event should be retried; events
+         * failing with any other exception are dropped. Optional. Default
+         * accepts {@link IllegalStateException} and
+         * {@link UncheckedIOException}.
+         *
+         * @param value The retry predicate.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setRetryPredicate(final Predicate<? super RuntimeException> value) {
+            _retryPredicate = value;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time to wait for queued and spooled events to be
+         * recorded when the sink is closed. Optional. Default is five seconds.
+         *
+         * @param value The close timeout.
+         * @return This instance of {@link Builder}.
+         */
+        public Builder setCloseTimeout(final Duration value) {
+            _closeTimeout = value;
+            return this;
+        }
+
+        private Sink _sink;
+        private DiskSpool _spool;
+        private String _name = "metrics-spooling-sink";
+        private Integer _queueSize = 10000;
+        private Integer _spoolQueueSize = 10000;
+        private Duration _retryInterval = Duration.ofSeconds(1);
+        private Integer _maxRetries = 300;
+        private Predicate<? super RuntimeException> _retryPredicate =
+                e -> e instanceof IllegalStateException || e instanceof UncheckedIOException;
+        private Duration _closeTimeout = Duration.ofSeconds(5);
+    }
+}
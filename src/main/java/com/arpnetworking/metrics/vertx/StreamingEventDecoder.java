@@ -0,0 +1,289 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import io.vertx.core.buffer.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Implementation of {@link EventDecoder} which reads the event format token by
+ * token with a Jackson {@link JsonParser} directly into the maps and samples of
+ * a {@link SinkVerticle.DefaultEvent}. The decoded events are equal to those
+ * decoded by {@link DatabindEventDecoder}.
+ *
+ * Only the canonical representation written by {@link EventBusSink} is
+ * supported; that is annotation values must be strings, samples must be
+ * arrays of objects, sample values must be numbers and sample counts, as
+ * written for a {@link CountedQuantity}, must be positive integers. Samples
+ * with a count are exposed through an {@link ExpandedSampleList} repeating
+ * their value once per sample. Any other input, including representations
+ * that data binding would coerce, fails to decode and is handed off to the
+ * fallback decoder if one was provided.
+ *
+ * Metric names and annotation keys and values may optionally be resolved
+ * through a {@link StringInterner} so that the decoded events share their
+ * instances of recurring strings.
+ *
+ * @author agent (agent at local)
+ */
+public final class StreamingEventDecoder implements EventDecoder {
+
+    /**
+     * Public constructor. Input which cannot be decoded is rejected.
+     */
+    public StreamingEventDecoder() {
+        this(null);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param fallback The {@link EventDecoder} to decode input this decoder
+     * cannot decode; for example, a {@link DatabindEventDecoder}. Optional.
+     */
+    public StreamingEventDecoder(@Nullable final EventDecoder fallback) {
+        this(fallback, null);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param fallback The {@link EventDecoder} to decode input this decoder
+     * cannot decode; for example, a {@link DatabindEventDecoder}. Optional.
+     * @param interner The {@link StringInterner} to resolve metric names and
+     * annotation keys and values through. Optional.
+     */
+    public StreamingEventDecoder(@Nullable final EventDecoder fallback, @Nullable final StringInterner interner) {
+        _fallback = fallback;
+        _interner = interner;
+    }
+
+    @Override
+    public List<Event> decode(final String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return readEvents(parser);
+        } catch (final JsonProcessingException e) {
+            if (_fallback == null) {
+                throw e;
+            }
+            LOGGER.debug("Falling back to alternate decoder. Reason={}", e.getOriginalMessage());
+            return _fallback.decode(json);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The bytes are parsed as they are read from the buffer without first
+     * decoding them into a string.
+     */
+    @Override
+    public List<Event> decode(final Buffer buffer, final int position) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(new BufferInputStream(buffer, position))) {
+            return readEvents(parser);
+        } catch (final JsonProcessingException e) {
+            if (_fallback == null) {
+                throw e;
+            }
+            LOGGER.debug("Falling back to alternate decoder. Reason={}", e.getOriginalMessage());
+            return _fallback.decode(buffer, position);
+        }
+    }
+
+    private List<Event> readEvents(final JsonParser parser) throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            return Collections.singletonList(readEvent(parser));
+        } else if (token == JsonToken.START_ARRAY) {
+            final List<Event> events = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                expect(parser, JsonToken.START_OBJECT);
+                events.add(readEvent(parser));
+            }
+            return events;
+        }
+        throw new JsonParseException(parser, "Expected event object or array of event objects");
+    }
+
+    private Event readEvent(final JsonParser parser) throws IOException {
+        final SinkVerticle.DefaultEvent.Builder builder = new SinkVerticle.DefaultEvent.Builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case ANNOTATIONS_KEY:
+                    builder.setAnnotations(readAnnotations(parser, _interner));
+                    break;
+                case TIMER_SAMPLES_KEY:
+                    builder.setTimerSamples(readSamples(parser, _interner));
+                    break;
+                case COUNTER_SAMPLES_KEY:
+                    builder.setCounterSamples(readSamples(parser, _interner));
+                    break;
+                case GAUGE_SAMPLES_KEY:
+                    builder.setGaugeSamples(readSamples(parser, _interner));
+                    break;
+                case AGGREGATED_DATA_KEY:
+                    // Ignored as by the data binding of SinkVerticle.DefaultEvent.Builder
+                    parser.skipChildren();
+                    break;
+                default:
+                    throw new JsonParseException(parser, String.format("Unrecognized event field. Field=%s", fieldName));
+            }
+        }
+        return builder.build();
+    }
+
+    static Map<String, String> readAnnotations(final JsonParser parser, @Nullable final StringInterner interner)
+            throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        final Map<String, String> annotations = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = interner == null ? parser.currentName() : interner.intern(parser.currentName());
+            expect(parser, parser.nextToken(), JsonToken.VALUE_STRING);
+            if (interner == null) {
+                annotations.put(key, parser.getText());
+            } else {
+                annotations.put(key, interner.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+            }
+        }
+        return annotations;
+    }
+
+    static Map<String, List<Quantity>> readSamples(final JsonParser parser, @Nullable final StringInterner interner)
+            throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        final Map<String, List<Quantity>> samples = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = interner == null ? parser.currentName() : interner.intern(parser.currentName());
+            expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+            final List<Quantity> quantities = new ArrayList<>();
+            boolean counted = false;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final Quantity quantity = readQuantity(parser);
+                counted |= quantity instanceof CountedQuantity;
+                quantities.add(quantity);
+            }
+            samples.put(name, counted ? new ExpandedSampleList(quantities) : quantities);
+        }
+        return samples;
+    }
+
+    /**
+     * Validates that the annotations at the parser are in the representation read by
+     * {@link #readAnnotations(JsonParser, StringInterner)} without decoding them.
+     */
+    static void validateAnnotations(final JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            expect(parser, parser.nextToken(), JsonToken.VALUE_STRING);
+        }
+    }
+
+    /**
+     * Validates that the samples at the parser are in the representation read by
+     * {@link #readSamples(JsonParser, StringInterner)} without decoding them.
+     */
+    static void validateSamples(final JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                expect(parser, JsonToken.START_OBJECT);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    validateQuantityField(parser, parser.currentName(), parser.nextToken());
+                }
+            }
+        }
+    }
+
+    private static Quantity readQuantity(final JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        Number value = null;
+        long count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            validateQuantityField(parser, fieldName, parser.nextToken());
+            if (COUNT_KEY.equals(fieldName)) {
+                count = parser.getLongValue();
+            } else {
+                value = parser.getNumberValue();
+            }
+        }
+        return count == 0 ? SinkVerticle.DefaultQuantity.newInstance(value) : CountedQuantity.newInstance(value, count);
+    }
+
+    private static void validateQuantityField(final JsonParser parser, final String fieldName, final JsonToken token)
+            throws IOException {
+        if (COUNT_KEY.equals(fieldName)) {
+            // The samples of a CountedQuantity
+            if (token != JsonToken.VALUE_NUMBER_INT || parser.getLongValue() <= 0) {
+                throw new JsonParseException(parser, String.format("Expected positive count. Token=%s", token));
+            }
+            return;
+        }
+        if (!VALUE_KEY.equals(fieldName)) {
+            throw new JsonParseException(parser, String.format("Unrecognized quantity field. Field=%s", fieldName));
+        }
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw new JsonParseException(parser, String.format("Expected number. Token=%s", token));
+        }
+    }
+
+    static void expect(final JsonParser parser, final JsonToken expected) throws JsonParseException {
+        expect(parser, parser.currentToken(), expected);
+    }
+
+    private static void expect(final JsonParser parser, final JsonToken actual, final JsonToken expected)
+            throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, String.format("Expected %s. Token=%s", expected, actual));
+        }
+    }
+
+    private final EventDecoder _fallback;
+    private final StringInterner _interner;
+
+    static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+    static final String ANNOTATIONS_KEY = "annotations";
+    static final String TIMER_SAMPLES_KEY = "timerSamples";
+    static final String COUNTER_SAMPLES_KEY = "counterSamples";
+    static final String GAUGE_SAMPLES_KEY = "gaugeSamples";
+    static final String AGGREGATED_DATA_KEY = "aggregatedData";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingEventDecoder.class);
+    private static final String VALUE_KEY = "value";
+    private static final String COUNT_KEY = "count";
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded table of canonical string instances. Decoders resolve the metric
+ * names and annotation keys and values they decode through the table so that
+ * the events they produce share a single instance of each string rather than
+ * each holding its own copy. Strings are looked up from the characters or
+ * bytes being decoded so that a string already in the table is not allocated
+ * at all.
+ *
+ * The table is two-way set associative: each string may be held in one of two
+ * slots chosen by its hash. A string found in the second slot is moved to the
+ * first and a string not found replaces the string in the second slot, which
+ * is the least recently used of the two. The table therefore never holds more
+ * than its capacity and a vocabulary smaller than the capacity stays resident
+ * while infrequent strings are evicted.
+ *
+ * Instances are thread-safe and lock-free. Concurrent updates of the same slots
+ * may lose an update, in which case a string is inserted again the next time
+ * it is looked up; the string returned is always equal to the one looked up.
+ * Instances are {@link Shareable} and may be shared by the verticles of a
+ * Vertx instance with {@link #getShared(Vertx, int)}.
+ *
+ * @author agent (agent at local)
+ */
+public final class StringInterner implements Shareable {
+
+    /**
+     * Returns the instance shared by every caller on the Vertx instance,
+     * creating it with the capacity if it does not exist yet. Every caller
+     * must request the same capacity, once rounded up to a power of two.
+     *
+     * @param vertx The {@link Vertx} instance whose shared data holds the instance.
+     * @param capacity The capacity of the instance.
+     * @return The shared instance of {@link StringInterner}.
+     * @throws IllegalArgumentException if the shared instance exists with a different capacity.
+     */
+    public static StringInterner getShared(final Vertx vertx, final int capacity) {
+        final int size = getTableSize(capacity);
+        final LocalMap<String, StringInterner> sharedState = vertx.sharedData().getLocalMap(SHARED_STATE_MAP_NAME);
+        final StringInterner interner = sharedState.computeIfAbsent(SHARED_KEY, key -> new StringInterner(capacity));
+        if (interner.getCapacity() != size) {
+            throw new IllegalArgumentException(String.format(
+                    "Capacity does not match the shared instance. Capacity=%d, SharedCapacity=%d",
+                    size,
+                    interner.getCapacity()));
+        }
+        return interner;
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param capacity The maximum number of strings held, rounded up to a
+     * power of two. Must be at least two.
+     */
+    public StringInterner(final int capacity) {
+        final int size = getTableSize(capacity);
+        _table = new AtomicReferenceArray<>(size);
+        _setMask = size - 2;
+    }
+
+    /**
+     * Returns the canonical instance of the string.
+     *
+     * @param value The string.
+     * @return The canonical instance equal to the string.
+     */
+    public String intern(final String value) {
+        final int index = setIndex(value.hashCode());
+        final String first = _table.get(index);
+        if (value.equals(first)) {
+            _hits.increment();
+            return first;
+        }
+        final String second = _table.get(index + 1);
+        if (value.equals(second)) {
+            _hits.increment();
+            promote(index, first, second);
+            return second;
+        }
+        _misses.increment();
+        insert(index, first, value);
+        return value;
+    }
+
+    /**
+     * Returns the canonical instance of the string held in the range of the
+     * characters. A string is only allocated if the table does not hold it.
+     *
+     * @param chars The characters.
+     * @param offset The offset of the first character of the string.
+     * @param length The number of characters of the string.
+     * @return The canonical instance of the string.
+     */
+    public String intern(final char[] chars, final int offset, final int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; ++i) {
+            hash = 31 * hash + chars[i];
+        }
+        final int index = setIndex(hash);
+        final String first = _table.get(index);
+        if (matches(first, chars, offset, length)) {
+            _hits.increment();
+            return first;
+        }
+        final String second = _table.get(index + 1);
+        if (matches(second, chars, offset, length)) {
+            _hits.increment();
+            promote(index, first, second);
+            return second;
+        }
+        _misses.increment();
+        final String value = String.valueOf(chars, offset, length);
+        insert(index, first, value);
+        return value;
+    }
+
+    /**
+     * Returns the canonical instance of the string encoded as UTF-8 in the
+     * range of the buffer. A string of ASCII characters is only allocated if
+     * the table does not hold it.
+     *
+     * @param buffer The {@link Buffer}.
+     * @param start The position of the first byte of the string.
+     * @param end The position after the last byte of the string.
+     * @return The canonical instance of the string.
+     */
+    public String intern(final Buffer buffer, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; ++i) {
+            final byte b = buffer.getByte(i);
+            if (b < 0) {
+                // The hash of multi-byte characters is only known once decoded
+                return intern(buffer.getString(start, end, StandardCharsets.UTF_8.name()));
+            }
+            hash = 31 * hash + b;
+        }
+        final int index = setIndex(hash);
+        final String first = _table.get(index);
+        if (matches(first, buffer, start, end)) {
+            _hits.increment();
+            return first;
+        }
+        final String second = _table.get(index + 1);
+        if (matches(second, buffer, start, end)) {
+            _hits.increment();
+            promote(index, first, second);
+            return second;
+        }
+        _misses.increment();
+        final String value = buffer.getString(start, end, StandardCharsets.US_ASCII.name());
+        insert(index, first, value);
+        return value;
+    }
+
+    /**
+     * Accessor for the number of strings looked up which the table held.
+     *
+     * @return The number of hits since the table was created.
+     */
+    public long getHitCount() {
+        return _hits.sum();
+    }
+
+    /**
+     * Accessor for the number of strings looked up which the table did not
+     * hold.
+     *
+     * @return The number of misses since the table was created.
+     */
+    public long getMissCount() {
+        return _misses.sum();
+    }
+
+    /**
+     * Accessor for the maximum number of strings held.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return _table.length();
+    }
+
+    private static int getTableSize(final int capacity) {
+        if (capacity < 2 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    String.format("Capacity must be between 2 and %d. Capacity=%d", MAX_CAPACITY, capacity));
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private int setIndex(final int hash) {
+        // The hash of similar strings differs mostly in its low bits; spread them
+        final int spread = hash * 0x9E3779B9;
+        return (spread ^ (spread >>> 15)) & _setMask;
+    }
+
+    private void promote(final int index, final String first, final String second) {
+        _table.set(index, second);
+        _table.set(index + 1, first);
+    }
+
+    private void insert(final int index, final String first, final String value) {
+        _table.set(index + 1, first);
+        _table.set(index, value);
+    }
+
+    private static boolean matches(final String value, final char[] chars, final int offset, final int length) {
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(final String value, final Buffer buffer, final int start, final int end) {
+        if (value == null || value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); ++i) {
+            if (value.charAt(i) != buffer.getByte(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final AtomicReferenceArray<String> _table;
+    private final int _setMask;
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+
+    private static final String SHARED_STATE_MAP_NAME = "com.arpnetworking.metrics.vertx.StringInterner";
+    private static final String SHARED_KEY = "default";
+    private static final int MAX_CAPACITY = 1 << 30;
+}
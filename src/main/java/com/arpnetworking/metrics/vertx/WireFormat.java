@@ -0,0 +1,64 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encoding of events into {@link Buffer} message bodies published by
+ * {@link EventBusSink} and decoded by {@link SinkVerticle.SinkHandler}. Each
+ * message starts with a header byte holding the identifier of its format
+ * followed by the events as encoded by that format, so that consumers can
+ * decode messages of every format they know regardless of which format the
+ * publisher was configured with.
+ *
+ * @author agent (agent at local)
+ */
+public interface WireFormat {
+
+    /**
+     * The identifier of the format written to the header of each message.
+     * Identifiers must be unique across the formats known to a consumer.
+     *
+     * @return The identifier of the format.
+     */
+    byte getId();
+
+    /**
+     * Encode the events, appending them to the buffer.
+     *
+     * @param events The events to encode.
+     * @param buffer The {@link Buffer} to append to.
+     * @throws IOException if the events cannot be encoded.
+     */
+    void encode(List<? extends Event> events, Buffer buffer) throws IOException;
+
+    /**
+     * Decode the events encoded from the position to the end of the buffer.
+     * Every event is decoded before any is returned so that a malformed
+     * message is rejected as a whole.
+     *
+     * @param buffer The {@link Buffer} to decode.
+     * @param position The position the encoded events start at.
+     * @return The {@link List} of decoded events in order.
+     * @throws IOException if the events cannot be decoded.
+     */
+    List<Event> decode(Buffer buffer, int position) throws IOException;
+}
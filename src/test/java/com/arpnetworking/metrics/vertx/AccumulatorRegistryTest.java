@@ -0,0 +1,228 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests for {@link AccumulatorRegistry}.
+ *
+ * @author agent (agent at local)
+ */
+public final class AccumulatorRegistryTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDrain() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        final AccumulatorRegistry registry = createRegistry(() -> metrics, null);
+        final PipelineInstrumentation.Counter counter = registry.getCounter("hits");
+        Assert.assertSame(counter, registry.getCounter("hits"));
+        counter.increment();
+        counter.add(4);
+        registry.getTimer("latency").record(1000);
+        registry.getTimer("latency").record(1000);
+        registry.getGauge("size").set(3.5);
+        registry.getGauge("unset");
+        registry.drain();
+
+        Mockito.verify(metrics).incrementCounter("hits", 5);
+        Mockito.verify(metrics).incrementCounter("latency/count", 2);
+        for (final String statistic : Arrays.asList("min", "mean", "p50", "p99", "max")) {
+            Mockito.verify(metrics).setTimer(Mockito.eq("latency/" + statistic), Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+        }
+        Mockito.verify(metrics).setGauge("size", 3.5);
+        Mockito.verify(metrics).close();
+        Mockito.verifyNoMoreInteractions(metrics);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDrainResetsCountersAndTimers() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        final AccumulatorRegistry registry = createRegistry(() -> metrics, null);
+        registry.getCounter("hits").increment();
+        registry.getTimer("latency").record(1000);
+        registry.getGauge("size").add(2);
+        registry.getGauge("size").add(1.5);
+        registry.drain();
+        registry.drain();
+
+        Mockito.verify(metrics).incrementCounter("hits", 1);
+        Mockito.verify(metrics).incrementCounter("hits", 0);
+        Mockito.verify(metrics, Mockito.times(1)).incrementCounter("latency/count", 1);
+        Mockito.verify(metrics, Mockito.times(1)).setTimer(Mockito.eq("latency/max"), Mockito.anyLong(), Mockito.any());
+        // Gauges keep their last value
+        Mockito.verify(metrics, Mockito.times(2)).setGauge("size", 3.5);
+        Mockito.verify(metrics, Mockito.times(2)).close();
+    }
+
+    @Test
+    public void testConcurrentCounting() throws Exception {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        final AccumulatorRegistry registry = createRegistry(() -> metrics, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                futures.add(executor.submit(() -> {
+                    final PipelineInstrumentation.Counter counter = registry.getCounter("hits");
+                    for (int j = 0; j < 100000; ++j) {
+                        counter.increment();
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        registry.drain();
+        Mockito.verify(metrics).incrementCounter("hits", 400000);
+    }
+
+    @Test
+    public void testDrainFailureContained() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        Mockito.doThrow(new IllegalStateException("Test")).when(metrics).incrementCounter(Mockito.anyString(), Mockito.anyLong());
+        final AccumulatorRegistry registry = createRegistry(() -> metrics, null);
+        registry.getCounter("hits").increment();
+        registry.drain();
+        Mockito.verify(metrics).close();
+    }
+
+    @Test
+    public void testPeriodicDrainAndShared() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CountDownLatch latch = new CountDownLatch(2);
+            final Metrics metrics = Mockito.mock(Metrics.class);
+            Mockito.doAnswer(invocation -> {
+                latch.countDown();
+                return null;
+            }).when(metrics).close();
+            final AccumulatorRegistry registry = AccumulatorRegistry.getShared(
+                    vertx,
+                    "registry",
+                    () -> createRegistry(() -> metrics, vertx));
+            Assert.assertSame(registry, AccumulatorRegistry.getShared(vertx, "registry", () -> {
+                throw new AssertionError("Expected the shared registry");
+            }));
+            registry.getCounter("hits").increment();
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            Mockito.verify(metrics).incrementCounter("hits", 1);
+            registry.close();
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testSharedReferenceCounting() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final Metrics metrics = Mockito.mock(Metrics.class);
+            final AccumulatorRegistry registry = AccumulatorRegistry.getShared(
+                    vertx,
+                    "registry",
+                    () -> createRegistry(() -> metrics, null));
+            Assert.assertSame(registry, AccumulatorRegistry.getShared(vertx, "registry", () -> {
+                throw new AssertionError("Expected the shared registry");
+            }));
+            registry.getCounter("hits").increment();
+            registry.close();
+            Mockito.verifyNoInteractions(metrics);
+            Assert.assertSame(registry, AccumulatorRegistry.getShared(vertx, "registry", () -> {
+                throw new AssertionError("Expected the shared registry");
+            }));
+            registry.close();
+            Mockito.verifyNoInteractions(metrics);
+
+            // Releasing the last reference drains and removes the registry
+            registry.close();
+            Mockito.verify(metrics).incrementCounter("hits", 1);
+            Mockito.verify(metrics).close();
+            registry.close();
+            Mockito.verify(metrics).close();
+            final AccumulatorRegistry other = createRegistry(() -> metrics, null);
+            Assert.assertSame(other, AccumulatorRegistry.getShared(vertx, "registry", () -> other));
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testPeriodicDrainOutlivesCreator() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CountDownLatch latch = new CountDownLatch(2);
+            final Metrics metrics = Mockito.mock(Metrics.class);
+            Mockito.doAnswer(invocation -> {
+                latch.countDown();
+                return null;
+            }).when(metrics).close();
+            final AtomicReference<AccumulatorRegistry> registry = new AtomicReference<>();
+            final String deploymentId = vertx.deployVerticle(new AbstractVerticle() {
+                @Override
+                public void start() {
+                    registry.set(AccumulatorRegistry.getShared(vertx, "registry", () -> createRegistry(() -> metrics, vertx)));
+                }
+            }).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            final AccumulatorRegistry shared = AccumulatorRegistry.getShared(vertx, "registry", () -> {
+                throw new AssertionError("Expected the shared registry");
+            });
+            vertx.undeploy(deploymentId).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            registry.get().close();
+
+            // The remaining reference keeps draining after the creating verticle was undeployed
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            shared.close();
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithoutMetricsFactory() {
+        new AccumulatorRegistry.Builder().build();
+    }
+
+    private static AccumulatorRegistry createRegistry(final MetricsFactory metricsFactory, final Vertx vertx) {
+        return new AccumulatorRegistry.Builder()
+                .setMetricsFactory(metricsFactory)
+                .setVertx(vertx)
+                .setDrainInterval(Duration.ofMillis(50))
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link AggregatedEvent}.
+ *
+ * @author agent (agent at local)
+ */
+public final class AggregatedEventTest {
+
+    @Test
+    public void testTimerSamplesView() {
+        final Histogram histogram = new Histogram();
+        histogram.record(2.0, 3);
+        histogram.record(1.0);
+        histogram.record(4.0, 2);
+        final AggregatedEvent event = new AggregatedEvent(
+                ImmutableMap.of("foo", "bar"),
+                ImmutableMap.of("timer", histogram),
+                Collections.emptyMap(),
+                Collections.emptyMap());
+
+        // Each bucket's midpoint, limited to the recorded range, repeated once per sample
+        final List<Quantity> samples = event.getTimerSamples().get("timer");
+        Assert.assertEquals(
+                Arrays.asList(
+                        SinkVerticle.DefaultQuantity.newInstance(1.00390625),
+                        SinkVerticle.DefaultQuantity.newInstance(2.0078125),
+                        SinkVerticle.DefaultQuantity.newInstance(2.0078125),
+                        SinkVerticle.DefaultQuantity.newInstance(2.0078125),
+                        SinkVerticle.DefaultQuantity.newInstance(4.0),
+                        SinkVerticle.DefaultQuantity.newInstance(4.0)),
+                samples);
+        Assert.assertEquals(
+                Arrays.asList(
+                        CountedQuantity.newInstance(1.00390625, 1),
+                        CountedQuantity.newInstance(2.0078125, 3),
+                        CountedQuantity.newInstance(4.0, 2)),
+                ExpandedSampleList.compact(samples));
+        Assert.assertSame(event.getTimerSamples(), event.getTimerSamples());
+        Assert.assertSame(histogram, event.getTimerHistograms().get("timer"));
+        Assert.assertEquals(ImmutableMap.of("foo", "bar"), event.getAnnotations());
+        Assert.assertTrue(event.getCounterSamples().isEmpty());
+        Assert.assertTrue(event.getGaugeSamples().isEmpty());
+        Assert.assertNotNull(event.toString());
+    }
+
+    @Test
+    public void testCopyOf() {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("foo", "bar"))
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Arrays.asList(
+                                SinkVerticle.DefaultQuantity.newInstance(2L),
+                                SinkVerticle.DefaultQuantity.newInstance(2L),
+                                SinkVerticle.DefaultQuantity.newInstance(1.0),
+                                new SinkVerticle.DefaultQuantity()),
+                        "empty",
+                        Collections.emptyList()))
+                .setCounterSamples(ImmutableMap.of("counter", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1L))))
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        final AggregatedEvent copy = AggregatedEvent.copyOf(event, 7);
+        Assert.assertEquals(event.getAnnotations(), copy.getAnnotations());
+        Assert.assertEquals(event.getCounterSamples(), copy.getCounterSamples());
+        Assert.assertEquals(event.getGaugeSamples(), copy.getGaugeSamples());
+        final Histogram histogram = copy.getTimerHistograms().get("timer");
+        Assert.assertEquals(7, histogram.getPrecision());
+        Assert.assertEquals(3, histogram.getCount());
+        Assert.assertEquals(5.0, histogram.getSum(), 0.0);
+        Assert.assertEquals(2, histogram.getBucketCount());
+        Assert.assertEquals(0, copy.getTimerHistograms().get("empty").getCount());
+        Assert.assertTrue(copy.getTimerSamples().get("empty").isEmpty());
+        Assert.assertSame(copy, AggregatedEvent.copyOf(copy, 7));
+    }
+
+    @Test
+    public void testJsonContainsTimerSamples() throws JsonProcessingException {
+        final Histogram histogram = new Histogram();
+        histogram.record(2.0, 2);
+        final AggregatedEvent event = new AggregatedEvent(
+                ImmutableMap.of("foo", "bar"),
+                ImmutableMap.of("timer", histogram),
+                Collections.emptyMap(),
+                Collections.emptyMap());
+        final JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(event));
+        Assert.assertFalse(json.has("timerHistograms"));
+        Assert.assertEquals(1, json.get("timerSamples").get("timer").size());
+        Assert.assertEquals(2.0, json.get("timerSamples").get("timer").get(0).get("value").asDouble(), 0.0);
+        Assert.assertEquals(2, json.get("timerSamples").get("timer").get(0).get("count").asLong());
+    }
+
+    @Test
+    public void testCopyOfCountedSamples() {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Arrays.asList(CountedQuantity.newInstance(2.0, 3), SinkVerticle.DefaultQuantity.newInstance(5L))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        final Histogram histogram = AggregatedEvent.copyOf(event, 7).getTimerHistograms().get("timer");
+        Assert.assertEquals(4, histogram.getCount());
+        Assert.assertEquals(11.0, histogram.getSum(), 0.0);
+    }
+
+    @Test
+    public void testMidpointOfLargeCount() {
+        final Histogram histogram = new Histogram(1);
+        histogram.record(5.0, 1_000_000_000L);
+        histogram.record(7.5);
+        histogram.record(-5.0);
+        final AggregatedEvent event = new AggregatedEvent(
+                Collections.emptyMap(),
+                ImmutableMap.of("timer", histogram),
+                Collections.emptyMap(),
+                Collections.emptyMap());
+        // Buckets of one bit span [4, 6), [6, 8) and (-6, -4]
+        final List<Quantity> samples = event.getTimerSamples().get("timer");
+        Assert.assertEquals(1_000_000_002, samples.size());
+        Assert.assertEquals(-5.0, samples.get(0).getValue().doubleValue(), 0.0);
+        Assert.assertEquals(5.0, samples.get(1).getValue().doubleValue(), 0.0);
+        Assert.assertEquals(5.0, samples.get(1_000_000_000).getValue().doubleValue(), 0.0);
+        Assert.assertEquals(7.0, samples.get(1_000_000_001).getValue().doubleValue(), 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTimerSamplesViewOutOfBounds() {
+        final Histogram histogram = new Histogram();
+        histogram.record(1.0);
+        new AggregatedEvent(
+                Collections.emptyMap(),
+                ImmutableMap.of("timer", histogram),
+                Collections.emptyMap(),
+                Collections.emptyMap())
+                .getTimerSamples()
+                .get("timer")
+                .get(1);
+    }
+}
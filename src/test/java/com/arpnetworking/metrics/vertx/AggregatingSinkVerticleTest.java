@@ -0,0 +1,150 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link SinkVerticle} deployed with pre-aggregation.
+ *
+ * @author agent (agent at local)
+ */
+public final class AggregatingSinkVerticleTest {
+
+    @Before
+    public void setUp() {
+        _vertx = Vertx.vertx();
+        RECORDED.clear();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        await(_vertx.close());
+    }
+
+    @Test
+    public void testAggregatesOverWindow() throws Exception {
+        deploy(100);
+        final EventBusSink sink = createSink();
+        for (int i = 0; i < 10; ++i) {
+            sink.record(createEvent());
+        }
+
+        // The events may span more than one window
+        long timerCount = 0;
+        long counterSum = 0;
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (timerCount < 10 && System.nanoTime() < deadline) {
+            final Event event = RECORDED.poll();
+            if (event == null) {
+                Thread.sleep(10);
+                continue;
+            }
+            Assert.assertTrue(event instanceof AggregatedEvent);
+            Assert.assertEquals("host", event.getAnnotations().get("_host"));
+            timerCount += ((AggregatedEvent) event).getTimerHistograms().get("timer").getCount();
+            counterSum += (Long) event.getCounterSamples().get("counter").get(0).getValue();
+        }
+        Assert.assertEquals(10, timerCount);
+        Assert.assertEquals(10, counterSum);
+    }
+
+    @Test
+    public void testFlushesOnStop() throws Exception {
+        final String deploymentId = deploy(TimeUnit.HOURS.toMillis(1));
+        final EventBusSink sink = createSink();
+        sink.record(createEvent());
+        sink.record(createEvent());
+        // Delivery is asynchronous; the verticle context is single threaded so a round trip orders after it
+        await(_vertx.eventBus().request(PING_ADDRESS, "ping"));
+        Assert.assertTrue(RECORDED.isEmpty());
+
+        await(_vertx.undeploy(deploymentId));
+        Assert.assertEquals(1, RECORDED.size());
+        Assert.assertEquals(
+                Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(2L)),
+                RECORDED.poll().getCounterSamples().get("counter"));
+    }
+
+    private String deploy(final long windowMillis) throws Exception {
+        return await(_vertx.deployVerticle(
+                RecordingSinkVerticle::new,
+                new DeploymentOptions()
+                        .setConfig(new JsonObject()
+                                .put("sinkAddress", SINK_ADDRESS)
+                                .put("aggregationWindowMillis", windowMillis))));
+    }
+
+    private EventBusSink createSink() {
+        return new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setSinkAddress(SINK_ADDRESS)
+                .setUseEventCodec(true)
+                .build();
+    }
+
+    private static <T> T await(final Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private static Event createEvent() {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("_host", "host"))
+                .setTimerSamples(ImmutableMap.of("timer", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1.5))))
+                .setCounterSamples(ImmutableMap.of("counter", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1))))
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+
+    private Vertx _vertx;
+
+    private static final String SINK_ADDRESS = "sink.address.aggregatingSinkVerticleTest";
+    private static final String PING_ADDRESS = "ping.aggregatingSinkVerticleTest";
+    private static final Queue<Event> RECORDED = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Implementation of {@link SinkVerticle} recording into a static queue.
+     */
+    public static final class RecordingSinkVerticle extends SinkVerticle {
+
+        @Override
+        public void start() {
+            super.start();
+            vertx.eventBus().localConsumer(PING_ADDRESS, message -> message.reply("pong"));
+        }
+
+        @Override
+        protected List<Sink> createSinks() {
+            return Collections.singletonList(RECORDED::add);
+        }
+    }
+}
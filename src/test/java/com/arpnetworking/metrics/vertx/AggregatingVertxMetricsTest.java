@@ -0,0 +1,315 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.AggregatedData;
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.impl.AugmentedHistogram;
+import com.arpnetworking.metrics.impl.TsdEvent;
+import com.arpnetworking.metrics.impl.TsdMetricsFactory;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.metrics.MetricsOptions;
+import io.vertx.core.spi.metrics.ClientMetrics;
+import io.vertx.core.spi.metrics.EventBusMetrics;
+import io.vertx.core.spi.metrics.HttpServerMetrics;
+import io.vertx.core.spi.metrics.PoolMetrics;
+import io.vertx.core.spi.metrics.TCPMetrics;
+import io.vertx.core.spi.observability.HttpRequest;
+import io.vertx.core.spi.observability.HttpResponse;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link AggregatingVertxMetrics} and {@link AggregatingVertxMetricsFactory}.
+ *
+ * @author agent (agent at local)
+ */
+public final class AggregatingVertxMetricsTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushEventBusMetrics() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        final AggregatingVertxMetrics vertxMetrics = createMetrics(() -> metrics);
+        final EventBusMetrics<Object> eventBusMetrics = (EventBusMetrics<Object>) vertxMetrics.createEventBusMetrics();
+        final Object handler = eventBusMetrics.handlerRegistered("address");
+        eventBusMetrics.messageSent("address", true, true, false);
+        eventBusMetrics.messageSent("address", false, true, false);
+        eventBusMetrics.messageReceived("address", true, true, 1);
+        eventBusMetrics.scheduleMessage(handler, true);
+        eventBusMetrics.scheduleMessage(handler, true);
+        eventBusMetrics.messageDelivered(handler, true);
+        vertxMetrics.flush();
+
+        Mockito.verify(metrics).incrementCounter("vertx/event_bus/published", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/event_bus/sent", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/event_bus/received", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/event_bus/delivered", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/event_bus/discarded", 0);
+        Mockito.verify(metrics).setGauge("vertx/event_bus/handlers", 1L);
+        Mockito.verify(metrics).setGauge("vertx/event_bus/pending", 1L);
+        Mockito.verify(metrics).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushHttpServerMetrics() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        final AggregatingVertxMetrics vertxMetrics = createMetrics(() -> metrics);
+        final HttpServerMetrics<Object, Object, Object> serverMetrics =
+                (HttpServerMetrics<Object, Object, Object>) vertxMetrics.createHttpServerMetrics(null, null);
+        final Object socket = serverMetrics.connected(null, "remote");
+        serverMetrics.bytesRead(socket, null, 100);
+        final HttpResponse ok = createResponse(200);
+        final HttpResponse error = createResponse(503);
+        final Object request1 = serverMetrics.requestBegin(socket, Mockito.mock(HttpRequest.class));
+        serverMetrics.responseBegin(request1, ok);
+        serverMetrics.responseEnd(request1, ok, 10);
+        final Object request2 = serverMetrics.requestBegin(socket, Mockito.mock(HttpRequest.class));
+        serverMetrics.responseBegin(request2, error);
+        serverMetrics.responseEnd(request2, error, 10);
+        vertxMetrics.flush();
+
+        Mockito.verify(metrics).incrementCounter("vertx/http_server/requests", 2);
+        Mockito.verify(metrics).incrementCounter("vertx/http_server/responses/2xx", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/http_server/responses/5xx", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/http_server/responses/4xx", 0);
+        Mockito.verify(metrics).incrementCounter("vertx/http_server/bytes_read", 100);
+        Mockito.verify(metrics).setGauge("vertx/http_server/connections", 1L);
+        // Without histogram support the timer is recorded as summary statistics
+        Mockito.verify(metrics).incrementCounter("vertx/http_server/latency/count", 2);
+        for (final String statistic : Arrays.asList("min", "mean", "p50", "p99", "max")) {
+            Mockito.verify(metrics).setTimer(
+                    Mockito.eq("vertx/http_server/latency/" + statistic),
+                    Mockito.anyLong(),
+                    Mockito.eq(TimeUnit.NANOSECONDS));
+        }
+        Mockito.verify(metrics, Mockito.never()).setTimer(
+                Mockito.eq("vertx/http_server/latency"),
+                Mockito.anyLong(),
+                Mockito.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushClientAndTcpMetrics() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        final AggregatingVertxMetrics vertxMetrics = createMetrics(() -> metrics);
+        final ClientMetrics<Object, Object, Object> clientMetrics =
+                (ClientMetrics<Object, Object, Object>) vertxMetrics.createClientMetrics(null, "sql", "db");
+        final Object request = clientMetrics.requestBegin("query", "request");
+        clientMetrics.requestReset(request);
+        final TCPMetrics<Object> tcpMetrics = (TCPMetrics<Object>) vertxMetrics.createNetClientMetrics(null);
+        final Object socket = tcpMetrics.connected(null, "remote");
+        tcpMetrics.exceptionOccurred(socket, null, new IllegalStateException());
+        tcpMetrics.disconnected(socket, null);
+        vertxMetrics.flush();
+
+        Mockito.verify(metrics).incrementCounter("vertx/client/sql/requests", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/client/sql/resets", 1);
+        Mockito.verify(metrics).incrementCounter("vertx/net_client/exceptions", 1);
+        Mockito.verify(metrics).setGauge("vertx/net_client/connections", 0L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushPoolMetricsAsHistograms() {
+        final List<Event> events = new ArrayList<>();
+        final AggregatingVertxMetrics vertxMetrics = (AggregatingVertxMetrics) new AggregatingVertxMetricsFactory.Builder()
+                .setMetricsFactory(new TsdMetricsFactory.Builder()
+                        .setSinks(Collections.singletonList(events::add))
+                        .setServiceName("myService")
+                        .setClusterName("myCluster")
+                        .setHostName("myHost")
+                        .build())
+                .setRecordHistograms(true)
+                .build()
+                .metrics(new VertxOptions());
+        final PoolMetrics<Object, Object> poolMetrics =
+                (PoolMetrics<Object, Object>) vertxMetrics.createPoolMetrics("worker", "myPool", 10);
+        final Object queued = poolMetrics.enqueue();
+        poolMetrics.dequeue(queued);
+        final Object task = poolMetrics.begin();
+        poolMetrics.end(task);
+        poolMetrics.begin();
+        vertxMetrics.flush();
+
+        Assert.assertEquals(1, events.size());
+        final Event event = events.get(0);
+        Assert.assertEquals(10L, event.getGaugeSamples().get("vertx/pool/worker/myPool/max_size").get(0).getValue().longValue());
+        Assert.assertEquals(1L, event.getGaugeSamples().get("vertx/pool/worker/myPool/in_use").get(0).getValue().longValue());
+        Assert.assertEquals(0L, event.getGaugeSamples().get("vertx/pool/worker/myPool/queued").get(0).getValue().longValue());
+        final Map<String, AggregatedData> aggregatedData = ((TsdEvent) event).getAggregatedData();
+        final AugmentedHistogram usage = (AugmentedHistogram) aggregatedData.get("vertx/pool/worker/myPool/usage");
+        Assert.assertNotNull(usage);
+        Assert.assertEquals(1L, usage.getHistogram().values().stream().mapToLong(Long::longValue).sum());
+        // Recorded in seconds
+        Assert.assertTrue(usage.getMax() < 10);
+        Assert.assertNotNull(aggregatedData.get("vertx/pool/worker/myPool/queue_delay"));
+        Assert.assertFalse(event.getTimerSamples().containsKey("vertx/pool/worker/myPool/usage"));
+    }
+
+    @Test
+    public void testRecordTimerSummary() {
+        final Metrics metrics = Mockito.mock(Metrics.class);
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i * 1000);
+        }
+        AggregatingVertxMetrics.recordTimer(metrics, "timer", histogram, false);
+
+        Mockito.verify(metrics).incrementCounter("timer/count", 100);
+        Mockito.verify(metrics).setTimer("timer/min", 1000, TimeUnit.NANOSECONDS);
+        Mockito.verify(metrics).setTimer("timer/mean", 50500, TimeUnit.NANOSECONDS);
+        Mockito.verify(metrics).setTimer("timer/max", 100000, TimeUnit.NANOSECONDS);
+        Mockito.verify(metrics).setTimer(
+                Mockito.eq("timer/p50"),
+                Mockito.longThat(value -> Math.abs(value - 50000) <= 50000 / 128),
+                Mockito.eq(TimeUnit.NANOSECONDS));
+        Mockito.verify(metrics).setTimer(
+                Mockito.eq("timer/p99"),
+                Mockito.longThat(value -> Math.abs(value - 99000) <= 99000 / 128),
+                Mockito.eq(TimeUnit.NANOSECONDS));
+        Mockito.verifyNoMoreInteractions(metrics);
+    }
+
+    @Test
+    public void testRecordTimerAsHistogramKeepsStatistics() {
+        final List<Event> events = new ArrayList<>();
+        final Metrics metrics = new TsdMetricsFactory.Builder()
+                .setSinks(Collections.singletonList(events::add))
+                .setServiceName("myService")
+                .setClusterName("myCluster")
+                .setHostName("myHost")
+                .build()
+                .create();
+        final Histogram histogram = new Histogram();
+        histogram.record(1001);
+        histogram.record(3003, 2);
+        AggregatingVertxMetrics.recordTimer(metrics, "timer", histogram, true);
+        metrics.close();
+
+        Assert.assertEquals(1, events.size());
+        final AugmentedHistogram timer = (AugmentedHistogram) ((TsdEvent) events.get(0)).getAggregatedData().get("timer");
+        Assert.assertEquals(3L, timer.getHistogram().values().stream().mapToLong(Long::longValue).sum());
+        // The statistics are exact rather than those of the truncated buckets
+        Assert.assertEquals(1001e-9, timer.getMin(), 1e-18);
+        Assert.assertEquals(3003e-9, timer.getMax(), 1e-18);
+        Assert.assertEquals(7007e-9, timer.getSum(), 1e-18);
+    }
+
+    @Test
+    public void testFlushFailure() {
+        final MetricsFactory metricsFactory = Mockito.mock(MetricsFactory.class);
+        Mockito.doThrow(new IllegalStateException("Failure")).when(metricsFactory).create();
+        final AggregatingVertxMetrics vertxMetrics = createMetrics(metricsFactory);
+        vertxMetrics.createEventBusMetrics();
+        vertxMetrics.flush();
+        Mockito.verify(metricsFactory).create();
+    }
+
+    @Test
+    public void testVertxHttpRequests() throws Exception {
+        final List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        final Vertx vertx = Vertx.builder()
+                .with(new VertxOptions().setMetricsOptions(new MetricsOptions().setEnabled(true)))
+                .withMetrics(new AggregatingVertxMetricsFactory.Builder()
+                        .setMetricsFactory(new TsdMetricsFactory.Builder()
+                                .setSinks(Collections.singletonList(events::add))
+                                .setServiceName("myService")
+                                .setClusterName("myCluster")
+                                .setHostName("myHost")
+                                .build())
+                        .setFlushInterval(Duration.ofHours(1))
+                        .build())
+                .build();
+        try {
+            final HttpServer server = await(vertx.createHttpServer()
+                    .requestHandler(request -> request.response().end("ok"))
+                    .listen(0, "127.0.0.1"));
+            final HttpClient client = vertx.createHttpClient();
+            for (int i = 0; i < 3; ++i) {
+                final HttpClientResponse response = await(client.request(HttpMethod.GET, server.actualPort(), "127.0.0.1", "/")
+                        .compose(request -> request.send()));
+                Assert.assertEquals(200, response.statusCode());
+                await(response.body());
+            }
+        } finally {
+            // Closing flushes the remaining metrics
+            await(vertx.close());
+        }
+
+        final long requests = events.stream()
+                .map(event -> event.getCounterSamples().get("vertx/http_server/requests"))
+                .filter(samples -> samples != null)
+                .mapToLong(samples -> samples.get(0).getValue().longValue())
+                .sum();
+        Assert.assertEquals(3, requests);
+        final long latencySamples = events.stream()
+                .map(event -> event.getCounterSamples().get("vertx/http_client/latency/count"))
+                .filter(samples -> samples != null)
+                .mapToLong(samples -> samples.get(0).getValue().longValue())
+                .sum();
+        Assert.assertEquals(3, latencySamples);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithoutMetricsFactory() {
+        new AggregatingVertxMetricsFactory.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithInvalidFlushInterval() {
+        new AggregatingVertxMetricsFactory.Builder()
+                .setMetricsFactory(Mockito.mock(MetricsFactory.class))
+                .setFlushInterval(Duration.ZERO)
+                .build();
+    }
+
+    private static AggregatingVertxMetrics createMetrics(final MetricsFactory metricsFactory) {
+        return (AggregatingVertxMetrics) new AggregatingVertxMetricsFactory.Builder()
+                .setMetricsFactory(metricsFactory)
+                .build()
+                .metrics(new VertxOptions());
+    }
+
+    private static HttpResponse createResponse(final int statusCode) {
+        final HttpResponse response = Mockito.mock(HttpResponse.class);
+        Mockito.doReturn(statusCode).when(response).statusCode();
+        return response;
+    }
+
+    private static <T> T await(final Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.arpnetworking.metrics.vertx.test.TestEvents;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.file.FileSystem;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link AsyncFileSink}.
+ *
+ * @author agent (agent at local)
+ */
+public final class AsyncFileSinkTest {
+
+    @Before
+    public void setUp() {
+        _vertx = Vertx.vertx();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testWriteAndClose() throws Exception {
+        final File directory = new File(_folder.getRoot(), "logs");
+        final AsyncFileSink sink = new AsyncFileSink.Builder()
+                .setVertx(_vertx)
+                .setPath(directory.getPath())
+                .setName("myapp-events")
+                .build();
+        for (int i = 0; i < 3; ++i) {
+            sink.record(TestEvents.createEvent(i));
+        }
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        final List<File> files = listFiles(directory);
+        Assert.assertEquals(1, files.size());
+        Assert.assertTrue(files.get(0).getName().startsWith("myapp-events."));
+        Assert.assertTrue(files.get(0).getName().endsWith(".0.log"));
+        final List<Event> events = readEvents(files);
+        Assert.assertEquals(Arrays.asList("0", "1", "2"), TestEvents.getIndexes(events));
+        TestEvents.assertRoundTrip(TestEvents.createEvent(1), events.get(1));
+        Assert.assertEquals(0, sink.getDroppedCount());
+    }
+
+    @Test
+    public void testRotateBySize() throws Exception {
+        final AsyncFileSink sink = new AsyncFileSink.Builder()
+                .setVertx(_vertx)
+                .setPath(_folder.getRoot().getPath())
+                .setBufferSize(1)
+                .setMaxFileSize(200L)
+                .build();
+        for (int i = 0; i < 20; ++i) {
+            sink.record(TestEvents.createEvent(i));
+            Thread.sleep(5);
+        }
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        final List<File> files = listFiles(_folder.getRoot());
+        Assert.assertTrue(files.size() > 1);
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            expected.add(Integer.toString(i));
+        }
+        Assert.assertEquals(expected, TestEvents.getIndexes(readEvents(files)));
+    }
+
+    @Test
+    public void testRotateByTime() throws Exception {
+        final AsyncFileSink sink = new AsyncFileSink.Builder()
+                .setVertx(_vertx)
+                .setPath(_folder.getRoot().getPath())
+                .setFlushInterval(Duration.ofMillis(10))
+                .setRotationInterval(Duration.ofMillis(1))
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        Thread.sleep(200);
+        sink.record(TestEvents.createEvent(1));
+        Thread.sleep(200);
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        final List<File> files = listFiles(_folder.getRoot());
+        Assert.assertEquals(2, files.size());
+        Assert.assertEquals(Arrays.asList("0", "1"), TestEvents.getIndexes(readEvents(files)));
+    }
+
+    @Test
+    public void testDropWhilePendingFull() {
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        final FileSystem fileSystem = Mockito.mock(FileSystem.class);
+        Mockito.doReturn(fileSystem).when(vertx).fileSystem();
+        // The file is never opened
+        Mockito.doReturn(Promise.<Void>promise().future()).when(fileSystem).mkdirs(Mockito.anyString());
+        final AsyncFileSink sink = new AsyncFileSink.Builder()
+                .setVertx(vertx)
+                .setPath(_folder.getRoot().getPath())
+                .setBufferSize(10)
+                .setMaxPendingSize(10)
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        Assert.assertEquals(0, sink.getDroppedCount());
+        sink.record(TestEvents.createEvent(1));
+        sink.record(TestEvents.createEvent(2));
+        Assert.assertEquals(2, sink.getDroppedCount());
+        Mockito.verify(fileSystem).mkdirs(Mockito.anyString());
+    }
+
+    @Test
+    public void testRecordAfterCloseDropped() throws Exception {
+        final AsyncFileSink sink = new AsyncFileSink.Builder()
+                .setVertx(_vertx)
+                .setPath(_folder.getRoot().getPath())
+                .build();
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        sink.record(TestEvents.createEvent(0));
+        Assert.assertEquals(1, sink.getDroppedCount());
+        Assert.assertTrue(listFiles(_folder.getRoot()).isEmpty());
+    }
+
+    @Test
+    public void testCloseWaitsForWrites() throws Exception {
+        final AsyncFileSink sink = new AsyncFileSink.Builder()
+                .setVertx(_vertx)
+                .setPath(_folder.getRoot().getPath())
+                .setFlushInterval(Duration.ofMinutes(1))
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        sink.close();
+        Assert.assertEquals(Collections.singletonList("0"), TestEvents.getIndexes(readEvents(listFiles(_folder.getRoot()))));
+    }
+
+    @Test
+    public void testUndeployClosesSink() throws Exception {
+        final AsyncFileSink sink = new AsyncFileSink.Builder()
+                .setVertx(_vertx)
+                .setPath(_folder.getRoot().getPath())
+                .setFlushInterval(Duration.ofMinutes(1))
+                .build();
+        final String deploymentId = _vertx.deployVerticle(new SinkVerticle() {
+            @Override
+            protected List<Sink> createSinks() {
+                return Collections.singletonList(sink);
+            }
+        }).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        sink.record(TestEvents.createEvent(0));
+        sink.record(TestEvents.createEvent(1));
+        _vertx.undeploy(deploymentId).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList("0", "1"), TestEvents.getIndexes(readEvents(listFiles(_folder.getRoot()))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithoutPath() {
+        new AsyncFileSink.Builder().setVertx(_vertx).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithMaxPendingSizeLessThanBufferSize() {
+        new AsyncFileSink.Builder()
+                .setVertx(_vertx)
+                .setPath(_folder.getRoot().getPath())
+                .setBufferSize(1024)
+                .setMaxPendingSize(1023)
+                .build();
+    }
+
+    private static List<File> listFiles(final File directory) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        final List<File> sorted = new ArrayList<>(Arrays.asList(files));
+        // Files are ordered by the sequence number preceding the extension
+        sorted.sort(Comparator.comparingInt(file -> Integer.parseInt(file.getName().split("\\.")[2])));
+        return sorted;
+    }
+
+    private static List<Event> readEvents(final List<File> files) throws IOException {
+        final List<Event> events = new ArrayList<>();
+        for (final File file : files) {
+            events.addAll(TestEvents.decode(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)));
+        }
+        return events;
+    }
+
+    @Rule
+    public final TemporaryFolder _folder = new TemporaryFolder();
+
+    private Vertx _vertx;
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link AsyncSink}.
+ *
+ * @author agent (agent at local)
+ */
+public final class AsyncSinkTest {
+
+    @Test
+    public void testRecordOnDedicatedThread() throws InterruptedException {
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(100);
+        final AsyncSink sink = new AsyncSink.Builder()
+                .setName("asyncSinkTest")
+                .setSink(event -> {
+                    threads.add(Thread.currentThread().getName());
+                    latch.countDown();
+                })
+                .build();
+        for (int i = 0; i < 100; ++i) {
+            sink.record(createEvent(i));
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singletonList("asyncSinkTest"), threads.stream().distinct().collect(Collectors.toList()));
+        sink.close();
+    }
+
+    @Test
+    public void testRecordInOrderInBatches() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final Sink delegate = Mockito.mock(Sink.class);
+        final AsyncSink sink = new AsyncSink.Builder()
+                .setSink(delegate)
+                .setExecutor(tasks::add)
+                .setMaxBatchSize(2)
+                .build();
+        final Event event1 = createEvent(1);
+        final Event event2 = createEvent(2);
+        final Event event3 = createEvent(3);
+        sink.record(event1);
+        sink.record(event2);
+        sink.record(event3);
+        // A single drain is scheduled for all three events
+        Assert.assertEquals(1, tasks.size());
+        Mockito.verifyNoInteractions(delegate);
+
+        tasks.poll().run();
+        final InOrder inOrder = Mockito.inOrder(delegate);
+        inOrder.verify(delegate).record(event1);
+        inOrder.verify(delegate).record(event2);
+        inOrder.verify(delegate).record(event3);
+        Assert.assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testDropWhenQueueFull() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final Sink delegate = Mockito.mock(Sink.class);
+        final AsyncSink sink = new AsyncSink.Builder()
+                .setSink(delegate)
+                .setExecutor(tasks::add)
+                .setQueueSize(2)
+                .build();
+        sink.record(createEvent(1));
+        sink.record(createEvent(2));
+        sink.record(createEvent(3));
+        Assert.assertEquals(1, sink.getDroppedCount());
+        tasks.poll().run();
+        Mockito.verify(delegate, Mockito.times(2)).record(Mockito.any());
+    }
+
+    @Test
+    public void testFailingSinkDoesNotStopDrain() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final Sink delegate = Mockito.mock(Sink.class);
+        final Event event1 = createEvent(1);
+        final Event event2 = createEvent(2);
+        Mockito.doThrow(new IllegalStateException()).when(delegate).record(event1);
+        final AsyncSink sink = new AsyncSink.Builder()
+                .setSink(delegate)
+                .setExecutor(tasks::add)
+                .build();
+        sink.record(event1);
+        sink.record(event2);
+        tasks.poll().run();
+        Mockito.verify(delegate).record(event2);
+    }
+
+    @Test
+    public void testCloseDrainsAndClosesSink() throws Exception {
+        final ClosableSink delegate = Mockito.mock(ClosableSink.class);
+        final AsyncSink sink = new AsyncSink.Builder()
+                .setSink(delegate)
+                .build();
+        final Event event = createEvent(1);
+        sink.record(event);
+        sink.close();
+        final InOrder inOrder = Mockito.inOrder(delegate);
+        inOrder.verify(delegate).record(event);
+        inOrder.verify(delegate).close();
+
+        sink.record(createEvent(2));
+        Assert.assertEquals(1, sink.getDroppedCount());
+        sink.close();
+        Mockito.verify(delegate).close();
+    }
+
+    @Test
+    public void testRecordOnContext() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final Context context = vertx.getOrCreateContext();
+            final List<Boolean> onContext = new CopyOnWriteArrayList<>();
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AsyncSink sink = new AsyncSink.Builder()
+                    .setSink(event -> {
+                        onContext.add(Vertx.currentContext() == context);
+                        latch.countDown();
+                    })
+                    .setContext(context)
+                    .setCloseTimeout(Duration.ofSeconds(10))
+                    .build();
+            sink.record(createEvent(1));
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(Collections.singletonList(true), onContext);
+            sink.close();
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCloseAsyncOnDrainContext() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final Context context = vertx.getOrCreateContext();
+            final ClosableSink delegate = Mockito.mock(ClosableSink.class);
+            final AsyncSink sink = new AsyncSink.Builder()
+                    .setSink(delegate)
+                    .setContext(context)
+                    .setCloseTimeout(Duration.ofMinutes(1))
+                    .build();
+            final Event event = createEvent(1);
+            final CompletableFuture<Void> closed = new CompletableFuture<>();
+            context.runOnContext(ignored -> {
+                sink.record(event);
+                // Neither close must wait for the drain task scheduled on this context
+                sink.close();
+                sink.closeAsync().onComplete(result -> closed.complete(null));
+            });
+            closed.get(10, TimeUnit.SECONDS);
+            final InOrder inOrder = Mockito.inOrder(delegate);
+            inOrder.verify(delegate).record(event);
+            inOrder.verify(delegate).close();
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCloseAsyncClosesAsyncCloseableSink() throws Exception {
+        final AsyncCloseableSink delegate = Mockito.mock(AsyncCloseableSink.class);
+        Mockito.doReturn(Future.succeededFuture()).when(delegate).closeAsync();
+        final AsyncSink sink = new AsyncSink.Builder()
+                .setSink(delegate)
+                .build();
+        final Event event = createEvent(1);
+        sink.record(event);
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        final InOrder inOrder = Mockito.inOrder(delegate);
+        inOrder.verify(delegate).record(event);
+        inOrder.verify(delegate).closeAsync();
+    }
+
+    @Test
+    public void testCloseTimeoutWaitsForRecordInProgress() throws Exception {
+        final ClosableSink delegate = Mockito.mock(ClosableSink.class);
+        final CountDownLatch recording = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Event event1 = createEvent(1);
+        final Event event2 = createEvent(2);
+        Mockito.doAnswer(invocation -> {
+            recording.countDown();
+            release.await();
+            return null;
+        }).when(delegate).record(event1);
+        final AsyncSink sink = new AsyncSink.Builder()
+                .setSink(delegate)
+                .setCloseTimeout(Duration.ofMillis(10))
+                .build();
+        sink.record(event1);
+        sink.record(event2);
+        Assert.assertTrue(recording.await(10, TimeUnit.SECONDS));
+        final CompletableFuture<Void> closed = sink.closeAsync().toCompletionStage().toCompletableFuture();
+
+        // The sink is not closed while the event is being recorded even though the timeout expired
+        Thread.sleep(100);
+        Assert.assertFalse(closed.isDone());
+        Mockito.verify(delegate, Mockito.never()).close();
+
+        release.countDown();
+        closed.get(10, TimeUnit.SECONDS);
+        final InOrder inOrder = Mockito.inOrder(delegate);
+        inOrder.verify(delegate).record(event1);
+        inOrder.verify(delegate).close();
+        Mockito.verify(delegate, Mockito.never()).record(event2);
+        Assert.assertEquals(1, sink.getDroppedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullSink() {
+        new AsyncSink.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidQueueSize() {
+        new AsyncSink.Builder().setSink(Mockito.mock(Sink.class)).setQueueSize(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidMaxBatchSize() {
+        new AsyncSink.Builder().setSink(Mockito.mock(Sink.class)).setMaxBatchSize(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderExecutorAndContext() {
+        new AsyncSink.Builder()
+                .setSink(Mockito.mock(Sink.class))
+                .setExecutor(Runnable::run)
+                .setContext(Mockito.mock(Context.class))
+                .build();
+    }
+
+    private static Event createEvent(final int index) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("index", String.valueOf(index)))
+                .setTimerSamples(Collections.emptyMap())
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+
+    private interface ClosableSink extends Sink, AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private interface AsyncCloseableSink extends Sink, AsyncCloseable {
+    }
+}
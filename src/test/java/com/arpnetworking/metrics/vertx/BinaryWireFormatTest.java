@@ -0,0 +1,258 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link BinaryWireFormat}.
+ *
+ * @author agent (agent at local)
+ */
+public final class BinaryWireFormatTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Event event1 = createEvent("host1", 100L, 1.5);
+        final Event event2 = createEvent("host2", -7L, Double.NaN);
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Arrays.asList(event1, event2), buffer);
+        Assert.assertEquals(Arrays.asList(event1, event2), _wireFormat.decode(buffer, 0));
+    }
+
+    @Test
+    public void testRoundTripAtPosition() throws IOException {
+        final Event event = createEvent("host1", 100L, 1.5);
+        final Buffer buffer = Buffer.buffer().appendByte(BinaryWireFormat.ID);
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        Assert.assertEquals(Collections.singletonList(event), _wireFormat.decode(buffer, 1));
+    }
+
+    @Test
+    public void testRoundTripValues() throws IOException {
+        final List<Quantity> integral = Arrays.asList(
+                quantity(0L),
+                quantity(-1L),
+                quantity(Long.MAX_VALUE),
+                quantity(Long.MIN_VALUE));
+        final List<Quantity> doubles = Arrays.asList(
+                quantity(0.1),
+                quantity(-0.0),
+                quantity(Double.MAX_VALUE),
+                quantity(Double.NEGATIVE_INFINITY));
+        final List<Quantity> mixed = Arrays.asList(quantity(1L), quantity(2.5), quantity(-3L));
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .setTimerSamples(ImmutableMap.of("integral", integral))
+                .setCounterSamples(ImmutableMap.of("doubles", doubles))
+                .setGaugeSamples(ImmutableMap.of("mixed", mixed))
+                .build();
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        Assert.assertEquals(Collections.singletonList(event), _wireFormat.decode(buffer, 0));
+    }
+
+    @Test
+    public void testIntegralValuesDecodedAsLong() throws IOException {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .setTimerSamples(ImmutableMap.of("timer", Arrays.asList(quantity(1), quantity((short) 2))))
+                .setCounterSamples(ImmutableMap.of("counter", Collections.singletonList(quantity(3.5f))))
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        final Event decoded = _wireFormat.decode(buffer, 0).get(0);
+        Assert.assertEquals(Arrays.asList(quantity(1L), quantity(2L)), decoded.getTimerSamples().get("timer"));
+        Assert.assertEquals(Collections.singletonList(quantity(3.5)), decoded.getCounterSamples().get("counter"));
+    }
+
+    @Test
+    public void testStringsEncodedOnce() throws IOException {
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(createEvent("host1", 1L, 1.0)), buffer);
+        final int singleLength = buffer.length();
+        final Buffer batchBuffer = Buffer.buffer();
+        _wireFormat.encode(
+                Arrays.asList(createEvent("host1", 1L, 1.0), createEvent("host1", 1L, 1.0), createEvent("host1", 1L, 1.0)),
+                batchBuffer);
+        // Each additional event only adds references to the existing strings and the samples
+        final String text = batchBuffer.toString();
+        Assert.assertEquals(text.indexOf("my/timer"), text.lastIndexOf("my/timer"));
+        Assert.assertTrue(batchBuffer.length() < 2 * singleLength);
+    }
+
+    @Test
+    public void testSmallerThanJson() throws IOException {
+        final List<Event> events = Arrays.asList(createEvent("host1", 100L, 1.5), createEvent("host2", 200L, 2.5));
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(events, buffer);
+        Assert.assertTrue(buffer.length() * 2 < OBJECT_MAPPER.writeValueAsBytes(events).length);
+    }
+
+    @Test
+    public void testRoundTripHistograms() throws IOException {
+        final Map<String, List<Quantity>> timerSamples = new LinkedHashMap<>();
+        final List<Quantity> samples = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            samples.add(quantity(i % 50 * 1000L + 12345L));
+        }
+        timerSamples.put("my/timer", samples);
+        timerSamples.put("my/empty", Collections.emptyList());
+        final Event sampledEvent = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("_host", "host1"))
+                .setTimerSamples(timerSamples)
+                .setCounterSamples(ImmutableMap.of("my/counter", Collections.singletonList(quantity(1L))))
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        final AggregatedEvent event = AggregatedEvent.copyOf(sampledEvent, 7);
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        final AggregatedEvent decoded = (AggregatedEvent) _wireFormat.decode(buffer, 0).get(0);
+        Assert.assertEquals(event.getAnnotations(), decoded.getAnnotations());
+        Assert.assertEquals(event.getCounterSamples(), decoded.getCounterSamples());
+        Assert.assertEquals(event.getTimerSamples(), decoded.getTimerSamples());
+        final Histogram histogram = event.getTimerHistograms().get("my/timer");
+        final Histogram decodedHistogram = decoded.getTimerHistograms().get("my/timer");
+        Assert.assertEquals(histogram.getPrecision(), decodedHistogram.getPrecision());
+        Assert.assertEquals(histogram.getCount(), decodedHistogram.getCount());
+        Assert.assertEquals(histogram.getSum(), decodedHistogram.getSum(), 0.0);
+        Assert.assertEquals(histogram.getMin(), decodedHistogram.getMin(), 0.0);
+        Assert.assertEquals(histogram.getMax(), decodedHistogram.getMax(), 0.0);
+        Assert.assertEquals(0, decoded.getTimerHistograms().get("my/empty").getCount());
+        // The size depends on the number of buckets rather than samples
+        final Buffer sampledBuffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(sampledEvent), sampledBuffer);
+        Assert.assertTrue(buffer.length() * 4 < sampledBuffer.length());
+    }
+
+    @Test
+    public void testCountedSamplesAsHistograms() throws IOException {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("_host", "host1"))
+                .setTimerSamples(ImmutableMap.of(
+                        "my/timer",
+                        Arrays.asList(CountedQuantity.newInstance(2.0, 1000), quantity(5L))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        final AggregatedEvent decoded = (AggregatedEvent) _wireFormat.decode(buffer, 0).get(0);
+        final Histogram histogram = decoded.getTimerHistograms().get("my/timer");
+        Assert.assertEquals(1001, histogram.getCount());
+        Assert.assertEquals(2005.0, histogram.getSum(), 0.0);
+        Assert.assertEquals(2, histogram.getBucketCount());
+    }
+
+    @Test
+    public void testDecodeWithInterner() throws IOException {
+        final StringInterner interner = new StringInterner(64);
+        final BinaryWireFormat wireFormat = new BinaryWireFormat(interner);
+        final Buffer buffer1 = Buffer.buffer();
+        wireFormat.encode(Collections.singletonList(createEvent("h\u00f6st", 100L, 1.5)), buffer1);
+        final Buffer buffer2 = Buffer.buffer();
+        wireFormat.encode(Collections.singletonList(createEvent("h\u00f6st", 200L, 2.5)), buffer2);
+        final Event event1 = wireFormat.decode(buffer1, 0).get(0);
+        final Event event2 = wireFormat.decode(buffer2, 0).get(0);
+        Assert.assertEquals(createEvent("h\u00f6st", 100L, 1.5), event1);
+        Assert.assertSame(
+                event1.getTimerSamples().keySet().iterator().next(),
+                event2.getTimerSamples().keySet().iterator().next());
+        Assert.assertSame(event1.getAnnotations().get("_host"), event2.getAnnotations().get("_host"));
+        Assert.assertSame(event1.getAnnotations().get("_service"), event2.getAnnotations().get("_service"));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.emptyList(), buffer);
+        Assert.assertEquals(Collections.emptyList(), _wireFormat.decode(buffer, 0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testEncodeNullValue() throws IOException {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .setTimerSamples(ImmutableMap.of("timer", Collections.singletonList(new SinkVerticle.DefaultQuantity())))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        _wireFormat.encode(Collections.singletonList(event), Buffer.buffer());
+    }
+
+    @Test
+    public void testDecodeTruncated() throws IOException {
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(createEvent("host1", 100L, 1.5)), buffer);
+        for (int length = 0; length < buffer.length(); ++length) {
+            try {
+                _wireFormat.decode(buffer.getBuffer(0, length), 0);
+                Assert.fail("Expected exception decoding truncated message. Length=" + length);
+            } catch (final IOException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeInvalidStringReference() throws IOException {
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(createEvent("host1", 100L, 1.5)), buffer);
+        // The first annotation key references the first string; point it past the end of the table
+        buffer.setByte(Integer.BYTES + 2, (byte) 0x7F);
+        _wireFormat.decode(buffer, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeInvalidCount() throws IOException {
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(createEvent("host1", 100L, 1.5)), buffer);
+        buffer.setByte(Integer.BYTES, (byte) 0x7F);
+        _wireFormat.decode(buffer, 0);
+    }
+
+    private static Event createEvent(final String host, final long timerValue, final double gaugeValue) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("_host", host, "_service", "myService"))
+                .setTimerSamples(ImmutableMap.of("my/timer", Arrays.asList(quantity(timerValue), quantity(timerValue * 2))))
+                .setCounterSamples(ImmutableMap.of("my/counter", Collections.singletonList(quantity(1L))))
+                .setGaugeSamples(ImmutableMap.of("my/gauge", Collections.singletonList(quantity(gaugeValue))))
+                .build();
+    }
+
+    private static Quantity quantity(final Number value) {
+        return SinkVerticle.DefaultQuantity.newInstance(value);
+    }
+
+    private final BinaryWireFormat _wireFormat = new BinaryWireFormat();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+}
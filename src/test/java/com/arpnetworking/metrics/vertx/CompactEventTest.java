@@ -0,0 +1,213 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link CompactEvent}.
+ *
+ * @author agent (agent at local)
+ */
+public final class CompactEventTest {
+
+    @Test
+    public void testBuilder() {
+        final CompactEvent event = new CompactEvent.Builder()
+                .setAnnotations(ImmutableMap.of("foo", "bar"))
+                .addTimerSample("timer", 1L)
+                .addTimerSample("timer", 2L)
+                .addCounterSample("counter", 1.5)
+                .addGaugeSample("gauge", 3L)
+                .addGaugeSample("gauge", 4.5)
+                .build();
+
+        Assert.assertEquals(ImmutableMap.of("foo", "bar"), event.getAnnotations());
+
+        final CompactEvent.Samples timer = event.getTimers().get("timer");
+        Assert.assertTrue(timer.isIntegral());
+        Assert.assertEquals(2, timer.size());
+        Assert.assertEquals(1L, timer.getLong(0));
+        Assert.assertEquals(2.0, timer.getDouble(1), 0.0);
+
+        final CompactEvent.Samples counter = event.getCounters().get("counter");
+        Assert.assertFalse(counter.isIntegral());
+        Assert.assertEquals(1, counter.getLong(0));
+        Assert.assertEquals(1.5, counter.getDouble(0), 0.0);
+
+        final CompactEvent.Samples gauge = event.getGauges().get("gauge");
+        Assert.assertFalse(gauge.isIntegral());
+        Assert.assertEquals(3.0, gauge.getDouble(0), 0.0);
+        Assert.assertEquals(4.5, gauge.getDouble(1), 0.0);
+    }
+
+    @Test
+    public void testManySamples() {
+        final CompactEvent.Builder builder = new CompactEvent.Builder().setAnnotations(Collections.emptyMap());
+        for (int i = 0; i < 100; ++i) {
+            builder.addTimerSample("timer", i);
+        }
+        builder.addTimerSample("timer", 100.5);
+        final CompactEvent.Samples samples = builder.build().getTimers().get("timer");
+        Assert.assertEquals(101, samples.size());
+        Assert.assertEquals(99.0, samples.getDouble(99), 0.0);
+        Assert.assertEquals(100.5, samples.getDouble(100), 0.0);
+    }
+
+    @Test
+    public void testQuantityViews() {
+        final CompactEvent event = new CompactEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .addTimerSample("timer", 1L)
+                .addCounterSample("counter", 2L)
+                .addGaugeSample("gauge", 1.5)
+                .build();
+        Assert.assertEquals(
+                ImmutableMap.of("timer", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1L))),
+                event.getTimerSamples());
+        Assert.assertEquals(
+                ImmutableMap.of("counter", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(2L))),
+                event.getCounterSamples());
+        Assert.assertEquals(
+                ImmutableMap.of("gauge", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1.5))),
+                event.getGaugeSamples());
+        Assert.assertSame(event.getTimerSamples(), event.getTimerSamples());
+        Assert.assertSame(event.getCounterSamples(), event.getCounterSamples());
+        Assert.assertSame(event.getGaugeSamples(), event.getGaugeSamples());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testQuantityViewOutOfBounds() {
+        final CompactEvent event = new CompactEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .addTimerSample("timer", 1L)
+                .build();
+        event.getTimerSamples().get("timer").get(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSamplesOutOfBounds() {
+        final CompactEvent event = new CompactEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .addTimerSample("timer", 1L)
+                .build();
+        event.getTimers().get("timer").getLong(-1);
+    }
+
+    @Test
+    public void testCopyOf() {
+        final List<Quantity> timerSamples = Arrays.asList(
+                SinkVerticle.DefaultQuantity.newInstance(1),
+                SinkVerticle.DefaultQuantity.newInstance(2L));
+        final List<Quantity> gaugeSamples = Arrays.asList(
+                SinkVerticle.DefaultQuantity.newInstance(1),
+                SinkVerticle.DefaultQuantity.newInstance(2.5f));
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("foo", "bar"))
+                .setTimerSamples(ImmutableMap.of("timer", timerSamples))
+                .setCounterSamples(ImmutableMap.of("counter", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(3))))
+                .setGaugeSamples(ImmutableMap.of("gauge", gaugeSamples))
+                .build();
+        final CompactEvent compactEvent = CompactEvent.copyOf(event);
+        Assert.assertEquals(
+                new CompactEvent.Builder()
+                        .setAnnotations(ImmutableMap.of("foo", "bar"))
+                        .addTimerSample("timer", 1L)
+                        .addTimerSample("timer", 2L)
+                        .addCounterSample("counter", 3L)
+                        .addGaugeSample("gauge", 1.0)
+                        .addGaugeSample("gauge", 2.5)
+                        .build(),
+                compactEvent);
+        Assert.assertSame(compactEvent, CompactEvent.copyOf(compactEvent));
+    }
+
+    @Test
+    public void testCopyOfSkipsMissingAndExpandsCountedSamples() {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Arrays.asList(
+                                CountedQuantity.newInstance(2.5, 3),
+                                null,
+                                new SinkVerticle.DefaultQuantity(),
+                                SinkVerticle.DefaultQuantity.newInstance(4L))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        Assert.assertEquals(
+                new CompactEvent.Builder()
+                        .setAnnotations(Collections.emptyMap())
+                        .addTimerSample("timer", 2.5)
+                        .addTimerSample("timer", 2.5)
+                        .addTimerSample("timer", 2.5)
+                        .addTimerSample("timer", 4.0)
+                        .build(),
+                CompactEvent.copyOf(event));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithoutAnnotations() {
+        new CompactEvent.Builder().build();
+    }
+
+    @Test
+    public void testEquals() {
+        final CompactEvent event = createEvent(1L);
+        Assert.assertTrue(event.equals(event));
+        Assert.assertTrue(event.equals(createEvent(1L)));
+        Assert.assertFalse(event.equals(createEvent(2L)));
+        Assert.assertFalse(event.equals(null));
+        Assert.assertFalse(event.equals("This is a String"));
+        final CompactEvent.Samples samples = event.getTimers().get("timer");
+        Assert.assertTrue(samples.equals(samples));
+        Assert.assertFalse(samples.equals("This is a String"));
+    }
+
+    @Test
+    public void testHashCode() {
+        Assert.assertEquals(createEvent(1L).hashCode(), createEvent(1L).hashCode());
+    }
+
+    @Test
+    public void testToString() {
+        final String asString = new CompactEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .addTimerSample("timer", 1L)
+                .addGaugeSample("gauge", 1.5)
+                .build()
+                .toString();
+        Assert.assertNotNull(asString);
+        Assert.assertFalse(asString.isEmpty());
+    }
+
+    private static CompactEvent createEvent(final long value) {
+        return new CompactEvent.Builder()
+                .setAnnotations(ImmutableMap.of("foo", "bar"))
+                .addTimerSample("timer", value)
+                .addCounterSample("counter", 1.5)
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.vertx.test.TestEvents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.datagram.DatagramSocket;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link DatagramSink}.
+ *
+ * @author agent (agent at local)
+ */
+public final class DatagramSinkTest {
+
+    @Before
+    public void setUp() throws Exception {
+        _vertx = Vertx.vertx();
+        final DatagramSocket listener = _vertx.createDatagramSocket();
+        listener.handler(packet -> _received.add(packet.data()));
+        _port = listener.listen(0, "127.0.0.1")
+                .toCompletionStage()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS)
+                .localAddress()
+                .port();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testPackEvents() throws Exception {
+        final DatagramSink sink = createSinkBuilder()
+                .setMaxPacketSize(2000)
+                .build();
+        for (int i = 0; i < 5; ++i) {
+            sink.record(TestEvents.createEvent(i));
+        }
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        awaitPackets(1);
+        final List<Event> events = readEvents(_received.peek());
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4"), TestEvents.getIndexes(events));
+        TestEvents.assertRoundTrip(TestEvents.createEvent(3), events.get(3));
+        Assert.assertEquals(0, sink.getDroppedEventCount());
+    }
+
+    @Test
+    public void testSplitAtMaxPacketSize() throws Exception {
+        final int eventSize = Buffer.buffer(OBJECT_MAPPER.writeValueAsBytes(TestEvents.createEvent(0))).length() + 1;
+        final DatagramSink sink = createSinkBuilder()
+                .setMaxPacketSize(eventSize * 2 + 1)
+                .build();
+        for (int i = 0; i < 6; ++i) {
+            sink.record(TestEvents.createEvent(i));
+        }
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        awaitPackets(3);
+        final List<String> indexes = new ArrayList<>();
+        for (final Buffer packet : _received) {
+            Assert.assertTrue(packet.length() <= eventSize * 2 + 1);
+            final List<String> packetIndexes = TestEvents.getIndexes(readEvents(packet));
+            Assert.assertEquals(2, packetIndexes.size());
+            indexes.addAll(packetIndexes);
+        }
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), indexes);
+    }
+
+    @Test
+    public void testFlushOnTimer() throws Exception {
+        final DatagramSink sink = createSinkBuilder()
+                .setFlushInterval(Duration.ofMillis(20))
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        awaitPackets(1);
+        Assert.assertEquals(Collections.singletonList("0"), TestEvents.getIndexes(readEvents(_received.peek())));
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testDropOversizedEvent() throws Exception {
+        final DatagramSink sink = createSinkBuilder()
+                .setMaxPacketSize(20)
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        Assert.assertEquals(1, sink.getDroppedEventCount());
+        Assert.assertTrue(sink.getDroppedByteCount() > 20);
+        Assert.assertEquals(0, sink.getDroppedPacketCount());
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(_received.isEmpty());
+    }
+
+    @Test
+    public void testDropAfterClose() throws Exception {
+        final DatagramSink sink = createSinkBuilder().build();
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        sink.record(TestEvents.createEvent(0));
+        Assert.assertEquals(1, sink.getDroppedEventCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithoutPort() {
+        new DatagramSink.Builder().setVertx(_vertx).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithInvalidMaxPacketSize() {
+        createSinkBuilder().setMaxPacketSize(65508).build();
+    }
+
+    private DatagramSink.Builder createSinkBuilder() {
+        return new DatagramSink.Builder()
+                .setVertx(_vertx)
+                .setHost("127.0.0.1")
+                .setPort(_port)
+                .setFlushInterval(Duration.ofSeconds(10));
+    }
+
+    private void awaitPackets(final int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (_received.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(count, _received.size());
+    }
+
+    private static List<Event> readEvents(final Buffer packet) throws IOException {
+        return TestEvents.decode(Arrays.asList(packet.toString(StandardCharsets.UTF_8).split("\n")));
+    }
+
+    private Vertx _vertx;
+    private int _port;
+    private final ConcurrentLinkedQueue<Buffer> _received = new ConcurrentLinkedQueue<>();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.vertx.test.BenchmarkEvents;
+import com.arpnetworking.metrics.vertx.test.BenchmarkRunner;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performance tests of constructing {@link SinkVerticle.DefaultEvent} and
+ * {@link CompactEvent} instances.
+ *
+ * @author agent (agent at local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DefaultEventTestPerf {
+
+    @Test
+    public void test() throws RunnerException, IOException {
+        BenchmarkRunner.run(DefaultEventTestPerf.class);
+    }
+
+    @Setup
+    public void setUp() {
+        _event = BenchmarkEvents.createEvent(_size);
+    }
+
+    @Benchmark
+    public Event buildDefaultEvent() {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(_event.getAnnotations())
+                .setTimerSamples(_event.getTimerSamples())
+                .setCounterSamples(_event.getCounterSamples())
+                .setGaugeSamples(_event.getGaugeSamples())
+                .build();
+    }
+
+    @Benchmark
+    public Event copyCompactEvent() {
+        return CompactEvent.copyOf(_event);
+    }
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private BenchmarkEvents.EventSize _size;
+    private Event _event;
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests for {@link DiskSpool}.
+ *
+ * @author agent (agent at local)
+ */
+public final class DiskSpoolTest {
+
+    @Test
+    public void testAppendAndReadInOrder() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            Assert.assertTrue(spool.isEmpty());
+            Assert.assertNull(spool.peek());
+            spool.append(record(1));
+            spool.append(record(2));
+            Assert.assertFalse(spool.isEmpty());
+            Assert.assertEquals(record(1), spool.peek());
+            // Peeking does not remove the record
+            Assert.assertEquals(record(1), spool.peek());
+            spool.remove();
+            Assert.assertEquals(record(2), spool.peek());
+            spool.remove();
+            Assert.assertTrue(spool.isEmpty());
+            spool.remove();
+            Assert.assertNull(spool.peek());
+        }
+    }
+
+    @Test
+    public void testRollAndDeleteSegments() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            for (int i = 0; i < 40; ++i) {
+                spool.append(record(i));
+            }
+            Assert.assertTrue(segments().size() > 1);
+            Assert.assertEquals(segments().size() * (long) SEGMENT_SIZE, spool.getSize());
+            for (int i = 0; i < 40; ++i) {
+                Assert.assertEquals(record(i), spool.peek());
+                spool.remove();
+            }
+            Assert.assertTrue(spool.isEmpty());
+            Assert.assertEquals(1, segments().size());
+            Assert.assertEquals(0, spool.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void testReopenResumesPosition() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            for (int i = 0; i < 50; ++i) {
+                spool.append(record(i));
+            }
+            for (int i = 0; i < 20; ++i) {
+                spool.remove();
+            }
+        }
+        try (DiskSpool spool = createSpool()) {
+            spool.append(record(50));
+            for (int i = 20; i <= 50; ++i) {
+                Assert.assertEquals(record(i), spool.peek());
+                spool.remove();
+            }
+            Assert.assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    public void testPrependReadFirst() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            for (int i = 0; i < 30; ++i) {
+                spool.append(record(1000 + i));
+            }
+            for (int i = 0; i < 5; ++i) {
+                spool.remove();
+            }
+            final List<Buffer> prepended = new ArrayList<>();
+            for (int i = 0; i < 20; ++i) {
+                prepended.add(record(i));
+            }
+            spool.prepend(prepended);
+            spool.append(record(1030));
+            for (int i = 0; i < 20; ++i) {
+                Assert.assertEquals(record(i), spool.peek());
+                spool.remove();
+            }
+            for (int i = 5; i <= 30; ++i) {
+                Assert.assertEquals(record(1000 + i), spool.peek());
+                spool.remove();
+            }
+            Assert.assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    public void testPrependReopen() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            spool.append(record(10));
+            spool.append(record(11));
+            spool.remove();
+            spool.prepend(Collections.singletonList(record(9)));
+            spool.prepend(Collections.singletonList(record(8)));
+        }
+        try (DiskSpool spool = createSpool()) {
+            spool.append(record(12));
+            for (final int i : new int[] {8, 9, 11, 12}) {
+                Assert.assertEquals(record(i), spool.peek());
+                spool.remove();
+            }
+            Assert.assertTrue(spool.isEmpty());
+            Assert.assertEquals(1, segments().size());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPeekClosed() throws IOException {
+        final DiskSpool spool = createSpool();
+        spool.append(record(1));
+        spool.close();
+        spool.peek();
+    }
+
+    @Test
+    public void testRetentionDropsOldest() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            for (int i = 0; i < 1000; ++i) {
+                spool.append(record(i));
+            }
+            Assert.assertTrue(spool.getSize() <= MAX_SIZE);
+            Assert.assertTrue(spool.getDroppedCount() > 0);
+            // The oldest retained record follows the dropped records
+            Assert.assertEquals(record((int) spool.getDroppedCount()), spool.peek());
+            long count = 0;
+            while (spool.peek() != null) {
+                spool.remove();
+                ++count;
+            }
+            Assert.assertEquals(1000, spool.getDroppedCount() + count);
+        }
+    }
+
+    @Test
+    public void testCorruptedSegmentSkipped() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            for (int i = 0; i < 40; ++i) {
+                spool.append(record(i));
+            }
+        }
+        final List<Path> segments = segments();
+        try (RandomAccessFile file = new RandomAccessFile(segments.get(0).toFile(), "rw")) {
+            // Corrupt the payload of the second record
+            final int offset = Integer.BYTES + 2 * RECORD_HEADER_SIZE + record(0).length() + 1;
+            file.seek(offset);
+            file.write(file.read() ^ 0xFF);
+        }
+        try (DiskSpool spool = createSpool()) {
+            Assert.assertEquals(record(0), spool.peek());
+            spool.remove();
+            // The rest of the first segment is skipped
+            final Buffer next = spool.peek();
+            Assert.assertNotEquals(record(1), next);
+            Assert.assertEquals(1, spool.getCorruptedCount());
+            Assert.assertFalse(Files.exists(segments.get(0)));
+        }
+    }
+
+    @Test
+    public void testTornRecordDiscardedOnOpen() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            spool.append(record(1));
+            spool.append(record(2));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            // Simulate a partially written second record by corrupting its checksum
+            file.seek(Integer.BYTES + RECORD_HEADER_SIZE + record(1).length() + Integer.BYTES);
+            file.writeInt(0);
+        }
+        try (DiskSpool spool = createSpool()) {
+            spool.append(record(3));
+            Assert.assertEquals(record(1), spool.peek());
+            spool.remove();
+            Assert.assertEquals(record(3), spool.peek());
+            spool.remove();
+            Assert.assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecordLargerThanSegment() throws IOException {
+        try (DiskSpool spool = createSpool()) {
+            spool.append(Buffer.buffer(new byte[SEGMENT_SIZE]));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxSizeLessThanTwoSegments() throws IOException {
+        new DiskSpool.Builder()
+                .setDirectory(_folder.getRoot().toPath())
+                .setSegmentSize(SEGMENT_SIZE)
+                .setMaxSize((long) SEGMENT_SIZE)
+                .build();
+    }
+
+    private DiskSpool createSpool() throws IOException {
+        return new DiskSpool.Builder()
+                .setDirectory(_folder.getRoot().toPath().resolve("spool"))
+                .setSegmentSize(SEGMENT_SIZE)
+                .setMaxSize(MAX_SIZE)
+                .build();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> paths = Files.list(_folder.getRoot().toPath().resolve("spool"))) {
+            return paths.filter(path -> path.toString().endsWith(".segment")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static Buffer record(final int index) {
+        return Buffer.buffer(String.format("record-%08d-padding-to-make-the-record-longer", index));
+    }
+
+    @Rule
+    public final TemporaryFolder _folder = new TemporaryFolder();
+
+    private static final int SEGMENT_SIZE = 1024;
+    private static final long MAX_SIZE = 4L * SEGMENT_SIZE;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link EventAggregator}.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventAggregatorTest {
+
+    @Test
+    public void testFlushEmpty() {
+        Assert.assertTrue(new EventAggregator.Builder().build().flush().isEmpty());
+    }
+
+    @Test
+    public void testAggregate() {
+        final EventAggregator aggregator = new EventAggregator.Builder().build();
+        aggregator.record(createEvent("1", "host1", Arrays.asList(1L, 2L), Arrays.asList(1L, 2L), Collections.singletonList(5L)));
+        aggregator.record(createEvent("2", "host1", Collections.singletonList(3L), Collections.singletonList(4L), Arrays.asList(3L, 7L)));
+        final List<Event> events = aggregator.flush();
+        Assert.assertEquals(1, events.size());
+
+        final AggregatedEvent event = (AggregatedEvent) events.get(0);
+        Assert.assertEquals("host1", event.getAnnotations().get("_host"));
+        Assert.assertNotNull(event.getAnnotations().get("_id"));
+        Assert.assertNotEquals("1", event.getAnnotations().get("_id"));
+        Assert.assertFalse(
+                Instant.parse(event.getAnnotations().get("_end")).isBefore(Instant.parse(event.getAnnotations().get("_start"))));
+        Assert.assertEquals(
+                ImmutableMap.of("counter", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(7L))),
+                event.getCounterSamples());
+        Assert.assertEquals(
+                ImmutableMap.of("gauge", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(7L))),
+                event.getGaugeSamples());
+
+        final Histogram histogram = event.getTimerHistograms().get("timer");
+        Assert.assertEquals(3, histogram.getCount());
+        Assert.assertEquals(6.0, histogram.getSum(), 0.0);
+        // Each sample is represented by its bucket's midpoint limited to the recorded range
+        Assert.assertEquals(
+                Arrays.asList(
+                        SinkVerticle.DefaultQuantity.newInstance(1.00390625),
+                        SinkVerticle.DefaultQuantity.newInstance(2.0078125),
+                        SinkVerticle.DefaultQuantity.newInstance(3.0)),
+                event.getTimerSamples().get("timer"));
+
+        Assert.assertTrue(aggregator.flush().isEmpty());
+    }
+
+    @Test
+    public void testAggregateByAnnotations() {
+        final EventAggregator aggregator = new EventAggregator.Builder().build();
+        aggregator.record(createEvent("1", "host1", Collections.singletonList(1L), Collections.emptyList(), Collections.emptyList()));
+        aggregator.record(createEvent("2", "host2", Collections.singletonList(2L), Collections.emptyList(), Collections.emptyList()));
+        aggregator.record(createEvent("3", "host1", Collections.singletonList(3L), Collections.emptyList(), Collections.emptyList()));
+        final List<Event> events = aggregator.flush();
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals("host1", events.get(0).getAnnotations().get("_host"));
+        Assert.assertEquals(2, events.get(0).getTimerSamples().get("timer").size());
+        Assert.assertEquals("host2", events.get(1).getAnnotations().get("_host"));
+        Assert.assertEquals(1, events.get(1).getTimerSamples().get("timer").size());
+    }
+
+    @Test
+    public void testGaugePolicies() {
+        assertGauge(EventAggregator.GaugePolicy.LAST, 3L);
+        assertGauge(EventAggregator.GaugePolicy.MIN, 1L);
+        assertGauge(EventAggregator.GaugePolicy.MAX, 5L);
+    }
+
+    @Test
+    public void testCounterSumPromotion() {
+        final EventAggregator aggregator = new EventAggregator.Builder().build();
+        aggregator.record(createEvent("1", "host1", Collections.emptyList(), Arrays.asList(Long.MAX_VALUE, 1L), Collections.emptyList()));
+        aggregator.record(createEvent("2", "host2", Collections.emptyList(), Arrays.asList(1, 1.5), Collections.emptyList()));
+        final List<Event> events = aggregator.flush();
+        Assert.assertEquals(
+                Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(Long.MAX_VALUE + 1.0)),
+                events.get(0).getCounterSamples().get("counter"));
+        Assert.assertEquals(
+                Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(2.5)),
+                events.get(1).getCounterSamples().get("counter"));
+    }
+
+    @Test
+    public void testNullSamplesIgnored() {
+        final EventAggregator aggregator = new EventAggregator.Builder().build();
+        aggregator.record(createEvent(
+                "1",
+                "host1",
+                Collections.singletonList(null),
+                Collections.singletonList(null),
+                Collections.singletonList(null)));
+        final Event event = aggregator.flush().get(0);
+        Assert.assertTrue(event.getTimerSamples().get("timer").isEmpty());
+        Assert.assertEquals(
+                Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(0L)),
+                event.getCounterSamples().get("counter"));
+        Assert.assertFalse(event.getGaugeSamples().containsKey("gauge"));
+    }
+
+    @Test
+    public void testAggregateTimerHistograms() {
+        final EventAggregator aggregator = new EventAggregator.Builder().build();
+        aggregator.record(AggregatedEvent.copyOf(
+                createEvent("1", "host1", Arrays.asList(1L, 2L), Collections.emptyList(), Collections.emptyList()),
+                7));
+        aggregator.record(createEvent("2", "host1", Collections.singletonList(3L), Collections.emptyList(), Collections.emptyList()));
+        aggregator.record(AggregatedEvent.copyOf(
+                createEvent("3", "host1", Collections.singletonList(4L), Collections.emptyList(), Collections.emptyList()),
+                3));
+        final AggregatedEvent event = (AggregatedEvent) aggregator.flush().get(0);
+        final Histogram histogram = event.getTimerHistograms().get("timer");
+        Assert.assertEquals(7, histogram.getPrecision());
+        Assert.assertEquals(4, histogram.getCount());
+        Assert.assertEquals(10.0, histogram.getSum(), 0.0);
+        Assert.assertEquals(1.0, histogram.getMin(), 0.0);
+        Assert.assertEquals(4.0, histogram.getMax(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullGaugePolicy() {
+        new EventAggregator.Builder().setGaugePolicy(null).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidHistogramPrecision() {
+        new EventAggregator.Builder().setHistogramPrecision(-1).build();
+    }
+
+    private static void assertGauge(final EventAggregator.GaugePolicy policy, final Number expected) {
+        final EventAggregator aggregator = new EventAggregator.Builder().setGaugePolicy(policy).build();
+        aggregator.record(createEvent("1", "host1", Collections.emptyList(), Collections.emptyList(), Arrays.asList(4L, 5L)));
+        aggregator.record(createEvent("2", "host1", Collections.emptyList(), Collections.emptyList(), Arrays.asList(1L, 3L)));
+        Assert.assertEquals(
+                Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(expected)),
+                aggregator.flush().get(0).getGaugeSamples().get("gauge"));
+    }
+
+    private static Event createEvent(
+            final String id,
+            final String host,
+            final List<? extends Number> timers,
+            final List<? extends Number> counters,
+            final List<? extends Number> gauges) {
+        final Map<String, String> annotations = new LinkedHashMap<>();
+        annotations.put("_id", id);
+        annotations.put("_start", Instant.now().toString());
+        annotations.put("_end", Instant.now().toString());
+        annotations.put("_host", host);
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(annotations)
+                .setTimerSamples(ImmutableMap.of("timer", toQuantities(timers)))
+                .setCounterSamples(ImmutableMap.of("counter", toQuantities(counters)))
+                .setGaugeSamples(ImmutableMap.of("gauge", toQuantities(gauges)))
+                .build();
+    }
+
+    private static List<Quantity> toQuantities(final List<? extends Number> values) {
+        final Quantity[] quantities = new Quantity[values.size()];
+        for (int i = 0; i < quantities.length; ++i) {
+            quantities[i] = values.get(i) == null ? null : SinkVerticle.DefaultQuantity.newInstance(values.get(i));
+        }
+        return Arrays.asList(quantities);
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link EventBatchMessageCodec}.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventBatchMessageCodecTest {
+
+    @Test
+    public void testTransformReturnsSameInstance() {
+        final EventBatch batch = createBatch();
+        Assert.assertSame(batch, new EventBatchMessageCodec().transform(batch));
+    }
+
+    @Test
+    public void testWireRoundTrip() {
+        final EventBatch batch = createBatch();
+        final EventBatchMessageCodec codec = new EventBatchMessageCodec();
+        final Buffer buffer = Buffer.buffer();
+        buffer.appendString("prefix");
+        codec.encodeToWire(buffer, batch);
+        Assert.assertEquals(batch, codec.decodeFromWire(6, buffer));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalidData() {
+        final Buffer buffer = Buffer.buffer();
+        buffer.appendInt(2);
+        buffer.appendString("[}");
+        new EventBatchMessageCodec().decodeFromWire(0, buffer);
+    }
+
+    @Test
+    public void testIdentity() {
+        final EventBatchMessageCodec codec = new EventBatchMessageCodec();
+        Assert.assertEquals(EventBatchMessageCodec.NAME, codec.name());
+        Assert.assertEquals(-1, codec.systemCodecID());
+    }
+
+    @Test
+    public void testBatch() {
+        final EventBatch batch = createBatch();
+        Assert.assertEquals(2, batch.getEvents().size());
+        Assert.assertEquals(batch, createBatch());
+        Assert.assertEquals(batch.hashCode(), createBatch().hashCode());
+        Assert.assertNotEquals(batch, new EventBatch(Collections.emptyList()));
+        Assert.assertNotEquals(batch, "This is a String");
+        Assert.assertFalse(batch.toString().isEmpty());
+    }
+
+    private static EventBatch createBatch() {
+        return new EventBatch(Arrays.asList(createEvent("foo"), createEvent("bar")));
+    }
+
+    private static Event createEvent(final String annotationValue) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("key", annotationValue))
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1.5))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+}
@@ -24,10 +24,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.common.collect.ImmutableMap;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -128,6 +144,605 @@ public final class EventBusSinkTest {
         Mockito.verify(eventBus).publish("sinkAddress", data);
     }
 
+    @Test
+    public void testRecordWithEventCodec() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setSinkAddress("sinkAddress")
+                .setUseEventCodec(true)
+                .build();
+        Mockito.verify(eventBus).registerCodec(Mockito.any(EventMessageCodec.class));
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(Collections.emptyMap())
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .setTimerSamples(Collections.emptyMap())
+                .build();
+        sink.record(event);
+        final ArgumentCaptor<DeliveryOptions> captor = ArgumentCaptor.forClass(DeliveryOptions.class);
+        Mockito.verify(eventBus).publish(Mockito.eq("sinkAddress"), Mockito.same(event), captor.capture());
+        Assert.assertEquals(EventMessageCodec.NAME, captor.getValue().getCodecName());
+    }
+
+    @Test
+    public void testRecordWithWireFormat() throws IOException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(vertx)
+                .setSinkAddress("sinkAddress")
+                .setWireFormat(new BinaryWireFormat())
+                .setMaxBatchSize(2)
+                .build();
+        final Event event1 = createEvent("foo");
+        final Event event2 = createEvent("bar");
+        sink.record(event1);
+        sink.record(event2);
+        final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(eventBus).publish(Mockito.eq("sinkAddress"), captor.capture());
+        final Buffer buffer = (Buffer) captor.getValue();
+        Assert.assertEquals(BinaryWireFormat.ID, buffer.getByte(0));
+        Assert.assertEquals(Arrays.asList(event1, event2), new BinaryWireFormat().decode(buffer, 1));
+    }
+
+    @Test
+    public void testRecordWithTimerHistograms() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setSinkAddress("sinkAddress")
+                .setUseEventCodec(true)
+                .setUseTimerHistograms(true)
+                .setTimerHistogramPrecision(4)
+                .build();
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("someAnnotationKey", "someAnnotationValue"))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Arrays.asList(SinkVerticle.DefaultQuantity.newInstance(1L), SinkVerticle.DefaultQuantity.newInstance(1L))))
+                .build();
+        sink.record(event);
+        final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(eventBus).publish(Mockito.eq("sinkAddress"), captor.capture(), Mockito.any(DeliveryOptions.class));
+        final AggregatedEvent published = (AggregatedEvent) captor.getValue();
+        Assert.assertEquals(event.getAnnotations(), published.getAnnotations());
+        final Histogram histogram = published.getTimerHistograms().get("timer");
+        Assert.assertEquals(4, histogram.getPrecision());
+        Assert.assertEquals(2, histogram.getCount());
+        Assert.assertEquals(1, histogram.getBucketCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInvalidTimerHistogramPrecision() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setTimerHistogramPrecision(53)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithWireFormatAndEventCodec() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setUseEventCodec(true)
+                .setWireFormat(new BinaryWireFormat())
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressFBWarnings(value = "NP_NONNULL_PARAM_VIOLATION", justification = "Itis what we're testing")
+    public void testConstructorWithNullUseEventCodec() {
+        new EventBusSink.Builder()
+            .setEventBus(Mockito.mock(EventBus.class))
+            .setUseEventCodec(null)
+            .build();
+    }
+
+    @Test
+    public void testRecordBatched() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        Mockito.doReturn(123L).when(vertx).setTimer(Mockito.anyLong(), Mockito.any());
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(vertx)
+                .setSinkAddress("sinkAddress")
+                .setMaxBatchSize(2)
+                .build();
+        final Event event1 = createEvent("foo");
+        final Event event2 = createEvent("bar");
+        sink.record(event1);
+        Mockito.verifyNoInteractions(eventBus);
+        sink.record(event2);
+        Mockito.verify(eventBus).publish("sinkAddress", OBJECT_MAPPER.writeValueAsString(Arrays.asList(event1, event2)));
+        Mockito.verify(vertx).setTimer(Mockito.eq(100L), Mockito.any());
+        Mockito.verify(vertx).cancelTimer(123L);
+    }
+
+    @Test
+    public void testRecordBatchedWithEventCodec() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(vertx)
+                .setSinkAddress("sinkAddress")
+                .setUseEventCodec(true)
+                .setMaxBatchSize(2)
+                .build();
+        Mockito.verify(eventBus).registerCodec(Mockito.any(EventBatchMessageCodec.class));
+        final Event event1 = createEvent("foo");
+        final Event event2 = createEvent("bar");
+        sink.record(event1);
+        sink.record(event2);
+        final ArgumentCaptor<DeliveryOptions> captor = ArgumentCaptor.forClass(DeliveryOptions.class);
+        Mockito.verify(eventBus).publish(
+                Mockito.eq("sinkAddress"),
+                Mockito.eq(new EventBatch(Arrays.asList(event1, event2))),
+                captor.capture());
+        Assert.assertEquals(EventBatchMessageCodec.NAME, captor.getValue().getCodecName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordBatchedLingerExpires() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(vertx)
+                .setSinkAddress("sinkAddress")
+                .setMaxBatchSize(10)
+                .setMaxBatchLinger(Duration.ofSeconds(1))
+                .build();
+        final Event event = createEvent("foo");
+        sink.record(event);
+        final ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+        Mockito.verify(vertx).setTimer(Mockito.eq(1000L), captor.capture());
+        captor.getValue().handle(1L);
+        captor.getValue().handle(1L);
+        Mockito.verify(eventBus).publish("sinkAddress", OBJECT_MAPPER.writeValueAsString(Collections.singletonList(event)));
+        Mockito.verifyNoMoreInteractions(eventBus);
+    }
+
+    @Test
+    public void testCloseFlushesBatch() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(vertx)
+                .setSinkAddress("sinkAddress")
+                .setMaxBatchSize(10)
+                .build();
+        final Event event1 = createEvent("foo");
+        final Event event2 = createEvent("bar");
+        sink.record(event1);
+        sink.close();
+        Mockito.verify(eventBus).publish("sinkAddress", OBJECT_MAPPER.writeValueAsString(Collections.singletonList(event1)));
+        sink.record(event2);
+        Mockito.verify(eventBus).publish("sinkAddress", OBJECT_MAPPER.writeValueAsString(event2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordCoalesced() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        Mockito.doReturn(123L).when(vertx).setTimer(Mockito.anyLong(), Mockito.any());
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(vertx)
+                .setSinkAddress("sinkAddress")
+                .setCoalesceWindow(Duration.ofMillis(50))
+                .build();
+        final Event event1 = createEvent("foo", 1);
+        final Event event2 = createEvent("bar", 2);
+        final Event event3 = createEvent("foo", 3);
+        sink.record(event1);
+        sink.record(event2);
+        sink.record(event3);
+        Mockito.verifyNoInteractions(eventBus);
+        final ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+        Mockito.verify(vertx).setTimer(Mockito.eq(50L), captor.capture());
+        captor.getValue().handle(123L);
+        // The timer has fired so it is not cancelled
+        Mockito.verify(vertx, Mockito.never()).cancelTimer(Mockito.anyLong());
+
+        final InOrder inOrder = Mockito.inOrder(eventBus);
+        inOrder.verify(eventBus).publish("sinkAddress", OBJECT_MAPPER.writeValueAsString(createEvent("foo", 4)));
+        inOrder.verify(eventBus).publish("sinkAddress", OBJECT_MAPPER.writeValueAsString(event2));
+        captor.getValue().handle(123L);
+        Mockito.verifyNoMoreInteractions(eventBus);
+    }
+
+    @Test
+    public void testCloseFlushesCoalescedBatch() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(vertx)
+                .setSinkAddress("sinkAddress")
+                .setCoalesceWindow(Duration.ofSeconds(1))
+                .setMaxBatchSize(10)
+                .build();
+        sink.record(createEvent("foo", 1));
+        sink.record(createEvent("foo", 2));
+        sink.record(createEvent("bar", 3));
+        sink.close();
+        Mockito.verify(eventBus).publish(
+                "sinkAddress",
+                OBJECT_MAPPER.writeValueAsString(Arrays.asList(createEvent("foo", 3), createEvent("bar", 3))));
+        final Event event = createEvent("baz", 1);
+        sink.record(event);
+        Mockito.verify(eventBus).publish("sinkAddress", OBJECT_MAPPER.writeValueAsString(event));
+    }
+
+    @Test
+    public void testCloseIdleCoalescingSinkDoesNotCancelTimer() {
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setVertx(vertx)
+                .setCoalesceWindow(Duration.ofSeconds(1))
+                .build();
+        sink.close();
+        Mockito.verify(vertx, Mockito.never()).cancelTimer(Mockito.anyLong());
+    }
+
+    @Test
+    public void testCloseCancelsPendingCoalesceTimer() {
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        Mockito.doReturn(0L).when(vertx).setTimer(Mockito.anyLong(), Mockito.any());
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setVertx(vertx)
+                .setCoalesceWindow(Duration.ofSeconds(1))
+                .build();
+        sink.record(createEvent("foo", 1));
+        sink.close();
+        Mockito.verify(vertx).cancelTimer(0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorCoalescingWithoutVertx() {
+        new EventBusSink.Builder()
+            .setEventBus(Mockito.mock(EventBus.class))
+            .setCoalesceWindow(Duration.ofMillis(50))
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInvalidCoalesceWindow() {
+        new EventBusSink.Builder()
+            .setEventBus(Mockito.mock(EventBus.class))
+            .setVertx(Mockito.mock(Vertx.class))
+            .setCoalesceWindow(Duration.ZERO)
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorBatchingWithoutVertx() {
+        new EventBusSink.Builder()
+            .setEventBus(Mockito.mock(EventBus.class))
+            .setMaxBatchSize(2)
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInvalidMaxBatchSize() {
+        new EventBusSink.Builder()
+            .setEventBus(Mockito.mock(EventBus.class))
+            .setMaxBatchSize(0)
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInvalidMaxBatchLinger() {
+        new EventBusSink.Builder()
+            .setEventBus(Mockito.mock(EventBus.class))
+            .setMaxBatchLinger(Duration.ZERO)
+            .build();
+    }
+
+    @Test
+    public void testRecordShardedRoundRobin() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setSinkAddress("sinkAddress")
+                .setShardCount(2)
+                .setShardSelection(EventBusSink.ShardSelection.ROUND_ROBIN)
+                .build();
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        final Event event3 = createEvent("value3");
+        sink.record(event1);
+        sink.record(event2);
+        sink.record(event3);
+        final InOrder inOrder = Mockito.inOrder(eventBus);
+        inOrder.verify(eventBus).publish("sinkAddress.0", OBJECT_MAPPER.writeValueAsString(event1));
+        inOrder.verify(eventBus).publish("sinkAddress.1", OBJECT_MAPPER.writeValueAsString(event2));
+        inOrder.verify(eventBus).publish("sinkAddress.0", OBJECT_MAPPER.writeValueAsString(event3));
+    }
+
+    @Test
+    public void testRecordShardedPerContextWithoutContext() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final Sink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setSinkAddress("sinkAddress")
+                .setShardCount(3)
+                .build();
+        for (int i = 0; i < 10; ++i) {
+            sink.record(createEvent("value" + i));
+        }
+        // Outside a Vertx context every event from a thread is published to the same shard
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(eventBus, Mockito.times(10)).publish(captor.capture(), Mockito.any());
+        Assert.assertEquals(1, captor.getAllValues().stream().distinct().count());
+        Assert.assertTrue(captor.getValue().matches("sinkAddress\\.[012]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInvalidShardCount() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setShardCount(-1)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressFBWarnings(value = "NP_NONNULL_PARAM_VIOLATION", justification = "It is what we're testing")
+    public void testConstructorWithNullShardSelection() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setShardSelection(null)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordDropNewestWhenInFlightBudgetExhausted() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final List<Promise<Message<Object>>> requests = stubRequests(eventBus);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(createVertx(Mockito.mock(Context.class)))
+                .setSinkAddress("sinkAddress")
+                .setMaxInFlight(2)
+                .setInFlightTimeout(Duration.ofSeconds(5))
+                .build();
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        final Event event3 = createEvent("value3");
+        final Event event4 = createEvent("value4");
+        sink.record(event1);
+        sink.record(event2);
+        sink.record(event3);
+        Assert.assertEquals(1, sink.getDroppedCount());
+        Assert.assertEquals(2, sink.getInFlightCount());
+
+        // The reply acknowledging the message releases it from the budget
+        requests.get(1).complete(Mockito.mock(Message.class));
+        Assert.assertEquals(1, sink.getInFlightCount());
+
+        sink.record(event4);
+        final ArgumentCaptor<DeliveryOptions> optionsCaptor = ArgumentCaptor.forClass(DeliveryOptions.class);
+        final InOrder inOrder = Mockito.inOrder(eventBus);
+        inOrder.verify(eventBus).request(
+                Mockito.eq("sinkAddress"), Mockito.eq(OBJECT_MAPPER.writeValueAsString(event1)), optionsCaptor.capture());
+        inOrder.verify(eventBus).request(
+                Mockito.eq("sinkAddress"), Mockito.eq(OBJECT_MAPPER.writeValueAsString(event2)), Mockito.any(DeliveryOptions.class));
+        inOrder.verify(eventBus).request(
+                Mockito.eq("sinkAddress"), Mockito.eq(OBJECT_MAPPER.writeValueAsString(event4)), Mockito.any(DeliveryOptions.class));
+        Mockito.verify(eventBus, Mockito.never()).request(
+                Mockito.eq("sinkAddress"), Mockito.eq(OBJECT_MAPPER.writeValueAsString(event3)), Mockito.any(DeliveryOptions.class));
+        Mockito.verify(eventBus, Mockito.never()).publish(Mockito.anyString(), Mockito.any(), Mockito.any(DeliveryOptions.class));
+        Assert.assertEquals(5000, optionsCaptor.getValue().getSendTimeout());
+        Assert.assertEquals(2, sink.getInFlightCount());
+        Assert.assertEquals(1, sink.getDroppedCount());
+        Assert.assertEquals(0, sink.getSampledCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordDropOldestWhenInFlightBudgetExhausted() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final List<Promise<Message<Object>>> requests = stubRequests(eventBus);
+        final Context context = Mockito.mock(Context.class);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(createVertx(context))
+                .setSinkAddress("sinkAddress")
+                .setMaxInFlight(1)
+                .setOverloadPolicy(EventBusSink.OverloadPolicy.DROP_OLDEST)
+                .build();
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        final Event event3 = createEvent("value3");
+        sink.record(event1);
+        sink.record(event2);
+        sink.record(event3);
+        Assert.assertEquals(1, sink.getDroppedCount());
+
+        // The held back event is not published on the thread handling the reply
+        requests.get(0).complete(Mockito.mock(Message.class));
+        Assert.assertEquals(0, sink.getInFlightCount());
+        Mockito.verify(eventBus, Mockito.times(1)).request(Mockito.anyString(), Mockito.any(), Mockito.any(DeliveryOptions.class));
+
+        // It is published on the context the sink was built on
+        final ArgumentCaptor<Handler<Void>> captor = ArgumentCaptor.forClass(Handler.class);
+        Mockito.verify(context).runOnContext(captor.capture());
+        captor.getValue().handle(null);
+        final InOrder inOrder = Mockito.inOrder(eventBus);
+        inOrder.verify(eventBus).request(
+                Mockito.eq("sinkAddress"), Mockito.eq(OBJECT_MAPPER.writeValueAsString(event1)), Mockito.any(DeliveryOptions.class));
+        inOrder.verify(eventBus).request(
+                Mockito.eq("sinkAddress"), Mockito.eq(OBJECT_MAPPER.writeValueAsString(event3)), Mockito.any(DeliveryOptions.class));
+        Mockito.verify(eventBus, Mockito.never()).request(
+                Mockito.eq("sinkAddress"), Mockito.eq(OBJECT_MAPPER.writeValueAsString(event2)), Mockito.any(DeliveryOptions.class));
+        Assert.assertEquals(1, sink.getInFlightCount());
+    }
+
+    @Test
+    public void testRecordSampleWhenInFlightBudgetExhausted() throws JsonProcessingException {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        stubRequests(eventBus);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(createVertx(Mockito.mock(Context.class)))
+                .setSinkAddress("sinkAddress")
+                .setMaxInFlight(4)
+                .setOverloadPolicy(EventBusSink.OverloadPolicy.SAMPLE)
+                .build();
+        for (int i = 0; i < 100; ++i) {
+            sink.record(createEvent("value" + i));
+        }
+
+        // Three events are sent below the sampling threshold and the fourth is sampled at one half
+        final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(eventBus, Mockito.times(4)).request(Mockito.eq("sinkAddress"), captor.capture(), Mockito.any(DeliveryOptions.class));
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertFalse(OBJECT_MAPPER.readTree(captor.getAllValues().get(i)).get("annotations").has("_sampleRate"));
+        }
+        Assert.assertEquals(
+                0.5,
+                OBJECT_MAPPER.readTree(captor.getAllValues().get(3)).get("annotations").get("_sampleRate").asDouble(),
+                0.0);
+        Assert.assertEquals(1, sink.getSampledCount());
+        Assert.assertEquals(96, sink.getDroppedCount());
+    }
+
+    @Test
+    public void testRecordReleasesInFlightBudgetOnTimeout() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final List<Promise<Message<Object>>> requests = stubRequests(eventBus);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(createVertx(Mockito.mock(Context.class)))
+                .setSinkAddress("sinkAddress")
+                .setMaxInFlight(1)
+                .build();
+        sink.record(createEvent("value1"));
+        requests.get(0).fail(new ReplyException(ReplyFailure.TIMEOUT, "Timed out"));
+        sink.record(createEvent("value2"));
+        Mockito.verify(eventBus, Mockito.times(2)).request(Mockito.eq("sinkAddress"), Mockito.any(), Mockito.any(DeliveryOptions.class));
+        Assert.assertEquals(0, sink.getDroppedCount());
+        Assert.assertEquals(1, sink.getInFlightCount());
+    }
+
+    @Test
+    public void testCloseBypassesInFlightBudget() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        stubRequests(eventBus);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setVertx(createVertx(Mockito.mock(Context.class)))
+                .setMaxInFlight(1)
+                .setOverloadPolicy(EventBusSink.OverloadPolicy.DROP_OLDEST)
+                .build();
+        sink.record(createEvent("value1"));
+        sink.record(createEvent("value2"));
+        sink.close();
+
+        // Held back events and events recorded after close are published outside the budget
+        sink.record(createEvent("value3"));
+        sink.record(createEvent("value4"));
+        Mockito.verify(eventBus, Mockito.times(1)).request(Mockito.anyString(), Mockito.any(), Mockito.any(DeliveryOptions.class));
+        Mockito.verify(eventBus, Mockito.times(3)).publish(Mockito.anyString(), Mockito.any());
+        Assert.assertEquals(0, sink.getDroppedCount());
+        Assert.assertEquals(1, sink.getInFlightCount());
+    }
+
+    @Test
+    public void testInFlightBudgetDisabledByDefault() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .build();
+        for (int i = 0; i < 10; ++i) {
+            sink.record(createEvent("value" + i));
+        }
+        Mockito.verify(eventBus, Mockito.never()).request(Mockito.anyString(), Mockito.any(), Mockito.any(DeliveryOptions.class));
+        Mockito.verify(eventBus, Mockito.times(10)).publish(Mockito.anyString(), Mockito.any());
+        Assert.assertEquals(0, sink.getDroppedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInFlightBudgetWithoutVertx() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setMaxInFlight(1)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInvalidMaxInFlight() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setMaxInFlight(-1)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressFBWarnings(value = "NP_NONNULL_PARAM_VIOLATION", justification = "It is what we're testing")
+    public void testConstructorWithNullOverloadPolicy() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setOverloadPolicy(null)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithInvalidInFlightTimeout() {
+        new EventBusSink.Builder()
+                .setEventBus(Mockito.mock(EventBus.class))
+                .setInFlightTimeout(Duration.ZERO)
+                .build();
+    }
+
+    private static List<Promise<Message<Object>>> stubRequests(final EventBus eventBus) {
+        final List<Promise<Message<Object>>> requests = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            final Promise<Message<Object>> promise = Promise.promise();
+            requests.add(promise);
+            return promise.future();
+        }).when(eventBus).request(Mockito.anyString(), Mockito.any(), Mockito.any(DeliveryOptions.class));
+        return requests;
+    }
+
+    private static Vertx createVertx(final Context context) {
+        final Vertx vertx = Mockito.mock(Vertx.class);
+        Mockito.doReturn(context).when(vertx).getOrCreateContext();
+        return vertx;
+    }
+
+    private static Event createEvent(final String annotationValue) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("someAnnotationKey", annotationValue))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .setTimerSamples(Collections.emptyMap())
+                .build();
+    }
+
+    private static Event createEvent(final String annotationValue, final long counterValue) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("someAnnotationKey", annotationValue))
+                .setCounterSamples(ImmutableMap.of(
+                        "someCounterKey",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(counterValue))))
+                .setGaugeSamples(Collections.emptyMap())
+                .setTimerSamples(Collections.emptyMap())
+                .build();
+    }
+
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     static {
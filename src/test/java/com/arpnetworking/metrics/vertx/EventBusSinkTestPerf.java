@@ -0,0 +1,108 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.vertx.test.BenchmarkEvents;
+import com.arpnetworking.metrics.vertx.test.BenchmarkRunner;
+import io.vertx.core.Vertx;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performance tests of {@link EventBusSink#record(Event)}. No consumer is
+ * registered so these measure serializing, or wrapping, and publishing the
+ * event.
+ *
+ * @author agent (agent at local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventBusSinkTestPerf {
+
+    @Test
+    public void test() throws RunnerException, IOException {
+        BenchmarkRunner.run(EventBusSinkTestPerf.class);
+    }
+
+    @Setup
+    public void setUp() {
+        _vertx = Vertx.vertx();
+        _event = BenchmarkEvents.createEvent(_size);
+        _jsonSink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .build();
+        _codecSink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setUseEventCodec(true)
+                .build();
+        _jsonBufferSink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setWireFormat(new JsonWireFormat())
+                .build();
+        _binarySink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setWireFormat(new BinaryWireFormat())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        _vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void recordJson() {
+        _jsonSink.record(_event);
+    }
+
+    @Benchmark
+    public void recordJsonBuffer() {
+        _jsonBufferSink.record(_event);
+    }
+
+    @Benchmark
+    public void recordCodec() {
+        _codecSink.record(_event);
+    }
+
+    @Benchmark
+    public void recordBinary() {
+        _binarySink.record(_event);
+    }
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private BenchmarkEvents.EventSize _size;
+    private Vertx _vertx;
+    private Event _event;
+    private EventBusSink _jsonSink;
+    private EventBusSink _jsonBufferSink;
+    private EventBusSink _codecSink;
+    private EventBusSink _binarySink;
+}
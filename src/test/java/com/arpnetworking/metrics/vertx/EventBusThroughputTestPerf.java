@@ -0,0 +1,125 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.arpnetworking.metrics.vertx.test.BenchmarkEvents;
+import com.arpnetworking.metrics.vertx.test.BenchmarkRunner;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Performance tests of the end-to-end throughput of events recorded to an
+ * {@link EventBusSink} and recorded to a sink by a {@link SinkVerticle} on an
+ * embedded {@link Vertx} instance. Each invocation records a batch of events
+ * and waits until all of them have been recorded to the sink.
+ *
+ * @author agent (agent at local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventBusThroughputTestPerf {
+
+    @Test
+    public void test() throws RunnerException, IOException {
+        BenchmarkRunner.run(EventBusThroughputTestPerf.class);
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        _vertx = Vertx.vertx();
+        _event = BenchmarkEvents.createEvent(_size);
+        final AtomicLong recorded = _recorded;
+        _vertx.deployVerticle(
+                () -> new CountingSinkVerticle(recorded),
+                new DeploymentOptions().setConfig(new JsonObject().put("sinkAddress", SINK_ADDRESS)))
+                .toCompletionStage()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        _sink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setSinkAddress(SINK_ADDRESS)
+                .setUseEventCodec(_useEventCodec)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        _vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void recordBatch() {
+        final long target = _recorded.get() + BATCH_SIZE;
+        for (int i = 0; i < BATCH_SIZE; ++i) {
+            _sink.record(_event);
+        }
+        while (_recorded.get() < target) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private BenchmarkEvents.EventSize _size;
+    @Param({"false", "true"})
+    private boolean _useEventCodec;
+    private Vertx _vertx;
+    private Event _event;
+    private EventBusSink _sink;
+    private final AtomicLong _recorded = new AtomicLong();
+
+    private static final String SINK_ADDRESS = "metrics.sink.benchmark";
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Sink verticle counting the events recorded.
+     */
+    private static final class CountingSinkVerticle extends SinkVerticle {
+
+        CountingSinkVerticle(final AtomicLong recorded) {
+            _recorded = recorded;
+        }
+
+        @Override
+        protected List<Sink> createSinks() {
+            return Collections.singletonList(event -> _recorded.incrementAndGet());
+        }
+
+        private final AtomicLong _recorded;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link EventCoalescer}.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventCoalescerTest {
+
+    @Test
+    public void testFlushEmpty() {
+        final EventCoalescer coalescer = new EventCoalescer();
+        Assert.assertTrue(coalescer.isEmpty());
+        Assert.assertTrue(coalescer.flush().isEmpty());
+    }
+
+    @Test
+    public void testCoalesce() {
+        final EventCoalescer coalescer = new EventCoalescer();
+        coalescer.record(createEvent(
+                "1", "host1", "2026-01-01T00:00:01Z", "2026-01-01T00:00:02Z",
+                Arrays.asList(1L, 2L), Arrays.asList(1L, 2L), Collections.singletonList(5L)));
+        Assert.assertFalse(coalescer.isEmpty());
+        coalescer.record(createEvent(
+                "2", "host1", "2026-01-01T00:00:00.500Z", "2026-01-01T00:00:01.500Z",
+                Collections.singletonList(3L), Collections.singletonList(4.5), Arrays.asList(3L, 7L)));
+        final List<Event> events = coalescer.flush();
+        Assert.assertEquals(1, events.size());
+        Assert.assertTrue(coalescer.isEmpty());
+
+        final Event event = events.get(0);
+        Assert.assertEquals("1", event.getAnnotations().get("_id"));
+        Assert.assertEquals("host1", event.getAnnotations().get("_host"));
+        Assert.assertEquals(Instant.parse("2026-01-01T00:00:00.500Z"), Instant.parse(event.getAnnotations().get("_start")));
+        Assert.assertEquals(Instant.parse("2026-01-01T00:00:02Z"), Instant.parse(event.getAnnotations().get("_end")));
+        Assert.assertEquals(toQuantities(Arrays.asList(1L, 2L, 3L)), event.getTimerSamples().get("timer"));
+        Assert.assertEquals(toQuantities(Collections.singletonList(7.5)), event.getCounterSamples().get("counter"));
+        Assert.assertEquals(toQuantities(Arrays.asList(5L, 3L, 7L)), event.getGaugeSamples().get("gauge"));
+    }
+
+    @Test
+    public void testCoalesceByAnnotations() {
+        final EventCoalescer coalescer = new EventCoalescer();
+        final Event event1 = createEvent(
+                "1", "host1", "2026-01-01T00:00:00Z", "2026-01-01T00:00:01Z",
+                Collections.singletonList(1L), Collections.singletonList(1L), Collections.emptyList());
+        final Event event2 = createEvent(
+                "2", "host2", "2026-01-01T00:00:00Z", "2026-01-01T00:00:01Z",
+                Collections.singletonList(2L), Collections.singletonList(2L), Collections.emptyList());
+        final Event event3 = createEvent(
+                "3", "host1", "2026-01-01T00:00:00Z", "2026-01-01T00:00:01Z",
+                Collections.singletonList(3L), Collections.singletonList(3L), Collections.emptyList());
+        coalescer.record(event1);
+        coalescer.record(event2);
+        coalescer.record(event3);
+        final List<Event> events = coalescer.flush();
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals("host1", events.get(0).getAnnotations().get("_host"));
+        Assert.assertEquals(toQuantities(Arrays.asList(1L, 3L)), events.get(0).getTimerSamples().get("timer"));
+        Assert.assertEquals(toQuantities(Collections.singletonList(4L)), events.get(0).getCounterSamples().get("counter"));
+        // An event which was not merged is returned as is
+        Assert.assertSame(event2, events.get(1));
+    }
+
+    @Test
+    public void testCoalesceDisjointMetrics() {
+        final EventCoalescer coalescer = new EventCoalescer();
+        final Map<String, String> annotations = ImmutableMap.of("_host", "host1");
+        coalescer.record(new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(annotations)
+                .setTimerSamples(ImmutableMap.of("timer1", toQuantities(Collections.singletonList(1L))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build());
+        coalescer.record(new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(annotations)
+                .setTimerSamples(ImmutableMap.of("timer2", toQuantities(Collections.singletonList(2L))))
+                .setCounterSamples(ImmutableMap.of("counter", Arrays.asList(null, SinkVerticle.DefaultQuantity.newInstance(3L))))
+                .setGaugeSamples(Collections.emptyMap())
+                .build());
+        final List<Event> events = coalescer.flush();
+        Assert.assertEquals(1, events.size());
+        final Event event = events.get(0);
+        Assert.assertEquals(annotations, event.getAnnotations());
+        Assert.assertEquals(toQuantities(Collections.singletonList(1L)), event.getTimerSamples().get("timer1"));
+        Assert.assertEquals(toQuantities(Collections.singletonList(2L)), event.getTimerSamples().get("timer2"));
+        Assert.assertEquals(toQuantities(Collections.singletonList(3L)), event.getCounterSamples().get("counter"));
+    }
+
+    private static Event createEvent(
+            final String id,
+            final String host,
+            final String start,
+            final String end,
+            final List<? extends Number> timers,
+            final List<? extends Number> counters,
+            final List<? extends Number> gauges) {
+        final Map<String, String> annotations = new LinkedHashMap<>();
+        annotations.put("_id", id);
+        annotations.put("_start", start);
+        annotations.put("_end", end);
+        annotations.put("_host", host);
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(annotations)
+                .setTimerSamples(ImmutableMap.of("timer", toQuantities(timers)))
+                .setCounterSamples(ImmutableMap.of("counter", toQuantities(counters)))
+                .setGaugeSamples(ImmutableMap.of("gauge", toQuantities(gauges)))
+                .build();
+    }
+
+    private static List<Quantity> toQuantities(final List<? extends Number> values) {
+        final Quantity[] quantities = new Quantity[values.size()];
+        for (int i = 0; i < quantities.length; ++i) {
+            quantities[i] = SinkVerticle.DefaultQuantity.newInstance(values.get(i));
+        }
+        return Arrays.asList(quantities);
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link EventMessageCodec}.
+ *
+ * @author agent (agent at local)
+ */
+public final class EventMessageCodecTest {
+
+    @Test
+    public void testTransformReturnsSameInstance() {
+        final Event event = createEvent();
+        Assert.assertSame(event, new EventMessageCodec().transform(event));
+    }
+
+    @Test
+    public void testWireRoundTrip() {
+        final Event event = createEvent();
+        final EventMessageCodec codec = new EventMessageCodec();
+        final Buffer buffer = Buffer.buffer();
+        buffer.appendString("prefix");
+        codec.encodeToWire(buffer, event);
+        Assert.assertEquals(event, codec.decodeFromWire(6, buffer));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalidData() {
+        final Buffer buffer = Buffer.buffer();
+        buffer.appendInt(2);
+        buffer.appendString("{]");
+        new EventMessageCodec().decodeFromWire(0, buffer);
+    }
+
+    @Test
+    public void testIdentity() {
+        final EventMessageCodec codec = new EventMessageCodec();
+        Assert.assertEquals(EventMessageCodec.NAME, codec.name());
+        Assert.assertEquals(-1, codec.systemCodecID());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRegisterTwice() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        Mockito.doReturn(eventBus)
+                .doThrow(new IllegalStateException("Already registered"))
+                .when(eventBus).registerCodec(Mockito.any(MessageCodec.class));
+        EventMessageCodec.register(eventBus);
+        EventMessageCodec.register(eventBus);
+        Mockito.verify(eventBus, Mockito.times(2)).registerCodec(Mockito.any(EventMessageCodec.class));
+    }
+
+    private static Event createEvent() {
+        final Map<String, List<Quantity>> timerSamples = ImmutableMap.of(
+                "timer",
+                Arrays.asList(
+                        SinkVerticle.DefaultQuantity.newInstance(100),
+                        SinkVerticle.DefaultQuantity.newInstance(1.5)));
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("foo", "bar"))
+                .setTimerSamples(timerSamples)
+                .setCounterSamples(ImmutableMap.of(
+                        "counter",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1))))
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Histogram}.
+ *
+ * @author agent (agent at local)
+ */
+public final class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final Histogram histogram = new Histogram();
+        Assert.assertEquals(7, histogram.getPrecision());
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0.0, histogram.getSum(), 0.0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, histogram.getMin(), 0.0);
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, histogram.getMax(), 0.0);
+        Assert.assertEquals(0, histogram.getBuckets().size());
+    }
+
+    @Test
+    public void testRecord() {
+        final Histogram histogram = new Histogram();
+        histogram.record(1.0);
+        histogram.record(1.0);
+        histogram.record(-2.5, 3);
+        histogram.record(0.0);
+        Assert.assertEquals(6, histogram.getCount());
+        Assert.assertEquals(-5.5, histogram.getSum(), 0.0);
+        Assert.assertEquals(-2.5, histogram.getMin(), 0.0);
+        Assert.assertEquals(1.0, histogram.getMax(), 0.0);
+        Assert.assertEquals(3, histogram.getBucketCount());
+
+        final Histogram.Buckets buckets = histogram.getBuckets();
+        Assert.assertEquals(3, buckets.size());
+        Assert.assertEquals(-2.5, buckets.getValue(0), 0.0);
+        Assert.assertEquals(3, buckets.getCount(0));
+        Assert.assertEquals(0.0, buckets.getValue(1), 0.0);
+        Assert.assertEquals(1, buckets.getCount(1));
+        Assert.assertEquals(1.0, buckets.getValue(2), 0.0);
+        Assert.assertEquals(2, buckets.getCount(2));
+    }
+
+    @Test
+    public void testPrecision() {
+        final Histogram histogram = new Histogram(2);
+        // With two bits of mantissa the buckets in [1, 2) are 1, 1.25, 1.5 and 1.75
+        histogram.record(1.1);
+        histogram.record(1.2);
+        histogram.record(1.3);
+        histogram.record(1.99);
+        final Histogram.Buckets buckets = histogram.getBuckets();
+        Assert.assertEquals(3, buckets.size());
+        Assert.assertEquals(1.0, buckets.getValue(0), 0.0);
+        Assert.assertEquals(2, buckets.getCount(0));
+        Assert.assertEquals(1.25, buckets.getValue(1), 0.0);
+        Assert.assertEquals(1.75, buckets.getValue(2), 0.0);
+    }
+
+    @Test
+    public void testRelativeError() {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 10000; ++i) {
+            final double value = i * 0.37;
+            final Histogram single = new Histogram();
+            single.record(value);
+            final double bucket = single.getBuckets().getValue(0);
+            Assert.assertTrue(bucket <= value);
+            Assert.assertTrue((value - bucket) / value < 1.0 / 128);
+            histogram.record(value);
+        }
+        final Histogram.Buckets buckets = histogram.getBuckets();
+        long count = 0;
+        for (int i = 0; i < buckets.size(); ++i) {
+            count += buckets.getCount(i);
+        }
+        Assert.assertEquals(10000, count);
+        Assert.assertTrue(buckets.size() < 2000);
+    }
+
+    @Test
+    public void testMerge() {
+        final Histogram histogram = new Histogram();
+        final Histogram other = new Histogram();
+        final Histogram expected = new Histogram();
+        for (int i = 0; i < 1000; ++i) {
+            histogram.record(i);
+            expected.record(i);
+            other.record(i * 10);
+            expected.record(i * 10);
+        }
+        histogram.merge(other);
+        Assert.assertEquals(expected.getCount(), histogram.getCount());
+        Assert.assertEquals(expected.getSum(), histogram.getSum(), 0.0);
+        Assert.assertEquals(expected.getMin(), histogram.getMin(), 0.0);
+        Assert.assertEquals(expected.getMax(), histogram.getMax(), 0.0);
+        final Histogram.Buckets expectedBuckets = expected.getBuckets();
+        final Histogram.Buckets actualBuckets = histogram.getBuckets();
+        Assert.assertEquals(expectedBuckets.size(), actualBuckets.size());
+        for (int i = 0; i < expectedBuckets.size(); ++i) {
+            Assert.assertEquals(expectedBuckets.getValue(i), actualBuckets.getValue(i), 0.0);
+            Assert.assertEquals(expectedBuckets.getCount(i), actualBuckets.getCount(i));
+        }
+    }
+
+    @Test
+    public void testRestore() {
+        final Histogram histogram = new Histogram();
+        for (int i = 0; i < 1000; ++i) {
+            histogram.record(i * 1.5);
+        }
+        final Histogram.Buckets buckets = histogram.getBuckets();
+        final double[] values = new double[buckets.size()];
+        final long[] counts = new long[buckets.size()];
+        for (int i = 0; i < buckets.size(); ++i) {
+            values[i] = buckets.getValue(i);
+            counts[i] = buckets.getCount(i);
+        }
+        final Histogram restored = new Histogram(
+                histogram.getPrecision(),
+                values,
+                counts,
+                histogram.getSum(),
+                histogram.getMin(),
+                histogram.getMax());
+        Assert.assertEquals(histogram.getCount(), restored.getCount());
+        Assert.assertEquals(histogram.getSum(), restored.getSum(), 0.0);
+        Assert.assertEquals(histogram.getMin(), restored.getMin(), 0.0);
+        Assert.assertEquals(histogram.getMax(), restored.getMax(), 0.0);
+        Assert.assertEquals(histogram.getBucketCount(), restored.getBucketCount());
+        final Histogram.Buckets restoredBuckets = restored.getBuckets();
+        for (int i = 0; i < buckets.size(); ++i) {
+            Assert.assertEquals(buckets.getValue(i), restoredBuckets.getValue(i), 0.0);
+            Assert.assertEquals(buckets.getCount(i), restoredBuckets.getCount(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRestoreInvalidCount() {
+        new Histogram(7, new double[] {1.0}, new long[] {0}, 0.0, 1.0, 1.0);
+    }
+
+    @Test
+    public void testMergeFinerPrecision() {
+        final Histogram histogram = new Histogram(7);
+        final Histogram other = new Histogram(9);
+        final Histogram expected = new Histogram(7);
+        for (int i = 0; i < 1000; ++i) {
+            other.record(i * 1.5);
+            expected.record(i * 1.5);
+        }
+        histogram.merge(other);
+        Assert.assertEquals(expected.getCount(), histogram.getCount());
+        Assert.assertEquals(expected.getSum(), histogram.getSum(), 0.0);
+        Assert.assertEquals(expected.getMin(), histogram.getMin(), 0.0);
+        Assert.assertEquals(expected.getMax(), histogram.getMax(), 0.0);
+        final Histogram.Buckets expectedBuckets = expected.getBuckets();
+        final Histogram.Buckets actualBuckets = histogram.getBuckets();
+        Assert.assertEquals(expectedBuckets.size(), actualBuckets.size());
+        for (int i = 0; i < expectedBuckets.size(); ++i) {
+            Assert.assertEquals(expectedBuckets.getValue(i), actualBuckets.getValue(i), 0.0);
+            Assert.assertEquals(expectedBuckets.getCount(i), actualBuckets.getCount(i));
+        }
+    }
+
+    @Test
+    public void testMergeCoarserPrecision() {
+        final Histogram histogram = new Histogram(9);
+        final Histogram other = new Histogram(2);
+        other.record(100.0, 3);
+        other.record(120.0);
+        histogram.merge(other);
+        Assert.assertEquals(4, histogram.getCount());
+        Assert.assertEquals(420.0, histogram.getSum(), 0.0);
+        Assert.assertEquals(100.0, histogram.getMin(), 0.0);
+        Assert.assertEquals(120.0, histogram.getMax(), 0.0);
+        // Re-bucketed by the midpoints of the buckets [96, 112) and [112, 128) limited to the maximum
+        final Histogram.Buckets buckets = histogram.getBuckets();
+        Assert.assertEquals(2, buckets.size());
+        Assert.assertEquals(104.0, buckets.getValue(0), 0.0);
+        Assert.assertEquals(3, buckets.getCount(0));
+        Assert.assertEquals(120.0, buckets.getValue(1), 0.0);
+        Assert.assertEquals(1, buckets.getCount(1));
+    }
+
+    @Test
+    public void testQuantile() {
+        final Histogram histogram = new Histogram(52);
+        Assert.assertTrue(Double.isNaN(histogram.getQuantile(0.5)));
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(1.0, histogram.getQuantile(0.0), 0.0);
+        Assert.assertEquals(50.0, histogram.getQuantile(0.5), 0.0);
+        Assert.assertEquals(99.0, histogram.getQuantile(0.99), 0.0);
+        Assert.assertEquals(100.0, histogram.getQuantile(1.0), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        new Histogram().getQuantile(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrecision() {
+        new Histogram(53);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCount() {
+        new Histogram().record(1.0, 0);
+    }
+
+    @Test
+    public void testToString() {
+        final String asString = new Histogram().toString();
+        Assert.assertNotNull(asString);
+        Assert.assertFalse(asString.isEmpty());
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.vertx.test.TestEvents;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpVersion;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Tests for {@link HttpSink}.
+ *
+ * @author agent (agent at local)
+ */
+public final class HttpSinkTest {
+
+    @Before
+    public void setUp() {
+        _vertx = Vertx.vertx();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testBatchedCompressed() throws Exception {
+        final ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+        final int port = listen(request -> request.body().onSuccess(body -> {
+            received.add(new Received(request, body));
+            request.response().end();
+        }));
+        final HttpSink sink = createSinkBuilder(port)
+                .setMaxBatchSize(3)
+                .build();
+        for (int i = 0; i < 6; ++i) {
+            sink.record(TestEvents.createEvent(i));
+        }
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(2, received.size());
+        final List<String> indexes = new ArrayList<>();
+        for (final Received request : received) {
+            Assert.assertEquals("gzip", request._contentEncoding);
+            Assert.assertEquals("application/json", request._contentType);
+            final List<Event> events = readEvents(request._body, true);
+            Assert.assertEquals(3, events.size());
+            for (final Event event : events) {
+                TestEvents.assertRoundTrip(TestEvents.createEvent(Integer.parseInt(event.getAnnotations().get("index"))), event);
+            }
+            indexes.addAll(TestEvents.getIndexes(events));
+        }
+        Collections.sort(indexes);
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), indexes);
+        Assert.assertEquals(0, sink.getDroppedCount());
+        Assert.assertEquals(0, sink.getFailedCount());
+    }
+
+    @Test
+    public void testLingerExpiresUncompressed() throws Exception {
+        final ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+        final int port = listen(request -> request.body().onSuccess(body -> {
+            received.add(new Received(request, body));
+            request.response().end();
+        }));
+        final HttpSink sink = createSinkBuilder(port)
+                .setCompress(false)
+                .setMaxBatchLinger(Duration.ofMillis(20))
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        awaitSize(received, 1);
+
+        final Received request = received.peek();
+        Assert.assertNull(request._contentEncoding);
+        Assert.assertEquals(Collections.singletonList("0"), TestEvents.getIndexes(readEvents(request._body, false)));
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testRetryOnServerError() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+        final int port = listen(request -> request.body().onSuccess(body -> {
+            if (attempts.incrementAndGet() < 3) {
+                request.response().setStatusCode(attempts.get() == 1 ? 503 : 429).end();
+            } else {
+                received.add(new Received(request, body));
+                request.response().end();
+            }
+        }));
+        final HttpSink sink = createSinkBuilder(port)
+                .setMaxRetries(2)
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(Collections.singletonList("0"), TestEvents.getIndexes(readEvents(received.peek()._body, true)));
+        Assert.assertEquals(0, sink.getFailedCount());
+    }
+
+    @Test
+    public void testRetriesExhausted() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final int port = listen(request -> request.body().onSuccess(body -> {
+            attempts.incrementAndGet();
+            request.response().setStatusCode(500).end();
+        }));
+        final HttpSink sink = createSinkBuilder(port)
+                .setMaxRetries(2)
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        sink.record(TestEvents.createEvent(1));
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(2, sink.getFailedCount());
+    }
+
+    @Test
+    public void testNoRetryOnClientError() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final int port = listen(request -> request.body().onSuccess(body -> {
+            attempts.incrementAndGet();
+            request.response().setStatusCode(400).end();
+        }));
+        final HttpSink sink = createSinkBuilder(port).build();
+        sink.record(TestEvents.createEvent(0));
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, attempts.get());
+        Assert.assertEquals(1, sink.getFailedCount());
+    }
+
+    @Test
+    public void testInFlightCap() throws Exception {
+        final ConcurrentLinkedQueue<HttpServerRequest> held = new ConcurrentLinkedQueue<>();
+        final AtomicInteger completed = new AtomicInteger();
+        final int port = listen(request -> request.body().onSuccess(body -> {
+            if (held.size() < 1 && completed.get() == 0) {
+                // Hold the first request until released
+                held.add(request);
+            } else {
+                completed.incrementAndGet();
+                request.response().end();
+            }
+        }));
+        final HttpSink sink = createSinkBuilder(port)
+                .setMaxBatchSize(1)
+                .setMaxInFlight(1)
+                .setMaxQueuedBatches(1)
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        awaitSize(held, 1);
+        sink.record(TestEvents.createEvent(1));
+        sink.record(TestEvents.createEvent(2));
+        Assert.assertEquals(1, sink.getDroppedCount());
+        Assert.assertEquals(0, completed.get());
+
+        final HttpServerRequest request = held.poll();
+        completed.incrementAndGet();
+        request.response().end();
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(2, completed.get());
+        Assert.assertEquals(1, sink.getDroppedCount());
+    }
+
+    @Test
+    public void testHttp2() throws Exception {
+        final ConcurrentLinkedQueue<HttpVersion> versions = new ConcurrentLinkedQueue<>();
+        final int port = listen(request -> request.body().onSuccess(body -> {
+            versions.add(request.version());
+            request.response().end();
+        }));
+        final HttpSink sink = createSinkBuilder(port)
+                .setUseHttp2(true)
+                .setMaxBatchSize(1)
+                .build();
+        sink.record(TestEvents.createEvent(0));
+        sink.record(TestEvents.createEvent(1));
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList(HttpVersion.HTTP_2, HttpVersion.HTTP_2), new ArrayList<>(versions));
+    }
+
+    @Test
+    public void testRecordAfterCloseDropped() throws Exception {
+        final HttpSink sink = createSinkBuilder(1).build();
+        sink.closeAsync().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        sink.record(TestEvents.createEvent(0));
+        Assert.assertEquals(1, sink.getDroppedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithoutUri() {
+        new HttpSink.Builder().setVertx(_vertx).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithInvalidMaxInFlight() {
+        createSinkBuilder(1).setMaxInFlight(0).build();
+    }
+
+    private int listen(final Handler<HttpServerRequest> handler) throws Exception {
+        final HttpServer server = _vertx.createHttpServer()
+                .requestHandler(handler)
+                .listen(0)
+                .toCompletionStage()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        return server.actualPort();
+    }
+
+    private HttpSink.Builder createSinkBuilder(final int port) {
+        return new HttpSink.Builder()
+                .setVertx(_vertx)
+                .setUri("http://localhost:" + port + "/metrics")
+                .setRetryBackoff(Duration.ofMillis(10));
+    }
+
+    private static void awaitSize(final ConcurrentLinkedQueue<?> queue, final int size) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (queue.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(size, queue.size());
+    }
+
+    private static List<Event> readEvents(final Buffer body, final boolean compressed) throws IOException {
+        if (!compressed) {
+            return TestEvents.decode(Collections.singletonList(body.toString(StandardCharsets.UTF_8)));
+        }
+        try (InputStream stream = new GZIPInputStream(new ByteArrayInputStream(body.getBytes()))) {
+            return TestEvents.decode(Collections.singletonList(Buffer.buffer(stream.readAllBytes()).toString(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private Vertx _vertx;
+
+    private static final class Received {
+
+        Received(final HttpServerRequest request, final Buffer body) {
+            _contentEncoding = request.getHeader("Content-Encoding");
+            _contentType = request.getHeader("Content-Type");
+            _body = body;
+        }
+
+        private final String _contentEncoding;
+        private final String _contentType;
+        private final Buffer _body;
+    }
+}
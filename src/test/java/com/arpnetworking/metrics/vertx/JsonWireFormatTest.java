@@ -0,0 +1,96 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link JsonWireFormat}.
+ *
+ * @author agent (agent at local)
+ */
+public final class JsonWireFormatTest {
+
+    @Test
+    public void testEncodeSingleEvent() throws IOException {
+        final Event event = createEvent("value1");
+        final Buffer buffer = Buffer.buffer();
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        Assert.assertEquals(OBJECT_MAPPER.writeValueAsString(event), buffer.toString());
+        Assert.assertEquals(Collections.singletonList(event), _wireFormat.decode(buffer, 0));
+    }
+
+    @Test
+    public void testEncodeEvents() throws IOException {
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        final Buffer buffer = Buffer.buffer().appendByte(JsonWireFormat.ID);
+        _wireFormat.encode(Arrays.asList(event1, event2), buffer);
+        Assert.assertEquals(Arrays.asList(event1, event2), _wireFormat.decode(buffer, 1));
+    }
+
+    @Test
+    public void testRoundTripLargeEvent() throws IOException {
+        // Larger than the chunks the parser reads and the generator writes, with multi-byte characters
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 10000; ++i) {
+            value.append("v\u00e4l\u20ac");
+        }
+        final Event event = createEvent(value.toString());
+        final Buffer buffer = Buffer.buffer().appendByte(JsonWireFormat.ID);
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        Assert.assertEquals(OBJECT_MAPPER.writeValueAsString(event), buffer.getString(1, buffer.length(), "UTF-8"));
+        Assert.assertEquals(Collections.singletonList(event), _wireFormat.decode(buffer, 1));
+    }
+
+    @Test
+    public void testDecodeWithStringDecoder() throws IOException {
+        final EventDecoder stringDecoder = new DatabindEventDecoder()::decode;
+        final Event event = createEvent("v\u00e4lue");
+        final Buffer buffer = Buffer.buffer().appendByte(JsonWireFormat.ID);
+        _wireFormat.encode(Collections.singletonList(event), buffer);
+        Assert.assertEquals(Collections.singletonList(event), new JsonWireFormat(stringDecoder).decode(buffer, 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeInvalid() throws IOException {
+        _wireFormat.decode(Buffer.buffer("{\"someKey\":\"someValue\"}"), 0);
+    }
+
+    private static Event createEvent(final String annotationValue) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("someAnnotationKey", annotationValue))
+                .setTimerSamples(ImmutableMap.of(
+                        "timerSamples",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(100))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+
+    private final JsonWireFormat _wireFormat = new JsonWireFormat();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link LazyEventDecoder} and {@link LazyEvent}.
+ *
+ * @author agent (agent at local)
+ */
+public final class LazyEventDecoderTest {
+
+    @Test
+    public void testDecodeEqualToStreaming() throws IOException {
+        final String json = OBJECT_MAPPER.writeValueAsString(Arrays.asList(createEvent("host1"), createEvent("host2")));
+        final List<Event> expected = new StreamingEventDecoder().decode(json);
+        final List<Event> events = new LazyEventDecoder().decode(json);
+        Assert.assertEquals(expected.size(), events.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertSectionsEqual(expected.get(i), events.get(i));
+        }
+        Assert.assertEquals(events, new LazyEventDecoder().decode(json));
+        Assert.assertEquals(events.hashCode(), new LazyEventDecoder().decode(json).hashCode());
+    }
+
+    @Test
+    public void testDecodeSectionsOnAccess() throws IOException {
+        final String json = OBJECT_MAPPER.writeValueAsString(createEvent("host1"));
+        final LazyEvent event = (LazyEvent) new LazyEventDecoder().decode(json).get(0);
+        for (int section = 0; section < LazyEvent.SECTION_COUNT; ++section) {
+            Assert.assertFalse(event.isDecoded(section));
+        }
+        final Map<String, String> annotations = event.getAnnotations();
+        Assert.assertEquals("host1", annotations.get("_host"));
+        Assert.assertTrue(event.isDecoded(LazyEvent.ANNOTATIONS_SECTION));
+        Assert.assertFalse(event.isDecoded(LazyEvent.TIMER_SAMPLES_SECTION));
+        Assert.assertFalse(event.isDecoded(LazyEvent.COUNTER_SAMPLES_SECTION));
+        Assert.assertFalse(event.isDecoded(LazyEvent.GAUGE_SAMPLES_SECTION));
+        // The decoded section is cached
+        Assert.assertSame(annotations, event.getAnnotations());
+        Assert.assertSame(event.getTimerSamples(), event.getTimerSamples());
+    }
+
+    @Test
+    public void testAggregatedDataIgnored() throws IOException {
+        final String json = "{\"annotations\":{\"a\":\"b\"},\"aggregatedData\":{\"x\":[1,2]},\"timerSamples\":{},"
+                + "\"counterSamples\":{},\"gaugeSamples\":{\"g\":[{\"value\":1.5}]}}";
+        final Event event = new LazyEventDecoder().decode(json).get(0);
+        assertSectionsEqual(new StreamingEventDecoder().decode(json).get(0), event);
+    }
+
+    @Test
+    public void testFallbackForUnsupportedStructure() throws IOException {
+        // Data binding coerces the numeric annotation value to a string
+        final String json = "{\"annotations\":5,\"timerSamples\":{},\"counterSamples\":{},\"gaugeSamples\":{}}";
+        try {
+            new LazyEventDecoder().decode(json);
+            Assert.fail("Expected exception");
+        } catch (final JsonProcessingException e) {
+            // Expected
+        }
+        final String coerced = "{\"annotations\":{\"a\":5},\"timerSamples\":{},\"counterSamples\":{},\"gaugeSamples\":{}}";
+        final Event event = new LazyEventDecoder(new DatabindEventDecoder()).decode(coerced).get(0);
+        Assert.assertEquals(ImmutableMap.of("a", "5"), event.getAnnotations());
+        Assert.assertEquals(Collections.emptyMap(), event.getTimerSamples());
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void testUnsupportedSectionWithoutFallback() throws IOException {
+        // Unsupported sections are rejected when the input is decoded rather than when a sink accesses them
+        new LazyEventDecoder().decode(
+                "{\"annotations\":{\"a\":5},\"timerSamples\":{},\"counterSamples\":{},\"gaugeSamples\":{}}");
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void testUnsupportedSampleWithoutFallback() throws IOException {
+        new LazyEventDecoder().decode(
+                "{\"annotations\":{},\"timerSamples\":{\"t\":[{\"value\":\"1\"}]},\"counterSamples\":{},\"gaugeSamples\":{}}");
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void testMissingSection() throws IOException {
+        new LazyEventDecoder().decode("{\"annotations\":{},\"timerSamples\":{},\"counterSamples\":{}}");
+    }
+
+    @Test(expected = JsonProcessingException.class)
+    public void testMalformedSection() throws IOException {
+        // Syntax errors are detected when the input is decoded even though the section is not
+        new LazyEventDecoder().decode(
+                "{\"annotations\":{},\"timerSamples\":{\"t\":[{\"value\":1}},\"counterSamples\":{},\"gaugeSamples\":{}}");
+    }
+
+    private static void assertSectionsEqual(final Event expected, final Event actual) {
+        Assert.assertEquals(expected.getAnnotations(), actual.getAnnotations());
+        Assert.assertEquals(expected.getTimerSamples(), actual.getTimerSamples());
+        Assert.assertEquals(expected.getCounterSamples(), actual.getCounterSamples());
+        Assert.assertEquals(expected.getGaugeSamples(), actual.getGaugeSamples());
+    }
+
+    private static Event createEvent(final String host) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("_host", host, "_service", "myService"))
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Arrays.asList(SinkVerticle.DefaultQuantity.newInstance(100L), SinkVerticle.DefaultQuantity.newInstance(2.5))))
+                .setCounterSamples(ImmutableMap.of("counter", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1L))))
+                .setGaugeSamples(ImmutableMap.of("gauge", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(-3.5))))
+                .build();
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link PipelineInstrumentation}.
+ *
+ * @author agent (agent at local)
+ */
+public final class PipelineInstrumentationTest {
+
+    @Test
+    public void testReportCountersAndTimers() {
+        final List<Event> reports = new ArrayList<>();
+        final PipelineInstrumentation instrumentation = new PipelineInstrumentation.Builder()
+                .setSink(reports::add)
+                .setAnnotations(ImmutableMap.of("_service", "myService"))
+                .build();
+        instrumentation.getCounter("events").increment();
+        instrumentation.getCounter("events").add(2);
+        instrumentation.getTimer("latency").record(1000);
+        instrumentation.getTimer("latency").record(1000);
+        instrumentation.getTimer("latency").record(5000);
+        instrumentation.report();
+
+        Assert.assertEquals(1, reports.size());
+        final AggregatedEvent report = (AggregatedEvent) reports.get(0);
+        Assert.assertEquals("myService", report.getAnnotations().get("_service"));
+        Assert.assertNotNull(report.getAnnotations().get("_id"));
+        Assert.assertNotNull(report.getAnnotations().get("_start"));
+        Assert.assertNotNull(report.getAnnotations().get("_end"));
+        Assert.assertTrue(PipelineInstrumentation.isReport(report));
+        Assert.assertEquals(3L, report.getCounterSamples().get("events").get(0).getValue().longValue());
+        final Histogram latency = report.getTimerHistograms().get("latency");
+        Assert.assertEquals(3, latency.getCount());
+        Assert.assertEquals(3, report.getTimerSamples().get("latency").size());
+        Assert.assertEquals(
+                report.getTimerSamples().get("latency").get(0).getValue(),
+                report.getTimerSamples().get("latency").get(1).getValue());
+        Assert.assertEquals(1000, latency.getMin(), 1000 / 8.0);
+        Assert.assertEquals(5000, latency.getMax(), 5000 / 8.0);
+    }
+
+    @Test
+    public void testReportResets() {
+        final List<Event> reports = new ArrayList<>();
+        final PipelineInstrumentation instrumentation = new PipelineInstrumentation.Builder()
+                .setSink(reports::add)
+                .build();
+        instrumentation.getCounter("events").increment();
+        instrumentation.getTimer("latency").record(1000);
+        instrumentation.report();
+        instrumentation.report();
+
+        Assert.assertEquals(2, reports.size());
+        final Event second = reports.get(1);
+        Assert.assertEquals(0L, second.getCounterSamples().get("events").get(0).getValue().longValue());
+        Assert.assertFalse(second.getTimerSamples().containsKey("latency"));
+        Assert.assertEquals(reports.get(0).getAnnotations().get("_end"), second.getAnnotations().get("_start"));
+    }
+
+    @Test
+    public void testTimerBucketRelativeError() {
+        for (long nanos = 0; nanos < 1_000_000; nanos = nanos * 3 / 2 + 1) {
+            final double value = PipelineInstrumentation.Timer.getBucketValue(PipelineInstrumentation.Timer.getBucketIndex(nanos));
+            Assert.assertEquals("Nanos=" + nanos, nanos, value, nanos / 8.0);
+        }
+        final int maxIndex = PipelineInstrumentation.Timer.getBucketIndex(Long.MAX_VALUE);
+        Assert.assertEquals(Long.MAX_VALUE, PipelineInstrumentation.Timer.getBucketValue(maxIndex), Long.MAX_VALUE / 8.0);
+        Assert.assertEquals(0, PipelineInstrumentation.Timer.getBucketIndex(-1));
+    }
+
+    @Test
+    public void testReportNotReentrant() {
+        final List<Event> reports = new ArrayList<>();
+        final PipelineInstrumentation[] instrumentation = new PipelineInstrumentation[1];
+        instrumentation[0] = new PipelineInstrumentation.Builder()
+                .setSink(event -> {
+                    Assert.assertTrue(PipelineInstrumentation.isReporting());
+                    reports.add(event);
+                    instrumentation[0].report();
+                })
+                .build();
+        instrumentation[0].report();
+        Assert.assertEquals(1, reports.size());
+        Assert.assertFalse(PipelineInstrumentation.isReporting());
+    }
+
+    @Test
+    public void testReportSinkFailure() {
+        final Sink sink = Mockito.mock(Sink.class);
+        Mockito.doThrow(new IllegalStateException("Failure")).when(sink).record(Mockito.any());
+        final PipelineInstrumentation instrumentation = new PipelineInstrumentation.Builder()
+                .setSink(sink)
+                .build();
+        instrumentation.report();
+        Mockito.verify(sink).record(Mockito.any());
+        Assert.assertFalse(PipelineInstrumentation.isReporting());
+    }
+
+    @Test
+    public void testSinkHandlerInstrumentation() {
+        final List<Event> reports = new ArrayList<>();
+        final PipelineInstrumentation instrumentation = new PipelineInstrumentation.Builder()
+                .setSink(reports::add)
+                .build();
+        final Sink sink = Mockito.mock(Sink.class);
+        final SinkVerticle.SinkHandler handler = new SinkVerticle.SinkHandler(
+                ImmutableList.of(sink),
+                new StreamingEventDecoder(new DatabindEventDecoder()),
+                instrumentation);
+
+        handler.handleEncoded(createMessage(
+                "{\"annotations\":{\"_id\":\"id\"},\"timerSamples\":{},\"counterSamples\":{},\"gaugeSamples\":{}}"));
+        handler.handleEncoded(createMessage("not json"));
+        instrumentation.report();
+
+        // Recording the report itself is not instrumented
+        handler.handleEncoded(createMessage(reports.get(0)));
+        instrumentation.report();
+
+        Mockito.verify(sink, Mockito.times(2)).record(Mockito.any());
+        final Event report = reports.get(0);
+        Assert.assertEquals(1L, report.getCounterSamples().get("sink_handler/events").get(0).getValue().longValue());
+        Assert.assertEquals(1L, report.getCounterSamples().get("sink_handler/failures").get(0).getValue().longValue());
+        Assert.assertEquals(1, report.getTimerSamples().get("sink_handler/decode").size());
+        Assert.assertEquals(1, report.getTimerSamples().get("sink_handler/record/" + sink.getClass().getSimpleName()).size());
+        Assert.assertEquals(0L, reports.get(1).getCounterSamples().get("sink_handler/events").get(0).getValue().longValue());
+    }
+
+    @Test
+    public void testEventBusSinkInstrumentation() {
+        final List<Event> reports = new ArrayList<>();
+        final PipelineInstrumentation instrumentation = new PipelineInstrumentation.Builder()
+                .setSink(reports::add)
+                .build();
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setInstrumentation(instrumentation)
+                .build();
+        sink.record(new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("_id", "id"))
+                .setTimerSamples(Collections.emptyMap())
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build());
+        instrumentation.report();
+
+        final Event report = reports.get(0);
+        Assert.assertEquals(1L, report.getCounterSamples().get("event_bus_sink/events").get(0).getValue().longValue());
+        Assert.assertEquals(0L, report.getCounterSamples().get("event_bus_sink/failures").get(0).getValue().longValue());
+        Assert.assertEquals(1, report.getTimerSamples().get("event_bus_sink/serialize").size());
+    }
+
+    @Test
+    public void testEventBusSinkDoesNotInstrumentReport() {
+        final EventBus eventBus = Mockito.mock(EventBus.class);
+        final List<Event> reports = new ArrayList<>();
+        final PipelineInstrumentation[] instrumentation = new PipelineInstrumentation[1];
+        final EventBusSink[] sink = new EventBusSink[1];
+        instrumentation[0] = new PipelineInstrumentation.Builder()
+                .setSink(event -> {
+                    reports.add(event);
+                    sink[0].record(event);
+                })
+                .build();
+        sink[0] = new EventBusSink.Builder()
+                .setEventBus(eventBus)
+                .setInstrumentation(instrumentation[0])
+                .build();
+        instrumentation[0].report();
+        instrumentation[0].report();
+
+        final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(eventBus, Mockito.times(2)).publish(Mockito.anyString(), captor.capture());
+        Assert.assertTrue(((String) captor.getValue()).contains("_pipelineInstrumentation"));
+        Assert.assertEquals(0L, reports.get(1).getCounterSamples().get("event_bus_sink/events").get(0).getValue().longValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithoutSink() {
+        new PipelineInstrumentation.Builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithInvalidReportInterval() {
+        new PipelineInstrumentation.Builder()
+                .setSink(Mockito.mock(Sink.class))
+                .setReportInterval(Duration.ZERO)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Message<Object> createMessage(final Object body) {
+        final Message<Object> message = Mockito.mock(Message.class);
+        Mockito.doReturn(body).when(message).body();
+        return message;
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link RoutingTable}.
+ *
+ * @author agent (agent at local)
+ */
+public final class RoutingTableTest {
+
+    @Test
+    public void testWithoutRoutes() {
+        final RoutingTable routingTable = new RoutingTable.Builder().setSinkCount(3).build();
+        Assert.assertEquals(0b111L, routingTable.route(createEvent(Collections.emptyMap(), Collections.emptyList())));
+    }
+
+    @Test
+    public void testAllSinks() {
+        final RoutingTable routingTable = new RoutingTable.Builder().setSinkCount(64).build();
+        Assert.assertEquals(-1L, routingTable.route(createEvent(Collections.emptyMap(), Collections.emptyList())));
+    }
+
+    @Test
+    public void testAnnotationRoutes() {
+        final RoutingTable routingTable = new RoutingTable.Builder()
+                .setSinkCount(4)
+                .setRoutes(Arrays.asList(
+                        annotationRoute(1, "tenant", "a"),
+                        annotationRoute(2, "tenant", "b"),
+                        annotationRoute(2, "_service", "payments"),
+                        annotationRoute(3, "tenant", null)))
+                .build();
+        Assert.assertEquals(0b0001L, routingTable.route(createEvent(ImmutableMap.of("_service", "other"), Collections.emptyList())));
+        Assert.assertEquals(0b1011L, routingTable.route(createEvent(ImmutableMap.of("tenant", "a"), Collections.emptyList())));
+        Assert.assertEquals(0b1101L, routingTable.route(createEvent(ImmutableMap.of("tenant", "b"), Collections.emptyList())));
+        Assert.assertEquals(0b1001L, routingTable.route(createEvent(ImmutableMap.of("tenant", "c"), Collections.emptyList())));
+        Assert.assertEquals(
+                0b0101L,
+                routingTable.route(createEvent(ImmutableMap.of("_service", "payments"), Collections.emptyList())));
+    }
+
+    @Test
+    public void testMetricPrefixRoutes() {
+        final RoutingTable routingTable = new RoutingTable.Builder()
+                .setSinkCount(4)
+                .setRoutes(Arrays.asList(
+                        prefixRoute(0, "payments/"),
+                        prefixRoute(1, "payments/card/"),
+                        prefixRoute(2, "orders"),
+                        prefixRoute(3, "")))
+                .build();
+        Assert.assertEquals(0b1000L, routingTable.route(createEvent(Collections.emptyMap(), Collections.singletonList("other"))));
+        Assert.assertEquals(
+                0b1001L,
+                routingTable.route(createEvent(Collections.emptyMap(), Collections.singletonList("payments/bank/latency"))));
+        Assert.assertEquals(
+                0b1011L,
+                routingTable.route(createEvent(Collections.emptyMap(), Collections.singletonList("payments/card/latency"))));
+        Assert.assertEquals(
+                0b1101L,
+                routingTable.route(createEvent(Collections.emptyMap(), Arrays.asList("payments/bank/latency", "orders/count"))));
+        Assert.assertEquals(0b1000L, routingTable.route(createEvent(Collections.emptyMap(), Collections.singletonList("payments"))));
+    }
+
+    @Test
+    public void testMixedRoutes() {
+        final RoutingTable routingTable = new RoutingTable.Builder()
+                .setSinkCount(2)
+                .setRoutes(Arrays.asList(annotationRoute(1, "tenant", "a"), prefixRoute(1, "tenant_a/")))
+                .build();
+        Assert.assertEquals(0b01L, routingTable.route(createEvent(Collections.emptyMap(), Collections.singletonList("other"))));
+        Assert.assertEquals(0b11L, routingTable.route(createEvent(ImmutableMap.of("tenant", "a"), Collections.emptyList())));
+        Assert.assertEquals(0b11L, routingTable.route(createEvent(Collections.emptyMap(), Collections.singletonList("tenant_a/x"))));
+    }
+
+    @Test
+    public void testManyAnnotations() {
+        final RoutingTable routingTable = new RoutingTable.Builder()
+                .setSinkCount(2)
+                .setRoutes(Collections.singletonList(annotationRoute(1, "tenant", "a")))
+                .build();
+        Assert.assertEquals(
+                0b11L,
+                routingTable.route(createEvent(ImmutableMap.of("_host", "h", "_service", "s", "tenant", "a"), Collections.emptyList())));
+        Assert.assertEquals(
+                0b01L,
+                routingTable.route(createEvent(ImmutableMap.of("_host", "h", "_service", "s", "tenant", "b"), Collections.emptyList())));
+    }
+
+    @Test
+    public void testLazyEventSamplesNotDecoded() throws IOException {
+        final RoutingTable routingTable = new RoutingTable.Builder()
+                .setSinkCount(2)
+                .setRoutes(Collections.singletonList(prefixRoute(1, "orders/")))
+                .build();
+        final String json = "{\"annotations\":{},\"timerSamples\":{\"orders/latency\":[{\"value\":1}]},"
+                + "\"counterSamples\":{},\"gaugeSamples\":{}}";
+        final LazyEvent event = (LazyEvent) new LazyEventDecoder().decode(json).get(0);
+        Assert.assertEquals(0b11L, routingTable.route(event));
+        Assert.assertFalse(event.isDecoded(LazyEvent.TIMER_SAMPLES_SECTION));
+    }
+
+    @Test
+    public void testFromJson() {
+        final RoutingTable routingTable = RoutingTable.fromJson(
+                new JsonArray()
+                        .add(new JsonObject().put("sink", 0).put("annotation", "tenant").put("value", "a"))
+                        .add(new JsonObject().put("sink", 1).put("metricPrefix", "orders/")),
+                3);
+        Assert.assertEquals(3, routingTable.getSinkCount());
+        Assert.assertEquals(0b101L, routingTable.route(createEvent(ImmutableMap.of("tenant", "a"), Collections.emptyList())));
+        Assert.assertEquals(0b110L, routingTable.route(createEvent(Collections.emptyMap(), Collections.singletonList("orders/x"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithSinkIndexOutOfRange() {
+        new RoutingTable.Builder()
+                .setSinkCount(2)
+                .setRoutes(Collections.singletonList(prefixRoute(2, "orders/")))
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderWithTooManySinks() {
+        new RoutingTable.Builder().setSinkCount(65).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRouteBuilderWithAnnotationAndPrefix() {
+        new RoutingTable.Route.Builder()
+                .setSinkIndex(0)
+                .setAnnotationKey("tenant")
+                .setMetricPrefix("orders/")
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRouteBuilderWithoutMatch() {
+        new RoutingTable.Route.Builder().setSinkIndex(0).build();
+    }
+
+    private static RoutingTable.Route annotationRoute(final int sinkIndex, final String key, final String value) {
+        return new RoutingTable.Route.Builder()
+                .setSinkIndex(sinkIndex)
+                .setAnnotationKey(key)
+                .setAnnotationValue(value)
+                .build();
+    }
+
+    private static RoutingTable.Route prefixRoute(final int sinkIndex, final String prefix) {
+        return new RoutingTable.Route.Builder()
+                .setSinkIndex(sinkIndex)
+                .setMetricPrefix(prefix)
+                .build();
+    }
+
+    private static Event createEvent(final Map<String, String> annotations, final List<String> counterNames) {
+        final ImmutableMap.Builder<String, List<Quantity>> counterSamples = ImmutableMap.builder();
+        for (final String name : counterNames) {
+            counterSamples.put(name, Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(1)));
+        }
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(annotations)
+                .setTimerSamples(Collections.emptyMap())
+                .setCounterSamples(counterSamples.build())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+}
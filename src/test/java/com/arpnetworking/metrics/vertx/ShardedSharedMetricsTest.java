@@ -0,0 +1,186 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.Quantity;
+import com.arpnetworking.metrics.Sink;
+import com.arpnetworking.metrics.impl.TsdMetricsFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link ShardedSharedMetrics}.
+ *
+ * @author agent (agent at local)
+ */
+public final class ShardedSharedMetricsTest {
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testSingleThreadEqualToWrapped() {
+        final Sink expectedSink = Mockito.mock(Sink.class);
+        final Sink actualSink = Mockito.mock(Sink.class);
+        final List<Metrics> metricsList = new ArrayList<>();
+        metricsList.add(createMetricsFactory(expectedSink).create());
+        metricsList.add(new ShardedSharedMetrics(createMetricsFactory(actualSink).create()));
+        for (final Metrics metrics : metricsList) {
+            metrics.resetCounter("reset");
+            metrics.incrementCounter("reset", 2);
+            metrics.incrementCounter("counter");
+            metrics.incrementCounter("counter", 5);
+            metrics.decrementCounter("counter");
+            metrics.decrementCounter("counter", 2);
+            metrics.resetCounter("counter");
+            metrics.incrementCounter("counter", 7);
+            metrics.setTimer("timer", 123, TimeUnit.MILLISECONDS);
+            metrics.setTimer("timer", 2, TimeUnit.SECONDS);
+            metrics.setGauge("gauge", 1.25);
+            metrics.setGauge("gauge", 3.5);
+            metrics.setGauge("integral", 7L);
+            metrics.addAnnotation("key", "value");
+            metrics.close();
+        }
+        final Event expected = captureEvent(expectedSink);
+        final Event actual = captureEvent(actualSink);
+        Assert.assertEquals(expected.getAnnotations().get("key"), actual.getAnnotations().get("key"));
+        Assert.assertEquals(values(expected.getCounterSamples().get("counter")), values(actual.getCounterSamples().get("counter")));
+        Assert.assertEquals(values(expected.getCounterSamples().get("reset")), values(actual.getCounterSamples().get("reset")));
+        Assert.assertEquals(values(expected.getTimerSamples().get("timer")), values(actual.getTimerSamples().get("timer")));
+        Assert.assertEquals(values(expected.getGaugeSamples().get("gauge")), values(actual.getGaugeSamples().get("gauge")));
+        Assert.assertEquals(values(expected.getGaugeSamples().get("integral")), values(actual.getGaugeSamples().get("integral")));
+    }
+
+    @Test
+    public void testShardsMergedOnClose() throws Exception {
+        final Sink sink = Mockito.mock(Sink.class);
+        final ShardedSharedMetrics metrics = new ShardedSharedMetrics(createMetricsFactory(sink).create());
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch latch = new CountDownLatch(THREADS);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; ++i) {
+                final int thread = i;
+                futures.add(executor.submit(() -> {
+                    // Ensure each thread records to its own shard
+                    latch.countDown();
+                    latch.await();
+                    for (int j = 0; j < 1000; ++j) {
+                        metrics.incrementCounter("counter");
+                    }
+                    metrics.setGauge("gauge", (long) thread);
+                    metrics.startTimer("timer");
+                    metrics.stopTimer("timer");
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Mockito.verifyNoInteractions(sink);
+        Assert.assertEquals(THREADS, metrics.getShardCount());
+        metrics.close();
+
+        final Event event = captureEvent(sink);
+        Assert.assertEquals(Collections.singletonList(THREADS * 1000L), values(event.getCounterSamples().get("counter")));
+        Assert.assertEquals(THREADS, event.getGaugeSamples().get("gauge").size());
+        Assert.assertEquals(THREADS, event.getTimerSamples().get("timer").size());
+    }
+
+    @Test
+    public void testRecordAfterClosePassesThrough() {
+        final Metrics wrapped = Mockito.mock(Metrics.class);
+        final ShardedSharedMetrics metrics = new ShardedSharedMetrics(wrapped);
+        metrics.close();
+        Mockito.verify(wrapped).close();
+        metrics.incrementCounter("counter", 2);
+        metrics.setGauge("gauge", 1.5);
+        Mockito.verify(wrapped).incrementCounter("counter", 2);
+        Mockito.verify(wrapped).setGauge("gauge", 1.5);
+        Assert.assertEquals(0, metrics.getShardCount());
+    }
+
+    @Test
+    public void testStopTimerNotStartedPassesThrough() {
+        final Metrics wrapped = Mockito.mock(Metrics.class);
+        final ShardedSharedMetrics metrics = new ShardedSharedMetrics(wrapped);
+        metrics.stopTimer("timer");
+        Mockito.verify(wrapped).stopTimer("timer");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testUnstoppedTimerNotRecordedOnClose() {
+        final Metrics wrapped = Mockito.mock(Metrics.class);
+        final ShardedSharedMetrics metrics = new ShardedSharedMetrics(wrapped);
+        metrics.startTimer("stopped");
+        metrics.startTimer("unstopped");
+        metrics.stopTimer("stopped");
+        metrics.close();
+        Mockito.verify(wrapped).setTimer(Mockito.eq("stopped"), Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+        Mockito.verify(wrapped, Mockito.never()).setTimer(Mockito.eq("unstopped"), Mockito.anyLong(), Mockito.any());
+        Mockito.verify(wrapped, Mockito.never()).stopTimer(Mockito.anyString());
+        Mockito.verify(wrapped).close();
+    }
+
+    @Test
+    public void testAnnotationsNotSharded() {
+        final Metrics wrapped = Mockito.mock(Metrics.class);
+        final ShardedSharedMetrics metrics = new ShardedSharedMetrics(wrapped);
+        metrics.addAnnotation("key", "value");
+        metrics.incrementCounter("counter");
+        Mockito.verify(wrapped).addAnnotation("key", "value");
+        Mockito.verifyNoMoreInteractions(wrapped);
+    }
+
+    private static Event captureEvent(final Sink sink) {
+        final ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(sink).record(captor.capture());
+        return captor.getValue();
+    }
+
+    private static List<Number> values(final List<Quantity> quantities) {
+        return quantities.stream().map(Quantity::getValue).collect(Collectors.toList());
+    }
+
+    private static MetricsFactory createMetricsFactory(final Sink sink) {
+        return new TsdMetricsFactory.Builder()
+                .setSinks(Collections.singletonList(sink))
+                .setServiceName("myService")
+                .setClusterName("myCluster")
+                .setHostName("myHost")
+                .build();
+    }
+
+    private static final int THREADS = 4;
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests sharded deployments of {@link SinkVerticle}.
+ *
+ * @author agent (agent at local)
+ */
+public final class ShardedSinkVerticleTest {
+
+    @Before
+    public void setUp() {
+        _vertx = Vertx.vertx();
+        RECORDED.clear();
+        CREATED.set(0);
+        CLOSED.set(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        await(_vertx.close());
+    }
+
+    @Test
+    public void testShardedWithSharedSinks() throws Exception {
+        await(_vertx.deployVerticle(
+                RecordingSinkVerticle::new,
+                new DeploymentOptions()
+                        .setConfig(new JsonObject()
+                                .put("sinkAddress", SINK_ADDRESS)
+                                .put("shardCount", SHARD_COUNT)
+                                .put("shareSinks", true))
+                        .setInstances(SHARD_COUNT)));
+        Assert.assertEquals(1, CREATED.get());
+
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setSinkAddress(SINK_ADDRESS)
+                .setUseEventCodec(true)
+                .setShardCount(SHARD_COUNT)
+                .setShardSelection(EventBusSink.ShardSelection.ROUND_ROBIN)
+                .build();
+        for (int i = 0; i < SHARD_COUNT * 2; ++i) {
+            sink.record(createEvent(i));
+        }
+
+        // Every event is recorded exactly once and every shard is consumed
+        awaitRecorded(SHARD_COUNT * 2);
+        Thread.sleep(100);
+        Assert.assertEquals(SHARD_COUNT * 2, RECORDED.size());
+    }
+
+    @Test
+    public void testShardedPerContext() throws Exception {
+        await(_vertx.deployVerticle(
+                RecordingSinkVerticle::new,
+                new DeploymentOptions()
+                        .setConfig(new JsonObject()
+                                .put("sinkAddress", SINK_ADDRESS)
+                                .put("shardCount", SHARD_COUNT))
+                        .setInstances(SHARD_COUNT)));
+        Assert.assertEquals(SHARD_COUNT, CREATED.get());
+
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setSinkAddress(SINK_ADDRESS)
+                .setUseEventCodec(true)
+                .setShardCount(SHARD_COUNT)
+                .build();
+        for (int i = 0; i < SHARD_COUNT; ++i) {
+            final Event event = createEvent(i);
+            _vertx.runOnContext(ignored -> sink.record(event));
+        }
+
+        awaitRecorded(SHARD_COUNT);
+        Thread.sleep(100);
+        Assert.assertEquals(SHARD_COUNT, RECORDED.size());
+    }
+
+    @Test
+    public void testSharedAsyncSinksClosedByLastInstance() throws Exception {
+        final String deploymentId = await(_vertx.deployVerticle(
+                RecordingSinkVerticle::new,
+                new DeploymentOptions()
+                        .setConfig(new JsonObject()
+                                .put("sinkAddress", SINK_ADDRESS)
+                                .put("shardCount", SHARD_COUNT)
+                                .put("shareSinks", true)
+                                .put("asyncSinks", true))
+                        .setInstances(SHARD_COUNT)));
+        final EventBusSink sink = new EventBusSink.Builder()
+                .setEventBus(_vertx.eventBus())
+                .setSinkAddress(SINK_ADDRESS)
+                .setUseEventCodec(true)
+                .setShardCount(SHARD_COUNT)
+                .setShardSelection(EventBusSink.ShardSelection.ROUND_ROBIN)
+                .build();
+        for (int i = 0; i < SHARD_COUNT; ++i) {
+            sink.record(createEvent(i));
+        }
+        awaitRecorded(SHARD_COUNT);
+        Assert.assertEquals(0, CLOSED.get());
+
+        await(_vertx.undeploy(deploymentId));
+        Assert.assertEquals(1, CREATED.get());
+        Assert.assertEquals(1, CLOSED.get());
+    }
+
+    @Test
+    public void testShardIndexOutOfRange() throws Exception {
+        try {
+            await(_vertx.deployVerticle(
+                    RecordingSinkVerticle::new,
+                    new DeploymentOptions()
+                            .setConfig(new JsonObject()
+                                    .put("sinkAddress", SINK_ADDRESS)
+                                    .put("shardCount", SHARD_COUNT)
+                                    .put("shardIndex", SHARD_COUNT))));
+            Assert.fail("Expected exception not thrown");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testMoreInstancesThanShards() throws Exception {
+        try {
+            await(_vertx.deployVerticle(
+                    RecordingSinkVerticle::new,
+                    new DeploymentOptions()
+                            .setConfig(new JsonObject()
+                                    .put("sinkAddress", SINK_ADDRESS)
+                                    .put("shardCount", SHARD_COUNT))
+                            .setInstances(SHARD_COUNT + 1)));
+            Assert.fail("Expected exception not thrown");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    private static <T> T await(final Future<T> future) throws InterruptedException, ExecutionException, TimeoutException {
+        return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private static void awaitRecorded(final int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (RECORDED.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, RECORDED.size());
+    }
+
+    private static Event createEvent(final int index) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("index", String.valueOf(index)))
+                .setTimerSamples(Collections.emptyMap())
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+
+    private Vertx _vertx;
+
+    private static final String SINK_ADDRESS = "sink.address.shardedSinkVerticleTest";
+    private static final int SHARD_COUNT = 3;
+    private static final Queue<Event> RECORDED = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger CREATED = new AtomicInteger();
+    private static final AtomicInteger CLOSED = new AtomicInteger();
+
+    /**
+     * Implementation of {@link SinkVerticle} recording into a static queue.
+     */
+    public static final class RecordingSinkVerticle extends SinkVerticle {
+
+        @Override
+        protected List<Sink> createSinks() {
+            CREATED.incrementAndGet();
+            return Collections.singletonList(new RecordingSink());
+        }
+    }
+
+    private static final class RecordingSink implements Sink, AutoCloseable {
+
+        @Override
+        public void record(final Event event) {
+            RECORDED.add(event);
+        }
+
+        @Override
+        public void close() {
+            CLOSED.incrementAndGet();
+        }
+    }
+}
@@ -15,20 +15,26 @@
  */
 package com.arpnetworking.metrics.vertx;
 
+import com.arpnetworking.metrics.Event;
 import com.arpnetworking.metrics.Quantity;
 import com.arpnetworking.metrics.Sink;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.Message;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -70,6 +76,33 @@ public final class SinkHandlerTest {
         Mockito.verifyNoInteractions(_mockSink);
     }
 
+    @Test
+    public void testHandleAcknowledgesRequest() {
+        final Event event = createEvent("value");
+        Mockito.doReturn(event).when(_message).body();
+        Mockito.doReturn("replyAddress").when(_message).replyAddress();
+        _handler.handleEncoded(_message);
+        final InOrder inOrder = Mockito.inOrder(_mockSink, _message);
+        inOrder.verify(_mockSink).record(event);
+        inOrder.verify(_message).reply(null);
+    }
+
+    @Test
+    public void testHandleAcknowledgesInvalidRequest() {
+        Mockito.doReturn("not json").when(_message).body();
+        Mockito.doReturn("replyAddress").when(_message).replyAddress();
+        _handler.handle(_message);
+        Mockito.verifyNoInteractions(_mockSink);
+        Mockito.verify(_message).reply(null);
+    }
+
+    @Test
+    public void testHandleDoesNotReplyToPublishedMessage() {
+        Mockito.doReturn(createEvent("value")).when(_message).body();
+        _handler.handleEncoded(_message);
+        Mockito.verify(_message, Mockito.never()).reply(Mockito.any());
+    }
+
     @Test
     public void testHandleWithMessageWithoutAnnotations() throws JsonProcessingException {
         final String messageBody = OBJECT_MAPPER.writeValueAsString(ImmutableMap.of(
@@ -348,6 +381,198 @@ public final class SinkHandlerTest {
         Mockito.verifyNoInteractions(_mockSink);
     }
 
+    @Test
+    public void testHandleWithEvent() {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("someAnnotationKey", "someAnnotationValue"))
+                .setTimerSamples(ImmutableMap.of(
+                        "timerSamples",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(100))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+        Mockito.doReturn(event).when(_message).body();
+        _handler.handleEncoded(_message);
+        Mockito.verify(_mockSink).record(Mockito.same(event));
+    }
+
+    @Test
+    public void testHandleWithUnsupportedBody() {
+        Mockito.doReturn(Integer.valueOf(1)).when(_message).body();
+        _handler.handleEncoded(_message);
+        Mockito.verifyNoInteractions(_mockSink);
+    }
+
+    @Test
+    public void testHandleWithAggregatedData() throws JsonProcessingException {
+        final String messageBody = OBJECT_MAPPER.writeValueAsString(ImmutableMap.of(
+                ANNOTATIONS_KEY,
+                Collections.emptyMap(),
+                TIMER_SAMPLES_KEY,
+                Collections.emptyMap(),
+                COUNTER_SAMPLES_KEY,
+                Collections.emptyMap(),
+                GAUGE_SAMPLES_KEY,
+                Collections.emptyMap(),
+                "aggregatedData",
+                Collections.emptyMap()));
+        Mockito.doReturn(messageBody).when(_message).body();
+        _handler.handle(_message);
+        Mockito.verify(_mockSink).record(
+                new SinkVerticle.DefaultEvent.Builder()
+                        .setAnnotations(Collections.emptyMap())
+                        .setCounterSamples(Collections.emptyMap())
+                        .setGaugeSamples(Collections.emptyMap())
+                        .setTimerSamples(Collections.emptyMap())
+                        .build());
+    }
+
+    @Test
+    public void testHandleWithEventBatch() {
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        Mockito.doReturn(new EventBatch(Arrays.asList(event1, event2))).when(_message).body();
+        _handler.handleEncoded(_message);
+        final InOrder inOrder = Mockito.inOrder(_mockSink);
+        inOrder.verify(_mockSink).record(Mockito.same(event1));
+        inOrder.verify(_mockSink).record(Mockito.same(event2));
+    }
+
+    @Test
+    public void testHandleWithJsonArray() throws JsonProcessingException {
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        Mockito.doReturn(OBJECT_MAPPER.writeValueAsString(Arrays.asList(event1, event2))).when(_message).body();
+        _handler.handle(_message);
+        final InOrder inOrder = Mockito.inOrder(_mockSink);
+        inOrder.verify(_mockSink).record(event1);
+        inOrder.verify(_mockSink).record(event2);
+    }
+
+    @Test
+    public void testHandleWithInvalidJsonArray() throws JsonProcessingException {
+        final String messageBody = OBJECT_MAPPER.writeValueAsString(Arrays.asList(
+                createEvent("value1"),
+                ImmutableMap.of("someKey", "someValue")));
+        Mockito.doReturn(messageBody).when(_message).body();
+        _handler.handle(_message);
+        Mockito.verifyNoInteractions(_mockSink);
+    }
+
+    @Test
+    public void testHandleWithBinaryWireFormat() throws IOException {
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        final Buffer buffer = Buffer.buffer().appendByte(BinaryWireFormat.ID);
+        new BinaryWireFormat().encode(Arrays.asList(event1, event2), buffer);
+        Mockito.doReturn(buffer).when(_message).body();
+        _handler.handleEncoded(_message);
+        final InOrder inOrder = Mockito.inOrder(_mockSink);
+        inOrder.verify(_mockSink).record(createEvent("value1", 100L));
+        inOrder.verify(_mockSink).record(createEvent("value2", 100L));
+    }
+
+    @Test
+    public void testHandleWithJsonWireFormat() throws IOException {
+        final Event event = createEvent("value1");
+        final Buffer buffer = Buffer.buffer().appendByte(JsonWireFormat.ID);
+        new JsonWireFormat().encode(Collections.singletonList(event), buffer);
+        Mockito.doReturn(buffer).when(_message).body();
+        _handler.handleEncoded(_message);
+        Mockito.verify(_mockSink).record(event);
+    }
+
+    @Test
+    public void testHandleWithLazyEventDecoder() throws IOException {
+        final List<Sink> sinks = ImmutableList.of(_mockSink);
+        final SinkVerticle.SinkHandler handler = new SinkVerticle.SinkHandler(sinks, new LazyEventDecoder(new DatabindEventDecoder()));
+        final Event event = createEvent("value1");
+        Mockito.doReturn(OBJECT_MAPPER.writeValueAsString(Arrays.asList(event, createEvent("value2")))).when(_message).body();
+        handler.handle(_message);
+        final ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(_mockSink, Mockito.times(2)).record(captor.capture());
+        final Event recorded = captor.getAllValues().get(0);
+        Assert.assertTrue(recorded instanceof LazyEvent);
+        Assert.assertEquals(event.getAnnotations(), recorded.getAnnotations());
+        Assert.assertEquals(event.getTimerSamples(), recorded.getTimerSamples());
+        Assert.assertEquals(ImmutableMap.of("someAnnotationKey", "value2"), captor.getAllValues().get(1).getAnnotations());
+    }
+
+    @Test
+    public void testHandleWithUnsupportedWireFormat() {
+        Mockito.doReturn(Buffer.buffer().appendByte((byte) 99).appendString("{}")).when(_message).body();
+        _handler.handleEncoded(_message);
+        Mockito.verifyNoInteractions(_mockSink);
+    }
+
+    @Test
+    public void testHandleWithEmptyBuffer() {
+        Mockito.doReturn(Buffer.buffer()).when(_message).body();
+        _handler.handleEncoded(_message);
+        Mockito.verifyNoInteractions(_mockSink);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithDuplicateWireFormats() {
+        new SinkVerticle.SinkHandler(
+                ImmutableList.of(_mockSink),
+                new StreamingEventDecoder(),
+                null,
+                Arrays.asList(new BinaryWireFormat(), new BinaryWireFormat()));
+    }
+
+    @Test
+    public void testHandleWithRoutingTable() {
+        final Sink routedSink = Mockito.mock(Sink.class);
+        final RoutingTable routingTable = new RoutingTable.Builder()
+                .setSinkCount(2)
+                .setRoutes(Collections.singletonList(new RoutingTable.Route.Builder()
+                        .setSinkIndex(1)
+                        .setAnnotationKey("someAnnotationKey")
+                        .setAnnotationValue("value2")
+                        .build()))
+                .build();
+        final SinkVerticle.SinkHandler handler = new SinkVerticle.SinkHandler(
+                ImmutableList.of(_mockSink, routedSink),
+                new StreamingEventDecoder(),
+                null,
+                Collections.singletonList(new BinaryWireFormat()),
+                routingTable);
+        final Event event1 = createEvent("value1");
+        final Event event2 = createEvent("value2");
+        Mockito.doReturn(new EventBatch(Arrays.asList(event1, event2))).when(_message).body();
+        handler.handleEncoded(_message);
+        Mockito.verify(_mockSink).record(Mockito.same(event1));
+        Mockito.verify(_mockSink).record(Mockito.same(event2));
+        Mockito.verify(routedSink).record(Mockito.same(event2));
+        Mockito.verifyNoMoreInteractions(_mockSink, routedSink);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithMismatchedRoutingTable() {
+        new SinkVerticle.SinkHandler(
+                ImmutableList.of(_mockSink),
+                new StreamingEventDecoder(),
+                null,
+                Collections.singletonList(new BinaryWireFormat()),
+                new RoutingTable.Builder().setSinkCount(2).build());
+    }
+
+    private static Event createEvent(final String annotationValue) {
+        return createEvent(annotationValue, 100);
+    }
+
+    private static Event createEvent(final String annotationValue, final Number timerValue) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("someAnnotationKey", annotationValue))
+                .setTimerSamples(ImmutableMap.of(
+                        "timerSamples",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(timerValue))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(Collections.emptyMap())
+                .build();
+    }
+
     private SinkVerticle.SinkHandler _handler;
     @Mock
     private Sink _mockSink;
@@ -0,0 +1,181 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.arpnetworking.metrics.vertx.test.BenchmarkEvents;
+import com.arpnetworking.metrics.vertx.test.BenchmarkRunner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performance tests of {@link SinkVerticle.SinkHandler} processing messages
+ * with JSON bodies, decoded by either the default streaming decoder or the
+ * databind decoder, with {@link JsonWireFormat} and {@link BinaryWireFormat}
+ * bodies and with {@link Event} bodies. The cost of recording to a sink which only reads the annotations is
+ * compared between the streaming and the {@link LazyEventDecoder}.
+ *
+ * @author agent (agent at local)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SinkHandlerTestPerf {
+
+    @Test
+    public void test() throws RunnerException, IOException {
+        BenchmarkRunner.run(SinkHandlerTestPerf.class);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        final Event event = BenchmarkEvents.createEvent(_size);
+        _jsonMessage = new BenchmarkMessage(OBJECT_MAPPER.writeValueAsString(event));
+        final Buffer buffer = Buffer.buffer().appendByte(BinaryWireFormat.ID);
+        new BinaryWireFormat().encode(Collections.singletonList(event), buffer);
+        _binaryMessage = new BenchmarkMessage(buffer);
+        final Buffer jsonBuffer = Buffer.buffer().appendByte(JsonWireFormat.ID);
+        new JsonWireFormat().encode(Collections.singletonList(event), jsonBuffer);
+        _jsonBufferMessage = new BenchmarkMessage(jsonBuffer);
+        _eventMessage = new BenchmarkMessage(event);
+        // The sink retains the last event so that decoding is not eliminated
+        final List<Sink> sinks = Collections.singletonList(recorded -> _lastEvent = recorded);
+        _streamingHandler = new SinkVerticle.SinkHandler(sinks);
+        _databindHandler = new SinkVerticle.SinkHandler(sinks, new DatabindEventDecoder());
+        final List<Sink> annotationSinks = Collections.singletonList(recorded -> _lastAnnotations = recorded.getAnnotations());
+        _streamingAnnotationsHandler = new SinkVerticle.SinkHandler(annotationSinks);
+        _lazyAnnotationsHandler = new SinkVerticle.SinkHandler(annotationSinks, new LazyEventDecoder(new DatabindEventDecoder()));
+    }
+
+    @Benchmark
+    public void handleJsonStreaming() {
+        _streamingHandler.handleEncoded(_jsonMessage);
+    }
+
+    @Benchmark
+    public void handleJsonDatabind() {
+        _databindHandler.handleEncoded(_jsonMessage);
+    }
+
+    @Benchmark
+    public void handleJsonStreamingAnnotations() {
+        _streamingAnnotationsHandler.handleEncoded(_jsonMessage);
+    }
+
+    @Benchmark
+    public void handleJsonLazyAnnotations() {
+        _lazyAnnotationsHandler.handleEncoded(_jsonMessage);
+    }
+
+    @Benchmark
+    public void handleJsonBuffer() {
+        _streamingHandler.handleEncoded(_jsonBufferMessage);
+    }
+
+    @Benchmark
+    public void handleBinary() {
+        _streamingHandler.handleEncoded(_binaryMessage);
+    }
+
+    @Benchmark
+    public void handleEvent() {
+        _streamingHandler.handleEncoded(_eventMessage);
+    }
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private BenchmarkEvents.EventSize _size;
+    private Message<Object> _jsonMessage;
+    private Message<Object> _jsonBufferMessage;
+    private Message<Object> _binaryMessage;
+    private Message<Object> _eventMessage;
+    private SinkVerticle.SinkHandler _streamingHandler;
+    private SinkVerticle.SinkHandler _databindHandler;
+    private SinkVerticle.SinkHandler _streamingAnnotationsHandler;
+    private SinkVerticle.SinkHandler _lazyAnnotationsHandler;
+    private Event _lastEvent;
+    private Map<String, String> _lastAnnotations;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Message with only a body; a mock would add its own overhead to each
+     * access of the body.
+     */
+    private static final class BenchmarkMessage implements Message<Object> {
+
+        BenchmarkMessage(final Object body) {
+            _body = body;
+        }
+
+        @Override
+        public String address() {
+            return "sinkAddress";
+        }
+
+        @Override
+        public MultiMap headers() {
+            return MultiMap.caseInsensitiveMultiMap();
+        }
+
+        @Override
+        public Object body() {
+            return _body;
+        }
+
+        @Override
+        public String replyAddress() {
+            return null;
+        }
+
+        @Override
+        public boolean isSend() {
+            return false;
+        }
+
+        @Override
+        public void reply(final Object message, final DeliveryOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <R> Future<Message<R>> replyAndRequest(final Object message, final DeliveryOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        private final Object _body;
+    }
+}
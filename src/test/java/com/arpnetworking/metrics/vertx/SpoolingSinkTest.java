@@ -0,0 +1,285 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Sink;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.Future;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link SpoolingSink}.
+ *
+ * @author agent (agent at local)
+ */
+public final class SpoolingSinkTest {
+
+    @Test
+    public void testRecordOnDedicatedThread() throws IOException, InterruptedException {
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(10);
+        final DiskSpool spool = createSpool();
+        final SpoolingSink sink = new SpoolingSink.Builder()
+                .setName("spoolingSinkTest")
+                .setSink(event -> {
+                    threads.add(Thread.currentThread().getName());
+                    latch.countDown();
+                })
+                .setSpool(spool)
+                .build();
+        for (int i = 0; i < 10; ++i) {
+            sink.record(createEvent(i));
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.nCopies(10, "spoolingSinkTest"), threads);
+        Assert.assertTrue(spool.isEmpty());
+        sink.close();
+    }
+
+    @Test
+    public void testSpoolSlowSinkInOrder() throws IOException, InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Event> recorded = new CopyOnWriteArrayList<>();
+        final DiskSpool spool = createSpool();
+        final SpoolingSink sink = new SpoolingSink.Builder()
+                .setSink(event -> {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    recorded.add(event);
+                })
+                .setSpool(spool)
+                .setQueueSize(2)
+                .build();
+        final List<Event> expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            final Event event = createEvent(i);
+            expected.add(event);
+            sink.record(event);
+        }
+        // Events are appended to the spool by its own thread
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (spool.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(spool.isEmpty());
+        release.countDown();
+        awaitCount(recorded, 100);
+        Assert.assertEquals(expected, recorded);
+        Assert.assertTrue(spool.isEmpty());
+
+        // Once the spool is replayed events are queued again
+        sink.record(createEvent(100));
+        awaitCount(recorded, 101);
+        Assert.assertTrue(spool.isEmpty());
+        Assert.assertEquals(0, sink.getDroppedCount());
+        sink.close();
+    }
+
+    @Test
+    public void testRetryUnavailableSink() throws IOException, InterruptedException {
+        final AtomicInteger failures = new AtomicInteger(5);
+        final List<Event> recorded = new CopyOnWriteArrayList<>();
+        final SpoolingSink sink = new SpoolingSink.Builder()
+                .setSink(event -> {
+                    if (failures.getAndDecrement() > 0) {
+                        throw new IllegalStateException("Unavailable");
+                    }
+                    recorded.add(event);
+                })
+                .setSpool(createSpool())
+                .setQueueSize(5)
+                .setRetryInterval(Duration.ofMillis(10))
+                .build();
+        final List<Event> expected = new ArrayList<>();
+        for (int i = 0; i < 50; ++i) {
+            final Event event = createEvent(i);
+            expected.add(event);
+            sink.record(event);
+        }
+        awaitCount(recorded, 50);
+        Assert.assertEquals(expected, recorded);
+        sink.close();
+    }
+
+    @Test
+    public void testReplayAfterRestart() throws IOException, InterruptedException {
+        final Sink unavailable = event -> {
+            throw new IllegalStateException("Unavailable");
+        };
+        final SpoolingSink sink = new SpoolingSink.Builder()
+                .setSink(unavailable)
+                .setSpool(createSpool())
+                .setQueueSize(5)
+                .setCloseTimeout(Duration.ofMillis(100))
+                .build();
+        final List<Event> expected = new ArrayList<>();
+        for (int i = 0; i < 50; ++i) {
+            final Event event = createEvent(i);
+            expected.add(event);
+            sink.record(event);
+        }
+        sink.close();
+        sink.record(createEvent(50));
+        Assert.assertEquals(1, sink.getDroppedCount());
+
+        final List<Event> recorded = new CopyOnWriteArrayList<>();
+        final SpoolingSink restarted = new SpoolingSink.Builder()
+                .setSink(recorded::add)
+                .setSpool(createSpool())
+                .build();
+        awaitCount(recorded, 50);
+        // The events queued at close are spooled ahead of those already spooled
+        Assert.assertEquals(expected, recorded);
+        restarted.close();
+    }
+
+    @Test
+    public void testDropAfterMaxRetries() throws IOException, InterruptedException {
+        final AtomicInteger attempts = new AtomicInteger();
+        final SpoolingSink sink = new SpoolingSink.Builder()
+                .setSink(event -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("Unavailable");
+                })
+                .setSpool(createSpool())
+                .setRetryInterval(Duration.ofMillis(1))
+                .setMaxRetries(2)
+                .build();
+        for (int i = 0; i < 3; ++i) {
+            sink.record(createEvent(i));
+        }
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (sink.getDroppedCount() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(3, sink.getDroppedCount());
+        Assert.assertEquals(9, attempts.get());
+        sink.close();
+    }
+
+    @Test
+    public void testDropNonRetryableFailure() throws IOException, InterruptedException {
+        final List<Event> recorded = new CopyOnWriteArrayList<>();
+        final SpoolingSink sink = new SpoolingSink.Builder()
+                .setSink(event -> {
+                    if ("1".equals(event.getAnnotations().get("index"))) {
+                        throw new IllegalArgumentException("Invalid");
+                    }
+                    recorded.add(event);
+                })
+                .setSpool(createSpool())
+                .build();
+        for (int i = 0; i < 3; ++i) {
+            sink.record(createEvent(i));
+        }
+        awaitCount(recorded, 2);
+        Assert.assertEquals(1, sink.getDroppedCount());
+        Assert.assertEquals("2", recorded.get(1).getAnnotations().get("index"));
+        sink.close();
+    }
+
+    @Test
+    public void testCloseAsync() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        final CloseableSink wrapped = new CloseableSink() {
+            @Override
+            public void record(final Event event) {
+                throw new IllegalStateException("Unavailable");
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        final DiskSpool spool = createSpool();
+        final SpoolingSink sink = new SpoolingSink.Builder()
+                .setSink(wrapped)
+                .setSpool(spool)
+                .setQueueSize(5)
+                .setCloseTimeout(Duration.ofMillis(10))
+                .build();
+        for (int i = 0; i < 10; ++i) {
+            sink.record(createEvent(i));
+        }
+        final Future<Void> future = sink.closeAsync();
+        Assert.assertSame(future, sink.closeAsync());
+        future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(closed.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderRequiresSpool() {
+        new SpoolingSink.Builder()
+                .setSink(event -> { })
+                .build();
+    }
+
+    private interface CloseableSink extends Sink, AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private DiskSpool createSpool() throws IOException {
+        return new DiskSpool.Builder()
+                .setDirectory(_folder.getRoot().toPath())
+                .setSegmentSize(4096)
+                .setMaxSize(1024L * 1024)
+                .build();
+    }
+
+    private static void awaitCount(final List<Event> events, final int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, events.size());
+    }
+
+    private static Event createEvent(final int index) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("index", String.valueOf(index)))
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance((long) index))))
+                .setCounterSamples(Collections.emptyMap())
+                .setGaugeSamples(ImmutableMap.of(
+                        "gauge",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(index + 0.5))))
+                .build();
+    }
+
+    @Rule
+    public final TemporaryFolder _folder = new TemporaryFolder();
+}
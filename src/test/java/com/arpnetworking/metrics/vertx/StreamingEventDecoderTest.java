@@ -0,0 +1,309 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Metrics;
+import com.arpnetworking.metrics.MetricsFactory;
+import com.arpnetworking.metrics.Quantity;
+import com.arpnetworking.metrics.Sink;
+import com.arpnetworking.metrics.impl.TsdMetricsFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.vertx.core.buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link StreamingEventDecoder}. The conformance tests assert that
+ * every input is either decoded to the same events or rejected by both this
+ * decoder and the reference {@link DatabindEventDecoder}.
+ *
+ * @author agent (agent at local)
+ */
+public final class StreamingEventDecoderTest {
+
+    @Test
+    public void testConformanceWithMetricsClient() throws IOException {
+        final Sink sink = Mockito.mock(Sink.class);
+        final MetricsFactory metricsFactory = new TsdMetricsFactory.Builder()
+                .setSinks(Collections.singletonList(sink))
+                .setServiceName("myService")
+                .setClusterName("myCluster")
+                .setHostName("myHost")
+                .build();
+        try (Metrics metrics = metricsFactory.create()) {
+            metrics.addAnnotation("key", "v\u00e4lue \"quoted\"\n");
+            metrics.setTimer("timer", 123, TimeUnit.MILLISECONDS);
+            metrics.setTimer("timer", 2, TimeUnit.SECONDS);
+            metrics.incrementCounter("counter", 3);
+            metrics.incrementCounter("counter", Long.MAX_VALUE);
+            metrics.resetCounter("counter");
+            metrics.setGauge("gauge", 1.25);
+            metrics.setGauge("gauge", -7L);
+        }
+        final ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(sink).record(captor.capture());
+        final String json = OBJECT_MAPPER.writeValueAsString(captor.getValue());
+
+        final List<Event> events = assertConformant(json);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(captor.getValue().getAnnotations(), events.get(0).getAnnotations());
+        assertConformant("[" + json + "," + json + "]");
+    }
+
+    @Test
+    public void testConformanceWithEventBusSink() throws IOException {
+        final Event event = new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("foo", "bar", "", ""))
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Arrays.asList(
+                                SinkVerticle.DefaultQuantity.newInstance(1),
+                                SinkVerticle.DefaultQuantity.newInstance(Long.MAX_VALUE),
+                                SinkVerticle.DefaultQuantity.newInstance(1.5e-300),
+                                SinkVerticle.DefaultQuantity.newInstance(-0.0))))
+                .setCounterSamples(ImmutableMap.of("counter", Collections.emptyList()))
+                .setGaugeSamples(ImmutableMap.of("gauge", Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(2.5))))
+                .build();
+        final String json = OBJECT_MAPPER.writeValueAsString(event);
+        Assert.assertEquals(Collections.singletonList(event), assertConformant(json));
+        Assert.assertEquals(
+                Arrays.asList(event, event),
+                assertConformant(OBJECT_MAPPER.writeValueAsString(Arrays.asList(event, event))));
+    }
+
+    @Test
+    public void testConformanceWithNumbers() throws IOException {
+        for (final String number : ImmutableList.of(
+                "0", "-1", "2147483647", "2147483648", "-9223372036854775808", "9223372036854775808",
+                "1.0", "-1.5", "1e3", "1E-3", "1.7976931348623157E308", "4.9E-324", "1e400")) {
+            assertConformant(event(
+                    "{}",
+                    "{\"t\":[{\"value\":" + number + "}]}",
+                    "{}",
+                    "{}"));
+        }
+    }
+
+    @Test
+    public void testConformanceWithValidVariants() throws IOException {
+        for (final String json : ImmutableList.of(
+                " \n" + event("{}", "{}", "{}", "{}") + " \n",
+                event("{\"a\":\"1\",\"a\":\"2\"}", "{}", "{}", "{}"),
+                event("{}", "{\"t\":[{}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":1},{\"value\":2}],\"t\":[{\"value\":3}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":1.5,\"count\":3},{\"count\":2,\"value\":4},{\"count\":1}]}", "{}", "{}"),
+                "{\"gaugeSamples\":{},\"counterSamples\":{},\"timerSamples\":{},\"annotations\":{}}",
+                "{\"annotations\":{},\"timerSamples\":{},\"counterSamples\":{},\"gaugeSamples\":{},"
+                        + "\"aggregatedData\":{\"t\":{\"value\":{\"histogram\":[[1,2]]},\"unit\":null}}}",
+                "[]",
+                "[ ]")) {
+            assertConformant(json);
+        }
+    }
+
+    @Test
+    public void testConformanceWithCoercions() throws IOException {
+        for (final String json : ImmutableList.of(
+                event("{\"a\":1}", "{}", "{}", "{}"),
+                event("{\"a\":true}", "{}", "{}", "{}"),
+                event("{\"a\":null}", "{}", "{}", "{}"),
+                event("{}", "{\"t\":null}", "{}", "{}"),
+                event("{}", "{\"t\":[null]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":null}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":\"1\"}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":1,\"count\":\"3\"}]}", "{}", "{}"))) {
+            assertConformant(json);
+        }
+    }
+
+    @Test
+    public void testConformanceWithInvalidInput() throws IOException {
+        for (final String json : ImmutableList.of(
+                "",
+                "null",
+                "1",
+                "\"event\"",
+                "{",
+                "[{}]",
+                "[" + event("{}", "{}", "{}", "{}") + ",1]",
+                "[" + event("{}", "{}", "{}", "{}") + ",null]",
+                event("{}", "{}", "{}", "{}").replace("}}", "}"),
+                "{\"annotations\":{},\"timerSamples\":{},\"counterSamples\":{}}",
+                "{\"annotations\":null,\"timerSamples\":{},\"counterSamples\":{},\"gaugeSamples\":{}}",
+                "{\"annotations\":{},\"timerSamples\":{},\"counterSamples\":{},\"gaugeSamples\":{},\"other\":1}",
+                event("{\"a\":{}}", "{}", "{}", "{}"),
+                event("{\"a\":[]}", "{}", "{}", "{}"),
+                event("{}", "{\"t\":{}}", "{}", "{}"),
+                event("{}", "{\"t\":[1]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":{}}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":1,\"unit\":\"second\"}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":\"x\"}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":1,\"count\":0}]}", "{}", "{}"),
+                event("{}", "{\"t\":[{\"value\":1,\"count\":-2}]}", "{}", "{}"))) {
+            assertConformant(json);
+        }
+    }
+
+    @Test
+    public void testDecodeWithoutFallback() throws IOException {
+        final EventDecoder decoder = new StreamingEventDecoder();
+        Assert.assertEquals(1, decoder.decode(event("{}", "{}", "{}", "{}")).size());
+        try {
+            decoder.decode(event("{\"a\":1}", "{}", "{}", "{}"));
+            Assert.fail("Expected exception not thrown");
+        } catch (final JsonProcessingException e) {
+            // Expected exception
+        }
+    }
+
+    @Test
+    public void testDecodeWithFallback() throws IOException {
+        final EventDecoder fallback = Mockito.mock(EventDecoder.class);
+        final EventDecoder decoder = new StreamingEventDecoder(fallback);
+        final String canonical = event("{}", "{}", "{}", "{}");
+        decoder.decode(canonical);
+        Mockito.verifyNoInteractions(fallback);
+
+        final String coerced = event("{\"a\":1}", "{}", "{}", "{}");
+        final List<Event> events = Collections.emptyList();
+        Mockito.doReturn(events).when(fallback).decode(coerced);
+        Assert.assertSame(events, decoder.decode(coerced));
+    }
+
+    @Test
+    public void testDecodeWithInterner() throws IOException {
+        final StringInterner interner = new StringInterner(64);
+        final EventDecoder decoder = new StreamingEventDecoder(null, interner);
+        final String json = event("{\"_host\":\"host1\",\"_service\":\"myService\"}", "{\"t\":[{\"value\":1}]}", "{}", "{}");
+        final Event event1 = decoder.decode(json).get(0);
+        final Event event2 = decoder.decode(Buffer.buffer(json), 0).get(0);
+        Assert.assertEquals(event1, event2);
+        Assert.assertSame(event1.getAnnotations().get("_host"), event2.getAnnotations().get("_host"));
+        Assert.assertSame(event1.getAnnotations().get("_service"), event2.getAnnotations().get("_service"));
+        Assert.assertSame(
+                event1.getTimerSamples().keySet().iterator().next(),
+                event2.getTimerSamples().keySet().iterator().next());
+        Assert.assertTrue(interner.getHitCount() > 0);
+    }
+
+    @Test
+    public void testDecodeCountedSamples() throws IOException {
+        final String json = event("{}", "{\"t\":[{\"value\":1.5,\"count\":3},{\"value\":4}]}", "{}", "{}");
+        final Event event = new StreamingEventDecoder().decode(json).get(0);
+        final List<Quantity> samples = event.getTimerSamples().get("t");
+        Assert.assertEquals(4, samples.size());
+        Assert.assertEquals(1.5, samples.get(2).getValue().doubleValue(), 0.0);
+        Assert.assertEquals(4.0, samples.get(3).getValue().doubleValue(), 0.0);
+        Assert.assertFalse(samples.get(0) instanceof CountedQuantity);
+        // Re-encoding keeps the counted samples compact
+        final JsonNode encoded = new ObjectMapper().valueToTree(event);
+        Assert.assertEquals(2, encoded.get("timerSamples").get("t").size());
+        Assert.assertEquals(3, encoded.get("timerSamples").get("t").get(0).get("count").asLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeMissingField() throws IOException {
+        new StreamingEventDecoder(Mockito.mock(EventDecoder.class)).decode(
+                "{\"annotations\":{},\"timerSamples\":{},\"counterSamples\":{}}");
+    }
+
+    private static List<Event> assertConformant(final String json) throws IOException {
+        final Object expected = decode(new DatabindEventDecoder(), json);
+        final Object actual = decode(new StreamingEventDecoder(new DatabindEventDecoder()), json);
+        if (expected instanceof Exception) {
+            Assert.assertTrue("Expected failure for: " + json + " but was: " + actual, actual instanceof Exception);
+            return Collections.emptyList();
+        }
+        Assert.assertEquals("Mismatch for: " + json, expected, actual);
+        @SuppressWarnings("unchecked")
+        final List<Event> events = (List<Event>) actual;
+        // Without the fallback the streaming decoder must either agree or reject the input
+        final Object streamed = decode(new StreamingEventDecoder(), json);
+        if (!(streamed instanceof JsonProcessingException)) {
+            Assert.assertEquals("Mismatch without fallback for: " + json, expected, streamed);
+        }
+        assertSampleTypes(events, decode(new StreamingEventDecoder(), json));
+        // Parsing the UTF-8 bytes must agree with parsing the string
+        final Buffer buffer = Buffer.buffer("#").appendString(json);
+        Assert.assertEquals(
+                "Mismatch from bytes for: " + json,
+                expected,
+                decode(new StreamingEventDecoder(new DatabindEventDecoder()), buffer));
+        return events;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertSampleTypes(final List<Event> expected, final Object actual) {
+        if (!(actual instanceof List)) {
+            return;
+        }
+        final List<Event> actualEvents = (List<Event>) actual;
+        for (int i = 0; i < expected.size(); ++i) {
+            for (final String name : expected.get(i).getTimerSamples().keySet()) {
+                for (int j = 0; j < expected.get(i).getTimerSamples().get(name).size(); ++j) {
+                    final Number expectedValue = expected.get(i).getTimerSamples().get(name).get(j).getValue();
+                    final Number actualValue = actualEvents.get(i).getTimerSamples().get(name).get(j).getValue();
+                    if (expectedValue != null) {
+                        Assert.assertEquals(expectedValue.getClass(), actualValue.getClass());
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object decode(final EventDecoder decoder, final String json) {
+        try {
+            return decoder.decode(json);
+            // CHECKSTYLE.OFF: IllegalCatch - Any failure is compared
+        } catch (final Exception e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            return e;
+        }
+    }
+
+    private static Object decode(final EventDecoder decoder, final Buffer buffer) {
+        try {
+            return decoder.decode(buffer, 1);
+            // CHECKSTYLE.OFF: IllegalCatch - Any failure is compared
+        } catch (final Exception e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            return e;
+        }
+    }
+
+    private static String event(final String annotations, final String timers, final String counters, final String gauges) {
+        return "{\"annotations\":" + annotations
+                + ",\"timerSamples\":" + timers
+                + ",\"counterSamples\":" + counters
+                + ",\"gaugeSamples\":" + gauges
+                + "}";
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+}
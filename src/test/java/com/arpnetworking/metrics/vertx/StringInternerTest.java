@@ -0,0 +1,140 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link StringInterner}.
+ *
+ * @author agent (agent at local)
+ */
+public final class StringInternerTest {
+
+    @Test
+    public void testInternReturnsCanonicalInstance() {
+        final StringInterner interner = new StringInterner(16);
+        final String first = copy("my/metric");
+        Assert.assertSame(first, interner.intern(first));
+        Assert.assertSame(first, interner.intern(copy("my/metric")));
+        Assert.assertEquals(1, interner.getMissCount());
+        Assert.assertEquals(1, interner.getHitCount());
+    }
+
+    @Test
+    public void testInternChars() {
+        final StringInterner interner = new StringInterner(16);
+        final char[] chars = "xxmy/metricxx".toCharArray();
+        final String first = interner.intern(chars, 2, 9);
+        Assert.assertEquals("my/metric", first);
+        Assert.assertSame(first, interner.intern(chars, 2, 9));
+        Assert.assertSame(first, interner.intern(copy("my/metric")));
+        Assert.assertEquals("", interner.intern(chars, 0, 0));
+    }
+
+    @Test
+    public void testInternBuffer() {
+        final StringInterner interner = new StringInterner(16);
+        final Buffer buffer = Buffer.buffer("xxmy/metricxx");
+        final String first = interner.intern(buffer, 2, 11);
+        Assert.assertEquals("my/metric", first);
+        Assert.assertSame(first, interner.intern(buffer, 2, 11));
+        Assert.assertSame(first, interner.intern("my/metric".toCharArray(), 0, 9));
+    }
+
+    @Test
+    public void testInternBufferNonAscii() {
+        final StringInterner interner = new StringInterner(16);
+        final Buffer buffer = Buffer.buffer("x\u00e4\u20ac\ud83d\ude00x");
+        final String first = interner.intern(buffer, 1, buffer.length() - 1);
+        Assert.assertEquals("\u00e4\u20ac\ud83d\ude00", first);
+        Assert.assertSame(first, interner.intern(buffer, 1, buffer.length() - 1));
+        Assert.assertSame(first, interner.intern(copy("\u00e4\u20ac\ud83d\ude00")));
+    }
+
+    @Test
+    public void testBoundedByCapacity() {
+        final StringInterner interner = new StringInterner(10);
+        Assert.assertEquals(16, interner.getCapacity());
+        for (int i = 0; i < 1000; ++i) {
+            interner.intern("metric-" + i);
+        }
+        int retained = 0;
+        final long misses = interner.getMissCount();
+        for (int i = 0; i < 1000; ++i) {
+            final String value = "metric-" + i;
+            if (interner.intern(value) != value) {
+                ++retained;
+            }
+        }
+        Assert.assertTrue(retained <= interner.getCapacity());
+        Assert.assertEquals(misses + 1000 - retained, interner.getMissCount());
+    }
+
+    @Test
+    public void testRecentlyUsedRetained() {
+        final StringInterner interner = new StringInterner(2);
+        final String frequent = interner.intern(copy("frequent"));
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertSame(frequent, interner.intern(copy("frequent")));
+            interner.intern("infrequent-" + i);
+        }
+    }
+
+    @Test
+    public void testGetShared() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final StringInterner interner = StringInterner.getShared(vertx, 64);
+            Assert.assertSame(interner, StringInterner.getShared(vertx, 64));
+            // Capacities rounding up to the same power of two match
+            Assert.assertSame(interner, StringInterner.getShared(vertx, 60));
+            Assert.assertEquals(64, interner.getCapacity());
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testGetSharedWithMismatchedCapacity() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        try {
+            StringInterner.getShared(vertx, 64);
+            try {
+                StringInterner.getShared(vertx, 128);
+                Assert.fail("Expected IllegalArgumentException");
+            } catch (final IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().contains("SharedCapacity=64"));
+            }
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new StringInterner(1);
+    }
+
+    private static String copy(final String value) {
+        return String.valueOf(value.toCharArray());
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx.test;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.arpnetworking.metrics.vertx.SinkVerticle;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Events of representative sizes for the performance tests.
+ *
+ * @author agent (agent at local)
+ */
+public final class BenchmarkEvents {
+
+    /**
+     * Create an event of the given size. Events of the same size are equal
+     * other than their id.
+     *
+     * @param size The {@link EventSize}.
+     * @return The {@link Event}.
+     */
+    public static Event createEvent(final EventSize size) {
+        final Map<String, String> annotations = new LinkedHashMap<>();
+        annotations.put("_id", "8b7e5d0e-0c2f-4a8a-9d59-0f4ac1a2c3d4");
+        annotations.put("_start", "2026-01-01T00:00:00Z");
+        annotations.put("_end", "2026-01-01T00:00:01Z");
+        annotations.put("_service", "myService");
+        annotations.put("_cluster", "myCluster");
+        annotations.put("_host", "myHost.example.com");
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(annotations)
+                .setTimerSamples(createSamples("timer", size, 1000.5))
+                .setCounterSamples(createSamples("counter", size, 1))
+                .setGaugeSamples(createSamples("gauge", size, 0.25))
+                .build();
+    }
+
+    private static Map<String, List<Quantity>> createSamples(final String prefix, final EventSize size, final Number value) {
+        final Map<String, List<Quantity>> samples = new LinkedHashMap<>();
+        for (int i = 0; i < size.getMetrics(); ++i) {
+            final List<Quantity> quantities = new ArrayList<>(size.getSamples());
+            for (int j = 0; j < size.getSamples(); ++j) {
+                quantities.add(SinkVerticle.DefaultQuantity.newInstance(value));
+            }
+            samples.put(prefix + "/metric_" + i, quantities);
+        }
+        return samples;
+    }
+
+    private BenchmarkEvents() {}
+
+    /**
+     * The sizes of events as the number of metrics of each type and the
+     * number of samples of each metric.
+     */
+    public enum EventSize {
+        /**
+         * One metric of each type with one sample.
+         */
+        SMALL(1, 1),
+        /**
+         * Ten metrics of each type with five samples each.
+         */
+        MEDIUM(10, 5),
+        /**
+         * One hundred metrics of each type with ten samples each.
+         */
+        LARGE(100, 10);
+
+        EventSize(final int metrics, final int samples) {
+            _metrics = metrics;
+            _samples = samples;
+        }
+
+        public int getMetrics() {
+            return _metrics;
+        }
+
+        public int getSamples() {
+            return _samples;
+        }
+
+        private final int _metrics;
+        private final int _samples;
+    }
+}
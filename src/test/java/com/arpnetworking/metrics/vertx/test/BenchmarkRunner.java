@@ -0,0 +1,77 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx.test;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the JMH benchmarks of a performance test class. The benchmarks are run
+ * in a forked JVM with the GC profiler so that the allocation rate per
+ * operation is reported alongside the score. Results are written as JSON to
+ * {@code target/jmh/<class>.json} to compare against a baseline.
+ *
+ * The number of iterations may be overridden with the "jmh.warmupIterations"
+ * and "jmh.measurementIterations" system properties.
+ *
+ * @author agent (agent at local)
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * Run the benchmarks declared by a class.
+     *
+     * @param benchmarkClass The class declaring the benchmarks.
+     * @return The results of the benchmarks.
+     * @throws RunnerException if running the benchmarks fails.
+     * @throws IOException if the results directory cannot be created.
+     */
+    public static Collection<RunResult> run(final Class<?> benchmarkClass) throws RunnerException, IOException {
+        final Path resultsDirectory = Paths.get("target", "jmh");
+        Files.createDirectories(resultsDirectory);
+        final Options options = new OptionsBuilder()
+                .include("^" + Pattern.quote(benchmarkClass.getName()) + "\\.")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(Integer.getInteger("jmh.warmupIterations", DEFAULT_WARMUP_ITERATIONS))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("jmh.measurementIterations", DEFAULT_MEASUREMENT_ITERATIONS))
+                .measurementTime(TimeValue.seconds(1))
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultsDirectory.resolve(benchmarkClass.getSimpleName() + ".json").toString())
+                .build();
+        return new Runner(options).run();
+    }
+
+    private BenchmarkRunner() {}
+
+    private static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    private static final int DEFAULT_MEASUREMENT_ITERATIONS = 10;
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2026 Inscope Metrics
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.metrics.vertx.test;
+
+import com.arpnetworking.metrics.Event;
+import com.arpnetworking.metrics.Quantity;
+import com.arpnetworking.metrics.vertx.CountedQuantity;
+import com.arpnetworking.metrics.vertx.EventDecoder;
+import com.arpnetworking.metrics.vertx.SinkVerticle;
+import com.arpnetworking.metrics.vertx.StreamingEventDecoder;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Events for the tests of sinks which encode events as JSON, and assertions
+ * on the events decoded from their output.
+ *
+ * @author agent (agent at local)
+ */
+public final class TestEvents {
+
+    /**
+     * Create an event identified by an index annotation holding timer,
+     * counter and gauge samples, including a {@link CountedQuantity}.
+     *
+     * @param index The index of the event.
+     * @return The {@link Event}.
+     */
+    public static Event createEvent(final int index) {
+        return new SinkVerticle.DefaultEvent.Builder()
+                .setAnnotations(ImmutableMap.of("index", Integer.toString(index), "_service", "myService"))
+                .setTimerSamples(ImmutableMap.of(
+                        "timer",
+                        Arrays.asList(SinkVerticle.DefaultQuantity.newInstance(100L), CountedQuantity.newInstance(2.5, 3))))
+                .setCounterSamples(ImmutableMap.of(
+                        "counter",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance((long) index))))
+                .setGaugeSamples(ImmutableMap.of(
+                        "gauge",
+                        Collections.singletonList(SinkVerticle.DefaultQuantity.newInstance(0.25))))
+                .build();
+    }
+
+    /**
+     * Decode events written as JSON lines or as JSON arrays.
+     *
+     * @param lines The lines holding either an event or an array of events.
+     * @return The decoded events in order.
+     * @throws IOException if a line cannot be decoded.
+     */
+    public static List<Event> decode(final List<String> lines) throws IOException {
+        final List<Event> events = new ArrayList<>();
+        for (final String line : lines) {
+            if (!line.isEmpty()) {
+                events.addAll(DECODER.decode(line));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Accessor for the index annotations of events.
+     *
+     * @param events The events.
+     * @return The index of each event in order.
+     */
+    public static List<String> getIndexes(final List<Event> events) {
+        final List<String> indexes = new ArrayList<>(events.size());
+        for (final Event event : events) {
+            indexes.add(event.getAnnotations().get("index"));
+        }
+        return indexes;
+    }
+
+    /**
+     * Assert that an event decoded from the output of a sink holds the same
+     * annotations and samples as the event recorded. The value of a
+     * {@link CountedQuantity} is expected once per sample it stands for.
+     *
+     * @param expected The recorded {@link Event}.
+     * @param actual The decoded {@link Event}.
+     */
+    public static void assertRoundTrip(final Event expected, final Event actual) {
+        Assert.assertEquals(expected.getAnnotations(), actual.getAnnotations());
+        assertSamples(expected.getTimerSamples(), actual.getTimerSamples());
+        assertSamples(expected.getCounterSamples(), actual.getCounterSamples());
+        assertSamples(expected.getGaugeSamples(), actual.getGaugeSamples());
+    }
+
+    private static void assertSamples(final Map<String, List<Quantity>> expected, final Map<String, List<Quantity>> actual) {
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+        for (final Map.Entry<String, List<Quantity>> entry : expected.entrySet()) {
+            final List<Double> expectedValues = new ArrayList<>();
+            for (final Quantity quantity : entry.getValue()) {
+                for (long i = CountedQuantity.countOf(quantity); i > 0; --i) {
+                    expectedValues.add(quantity.getValue().doubleValue());
+                }
+            }
+            final List<Double> actualValues = new ArrayList<>();
+            for (final Quantity quantity : actual.get(entry.getKey())) {
+                actualValues.add(quantity.getValue().doubleValue());
+            }
+            Assert.assertEquals("Mismatch for: " + entry.getKey(), expectedValues, actualValues);
+        }
+    }
+
+    private TestEvents() {}
+
+    private static final EventDecoder DECODER = new StreamingEventDecoder();
+}